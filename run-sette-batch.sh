@@ -0,0 +1,17 @@
+#!/bin/bash
+# This script executes a SETTE batch in one JVM.
+# Usage: ./run-sette-batch.sh [BATCH_FILE]
+# The default batch file is sette.batch.json (see sette.batch.default.json for an example).
+
+CWD="$(
+  cd "$(dirname "$(readlink "$0" || printf %s "$0")")"
+  pwd -P 
+)"
+
+cd "$CWD"
+
+if [ -z "$ANT_OPTS" ]; then
+    export ANT_OPTS=-Xmx4g
+fi
+echo "ANT_OPTS: $ANT_OPTS"
+java -cp "$CWD/sette-all.jar" hu.bme.mit.sette.application.SetteApplicationMainBatch "$@"
@@ -0,0 +1,76 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import hu.bme.mit.sette.common.snippets.JavaVersion;
+import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.tasks.RunnerProjectGenerator;
+import hu.bme.mit.sette.core.tasks.RunnerProjectRunner;
+import hu.bme.mit.sette.core.tasks.RunResultParser;
+import hu.bme.mit.sette.core.tool.Tool;
+import hu.bme.mit.sette.core.tool.ToolOutputType;
+import hu.bme.mit.sette.core.validator.ValidationException;
+
+/**
+ * Tool for the benchmarks which only provides the name of the tool for the evaluation tasks, it
+ * cannot generate, run or parse runner projects.
+ */
+public final class BenchmarkTool extends Tool {
+    /** The name of the tool. */
+    public static final String NAME = "BenchmarkTool";
+
+    public BenchmarkTool(Path toolDir) throws IOException, ValidationException {
+        super(NAME, toolDir);
+    }
+
+    @Override
+    public ToolOutputType getOutputType() {
+        return ToolOutputType.INPUT_VALUES;
+    }
+
+    @Override
+    public JavaVersion getSupportedJavaVersion() {
+        return JavaVersion.JAVA_8;
+    }
+
+    @Override
+    public RunnerProjectGenerator<?> createRunnerProjectGenerator(SnippetProject snippetProject,
+            Path outputDir, String runnerProjectTag) {
+        throw new UnsupportedOperationException("The benchmark tool cannot generate projects");
+    }
+
+    @Override
+    public RunnerProjectRunner<?> createRunnerProjectRunner(SnippetProject snippetProject,
+            Path outputDir, String runnerProjectTag) {
+        throw new UnsupportedOperationException("The benchmark tool cannot run projects");
+    }
+
+    @Override
+    public RunResultParser<?> createRunResultParser(SnippetProject snippetProject,
+            Path outputDir, String runnerProjectTag) {
+        throw new UnsupportedOperationException("The benchmark tool cannot parse results");
+    }
+}
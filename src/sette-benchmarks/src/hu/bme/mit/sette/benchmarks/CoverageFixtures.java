@@ -0,0 +1,129 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.benchmarks;
+
+import java.util.Collection;
+
+import hu.bme.mit.sette.core.model.parserxml.FileCoverageElement;
+import hu.bme.mit.sette.core.model.parserxml.SnippetCoverageXml;
+import hu.bme.mit.sette.core.model.parserxml.SnippetElement;
+import hu.bme.mit.sette.core.model.parserxml.SnippetProjectElement;
+import hu.bme.mit.sette.core.model.runner.ResultType;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.CoverageInfo;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.FileLineCoverage;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.LineStatus;
+
+/**
+ * Creates synthetic coverage data for the benchmarks.
+ */
+public final class CoverageFixtures {
+    /** The container name used in the XML files which are not bound to a snippet project. */
+    public static final String CONTAINER_NAME =
+            "hu.bme.mit.sette.snippets.synthetic.SB00000_Branches";
+
+    /** The snippet name used in the XML files which are not bound to a snippet project. */
+    public static final String SNIPPET_NAME = "snippet000";
+
+    /** The repeated pattern of the line statuses. */
+    private static final LineStatus[] LINE_PATTERN = { LineStatus.FULLY_COVERED,
+            LineStatus.FULLY_COVERED, LineStatus.PARTLY_COVERED, LineStatus.NOT_COVERED,
+            LineStatus.EMPTY };
+
+    /** Static class. */
+    private CoverageFixtures() {
+        throw new UnsupportedOperationException("Static class");
+    }
+
+    /**
+     * Returns a relative source file path for the coverage data which is not bound to a snippet
+     * project.
+     *
+     * @param index
+     *            the index of the file
+     * @return the relative path of the file
+     */
+    public static String getSourceFile(int index) {
+        return String.format("hu/bme/mit/sette/snippets/synthetic/SB%05d_Branches.java", index);
+    }
+
+    /**
+     * Creates coverage information where each file has the same number of lines with a repeated
+     * pattern of fully, partly, not covered and empty lines.
+     *
+     * @param files
+     *            the relative paths of the files
+     * @param lineCount
+     *            the number of lines in each file
+     * @return the coverage information
+     */
+    public static CoverageInfo createCoverageInfo(Collection<String> files, int lineCount) {
+        CoverageInfo coverageInfo = new CoverageInfo();
+
+        for (String file : files) {
+            FileLineCoverage fileCoverage = coverageInfo.getOrCreate(file);
+            for (int line = 1; line <= lineCount; line++) {
+                fileCoverage.add(line, LINE_PATTERN[line % LINE_PATTERN.length]);
+            }
+        }
+
+        return coverageInfo;
+    }
+
+    /**
+     * Creates a coverage XML from the coverage information in the same way as the test suite
+     * runner.
+     *
+     * @param coverageInfo
+     *            the coverage information
+     * @param containerName
+     *            the name of the snippet container
+     * @param snippetName
+     *            the name of the snippet
+     * @return the coverage XML
+     */
+    public static SnippetCoverageXml createCoverageXml(CoverageInfo coverageInfo,
+            String containerName, String snippetName) {
+        SnippetCoverageXml coverageXml = new SnippetCoverageXml();
+        coverageXml.setToolName(BenchmarkTool.NAME);
+        coverageXml.setSnippetProjectElement(new SnippetProjectElement("synthetic-snippets"));
+        coverageXml.setSnippetElement(new SnippetElement(containerName, snippetName));
+        coverageXml.setResultType(ResultType.NC);
+        coverageXml.setAchievedCoverage(60.0);
+
+        for (String file : coverageInfo.getFiles()) {
+            FileLineCoverage fileCoverage = coverageInfo.get(file);
+
+            FileCoverageElement fce = new FileCoverageElement();
+            fce.setName(file);
+            fce.setFullyCoveredLines(
+                    FileLineCoverage.toLineString(fileCoverage.getFullyCovered()));
+            fce.setPartiallyCoveredLines(
+                    FileLineCoverage.toLineString(fileCoverage.getPartlyCovered()));
+            fce.setNotCoveredLines(FileLineCoverage.toLineString(fileCoverage.getNotCovered()));
+
+            coverageXml.getCoverage().add(fce);
+        }
+
+        return coverageXml;
+    }
+}
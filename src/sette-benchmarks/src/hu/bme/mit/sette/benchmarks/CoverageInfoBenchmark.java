@@ -0,0 +1,104 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.sette.core.tasks.testsuiterunner.CoverageInfo;
+
+/**
+ * Benchmarks for the JSON and binary round-trips of {@link CoverageInfo} (used to transfer the
+ * coverage from the forked test runner JVMs).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CoverageInfoBenchmark {
+    /** The number of files in the coverage information. */
+    @Param({ "1", "10" })
+    public int fileCount;
+
+    /** The number of lines in each file. */
+    @Param({ "100", "1000" })
+    public int lineCount;
+
+    private CoverageInfo coverageInfo;
+    private String jsonString;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            files.add(CoverageFixtures.getSourceFile(i));
+        }
+
+        coverageInfo = CoverageFixtures.createCoverageInfo(files, lineCount);
+        jsonString = toJsonString();
+        bytes = writeTo();
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return coverageInfo.toJsonString();
+    }
+
+    @Benchmark
+    public CoverageInfo fromJsonString() throws Exception {
+        return CoverageInfo.fromJsonString(jsonString);
+    }
+
+    @Benchmark
+    public byte[] writeTo() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        coverageInfo.writeTo(new DataOutputStream(out));
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public CoverageInfo readFrom() throws Exception {
+        return CoverageInfo.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
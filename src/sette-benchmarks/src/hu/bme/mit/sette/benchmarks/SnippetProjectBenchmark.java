@@ -0,0 +1,68 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.model.snippet.SnippetProjectCache;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+
+/**
+ * Benchmarks for parsing snippet projects. The three cases are: nothing is cached (the classes
+ * have to be scanned), only the descriptor file is present (see {@link SnippetProjectCache}) and
+ * the project is in the in-memory cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SnippetProjectBenchmark {
+    @Benchmark
+    public SnippetProject parseWithoutCache(SyntheticProjectState state) throws Exception {
+        SnippetProjectCache.clear();
+        PathUtils.deleteIfExists(
+                SnippetProjectCache.getDescriptorFile(state.baseDir.toRealPath()));
+        return SnippetProject.parse(state.baseDir);
+    }
+
+    @Benchmark
+    public SnippetProject parseWithDescriptor(SyntheticProjectState state) throws Exception {
+        SnippetProjectCache.clear();
+        return SnippetProject.parse(state.baseDir);
+    }
+
+    @Benchmark
+    public SnippetProject parseCached(SyntheticProjectState state) throws Exception {
+        return SnippetProject.parse(state.baseDir);
+    }
+}
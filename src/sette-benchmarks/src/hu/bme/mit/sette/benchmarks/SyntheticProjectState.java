@@ -0,0 +1,95 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.model.snippet.SnippetProjectCache;
+import hu.bme.mit.sette.core.synthetic.SyntheticSnippetProjectGenerator;
+import hu.bme.mit.sette.core.tool.Tool;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+
+/**
+ * Benchmark state holding a parsed synthetic snippet project (see
+ * {@link SyntheticSnippetProjectGenerator}). The size of the project can be set with the
+ * <code>snippets</code> and <code>snippetsPerContainer</code> JMH parameters. The project is
+ * created in a temporary directory which is deleted after the trial.
+ */
+@State(Scope.Benchmark)
+public class SyntheticProjectState {
+    /** The number of snippets. */
+    @Param({ "100", "1000" })
+    public int snippets;
+
+    /** The number of snippets in a container. */
+    @Param({ "10" })
+    public int snippetsPerContainer;
+
+    /** The temporary working directory. */
+    public Path workDir;
+
+    /** The base directory of the snippet project. */
+    public Path baseDir;
+
+    /** The output directory for the runner projects. */
+    public Path outputDir;
+
+    /** The parsed snippet project. */
+    public SnippetProject snippetProject;
+
+    /** The tool used for the evaluation tasks. */
+    public Tool tool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        workDir = Files.createTempDirectory("sette-benchmark-");
+        baseDir = workDir.resolve("synthetic-snippets");
+        outputDir = workDir.resolve("output");
+
+        SyntheticSnippetProjectGenerator generator = new SyntheticSnippetProjectGenerator(
+                snippets);
+        generator.setSnippetsPerContainer(snippetsPerContainer);
+        generator.generate(baseDir);
+        SyntheticSnippetProjectGenerator.compile(baseDir);
+        snippetProject = SnippetProject.parse(baseDir);
+
+        Path toolDir = workDir.resolve("tool");
+        PathUtils.createDir(toolDir);
+        tool = new BenchmarkTool(toolDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        SnippetProjectCache.clear();
+        PathUtils.deleteIfExists(workDir);
+    }
+}
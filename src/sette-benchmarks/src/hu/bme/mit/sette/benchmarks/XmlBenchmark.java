@@ -0,0 +1,134 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.benchmarks;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simpleframework.xml.Serializer;
+import org.simpleframework.xml.convert.AnnotationStrategy;
+import org.simpleframework.xml.core.Persister;
+
+import hu.bme.mit.sette.core.model.parserxml.InputElement;
+import hu.bme.mit.sette.core.model.parserxml.ParameterElement;
+import hu.bme.mit.sette.core.model.parserxml.SnippetCoverageXml;
+import hu.bme.mit.sette.core.model.parserxml.SnippetElement;
+import hu.bme.mit.sette.core.model.parserxml.SnippetInputsXml;
+import hu.bme.mit.sette.core.model.parserxml.SnippetProjectElement;
+import hu.bme.mit.sette.core.model.runner.ParameterType;
+import hu.bme.mit.sette.core.model.runner.ResultType;
+
+/**
+ * Benchmarks for the XML serialization and deserialization of the inputs and coverage files of the
+ * runner projects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlBenchmark {
+    /** The number of generated inputs in the inputs XML. */
+    @Param({ "10", "1000" })
+    public int inputCount;
+
+    /** The number of lines in the file of the coverage XML. */
+    @Param({ "100", "10000" })
+    public int lineCount;
+
+    private Serializer serializer;
+    private SnippetInputsXml inputsXml;
+    private String inputsXmlString;
+    private SnippetCoverageXml coverageXml;
+    private String coverageXmlString;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        serializer = new Persister(new AnnotationStrategy());
+
+        inputsXml = new SnippetInputsXml();
+        inputsXml.setToolName(BenchmarkTool.NAME);
+        inputsXml.setSnippetProjectElement(new SnippetProjectElement("synthetic-snippets"));
+        inputsXml.setSnippetElement(new SnippetElement(CoverageFixtures.CONTAINER_NAME,
+                CoverageFixtures.SNIPPET_NAME));
+        inputsXml.setResultType(ResultType.NC);
+
+        List<InputElement> inputs = new ArrayList<>();
+        for (int i = 0; i < inputCount; i++) {
+            InputElement input = new InputElement();
+            input.getParameters().add(new ParameterElement(ParameterType.INT, String.valueOf(i)));
+            input.getParameters().add(new ParameterElement(ParameterType.INT, String.valueOf(-i)));
+            inputs.add(input);
+        }
+        inputsXml.setGeneratedInputs(inputs);
+        inputsXml.validate();
+        inputsXmlString = writeInputs();
+
+        coverageXml = CoverageFixtures.createCoverageXml(
+                CoverageFixtures.createCoverageInfo(
+                        Collections.singleton(CoverageFixtures.getSourceFile(0)), lineCount),
+                CoverageFixtures.CONTAINER_NAME, CoverageFixtures.SNIPPET_NAME);
+        coverageXml.validate();
+        coverageXmlString = writeCoverage();
+    }
+
+    @Benchmark
+    public String writeInputs() throws Exception {
+        StringWriter writer = new StringWriter();
+        serializer.write(inputsXml, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public SnippetInputsXml readInputs() throws Exception {
+        return serializer.read(SnippetInputsXml.class, inputsXmlString);
+    }
+
+    @Benchmark
+    public String writeCoverage() throws Exception {
+        StringWriter writer = new StringWriter();
+        serializer.write(coverageXml, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public SnippetCoverageXml readCoverage() throws Exception {
+        return serializer.read(SnippetCoverageXml.class, coverageXmlString);
+    }
+}
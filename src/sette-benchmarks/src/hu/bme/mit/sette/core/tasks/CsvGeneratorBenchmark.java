@@ -0,0 +1,88 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.bme.mit.sette.benchmarks.SyntheticProjectState;
+import hu.bme.mit.sette.core.model.runner.ResultType;
+import hu.bme.mit.sette.core.model.snippet.Snippet;
+import hu.bme.mit.sette.core.store.SnippetResultRecord;
+
+/**
+ * Benchmarks for creating the CSV rows of every snippet in the synthetic project.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CsvGeneratorBenchmark {
+    /**
+     * The CSV generator and the snippets of the synthetic project.
+     */
+    @State(Scope.Benchmark)
+    public static class CsvState {
+        private CsvGenerator generator;
+        private List<Snippet> snippets;
+        private SnippetResultRecord record;
+
+        @Setup(Level.Trial)
+        public void setUp(SyntheticProjectState project) {
+            generator = new CsvGenerator(project.snippetProject, project.outputDir, project.tool,
+                    "benchmark");
+            snippets = project.snippetProject.snippets().collect(toList());
+            record = new SnippetResultRecord(ResultType.NC, "62.50%", 12, 1500L);
+        }
+    }
+
+    @Benchmark
+    public void createRow(CsvState state, Blackhole blackhole) {
+        for (Snippet snippet : state.snippets) {
+            blackhole.consume(state.generator.createRow(snippet, state.record));
+        }
+    }
+
+    @Benchmark
+    public void createColumnarRow(CsvState state, Blackhole blackhole) {
+        for (Snippet snippet : state.snippets) {
+            blackhole.consume(state.generator.createColumnarRow(snippet, state.record));
+        }
+    }
+}
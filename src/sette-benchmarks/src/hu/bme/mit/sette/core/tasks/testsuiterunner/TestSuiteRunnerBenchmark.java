@@ -0,0 +1,113 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hu.bme.mit.sette.benchmarks.CoverageFixtures;
+import hu.bme.mit.sette.benchmarks.SyntheticProjectState;
+import hu.bme.mit.sette.core.model.parserxml.SnippetCoverageXml;
+import hu.bme.mit.sette.core.model.snippet.Snippet;
+import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
+import hu.bme.mit.sette.core.tasks.CsvGenerator;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+
+/**
+ * Benchmarks for the result type decision and the HTML generation of the test suite runner. One
+ * operation handles every snippet of the first container of the synthetic project, thus the
+ * results depend on the <code>snippetsPerContainer</code> parameter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TestSuiteRunnerBenchmark {
+    /**
+     * The snippets of the first container with synthetic coverage for their source file.
+     */
+    @State(Scope.Benchmark)
+    public static class CoverageState {
+        private List<Snippet> snippets;
+        private List<CoverageInfo> coverageInfos;
+        private List<SnippetCoverageXml> coverageXmls;
+        private HtmlGenerator htmlGenerator;
+
+        @Setup(Level.Trial)
+        public void setUp(SyntheticProjectState project) throws Exception {
+            SnippetContainer container = project.snippetProject.getSnippetContainers().get(0);
+            String sourcePath = container.getJavaClass().getName().replace('.', '/') + ".java";
+            int lineCount = PathUtils
+                    .readAllLines(project.snippetProject.getSourceDir().resolve(sourcePath))
+                    .size();
+
+            snippets = new ArrayList<>(container.getSnippets().values());
+            coverageInfos = new ArrayList<>();
+            coverageXmls = new ArrayList<>();
+
+            for (Snippet snippet : snippets) {
+                CoverageInfo coverageInfo = CoverageFixtures
+                        .createCoverageInfo(Collections.singleton(sourcePath), lineCount);
+                coverageInfos.add(coverageInfo);
+                coverageXmls.add(CoverageFixtures.createCoverageXml(coverageInfo,
+                        snippet.getContainer().getJavaClass().getName(),
+                        snippet.getMethod().getName()));
+            }
+
+            // the HTML generator only needs the settings of an evaluation task
+            htmlGenerator = new HtmlGenerator(new CsvGenerator(project.snippetProject,
+                    project.outputDir, project.tool, "benchmark"));
+        }
+    }
+
+    @Benchmark
+    public void decideResultType(CoverageState state, Blackhole blackhole) throws Exception {
+        for (int i = 0; i < state.snippets.size(); i++) {
+            blackhole.consume(TestSuiteRunnerHelper.decideResultType(state.snippets.get(i),
+                    state.coverageInfos.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void generateHtml(CoverageState state) throws Exception {
+        for (int i = 0; i < state.snippets.size(); i++) {
+            state.htmlGenerator.generate(state.snippets.get(i), state.coverageXmls.get(i));
+        }
+    }
+}
@@ -24,12 +24,14 @@
 package hu.bme.mit.sette.core.model.runner;
 
   import java.io.File;
+import java.io.IOException;
 
 import org.apache.commons.lang3.Validate;
 
 import com.google.common.base.Preconditions;
 
 import hu.bme.mit.sette.core.model.snippet.Snippet;
+import hu.bme.mit.sette.core.util.io.PathUtils;
 import lombok.NonNull;
 
 /**
@@ -50,6 +52,8 @@ public final class RunnerProjectUtils {
     public static final String RESULT_EXTENSION = "result.xml";
     /** The extension for coverage XML files. */
     public static final String COVERAGE_EXTENSION = "coverage.xml";
+    /** The extension for fingerprint files (prefixed by the name of the phase). */
+    public static final String FINGERPRINT_EXTENSION = "fingerprint";
 
     /** Static class. */
     private RunnerProjectUtils() {
@@ -224,4 +228,42 @@ public final class RunnerProjectUtils {
         // TODO extract HTML as constant and rethink location!
         return getSnippetFile(settings, snippet, "html");
     }
+
+    /**
+     * Gets the fingerprint file of a phase for the snippet.
+     *
+     * @param settings
+     *            the settings of the runner project.
+     * @param snippet
+     *            the snippet (e.g. hu.bme.mit.sette.MyContainer.MySnippet)
+     * @param phase
+     *            the name of the phase (e.g. parser)
+     * @return the output file for the snippet (e.g. RUNNER_OUTPUT_DIR/hu/bme/mit
+     *         /sette/MyContainer_MySnippet.parser.fingerprint).
+     */
+    public static File getSnippetFingerprintFile(RunnerProjectSettings<?> settings,
+            Snippet snippet, String phase) {
+        Validate.notNull(settings, "The settings must not be null");
+        Validate.notNull(snippet, "The snippet must not be null");
+        Validate.notBlank(phase, "The phase must not be blank");
+
+        return getSnippetFile(settings, snippet, phase + '.' + FINGERPRINT_EXTENSION);
+    }
+
+    /**
+     * Reads the measured values of the tool run from an info file.
+     *
+     * @param infoFile
+     *            the info file
+     * @return the measured values or <code>null</code> if the file does not exist
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static SnippetRunInfo readSnippetRunInfo(@NonNull File infoFile) throws IOException {
+        if (!infoFile.exists()) {
+            return null;
+        }
+
+        return SnippetRunInfo.parse(PathUtils.readAllLines(infoFile.toPath()));
+    }
 }
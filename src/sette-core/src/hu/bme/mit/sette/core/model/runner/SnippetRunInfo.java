@@ -0,0 +1,95 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.model.runner;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * The measured values of a tool run on a snippet which are stored in the info file (e.g.
+ * <code>Elapsed time: 2002 ms</code>). The values missing from the file (e.g. the resource usage in
+ * the info files of earlier runs) are <code>null</code>.
+ */
+@Data
+public final class SnippetRunInfo {
+    /** The elapsed time in milliseconds. */
+    private final Long elapsedTimeInMs;
+
+    /** The user CPU time of the tool process tree in milliseconds. */
+    private final Long userTimeInMs;
+
+    /** The system CPU time of the tool process tree in milliseconds. */
+    private final Long systemTimeInMs;
+
+    /** The peak RSS of the tool process tree in KB. */
+    private final Long peakRssInKb;
+
+    /** The signal which has terminated the tool process (0 if it has exited normally). */
+    private final Integer signal;
+
+    /**
+     * Parses the lines of an info file.
+     *
+     * @param lines
+     *            the lines of the info file
+     * @return the parsed values
+     * @throws NumberFormatException
+     *             if a value is invalid
+     */
+    public static SnippetRunInfo parse(@NonNull List<String> lines) {
+        Long elapsedTimeInMs = null;
+        Long userTimeInMs = null;
+        Long systemTimeInMs = null;
+        Long peakRssInKb = null;
+        Integer signal = null;
+
+        for (String line : lines) {
+            line = line.trim();
+            if (line.startsWith("Elapsed time:")) {
+                elapsedTimeInMs = parseValue(line, "Elapsed time:", "ms");
+            } else if (line.startsWith("User time:")) {
+                userTimeInMs = parseValue(line, "User time:", "ms");
+            } else if (line.startsWith("System time:")) {
+                systemTimeInMs = parseValue(line, "System time:", "ms");
+            } else if (line.startsWith("Peak RSS:")) {
+                peakRssInKb = parseValue(line, "Peak RSS:", "KB");
+            } else if (line.startsWith("Signal:")) {
+                signal = parseValue(line, "Signal:", "").intValue();
+            }
+        }
+
+        return new SnippetRunInfo(elapsedTimeInMs, userTimeInMs, systemTimeInMs, peakRssInKb,
+                signal);
+    }
+
+    private static Long parseValue(String line, String key, String unit) {
+        // e.g. Peak RSS: 123456 KB
+        String value = line.substring(key.length());
+        if (!unit.isEmpty() && value.endsWith(unit)) {
+            value = value.substring(0, value.length() - unit.length());
+        }
+        return Long.parseLong(value.trim());
+    }
+}
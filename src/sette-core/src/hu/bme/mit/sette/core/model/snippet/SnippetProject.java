@@ -83,7 +83,8 @@ public final class SnippetProject implements Comparable<SnippetProject> {
     private final ImmutableList<SnippetDependency> snippetDependencies;
 
     /**
-     * Parses a {@link SnippetProject} from the specified directory.
+     * Parses a {@link SnippetProject} from the specified directory. The parsed project is reused
+     * while its files are not changed (see {@link SnippetProjectCache}).
      * 
      * @param baseDir
      *            the base directory of the snippet project
@@ -95,7 +96,7 @@ public final class SnippetProject implements Comparable<SnippetProject> {
      */
     public static SnippetProject parse(@NonNull Path baseDir)
             throws ValidationException, IOException {
-        return new SnippetProject(baseDir);
+        return SnippetProjectCache.getOrParse(baseDir);
     }
 
     /**
@@ -103,12 +104,16 @@ public final class SnippetProject implements Comparable<SnippetProject> {
      * 
      * @param baseDir
      *            the base directory of the snippet project
+     * @param descriptor
+     *            the descriptor of the project from a previous parse or <code>null</code> if all
+     *            the classes have to be scanned
      * @throws ValidationException
      *             if validation of the project fails
      * @throws IOException
      *             if an I/O exception occurs
      */
-    private SnippetProject(@NonNull Path baseDir) throws ValidationException, IOException {
+    SnippetProject(@NonNull Path baseDir, SnippetProjectCache.Descriptor descriptor)
+            throws ValidationException, IOException {
         // parse and validate directory layout
         PathValidator.forDirectory(baseDir, true, null, true).validate();
         this.baseDir = baseDir.toRealPath();
@@ -130,8 +135,15 @@ public final class SnippetProject implements Comparable<SnippetProject> {
 
         // load classes
         this.classLoader = createClassLoader();
-        this.snippetContainers = loadSnippetContainers();
-        this.snippetDependencies = loadSnippetDepenencies();
+        if (descriptor == null) {
+            List<String> classNames = getSnippetClassNames();
+            this.snippetContainers = loadSnippetContainers(classNames);
+            this.snippetDependencies = loadSnippetDepenencies(classNames);
+        } else {
+            this.snippetContainers = loadSnippetContainers(descriptor.getContainerClassNames());
+            this.snippetDependencies = loadSnippetDepenencies(
+                    descriptor.getDependencyClassNames());
+        }
 
         // check that snippet id is unique
         List<String> snippetIds = snippetContainers.stream()
@@ -263,13 +275,14 @@ public final class SnippetProject implements Comparable<SnippetProject> {
         }
     }
 
-    private ImmutableList<SnippetContainer> loadSnippetContainers()
-            throws ValidationException {
+    /**
+     * Collects the names of the classes in the snippet source directory.
+     *
+     * @return the names of the classes
+     */
+    private List<String> getSnippetClassNames() {
         Path sourceDir = getSourceDir();
-
-        // collect snippet container classes
-        Set<Class<?>> snippetContainerClasses = new TreeSet<>(ClassComparator.INSTANCE);
-        Validator<SnippetProject> v = Validator.of(this);
+        List<String> classNames = new ArrayList<>();
 
         for (Path sourceFile : snippetFiles) {
             if (!sourceFile.toString().startsWith(sourceDir.toString())) {
@@ -279,8 +292,19 @@ public final class SnippetProject implements Comparable<SnippetProject> {
             }
 
             String relPath = sourceDir.relativize(sourceFile).toString();
-            String className = relPath.replaceAll("(\\\\|/)", ".").replaceAll("\\.java$", "");
+            classNames.add(relPath.replaceAll("(\\\\|/)", ".").replaceAll("\\.java$", ""));
+        }
 
+        return classNames;
+    }
+
+    private ImmutableList<SnippetContainer> loadSnippetContainers(List<String> classNames)
+            throws ValidationException {
+        // collect snippet container classes
+        Set<Class<?>> snippetContainerClasses = new TreeSet<>(ClassComparator.INSTANCE);
+        Validator<SnippetProject> v = Validator.of(this);
+
+        for (String className : classNames) {
             try {
                 Class<?> javaClass = classLoader.loadClass(className);
                 if (javaClass.getAnnotation(SetteSnippetContainer.class) != null) {
@@ -309,24 +333,13 @@ public final class SnippetProject implements Comparable<SnippetProject> {
         return ImmutableList.copyOf(sc);
     }
 
-    private ImmutableList<SnippetDependency> loadSnippetDepenencies()
+    private ImmutableList<SnippetDependency> loadSnippetDepenencies(List<String> classNames)
             throws ValidationException {
-        Path sourceDir = getSourceDir();
-
         // collect snippet container classes
         Set<Class<?>> snippetDepClasses = new TreeSet<>(ClassComparator.INSTANCE);
         Validator<SnippetProject> v = Validator.of(this);
 
-        for (Path sourceFile : snippetFiles) {
-            if (!sourceFile.toString().startsWith(sourceDir.toString())) {
-                throw new RuntimeException(
-                        String.format("The file %s should be in directory %s at this point",
-                                sourceFile, sourceDir));
-            }
-
-            String relPath = sourceDir.relativize(sourceFile).toString();
-            String className = relPath.replaceAll("(\\\\|/)", ".").replaceAll("\\.java$", "");
-
+        for (String className : classNames) {
             try {
                 Class<?> javaClass = Class.forName(className, true, classLoader);
                 // Class<?> javaClass = classLoader.loadClass(className);
@@ -0,0 +1,340 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.model.snippet;
+
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import hu.bme.mit.sette.core.validator.ValidationException;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Cache of the parsed snippet projects. A parsed project is kept in memory (thus the tasks of a
+ * run parse the project only once) and a descriptor is saved into the cache directory of SETTE
+ * (the snippet project directory is not modified). The descriptor lists the snippet container and
+ * dependency classes, so a new JVM (e.g. a fork agent of the test-runner) only loads these classes
+ * instead of loading and checking every class of the project. Both are keyed by a fingerprint of
+ * the paths, sizes and modification times of the files of the project, thus a rebuilt project is
+ * always parsed again.
+ * <p>
+ * A parsed project holds a class loader, and with it the static state of the snippets, thus the
+ * projects in memory are also keyed by the scope of the current thread (see
+ * {@link #setScope(String)}, e.g. a run of a batch), i.e. different scopes do not share the loaded
+ * classes. Only the most recently used {@value #MAX_CACHED_PROJECTS} projects are kept in memory.
+ * The cache is thread-safe.
+ */
+public final class SnippetProjectCache {
+    private static final Logger LOG = LoggerFactory.getLogger(SnippetProjectCache.class);
+
+    /** The system property of the cache directory of SETTE. */
+    public static final String CACHE_DIR_PROPERTY = "sette.cache.dir";
+
+    /** The name of the directory of the descriptors in the cache directory of SETTE. */
+    public static final String DESCRIPTOR_DIR_NAME = "snippet-projects";
+
+    /** The maximum number of parsed projects kept in memory. */
+    public static final int MAX_CACHED_PROJECTS = 8;
+
+    private static final String DESCRIPTOR_FILE_EXTENSION = ".descriptor";
+
+    /** The version of the descriptor format. */
+    private static final String DESCRIPTOR_VERSION = "sette-snippet-project 1";
+
+    private static final String CONTAINER_PREFIX = "container ";
+    private static final String DEPENDENCY_PREFIX = "dependency ";
+
+    /** The parsed projects mapped by their real base directory and scope (LRU order). */
+    private static final Map<ProjectKey, CachedProject> PROJECTS = new LinkedHashMap<ProjectKey,
+            CachedProject>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ProjectKey, CachedProject> eldest) {
+            return size() > MAX_CACHED_PROJECTS;
+        }
+    };
+
+    /** The scope of the current thread, inherited by the threads started by it. */
+    private static final InheritableThreadLocal<String> SCOPE =
+            new InheritableThreadLocal<String>() {
+                @Override
+                protected String initialValue() {
+                    return "";
+                }
+            };
+
+    /** The directory of the descriptors or <code>null</code> if they are not saved. */
+    private static Path descriptorDir = getDefaultDescriptorDir();
+
+    private SnippetProjectCache() {
+        throw new UnsupportedOperationException("Static class");
+    }
+
+    /**
+     * Returns the parsed snippet project from the cache or parses it if it is not cached or it has
+     * been changed since it was cached.
+     *
+     * @param baseDir
+     *            the base directory of the snippet project
+     * @return the parsed {@link SnippetProject}
+     * @throws ValidationException
+     *             if validation of the project fails
+     * @throws IOException
+     *             if an I/O exception occurs
+     */
+    static synchronized SnippetProject getOrParse(@NonNull Path baseDir)
+            throws ValidationException, IOException {
+        if (!Files.isDirectory(baseDir)) {
+            // let the parser report the problem
+            return new SnippetProject(baseDir, null);
+        }
+
+        Path realBaseDir = baseDir.toRealPath();
+        String fingerprint = computeFingerprint(realBaseDir);
+
+        ProjectKey key = new ProjectKey(realBaseDir, SCOPE.get());
+        CachedProject cached = PROJECTS.get(key);
+        if (cached != null && cached.getFingerprint().equals(fingerprint)) {
+            LOG.debug("Using the cached snippet project: {}", realBaseDir);
+            return cached.getProject();
+        }
+
+        Descriptor descriptor = readDescriptor(realBaseDir, fingerprint);
+        SnippetProject project = new SnippetProject(realBaseDir, descriptor);
+
+        if (descriptor == null) {
+            writeDescriptor(realBaseDir, new Descriptor(fingerprint,
+                    ImmutableList.copyOf(project.getSnippetContainers().stream()
+                            .map(sc -> sc.getJavaClass().getName()).collect(toList())),
+                    ImmutableList.copyOf(project.getSnippetDependencies().stream()
+                            .map(sd -> sd.getJavaClass().getName()).collect(toList()))));
+        }
+
+        PROJECTS.put(key, new CachedProject(fingerprint, project));
+        return project;
+    }
+
+    /**
+     * Sets the scope of the current thread (and the threads started by it later). The scopes do
+     * not share the parsed projects in memory, thus the classes of the snippets (and their static
+     * state) are not shared either.
+     *
+     * @param scope
+     *            the scope (e.g. the name of a run of a batch)
+     */
+    public static void setScope(@NonNull String scope) {
+        SCOPE.set(scope);
+    }
+
+    /**
+     * Gets the directory of the descriptors.
+     *
+     * @return the directory or <code>null</code> if the descriptors are not saved
+     */
+    public static synchronized Path getDescriptorDir() {
+        return descriptorDir;
+    }
+
+    /**
+     * Sets the directory of the descriptors.
+     *
+     * @param dir
+     *            the directory or <code>null</code> if the descriptors should not be saved
+     */
+    public static synchronized void setDescriptorDir(Path dir) {
+        descriptorDir = dir;
+    }
+
+    /**
+     * Gets the descriptor file of a snippet project.
+     *
+     * @param baseDir
+     *            the real base directory of the snippet project
+     * @return the descriptor file or <code>null</code> if the descriptors are not saved
+     */
+    public static synchronized Path getDescriptorFile(@NonNull Path baseDir) {
+        if (descriptorDir == null) {
+            return null;
+        }
+
+        String hash = Hashing.sha256().hashString(baseDir.toString(), StandardCharsets.UTF_8)
+                .toString().substring(0, 16);
+        return descriptorDir.resolve(baseDir.getFileName() + "-" + hash
+                + DESCRIPTOR_FILE_EXTENSION);
+    }
+
+    /**
+     * Gets the default directory of the descriptors, which is in the cache directory of SETTE
+     * (specified by the {@value #CACHE_DIR_PROPERTY} system property, by default
+     * <code>~/.sette/cache</code>).
+     */
+    private static Path getDefaultDescriptorDir() {
+        String cacheDir = System.getProperty(CACHE_DIR_PROPERTY);
+        if (cacheDir != null) {
+            return Paths.get(cacheDir).resolve(DESCRIPTOR_DIR_NAME);
+        } else {
+            return Paths.get(System.getProperty("user.home"), ".sette", "cache",
+                    DESCRIPTOR_DIR_NAME);
+        }
+    }
+
+    /**
+     * Removes all the snippet projects from the memory (the descriptor files are kept).
+     */
+    public static synchronized void clear() {
+        PROJECTS.clear();
+    }
+
+    /**
+     * Computes the fingerprint of the files of a snippet project.
+     *
+     * @param baseDir
+     *            the base directory of the snippet project
+     * @return the fingerprint
+     * @throws IOException
+     *             if an I/O exception occurs
+     */
+    static String computeFingerprint(@NonNull Path baseDir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = PathUtils.walk(baseDir)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(toList());
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (Path file : files) {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            hasher.putString(baseDir.relativize(file).toString(), StandardCharsets.UTF_8)
+                    .putLong(attrs.size())
+                    .putLong(attrs.lastModifiedTime().toMillis());
+        }
+        return hasher.hash().toString();
+    }
+
+    private static Descriptor readDescriptor(Path baseDir, String fingerprint) {
+        Path file = getDescriptorFile(baseDir);
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            List<String> lines = PathUtils.readAllLinesOrEmpty(file);
+            if (lines.size() < 2 || !lines.get(0).equals(DESCRIPTOR_VERSION)
+                    || !lines.get(1).equals(fingerprint)) {
+                return null;
+            }
+
+            List<String> containers = new ArrayList<>();
+            List<String> dependencies = new ArrayList<>();
+            for (String line : lines.subList(2, lines.size())) {
+                if (line.startsWith(CONTAINER_PREFIX)) {
+                    containers.add(line.substring(CONTAINER_PREFIX.length()));
+                } else if (line.startsWith(DEPENDENCY_PREFIX)) {
+                    dependencies.add(line.substring(DEPENDENCY_PREFIX.length()));
+                } else {
+                    LOG.warn("Invalid line in the snippet project descriptor {}: {}", file, line);
+                    return null;
+                }
+            }
+
+            LOG.debug("Using the snippet project descriptor: {}", file);
+            return new Descriptor(fingerprint, ImmutableList.copyOf(containers),
+                    ImmutableList.copyOf(dependencies));
+        } catch (IOException ex) {
+            LOG.warn("Cannot read the snippet project descriptor: " + file, ex);
+            return null;
+        }
+    }
+
+    private static void writeDescriptor(Path baseDir, Descriptor descriptor) {
+        Path file = getDescriptorFile(baseDir);
+        if (file == null) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(DESCRIPTOR_VERSION);
+        lines.add(descriptor.getFingerprint());
+        descriptor.getContainerClassNames().forEach(name -> lines.add(CONTAINER_PREFIX + name));
+        descriptor.getDependencyClassNames().forEach(name -> lines.add(DEPENDENCY_PREFIX + name));
+
+        try {
+            // write to a temporary file and move it, since other processes may read it
+            PathUtils.createDir(file.getParent());
+            Path tmpFile = Files.createTempFile(file.getParent(), "tmp-", ".tmp");
+            Files.write(tmpFile, lines);
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            // the descriptor is only an optimization
+            LOG.warn("Cannot write the snippet project descriptor: " + file, ex);
+        }
+    }
+
+    /**
+     * The saved result of the class scanning of a snippet project.
+     */
+    @Value
+    static final class Descriptor {
+        /** The fingerprint of the project files. */
+        private final String fingerprint;
+
+        /** The names of the snippet container classes. */
+        private final ImmutableList<String> containerClassNames;
+
+        /** The names of the snippet dependency classes. */
+        private final ImmutableList<String> dependencyClassNames;
+    }
+
+    @Value
+    private static final class ProjectKey {
+        private final Path baseDir;
+        private final String scope;
+    }
+
+    @Value
+    private static final class CachedProject {
+        private final String fingerprint;
+        private final SnippetProject project;
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.store;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.CountingInputStream;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * An embedded, append-only store for the evaluation results. The store consists of tables (see
+ * {@link Table}), each table contains the values of runs (runner projects) by their keys (usually
+ * snippet IDs). The values are written in batches: a batch is either written completely or not at
+ * all (an incomplete batch at the end of the file, e.g. because of a crash, is discarded). A later
+ * value overrides the earlier value with the same key.
+ * <p>
+ * Only the locations of the values are kept in memory, the values are read on demand. The file is
+ * locked while a batch is appended and the batches appended by other processes are loaded before
+ * each operation, thus several processes may use the same store (but only one instance should be
+ * opened for a file in a JVM). The class is thread-safe.
+ */
+public final class ResultStore implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResultStore.class);
+
+    /** The default name of the store file (in the output directory). */
+    public static final String DEFAULT_FILE_NAME = "sette-results.store";
+
+    /** The key of the properties of a run in the {@link Table#RUNS} table. */
+    public static final String RUN_PROPERTIES_KEY = "properties";
+
+    private static final int MAGIC = 0x53455453; // SETS
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    /** The tables of the store. */
+    public enum Table {
+        /** The properties of the runs (the key is {@link ResultStore#RUN_PROPERTIES_KEY}). */
+        RUNS,
+        /** The results of the snippets (see {@link SnippetResultRecord}). */
+        RESULTS,
+        /** The inputs of the snippets (XML documents). */
+        INPUTS,
+        /** The coverage of the snippets (XML documents). */
+        COVERAGE
+    }
+
+    /** The store file. */
+    @Getter
+    private final Path file;
+
+    private final FileChannel channel;
+
+    /** The locations of the values by table, run ID and key. */
+    private final Map<Table, Map<String, SortedMap<String, Location>>> index = new EnumMap<>(
+            Table.class);
+
+    /** The end of the last loaded batch in the file. */
+    private long loadedSize = HEADER_SIZE;
+
+    /**
+     * Opens the store, the file is created if it does not exist.
+     *
+     * @param file
+     *            the store file
+     * @throws IOException
+     *             if the store cannot be opened or the file is not a valid store
+     */
+    public ResultStore(@NonNull Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        for (Table table : Table.values()) {
+            index.put(table, new HashMap<>());
+        }
+
+        try (FileLock lock = channel.lock()) {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                writeFully(header, 0);
+                channel.force(true);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a result store or unsupported version: " + file);
+            }
+
+            load(true);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+
+        LOG.debug("Opened result store {} ({} bytes)", file, loadedSize);
+    }
+
+    /**
+     * Creates a new batch, which must be committed to write its values into the store.
+     *
+     * @return the new batch
+     */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Returns the value with the given key.
+     *
+     * @param table
+     *            the table
+     * @param runId
+     *            the ID of the run
+     * @param key
+     *            the key
+     * @return the value or <code>null</code> if it is not present
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public synchronized byte[] get(@NonNull Table table, @NonNull String runId,
+            @NonNull String key) throws IOException {
+        refresh();
+
+        Map<String, Location> values = index.get(table).get(runId);
+        Location location = values != null ? values.get(key) : null;
+        if (location == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(location.length);
+        readFully(buffer, location.offset);
+        return buffer.array();
+    }
+
+    /**
+     * Returns the value with the given key as a string.
+     *
+     * @param table
+     *            the table
+     * @param runId
+     *            the ID of the run
+     * @param key
+     *            the key
+     * @return the value or <code>null</code> if it is not present
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public String getString(@NonNull Table table, @NonNull String runId, @NonNull String key)
+            throws IOException {
+        byte[] value = get(table, runId, key);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Returns the keys of a run in the table.
+     *
+     * @param table
+     *            the table
+     * @param runId
+     *            the ID of the run
+     * @return the sorted keys (empty if the run is not present in the table)
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public synchronized SortedSet<String> getKeys(@NonNull Table table, @NonNull String runId)
+            throws IOException {
+        refresh();
+
+        SortedMap<String, Location> values = index.get(table).get(runId);
+        return values != null ? new TreeSet<>(values.keySet()) : new TreeSet<>();
+    }
+
+    /**
+     * Returns the IDs of the runs which are present in the table.
+     *
+     * @param table
+     *            the table
+     * @return the sorted IDs of the runs
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public synchronized SortedSet<String> getRunIds(@NonNull Table table) throws IOException {
+        refresh();
+        return new TreeSet<>(index.get(table).keySet());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private synchronized void commit(Batch batch) throws IOException {
+        checkState(channel.isOpen(), "The result store is closed");
+
+        byte[] data = batch.encode();
+        try (FileLock lock = channel.lock()) {
+            // the batches of other processes must be loaded (and a torn one removed) first
+            load(true);
+
+            writeFully(ByteBuffer.wrap(data), loadedSize);
+            channel.force(false);
+
+            load(false);
+        }
+    }
+
+    /** Loads the batches appended by other processes. */
+    private void refresh() throws IOException {
+        if (channel.size() > loadedSize) {
+            try (FileLock lock = channel.lock(0, Long.MAX_VALUE, true)) {
+                load(false);
+            }
+        }
+    }
+
+    /**
+     * Loads the batches after {@link #loadedSize}. The caller must hold a lock on the file.
+     *
+     * @param truncate
+     *            whether an incomplete batch at the end of the file should be removed (requires
+     *            an exclusive lock)
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private void load(boolean truncate) throws IOException {
+        long size = channel.size();
+        if (size <= loadedSize) {
+            return;
+        }
+
+        CountingInputStream counting = new CountingInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(loadedSize))));
+        CheckedInputStream checked = new CheckedInputStream(counting, new CRC32());
+        DataInputStream in = new DataInputStream(checked);
+
+        long position = loadedSize;
+        while (position < size) {
+            long batchSize = loadBatch(in, checked, counting, position);
+            if (batchSize < 0) {
+                break;
+            }
+            position += batchSize;
+        }
+
+        if (position < size) {
+            LOG.warn("Incomplete batch at the end of result store {} ({} bytes)", file,
+                    size - position);
+            if (truncate) {
+                channel.truncate(position);
+            }
+        }
+
+        loadedSize = position;
+    }
+
+    /**
+     * Loads one batch into the index.
+     *
+     * @return the size of the batch or -1 if the batch is incomplete
+     */
+    private long loadBatch(DataInputStream in, CheckedInputStream checked,
+            CountingInputStream counting, long position) throws IOException {
+        long start = counting.getCount();
+        checked.getChecksum().reset();
+
+        List<Pair<Triple<Table, String, String>, Location>> entries = new ArrayList<>();
+        try {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Table table = Table.values()[in.readUnsignedByte()];
+                String runId = in.readUTF();
+                String key = in.readUTF();
+                int length = in.readInt();
+
+                long offset = position + counting.getCount() - start;
+                if (in.skipBytes(length) != length) {
+                    return -1;
+                }
+                entries.add(Pair.of(Triple.of(table, runId, key), new Location(offset, length)));
+            }
+
+            long expectedChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != expectedChecksum) {
+                return -1;
+            }
+        } catch (EOFException | UTFDataFormatException | ArrayIndexOutOfBoundsException ex) {
+            return -1;
+        }
+
+        for (Pair<Triple<Table, String, String>, Location> entry : entries) {
+            Triple<Table, String, String> key = entry.getLeft();
+            index.get(key.getLeft()).computeIfAbsent(key.getMiddle(), k -> new TreeMap<>())
+                    .put(key.getRight(), entry.getRight());
+        }
+        return counting.getCount() - start;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of result store: " + file);
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /** The location of a value in the file. */
+    private static final class Location {
+        private final long offset;
+        private final int length;
+
+        private Location(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A set of values which are written into the store atomically. The class is not thread-safe.
+     */
+    public final class Batch {
+        private final Map<Triple<Table, String, String>, byte[]> values = new LinkedHashMap<>();
+        private boolean committed = false;
+
+        private Batch() {
+        }
+
+        /**
+         * Puts a value into the batch.
+         *
+         * @param table
+         *            the table
+         * @param runId
+         *            the ID of the run
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         * @return this object
+         */
+        public Batch put(@NonNull Table table, @NonNull String runId, @NonNull String key,
+                @NonNull byte[] value) {
+            checkState(!committed, "The batch has already been committed");
+            values.put(Triple.of(table, runId, key), value.clone());
+            return this;
+        }
+
+        /**
+         * Puts a string value into the batch (encoded with UTF-8).
+         *
+         * @param table
+         *            the table
+         * @param runId
+         *            the ID of the run
+         * @param key
+         *            the key
+         * @param value
+         *            the value
+         * @return this object
+         */
+        public Batch putString(@NonNull Table table, @NonNull String runId, @NonNull String key,
+                @NonNull String value) {
+            return put(table, runId, key, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Writes the values of the batch into the store.
+         *
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public void commit() throws IOException {
+            checkState(!committed, "The batch has already been committed");
+            checkArgument(!values.isEmpty(), "The batch is empty");
+
+            ResultStore.this.commit(this);
+            committed = true;
+        }
+
+        private byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+
+            out.writeInt(values.size());
+            for (Map.Entry<Triple<Table, String, String>, byte[]> entry : values.entrySet()) {
+                out.writeByte(entry.getKey().getLeft().ordinal());
+                out.writeUTF(entry.getKey().getMiddle());
+                out.writeUTF(entry.getKey().getRight());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.flush();
+
+            // the checksum itself is not part of the checksum
+            new DataOutputStream(bytes).writeLong(checked.getChecksum().getValue());
+            return bytes.toByteArray();
+        }
+    }
+}
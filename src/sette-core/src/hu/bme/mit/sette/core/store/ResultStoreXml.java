@@ -0,0 +1,81 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.store;
+
+import java.io.StringWriter;
+
+import org.simpleframework.xml.Serializer;
+import org.simpleframework.xml.convert.AnnotationStrategy;
+import org.simpleframework.xml.core.Persister;
+import org.simpleframework.xml.stream.Format;
+
+import lombok.NonNull;
+
+/**
+ * Converts the XML documents stored in the {@link ResultStore} (they are stored in the same format
+ * as the XML files of the runner projects). The serializers are cached per thread, thus the methods
+ * can be called concurrently.
+ */
+public final class ResultStoreXml {
+    private static final ThreadLocal<Serializer> WRITER = ThreadLocal
+            .withInitial(() -> new Persister(new AnnotationStrategy(),
+                    new Format("<?xml version=\"1.0\" encoding= \"UTF-8\" ?>")));
+
+    private static final ThreadLocal<Serializer> READER = ThreadLocal
+            .withInitial(() -> new Persister(new AnnotationStrategy()));
+
+    /** Static class. */
+    private ResultStoreXml() {
+        throw new UnsupportedOperationException("Static class");
+    }
+
+    /**
+     * Serializes the object into an XML document.
+     *
+     * @param object
+     *            the object
+     * @return the XML document
+     * @throws Exception
+     *             if the object cannot be serialized
+     */
+    public static String toXml(@NonNull Object object) throws Exception {
+        StringWriter writer = new StringWriter();
+        WRITER.get().write(object, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Deserializes an object from an XML document.
+     *
+     * @param type
+     *            the type of the object
+     * @param xml
+     *            the XML document
+     * @return the object
+     * @throws Exception
+     *             if the object cannot be deserialized
+     */
+    public static <T> T fromXml(@NonNull Class<T> type, @NonNull String xml) throws Exception {
+        return READER.get().read(type, xml);
+    }
+}
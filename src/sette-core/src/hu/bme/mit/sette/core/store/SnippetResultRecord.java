@@ -0,0 +1,209 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import hu.bme.mit.sette.core.model.runner.ResultType;
+import hu.bme.mit.sette.core.model.runner.SnippetRunInfo;
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * The result of a snippet in the {@link ResultStore.Table#RESULTS} table, which contains every
+ * field needed by the exporters, thus they do not need to parse the XML and info files.
+ */
+@Data
+public final class SnippetResultRecord {
+    /** The result type. */
+    @NonNull
+    private final ResultType resultType;
+
+    /** The achieved coverage (e.g. <code>50.62%</code>), <code>null</code> if not available. */
+    private final String achievedCoverage;
+
+    /** The number of the generated inputs. */
+    private final int generatedInputCount;
+
+    /** The elapsed time of the tool in ms, <code>null</code> if not available. */
+    private final Long elapsedTimeInMs;
+
+    /** The user CPU time of the tool in ms, <code>null</code> if not available. */
+    private final Long userTimeInMs;
+
+    /** The system CPU time of the tool in ms, <code>null</code> if not available. */
+    private final Long systemTimeInMs;
+
+    /** The peak RSS of the tool in KB, <code>null</code> if not available. */
+    private final Long peakRssInKb;
+
+    /**
+     * The signal which has terminated the tool (0 if it has exited normally), <code>null</code> if
+     * not available.
+     */
+    private final Integer signal;
+
+    /**
+     * Instantiates a new record without resource usage.
+     *
+     * @param resultType
+     *            the result type
+     * @param achievedCoverage
+     *            the achieved coverage, <code>null</code> if not available
+     * @param generatedInputCount
+     *            the number of the generated inputs
+     * @param elapsedTimeInMs
+     *            the elapsed time of the tool in ms, <code>null</code> if not available
+     */
+    public SnippetResultRecord(@NonNull ResultType resultType, String achievedCoverage,
+            int generatedInputCount, Long elapsedTimeInMs) {
+        this(resultType, achievedCoverage, generatedInputCount, elapsedTimeInMs, null, null, null,
+                null);
+    }
+
+    /**
+     * Instantiates a new record.
+     *
+     * @param resultType
+     *            the result type
+     * @param achievedCoverage
+     *            the achieved coverage, <code>null</code> if not available
+     * @param generatedInputCount
+     *            the number of the generated inputs
+     * @param elapsedTimeInMs
+     *            the elapsed time of the tool in ms, <code>null</code> if not available
+     * @param userTimeInMs
+     *            the user CPU time of the tool in ms, <code>null</code> if not available
+     * @param systemTimeInMs
+     *            the system CPU time of the tool in ms, <code>null</code> if not available
+     * @param peakRssInKb
+     *            the peak RSS of the tool in KB, <code>null</code> if not available
+     * @param signal
+     *            the signal which has terminated the tool, <code>null</code> if not available
+     */
+    public SnippetResultRecord(@NonNull ResultType resultType, String achievedCoverage,
+            int generatedInputCount, Long elapsedTimeInMs, Long userTimeInMs,
+            Long systemTimeInMs, Long peakRssInKb, Integer signal) {
+        this.resultType = resultType;
+        this.achievedCoverage = achievedCoverage;
+        this.generatedInputCount = generatedInputCount;
+        this.elapsedTimeInMs = elapsedTimeInMs;
+        this.userTimeInMs = userTimeInMs;
+        this.systemTimeInMs = systemTimeInMs;
+        this.peakRssInKb = peakRssInKb;
+        this.signal = signal;
+    }
+
+    /**
+     * Creates a record with the measured values of the tool run.
+     *
+     * @param resultType
+     *            the result type
+     * @param achievedCoverage
+     *            the achieved coverage, <code>null</code> if not available
+     * @param generatedInputCount
+     *            the number of the generated inputs
+     * @param runInfo
+     *            the measured values of the tool run, <code>null</code> if not available
+     * @return the record
+     */
+    public static SnippetResultRecord create(@NonNull ResultType resultType,
+            String achievedCoverage, int generatedInputCount, SnippetRunInfo runInfo) {
+        if (runInfo == null) {
+            return new SnippetResultRecord(resultType, achievedCoverage, generatedInputCount,
+                    null);
+        }
+
+        return new SnippetResultRecord(resultType, achievedCoverage, generatedInputCount,
+                runInfo.getElapsedTimeInMs(), runInfo.getUserTimeInMs(),
+                runInfo.getSystemTimeInMs(), runInfo.getPeakRssInKb(), runInfo.getSignal());
+    }
+
+    /**
+     * Encodes the record.
+     *
+     * @return the encoded record
+     */
+    public byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(resultType.name());
+            out.writeBoolean(achievedCoverage != null);
+            if (achievedCoverage != null) {
+                out.writeUTF(achievedCoverage);
+            }
+            out.writeInt(generatedInputCount);
+            out.writeLong(elapsedTimeInMs != null ? elapsedTimeInMs : -1);
+            // added later, thus they are optional when decoding
+            out.writeLong(userTimeInMs != null ? userTimeInMs : -1);
+            out.writeLong(systemTimeInMs != null ? systemTimeInMs : -1);
+            out.writeLong(peakRssInKb != null ? peakRssInKb : -1);
+            out.writeInt(signal != null ? signal : -1);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            // cannot happen with a byte array
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Decodes a record.
+     *
+     * @param bytes
+     *            the encoded record
+     * @return the decoded record
+     * @throws IOException
+     *             if the record is invalid
+     */
+    public static SnippetResultRecord fromBytes(@NonNull byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        ResultType resultType = ResultType.valueOf(in.readUTF());
+        String achievedCoverage = in.readBoolean() ? in.readUTF() : null;
+        int generatedInputCount = in.readInt();
+        long elapsedTimeInMs = in.readLong();
+
+        long userTimeInMs = -1;
+        long systemTimeInMs = -1;
+        long peakRssInKb = -1;
+        int signal = -1;
+        if (in.available() > 0) {
+            // not present in the records of earlier versions
+            userTimeInMs = in.readLong();
+            systemTimeInMs = in.readLong();
+            peakRssInKb = in.readLong();
+            signal = in.readInt();
+        }
+
+        return new SnippetResultRecord(resultType, achievedCoverage, generatedInputCount,
+                elapsedTimeInMs >= 0 ? elapsedTimeInMs : null,
+                userTimeInMs >= 0 ? userTimeInMs : null,
+                systemTimeInMs >= 0 ? systemTimeInMs : null,
+                peakRssInKb >= 0 ? peakRssInKb : null, signal >= 0 ? signal : null);
+    }
+}
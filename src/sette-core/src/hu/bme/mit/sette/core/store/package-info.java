@@ -0,0 +1,4 @@
+/**
+ * Provides classes for the embedded store of the evaluation results.
+ */
+package hu.bme.mit.sette.core.store;
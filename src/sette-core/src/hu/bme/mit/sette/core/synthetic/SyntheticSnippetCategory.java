@@ -0,0 +1,214 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.synthetic;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Categories of the synthetic snippets (see {@link SyntheticSnippetProjectGenerator}). Each
+ * category writes the source of a snippet and the source of its input factory method, the inputs
+ * always achieve the required statement coverage. The constant <code>k</code> (at least 2) varies
+ * between the snippets so the snippets are not identical.
+ */
+public enum SyntheticSnippetCategory {
+    /** Nested conditions on primitive parameters. */
+    BRANCHES("SB", "Branches") {
+        @Override
+        void writeSnippet(List<String> lines, String name, int k, String dependencyClass) {
+            lines.add("    public static int " + name + "(int x, int y) {");
+            lines.add("        if (x > " + k + ") {");
+            lines.add("            if (y > x) {");
+            lines.add("                return 1;");
+            lines.add("            } else {");
+            lines.add("                return 2;");
+            lines.add("            }");
+            lines.add("        } else if (x < -" + k + ") {");
+            lines.add("            return 3;");
+            lines.add("        }");
+            lines.add("        return 0;");
+            lines.add("    }");
+        }
+
+        @Override
+        void writeInputs(List<String> lines, int k, String dependencyClass) {
+            lines.add("        SnippetInputContainer inputs = new SnippetInputContainer(2);");
+            lines.add("        inputs.addByParameters(" + (k + 1) + ", " + (k + 2) + ");");
+            lines.add("        inputs.addByParameters(" + (k + 1) + ", 0);");
+            lines.add("        inputs.addByParameters(" + (-k - 1) + ", 0);");
+            lines.add("        inputs.addByParameters(0, 0);");
+        }
+    },
+
+    /** A loop with a condition depending on the loop variable. */
+    LOOPS("SL", "Loops") {
+        @Override
+        void writeSnippet(List<String> lines, String name, int k, String dependencyClass) {
+            lines.add("    public static int " + name + "(int n) {");
+            lines.add("        int result = 0;");
+            lines.add("        for (int i = 0; i < n; i++) {");
+            lines.add("            if (i % " + k + " == 0) {");
+            lines.add("                result += i;");
+            lines.add("            } else {");
+            lines.add("                result--;");
+            lines.add("            }");
+            lines.add("        }");
+            lines.add("        return result;");
+            lines.add("    }");
+        }
+
+        @Override
+        void writeInputs(List<String> lines, int k, String dependencyClass) {
+            lines.add("        SnippetInputContainer inputs = new SnippetInputContainer(1);");
+            lines.add("        inputs.addByParameters(0);");
+            lines.add("        inputs.addByParameters(" + (k + 1) + ");");
+        }
+    },
+
+    /** Iteration over an array parameter which can be null or empty. */
+    ARRAYS("SA", "Arrays") {
+        @Override
+        void writeSnippet(List<String> lines, String name, int k, String dependencyClass) {
+            lines.add("    public static int " + name + "(int[] values) {");
+            lines.add("        if (values == null || values.length == 0) {");
+            lines.add("            return -1;");
+            lines.add("        }");
+            lines.add("        int max = values[0];");
+            lines.add("        for (int value : values) {");
+            lines.add("            if (value > max) {");
+            lines.add("                max = value;");
+            lines.add("            }");
+            lines.add("        }");
+            lines.add("        return max;");
+            lines.add("    }");
+        }
+
+        @Override
+        void writeInputs(List<String> lines, int k, String dependencyClass) {
+            lines.add("        SnippetInputContainer inputs = new SnippetInputContainer(1);");
+            lines.add("        inputs.addByParameters((Object) null);");
+            lines.add("        inputs.addByParameters(new int[] { 1, " + k + ", 0 });");
+        }
+    },
+
+    /** A snippet which throws an exception for some of its inputs. */
+    EXCEPTIONS("SE", "Exceptions") {
+        @Override
+        void writeSnippet(List<String> lines, String name, int k, String dependencyClass) {
+            lines.add("    public static int " + name + "(int x) {");
+            lines.add("        if (x < 0) {");
+            lines.add("            throw new IllegalArgumentException(\"Negative: \" + x);");
+            lines.add("        }");
+            lines.add("        return x * " + k + ";");
+            lines.add("    }");
+        }
+
+        @Override
+        void writeInputs(List<String> lines, int k, String dependencyClass) {
+            lines.add("        SnippetInputContainer inputs = new SnippetInputContainer(1);");
+            lines.add("        inputs.addByExpectedAndParameters("
+                    + "IllegalArgumentException.class, -1);");
+            lines.add("        inputs.addByParameters(" + k + ");");
+        }
+    },
+
+    /** Snippets taking an instance of a dependency class (annotated with SetteDependency). */
+    OBJECTS("SO", "Objects") {
+        @Override
+        boolean usesDependency() {
+            return true;
+        }
+
+        @Override
+        void writeSnippet(List<String> lines, String name, int k, String dependencyClass) {
+            lines.add("    public static int " + name + "(" + dependencyClass + " p) {");
+            lines.add("        if (p == null) {");
+            lines.add("            return 0;");
+            lines.add("        }");
+            lines.add("        if (p.x > " + k + ") {");
+            lines.add("            return p.x + p.y;");
+            lines.add("        }");
+            lines.add("        return p.y;");
+            lines.add("    }");
+        }
+
+        @Override
+        void writeInputs(List<String> lines, int k, String dependencyClass) {
+            lines.add("        SnippetInputContainer inputs = new SnippetInputContainer(1);");
+            lines.add("        inputs.addByParameters((Object) null);");
+            lines.add("        inputs.addByParameters(new " + dependencyClass + "(" + (k + 1)
+                    + ", 1));");
+            lines.add("        inputs.addByParameters(new " + dependencyClass + "(0, 1));");
+        }
+    };
+
+    /** The code of the category, it is the prefix of the container names. */
+    @Getter
+    private final String code;
+
+    /** The name of the category used in the names of the containers. */
+    @Getter
+    private final String displayName;
+
+    private SyntheticSnippetCategory(String code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns whether the snippets of the category use a dependency class.
+     *
+     * @return <code>true</code> if the snippets use a dependency class
+     */
+    boolean usesDependency() {
+        return false;
+    }
+
+    /**
+     * Writes the source of a snippet method (without its annotations).
+     *
+     * @param lines
+     *            the lines of the source
+     * @param name
+     *            the name of the snippet
+     * @param k
+     *            the constant of the snippet
+     * @param dependencyClass
+     *            the simple name of the dependency class or <code>null</code>
+     */
+    abstract void writeSnippet(List<String> lines, String name, int k, String dependencyClass);
+
+    /**
+     * Writes the body of an input factory method which creates the variable
+     * <code>inputs</code>.
+     *
+     * @param lines
+     *            the lines of the source
+     * @param k
+     *            the constant of the snippet
+     * @param dependencyClass
+     *            the simple name of the dependency class or <code>null</code>
+     */
+    abstract void writeInputs(List<String> lines, int k, String dependencyClass);
+}
@@ -0,0 +1,423 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.synthetic;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.common.annotations.SetteSnippetContainer;
+import hu.bme.mit.sette.core.util.compiler.CompilationResult;
+import hu.bme.mit.sette.core.util.compiler.JavaSourceCompiler;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+/**
+ * Generates valid snippet projects of the requested size for load tests and benchmarks. The
+ * snippets are distributed into containers, each container belongs to one category (see
+ * {@link SyntheticSnippetCategory}) and the containers are assigned to the categories in proportion
+ * to the weights of the category mix. For each container an input factory container is written to
+ * <code>snippet-input-src</code> (optional) and for the containers of the
+ * {@link SyntheticSnippetCategory#OBJECTS} category a dependency class is also written. The
+ * containers are spread into packages so they can be compiled in parallel. The generation is
+ * deterministic.
+ * <p>
+ * Layout of the generated project (<code>xxx</code> is the lower case name of the category):
+ *
+ * <pre>
+ * snippet-src/[basePackage]/xxx/p0000/SB00000_Branches.java
+ * snippet-src/[basePackage]/xxx/p0000/dependencies/SyntheticPoint00000.java
+ * snippet-input-src/[basePackage]/inputs/xxx/p0000/SB00000_Branches_Inputs.java
+ * build/
+ * </pre>
+ */
+public final class SyntheticSnippetProjectGenerator {
+    private static final Logger LOG = LoggerFactory.getLogger(
+            SyntheticSnippetProjectGenerator.class);
+
+    /** The default base package of the generated classes. */
+    public static final String DEFAULT_BASE_PACKAGE = "hu.bme.mit.sette.snippets.synthetic";
+
+    /** The number of snippets to generate. */
+    @Getter
+    private final int snippetCount;
+
+    /** The number of snippets in a container (the last container may contain less). */
+    @Getter
+    @Setter
+    private int snippetsPerContainer = 10;
+
+    /** The maximum number of containers in a package. */
+    @Getter
+    @Setter
+    private int containersPerPackage = 100;
+
+    /** The base package of the generated classes. */
+    @Getter
+    @Setter
+    @NonNull
+    private String basePackage = DEFAULT_BASE_PACKAGE;
+
+    /** Whether the input factory containers are generated. */
+    @Getter
+    @Setter
+    private boolean inputFactories = true;
+
+    /** The weights of the categories (categories with zero weight are not generated). */
+    private final Map<SyntheticSnippetCategory, Integer> categoryMix = new EnumMap<>(
+            SyntheticSnippetCategory.class);
+
+    /**
+     * Instantiates a new generator with equal weights for all the categories.
+     *
+     * @param snippetCount
+     *            the number of snippets to generate (must be positive)
+     */
+    public SyntheticSnippetProjectGenerator(int snippetCount) {
+        checkArgument(snippetCount > 0, "The snippet count must be positive");
+        this.snippetCount = snippetCount;
+
+        for (SyntheticSnippetCategory category : SyntheticSnippetCategory.values()) {
+            categoryMix.put(category, 1);
+        }
+    }
+
+    /**
+     * Gets the weights of the categories.
+     *
+     * @return the weights of the categories
+     */
+    public Map<SyntheticSnippetCategory, Integer> getCategoryMix() {
+        return Collections.unmodifiableMap(categoryMix);
+    }
+
+    /**
+     * Sets the weights of the categories, the missing categories will not be generated.
+     *
+     * @param categoryMix
+     *            the weights of the categories (must not be negative and at least one must be
+     *            positive)
+     */
+    public void setCategoryMix(@NonNull Map<SyntheticSnippetCategory, Integer> categoryMix) {
+        checkArgument(categoryMix.values().stream().allMatch(w -> w != null && w >= 0),
+                "The weights must not be negative");
+        checkArgument(categoryMix.values().stream().anyMatch(w -> w > 0),
+                "At least one weight must be positive");
+
+        this.categoryMix.clear();
+        for (SyntheticSnippetCategory category : SyntheticSnippetCategory.values()) {
+            this.categoryMix.put(category, categoryMix.getOrDefault(category, 0));
+        }
+    }
+
+    /**
+     * Parses a category mix, e.g. <code>branches=3,loops=1,objects=1</code>.
+     *
+     * @param categoryMix
+     *            the category mix (names are case-insensitive)
+     * @return the weights of the categories
+     * @throws IllegalArgumentException
+     *             if the category mix is invalid
+     */
+    public static Map<SyntheticSnippetCategory, Integer> parseCategoryMix(
+            @NonNull String categoryMix) {
+        Map<SyntheticSnippetCategory, Integer> weights = new EnumMap<>(
+                SyntheticSnippetCategory.class);
+
+        for (String part : categoryMix.split(",")) {
+            String[] nameAndWeight = part.trim().split("=");
+            checkArgument(nameAndWeight.length == 2,
+                    "Invalid category weight (expected format: name=weight): %s", part);
+
+            SyntheticSnippetCategory category = SyntheticSnippetCategory
+                    .valueOf(nameAndWeight[0].trim().toUpperCase());
+            checkArgument(!weights.containsKey(category), "Duplicate category: %s", category);
+
+            try {
+                weights.put(category, Integer.parseInt(nameAndWeight[1].trim()));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid weight: " + part, ex);
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * Writes the sources of the snippet project into the given directory and creates the empty
+     * <code>build</code> directory.
+     *
+     * @param baseDir
+     *            the base directory of the snippet project
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void generate(@NonNull Path baseDir) throws IOException {
+        checkArgument(snippetsPerContainer > 0, "The snippets per container must be positive");
+        checkArgument(containersPerPackage > 0, "The containers per package must be positive");
+
+        int containerCount = (snippetCount + snippetsPerContainer - 1) / snippetsPerContainer;
+        List<SyntheticSnippetCategory> categories = assignCategories(containerCount);
+        Map<SyntheticSnippetCategory, Integer> containerCountsByCategory = new EnumMap<>(
+                SyntheticSnippetCategory.class);
+
+        LOG.info("Generating synthetic snippet project with {} snippets in {} containers: {}",
+                snippetCount, containerCount, baseDir);
+
+        PathUtils.createDir(baseDir.resolve("build"));
+
+        for (int i = 0; i < containerCount; i++) {
+            SyntheticSnippetCategory category = categories.get(i);
+            int indexInCategory = containerCountsByCategory.getOrDefault(category, 0);
+            containerCountsByCategory.put(category, indexInCategory + 1);
+
+            int firstSnippet = i * snippetsPerContainer;
+            int count = Math.min(snippetsPerContainer, snippetCount - firstSnippet);
+            String packageName = String.format("%s.%s.p%04d", basePackage,
+                    category.name().toLowerCase(), indexInCategory / containersPerPackage);
+
+            writeContainer(baseDir, category, packageName, i, firstSnippet, count);
+        }
+
+        LOG.info("Generated synthetic snippet project: {}", baseDir);
+    }
+
+    /**
+     * Compiles the generated snippet project into its <code>build</code> directory. The
+     * dependencies, the input factory containers and the snippet containers are compiled in this
+     * order, because the containers refer to their input factory containers.
+     *
+     * @param baseDir
+     *            the base directory of the snippet project
+     * @throws IOException
+     *             if an I/O error occurs or the compilation fails
+     */
+    public static void compile(@NonNull Path baseDir) throws IOException {
+        Path sourceDir = baseDir.resolve("snippet-src");
+        Path inputSourceDir = baseDir.resolve("snippet-input-src");
+        Path buildDir = baseDir.resolve("build");
+        List<Path> classpath = ImmutableList.of(getClasspathEntry(SetteSnippetContainer.class));
+
+        List<Path> dependencies = new ArrayList<>();
+        List<Path> containers = new ArrayList<>();
+        try (Stream<Path> stream = PathUtils.walk(sourceDir)) {
+            stream.filter(p -> p.toString().endsWith(".java")).forEach(p -> {
+                if (p.getParent().getFileName().toString().equals("dependencies")) {
+                    dependencies.add(p);
+                } else {
+                    containers.add(p);
+                }
+            });
+        }
+
+        compile(new JavaSourceCompiler(sourceDir, buildDir, classpath), dependencies);
+        if (PathUtils.exists(inputSourceDir)) {
+            List<Path> inputFactories;
+            try (Stream<Path> stream = PathUtils.walk(inputSourceDir)) {
+                inputFactories = stream.filter(p -> p.toString().endsWith(".java"))
+                        .collect(Collectors.toList());
+            }
+            compile(new JavaSourceCompiler(inputSourceDir, buildDir, classpath), inputFactories);
+        }
+        compile(new JavaSourceCompiler(sourceDir, buildDir, classpath), containers);
+    }
+
+    private static void compile(JavaSourceCompiler compiler, List<Path> sources)
+            throws IOException {
+        CompilationResult result = compiler.compile(sources);
+        if (!result.isSuccessful()) {
+            throw new IOException("Cannot compile the synthetic snippet project: " + result);
+        }
+    }
+
+    private static Path getClasspathEntry(Class<?> javaClass) throws IOException {
+        try {
+            return Paths.get(javaClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (Exception ex) {
+            throw new IOException("Cannot find the class path entry of " + javaClass, ex);
+        }
+    }
+
+    /**
+     * Assigns the containers to the categories, each container is assigned to the category which
+     * is the most behind its share (so the proportions are kept for every prefix).
+     */
+    private List<SyntheticSnippetCategory> assignCategories(int containerCount) {
+        int totalWeight = categoryMix.values().stream().mapToInt(Integer::intValue).sum();
+        Map<SyntheticSnippetCategory, Integer> assigned = new EnumMap<>(
+                SyntheticSnippetCategory.class);
+        List<SyntheticSnippetCategory> categories = new ArrayList<>();
+
+        for (int i = 0; i < containerCount; i++) {
+            SyntheticSnippetCategory best = null;
+            double bestDeficit = Double.NEGATIVE_INFINITY;
+
+            for (SyntheticSnippetCategory category : SyntheticSnippetCategory.values()) {
+                int weight = categoryMix.get(category);
+                if (weight == 0) {
+                    continue;
+                }
+
+                double deficit = (double) weight * (i + 1) / totalWeight
+                        - assigned.getOrDefault(category, 0);
+                if (deficit > bestDeficit) {
+                    best = category;
+                    bestDeficit = deficit;
+                }
+            }
+
+            assigned.put(best, assigned.getOrDefault(best, 0) + 1);
+            categories.add(best);
+        }
+
+        return categories;
+    }
+
+    private void writeContainer(Path baseDir, SyntheticSnippetCategory category,
+            String packageName, int containerIndex, int firstSnippet, int count)
+            throws IOException {
+        String containerName = String.format("%s%05d_%s", category.getCode(), containerIndex,
+                category.getDisplayName());
+        String inputsPackageName = packageName.replace(basePackage + '.',
+                basePackage + ".inputs.");
+        String inputsName = containerName + "_Inputs";
+        String dependencyPackageName = packageName + ".dependencies";
+        String dependencyName = null;
+
+        if (category.usesDependency()) {
+            dependencyName = String.format("SyntheticPoint%05d", containerIndex);
+            writeDependency(baseDir, dependencyPackageName, dependencyName);
+        }
+
+        // container
+        List<String> lines = new ArrayList<>();
+        lines.add("package " + packageName + ";");
+        lines.add("");
+        lines.add("import hu.bme.mit.sette.common.annotations.SetteRequiredStatementCoverage;");
+        lines.add("import hu.bme.mit.sette.common.annotations.SetteSnippetContainer;");
+        if (dependencyName != null) {
+            lines.add("import " + dependencyPackageName + '.' + dependencyName + ';');
+        }
+        if (inputFactories) {
+            lines.add("import " + inputsPackageName + '.' + inputsName + ';');
+        }
+        lines.add("");
+        lines.add("@SetteSnippetContainer(category = \"" + category.getCode()
+                + "\", goal = \"Synthetic " + category.getDisplayName().toLowerCase()
+                + " snippets\"" + (inputFactories
+                        ? ", inputFactoryContainer = " + inputsName + ".class)" : ")"));
+        lines.add("public final class " + containerName + " {");
+        lines.add("    private " + containerName + "() {");
+        lines.add("        throw new UnsupportedOperationException(\"Static class\");");
+        lines.add("    }");
+
+        for (int i = 0; i < count; i++) {
+            lines.add("");
+            lines.add("    @SetteRequiredStatementCoverage(value = 100)");
+            category.writeSnippet(lines, getSnippetName(i), getConstant(firstSnippet + i),
+                    dependencyName);
+        }
+
+        lines.add("}");
+        PathUtils.write(resolveSourceFile(baseDir.resolve("snippet-src"), packageName,
+                containerName), lines);
+
+        // input factory container
+        if (inputFactories) {
+            lines = new ArrayList<>();
+            lines.add("package " + inputsPackageName + ";");
+            lines.add("");
+            lines.add("import hu.bme.mit.sette.common.snippets.SnippetInputContainer;");
+            if (dependencyName != null) {
+                lines.add("import " + dependencyPackageName + '.' + dependencyName + ';');
+            }
+            lines.add("");
+            lines.add("public final class " + inputsName + " {");
+            lines.add("    private " + inputsName + "() {");
+            lines.add("        throw new UnsupportedOperationException(\"Static class\");");
+            lines.add("    }");
+
+            for (int i = 0; i < count; i++) {
+                lines.add("");
+                lines.add("    public static SnippetInputContainer " + getSnippetName(i) + "() {");
+                category.writeInputs(lines, getConstant(firstSnippet + i), dependencyName);
+                lines.add("        return inputs;");
+                lines.add("    }");
+            }
+
+            lines.add("}");
+            PathUtils.write(resolveSourceFile(baseDir.resolve("snippet-input-src"),
+                    inputsPackageName, inputsName), lines);
+        }
+    }
+
+    private static void writeDependency(Path baseDir, String packageName, String name)
+            throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("package " + packageName + ";");
+        lines.add("");
+        lines.add("import hu.bme.mit.sette.common.annotations.SetteDependency;");
+        lines.add("");
+        lines.add("@SetteDependency");
+        lines.add("public final class " + name + " {");
+        lines.add("    public int x;");
+        lines.add("    public int y;");
+        lines.add("");
+        lines.add("    public " + name + "(int x, int y) {");
+        lines.add("        this.x = x;");
+        lines.add("        this.y = y;");
+        lines.add("    }");
+        lines.add("}");
+
+        PathUtils.write(resolveSourceFile(baseDir.resolve("snippet-src"), packageName, name),
+                lines);
+    }
+
+    private static Path resolveSourceFile(Path sourceDir, String packageName, String className) {
+        return sourceDir.resolve(packageName.replace('.', '/')).resolve(className + ".java");
+    }
+
+    private static String getSnippetName(int indexInContainer) {
+        return String.format("snippet%03d", indexInContainer);
+    }
+
+    private static int getConstant(int snippetIndex) {
+        return 2 + snippetIndex % 10;
+    }
+}
@@ -30,9 +30,13 @@ import org.apache.commons.lang3.SystemUtils;
 
 import hu.bme.mit.sette.core.util.process.ProcessExecutionResult;
 import hu.bme.mit.sette.core.util.process.ProcessExecutor;
-import hu.bme.mit.sette.core.util.process.SimpleProcessExecutorListener;
+import hu.bme.mit.sette.core.util.process.StreamingProcessExecutorListener;
+import hu.bme.mit.sette.core.util.process.StreamingProcessExecutorListener.OutputSink;
 
 public class AntExecutor {
+    /** The number of bytes printed from the end of the output of ant. */
+    private static final int OUTPUT_TAIL_SIZE_IN_BYTES = 256 * 1024;
+
     public static void executeAnt(File dir, String buildFile) {
         List<String> command = new ArrayList<>();
 
@@ -52,7 +56,9 @@ public class AntExecutor {
 
         ProcessBuilder pb = new ProcessBuilder(command).directory(dir);
         ProcessExecutor pr = new ProcessExecutor(pb, 0);
-        SimpleProcessExecutorListener listener = new SimpleProcessExecutorListener();
+        // only keep the tail of the output, a misbehaving build may print a lot
+        StreamingProcessExecutorListener listener = new StreamingProcessExecutorListener(
+                OUTPUT_TAIL_SIZE_IN_BYTES);
         ProcessExecutionResult result;
         try {
             result = pr.execute(listener);
@@ -62,25 +68,32 @@ public class AntExecutor {
         }
 
         System.out.println("Ant build result: " + result);
+        EvaluationMetrics.addChildProcess(result);
 
-        if (listener.getStdoutData().length() > 0) {
+        if (listener.getStdout().getTotalBytes() > 0) {
             System.out.println("Ant build output:");
-            System.out.println("========================================");
-            System.out.println(listener.getStdoutData().toString());
-            System.out.println("========================================");
+            printTail(listener.getStdout());
         }
 
-        if (listener.getStderrData().length() > 0) {
+        if (listener.getStderr().getTotalBytes() > 0) {
             System.out.println("Ant build error output:");
-            System.out.println("========================================");
-            System.out.println(listener.getStderrData().toString());
-            System.out.println("========================================");
+            printTail(listener.getStderr());
             System.out.println("Terminating");
         }
 
-        if (listener.getStderrData().length() > 0) {
+        if (listener.getStderr().getTotalBytes() > 0) {
             // TODO enchance error handling
             throw new RuntimeException("ant build has failed");
         }
     }
+
+    private static void printTail(OutputSink output) {
+        System.out.println("========================================");
+        if (output.getTail().isTruncated()) {
+            System.out.println("[" + output.getTotalBytes() + " bytes, only the last "
+                    + output.getTail().getCapacity() + " bytes are shown]");
+        }
+        System.out.println(output.getTailAsString());
+        System.out.println("========================================");
+    }
 }
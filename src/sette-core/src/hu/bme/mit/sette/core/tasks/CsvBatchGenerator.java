@@ -23,17 +23,30 @@
 // NOTE revise this file
 package hu.bme.mit.sette.core.tasks;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Stream;
 
+import org.apache.commons.lang3.tuple.Pair;
+
+import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore;
+import hu.bme.mit.sette.core.store.SnippetResultRecord;
 import hu.bme.mit.sette.core.tool.Tool;
 import hu.bme.mit.sette.core.tool.ToolRegister;
-import hu.bme.mit.sette.core.util.io.PathUtils;
+import hu.bme.mit.sette.core.util.io.ColumnarFile;
+import hu.bme.mit.sette.core.util.io.ColumnarFileWriter;
+import lombok.Getter;
+import lombok.Setter;
 
 public final class CsvBatchGenerator {
     private final SnippetProject snippetProject;
@@ -41,6 +54,16 @@ public final class CsvBatchGenerator {
     private final Tool[] tools;
     private final String[] runnerProjectTags;
 
+    /** The number of tool/tag pairs processed concurrently. */
+    @Getter
+    @Setter
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** The result store to read the results from (<code>null</code> to use the XML files). */
+    @Getter
+    @Setter
+    private ResultStore resultStore = null;
+
     public CsvBatchGenerator(SnippetProject snippetProject, Path outputDir, String tools,
             String runnerProjectTags) {
         this.snippetProject = snippetProject;
@@ -53,45 +76,98 @@ public final class CsvBatchGenerator {
                 .toArray(String[]::new);
     }
 
+    /**
+     * Generates the merged CSV and columnar files (the latter is an R data frame which can be
+     * loaded with <code>readRDS()</code>). The results of the tool/tag pairs are read
+     * concurrently, but the rows are written in the order of the tools, tags and snippets.
+     *
+     * @throws Exception
+     *             if the results cannot be read or the files cannot be written
+     */
     public void generateAll() throws Exception {
-        List<File> filesToMerge = new ArrayList<>();
-
-        // generate for each
+        List<CsvGenerator> generators = new ArrayList<>();
         for (Tool tool : tools) {
             for (String tag : runnerProjectTags) {
                 CsvGenerator gen = new CsvGenerator(snippetProject, outputDir.toPath(), tool, tag);
-                System.err.println("CsvBatchGenerator.generate for: "
-                        + gen.getRunnerProjectSettings().getProjectName());
-                try {
-                    gen.generate();
-                    filesToMerge.add(gen.getCsvFile());
-                } catch (FileNotFoundException ex) {
-                    // skip
-                    System.err.println("Not found: " + ex.getMessage());
-                }
+                gen.setResultStore(resultStore);
+                generators.add(gen);
             }
         }
 
-        // merge
-        List<String> mergedLines = new ArrayList<>();
-        for (File csvFile : filesToMerge) {
-            System.err.println("Merging: " + csvFile);
-            List<String> csvLines = PathUtils.readAllLines(csvFile.toPath());
-            if (!mergedLines.isEmpty()) {
-                csvLines.remove(0); // remove header if not first file
+        File mergedFile = new File(outputDir, getMergedFilename() + ".csv");
+        File columnarFile = new File(outputDir, getMergedFilename() + ColumnarFile.FILE_EXTENSION);
+        System.err.println("Writing into: " + mergedFile);
+        System.err.println("Writing into: " + columnarFile);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<Pair<Snippet, SnippetResultRecord>>>> tasks = new ArrayList<>();
+            for (CsvGenerator gen : generators) {
+                tasks.add(pool.submit(() -> readResults(gen)));
             }
-            mergedLines.addAll(csvLines);
+
+            // stream the rows in order, while the later pairs are still being read
+            try (BufferedWriter csvWriter = Files.newBufferedWriter(mergedFile.toPath());
+                    ColumnarFileWriter columnarWriter = new ColumnarFileWriter(
+                            columnarFile.toPath(), CsvGenerator.COLUMNAR_COLUMNS)) {
+                boolean headerWritten = false;
+
+                for (int i = 0; i < generators.size(); i++) {
+                    CsvGenerator gen = generators.get(i);
+                    List<Pair<Snippet, SnippetResultRecord>> records = getResult(tasks.get(i));
+                    tasks.set(i, null); // the results are not needed after writing them
+
+                    if (records == null) {
+                        continue;
+                    }
+
+                    System.err.println(
+                            "Merging: " + gen.getRunnerProjectSettings().getProjectName());
+                    if (!headerWritten) {
+                        csvWriter.write(gen.createHeader());
+                        csvWriter.newLine();
+                        headerWritten = true;
+                    }
+
+                    for (Pair<Snippet, SnippetResultRecord> record : records) {
+                        csvWriter.write(gen.createRow(record.getLeft(), record.getRight()));
+                        csvWriter.newLine();
+                        columnarWriter.writeRow(
+                                gen.createColumnarRow(record.getLeft(), record.getRight()));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
         }
+    }
 
-        // write
-        String mergedFilename = snippetProject.getName();
-        mergedFilename += "___";
-        mergedFilename += String.join(",", runnerProjectTags);
-        mergedFilename += ".csv";
+    private static List<Pair<Snippet, SnippetResultRecord>> readResults(CsvGenerator gen)
+            throws Exception {
+        System.err.println("CsvBatchGenerator.generate for: "
+                + gen.getRunnerProjectSettings().getProjectName());
+        try {
+            return gen.readResults();
+        } catch (FileNotFoundException ex) {
+            // skip
+            System.err.println("Not found: " + ex.getMessage());
+            return null;
+        }
+    }
 
-        File mergedFile = new File(outputDir, mergedFilename);
+    private static <T> T getResult(ForkJoinTask<T> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            } else {
+                throw ex;
+            }
+        }
+    }
 
-        System.err.println("Writing into: " + mergedFile);
-        PathUtils.write(mergedFile.toPath(), mergedLines);
+    private String getMergedFilename() {
+        return snippetProject.getName() + "___" + String.join(",", runnerProjectTags);
     }
 }
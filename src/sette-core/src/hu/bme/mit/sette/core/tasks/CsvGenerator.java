@@ -24,26 +24,34 @@
 package hu.bme.mit.sette.core.tasks;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
 import org.simpleframework.xml.Serializer;
 import org.simpleframework.xml.convert.AnnotationStrategy;
 import org.simpleframework.xml.core.Persister;
 
+import com.google.common.collect.ImmutableList;
+
 import hu.bme.mit.sette.core.model.parserxml.SnippetInputsXml;
 import hu.bme.mit.sette.core.model.parserxml.SnippetResultXml;
 import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore.Table;
+import hu.bme.mit.sette.core.store.SnippetResultRecord;
 import hu.bme.mit.sette.core.tool.Tool;
+import hu.bme.mit.sette.core.util.io.ColumnarFile.Column;
+import hu.bme.mit.sette.core.util.io.ColumnarFile.ColumnType;
 import hu.bme.mit.sette.core.util.io.PathUtils;
 
 public final class CsvGenerator extends EvaluationTask<Tool> {
@@ -55,6 +63,32 @@ public final class CsvGenerator extends EvaluationTask<Tool> {
     }
 
     public void generate() throws Exception {
+        try (EvaluationMetrics.Span span = startPhase("export csv")) {
+            List<Pair<Snippet, SnippetResultRecord>> records = readResults();
+
+            // create file data
+            List<String> lines = new ArrayList<>();
+            lines.add(createHeader());
+            for (Pair<Snippet, SnippetResultRecord> record : records) {
+                lines.add(createRow(record.getLeft(), record.getRight()));
+            }
+
+            PathUtils.write(getCsvFile().toPath(), lines);
+        } finally {
+            exportMetrics();
+        }
+    }
+
+    /**
+     * Reads the results of the snippets in the order of the rows.
+     *
+     * @return the snippets with their results
+     * @throws FileNotFoundException
+     *             if the result of a snippet is not present
+     * @throws Exception
+     *             if the results cannot be read
+     */
+    List<Pair<Snippet, SnippetResultRecord>> readResults() throws Exception {
         // sort snippets
         SortedMap<String, Snippet> sortedSnippets = new TreeMap<>();
         for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
@@ -74,14 +108,12 @@ public final class CsvGenerator extends EvaluationTask<Tool> {
             }
         }
 
-        // create file data
-        List<String> lines = new ArrayList<>();
-        lines.add(createHeader());
-        for (Entry<String, Snippet> entry : sortedSnippets.entrySet()) {
-            lines.add(createRow(entry.getValue()));
+        // read results
+        List<Pair<Snippet, SnippetResultRecord>> records = new ArrayList<>();
+        for (Snippet snippet : sortedSnippets.values()) {
+            records.add(Pair.of(snippet, readResult(snippet)));
         }
-
-        PathUtils.write(getCsvFile().toPath(), lines);
+        return records;
     }
 
     public File getCsvFile() {
@@ -96,10 +128,15 @@ public final class CsvGenerator extends EvaluationTask<Tool> {
     // Size = TestCaseCount
     // Run = TAG
     // Duration: 43243 ms
+    // UserTime: 40120 ms (CPU time of the tool process tree)
+    // SystemTime: 1310 ms
+    // PeakRss: 524288 KB
+    // Signal: 9 (0 if the tool has exited normally)
     private static final String[] HEADER_COLUMNS = new String[] { "Category", "Snippet", "Tool",
-            "Coverage", "Status", "Size", "Run", "Duration" };
+            "Coverage", "Status", "Size", "Run", "Duration", "UserTime", "SystemTime", "PeakRss",
+            "Signal" };
 
-    private String createHeader() {
+    String createHeader() {
         String header = String.join(FIELD_SEP, HEADER_COLUMNS);
         if (getTool().getName().startsWith("SnippetInputChecker")) {
             header += FIELD_SEP + "RequiredStatementCoverage    ";
@@ -107,38 +144,15 @@ public final class CsvGenerator extends EvaluationTask<Tool> {
         return header;
     }
 
-    private String createRow(Snippet snippet) throws Exception {
-        // parse data
-        File infoFile = RunnerProjectUtils.getSnippetInfoFile(getRunnerProjectSettings(), snippet);
-        File inputsXmlFile = RunnerProjectUtils.getSnippetInputsFile(getRunnerProjectSettings(),
-                snippet);
-        File resultXmlFile = RunnerProjectUtils.getSnippetResultFile(getRunnerProjectSettings(),
-                snippet);
-
-        Serializer serializer = new Persister(new AnnotationStrategy());
-        SnippetInputsXml inputsXml = serializer.read(SnippetInputsXml.class, inputsXmlFile);
-        inputsXml.validate();
-
-        SnippetResultXml resultXml = serializer.read(SnippetResultXml.class, resultXmlFile);
-        resultXml.validate();
-
-        // example: Elapsed time: 2002 ms
-        String elapsedTime;
-        if (infoFile.exists()) {
-            elapsedTime = PathUtils.lines(infoFile.toPath())
-                    .filter(line -> !StringUtils.isBlank(line)
-                            && line.trim().startsWith("Elapsed time:"))
-                    .map(line -> line.replaceAll("Elapsed time:", "").trim()).findAny().get()
-                    .replaceAll("ms", "").trim();
-        } else {
-            elapsedTime = "";
-        }
+    String createRow(Snippet snippet, SnippetResultRecord record) {
+        String elapsedTime = record.getElapsedTimeInMs() != null
+                ? String.valueOf(record.getElapsedTimeInMs()) : "";
 
         String testCaseCount;
-        switch (resultXml.getResultType()) {
+        switch (record.getResultType()) {
             case NC:
             case C:
-                testCaseCount = String.valueOf(inputsXml.getGeneratedInputCount());
+                testCaseCount = String.valueOf(record.getGeneratedInputCount());
                 break;
 
             default:
@@ -153,12 +167,16 @@ public final class CsvGenerator extends EvaluationTask<Tool> {
         fields.add(snippetShortName.split("_")[0]); // category
         fields.add(snippetShortName); // snippet
         fields.add(getTool().getName()); // tool
-        fields.add(StringUtils.defaultIfEmpty(resultXml.getAchievedCoverage(), "").replace('%', ' ')
+        fields.add(StringUtils.defaultIfEmpty(record.getAchievedCoverage(), "").replace('%', ' ')
                 .trim()); // coverage
-        fields.add(resultXml.getResultType().toString()); // Status = ResultType
+        fields.add(record.getResultType().toString()); // Status = ResultType
         fields.add(testCaseCount); // Size = TestCaseCount
         fields.add(getRunnerProjectSettings().getTag()); // Run = TAG
         fields.add(elapsedTime); // Duration: 43243 ms
+        fields.add(Objects.toString(record.getUserTimeInMs(), "")); // UserTime: 40120 ms
+        fields.add(Objects.toString(record.getSystemTimeInMs(), "")); // SystemTime: 1310 ms
+        fields.add(Objects.toString(record.getPeakRssInKb(), "")); // PeakRss: 524288 KB
+        fields.add(Objects.toString(record.getSignal(), "")); // Signal: 9
 
         if (getTool().getName().startsWith("SnippetInputChecker")) {
             fields.add(String.format("%.2f", snippet.getRequiredStatementCoverage())); // coverage
@@ -171,6 +189,98 @@ public final class CsvGenerator extends EvaluationTask<Tool> {
         return String.join(FIELD_SEP, fields);
     }
 
+    /** The columns of the columnar export, the order matches {@link #createColumnarRow}. */
+    public static final ImmutableList<Column> COLUMNAR_COLUMNS = ImmutableList.of(
+            new Column("Category", ColumnType.STRING),
+            new Column("Snippet", ColumnType.STRING),
+            new Column("SnippetId", ColumnType.STRING),
+            new Column("Tool", ColumnType.STRING),
+            new Column("Run", ColumnType.STRING),
+            new Column("Status", ColumnType.STRING),
+            new Column("Coverage", ColumnType.DOUBLE),
+            new Column("Size", ColumnType.INT),
+            new Column("Duration", ColumnType.LONG),
+            new Column("UserTime", ColumnType.LONG),
+            new Column("SystemTime", ColumnType.LONG),
+            new Column("PeakRss", ColumnType.LONG),
+            new Column("Signal", ColumnType.INT),
+            new Column("RequiredStatementCoverage", ColumnType.DOUBLE));
+
+    Object[] createColumnarRow(Snippet snippet, SnippetResultRecord record) {
+        String snippetShortName = getShortSnippetName(snippet);
+
+        // example: 96.43% (the decimal separator depends on the locale of the test-runner)
+        String coverage = StringUtils.defaultIfEmpty(record.getAchievedCoverage(), "")
+                .replace('%', ' ').replace(',', '.').trim();
+
+        Integer testCaseCount;
+        switch (record.getResultType()) {
+            case NC:
+            case C:
+                testCaseCount = record.getGeneratedInputCount();
+                break;
+
+            default:
+                testCaseCount = null;
+                break;
+        }
+
+        Double requiredStatementCoverage = null;
+        if (getTool().getName().startsWith("SnippetInputChecker")) {
+            requiredStatementCoverage = snippet.getRequiredStatementCoverage();
+        }
+
+        return new Object[] { snippetShortName.split("_")[0], snippetShortName, snippet.getId(),
+                getTool().getName(), getRunnerProjectSettings().getTag(),
+                record.getResultType().toString(),
+                coverage.isEmpty() ? null : Double.valueOf(coverage), testCaseCount,
+                record.getElapsedTimeInMs(), record.getUserTimeInMs(), record.getSystemTimeInMs(),
+                record.getPeakRssInKb(), record.getSignal(), requiredStatementCoverage };
+    }
+
+    /**
+     * Reads the result of the snippet from the result store (if it is used) or from the XML and
+     * info files of the runner project.
+     *
+     * @param snippet
+     *            the snippet
+     * @return the result of the snippet
+     * @throws FileNotFoundException
+     *             if the result of the snippet is not present
+     * @throws Exception
+     *             if the result cannot be read
+     */
+    private SnippetResultRecord readResult(Snippet snippet) throws Exception {
+        if (getResultStore() != null) {
+            byte[] data = getResultStore().get(Table.RESULTS, getResultStoreRunId(),
+                    snippet.getId());
+            if (data == null) {
+                throw new FileNotFoundException(String.format(
+                        "%s: no result in the result store for %s", getResultStoreRunId(),
+                        snippet.getId()));
+            }
+            return SnippetResultRecord.fromBytes(data);
+        }
+
+        // parse data
+        File infoFile = RunnerProjectUtils.getSnippetInfoFile(getRunnerProjectSettings(), snippet);
+        File inputsXmlFile = RunnerProjectUtils.getSnippetInputsFile(getRunnerProjectSettings(),
+                snippet);
+        File resultXmlFile = RunnerProjectUtils.getSnippetResultFile(getRunnerProjectSettings(),
+                snippet);
+
+        Serializer serializer = new Persister(new AnnotationStrategy());
+        SnippetInputsXml inputsXml = serializer.read(SnippetInputsXml.class, inputsXmlFile);
+        inputsXml.validate();
+
+        SnippetResultXml resultXml = serializer.read(SnippetResultXml.class, resultXmlFile);
+        resultXml.validate();
+
+        return SnippetResultRecord.create(resultXml.getResultType(),
+                resultXml.getAchievedCoverage(), inputsXml.getGeneratedInputCount(),
+                RunnerProjectUtils.readSnippetRunInfo(infoFile));
+    }
+
     private static String getShortSnippetName(Snippet snippet) {
         String className = snippet.getContainer().getName();
 
@@ -0,0 +1,368 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.core.tasks.MetricsRecord.MetricsScope;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import hu.bme.mit.sette.core.util.process.ProcessExecutionResult;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Collects the wall time, CPU time, GC time, I/O and child process usage of the phases and
+ * snippets of an evaluation task. The records are exported as a timeline into the runner project
+ * ({@link #CSV_FILE_NAME} and {@link #JSON_FILE_NAME}, one JSON object per line). The phase spans
+ * measure the CPU time and the I/O of the whole process, while the snippet spans only measure the
+ * thread which has executed them, thus the snippets handled by parallel workers do not affect each
+ * other. The GC time is only measured for the whole JVM, thus it is only recorded for the phase
+ * spans (it is <code>-1</code> for the snippet spans). The I/O counters are the
+ * <code>rchar</code>/<code>wchar</code> values of <code>/proc</code> (i.e. all the bytes passed to
+ * read/write calls, including pipes) and they are only available on Linux. The class is
+ * thread-safe.
+ */
+public final class EvaluationMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(EvaluationMetrics.class);
+
+    /** The name of the CSV export in the runner project. */
+    public static final String CSV_FILE_NAME = "sette-metrics.csv";
+
+    /** The name of the JSON export (one record per line) in the runner project. */
+    public static final String JSON_FILE_NAME = "sette-metrics.jsonl";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Path PROCESS_IO_FILE = Paths.get("/proc/self/io");
+    private static final Path THREAD_IO_FILE = Paths.get("/proc/thread-self/io");
+    private static final ThreadLocal<Span> CURRENT_SPAN = new ThreadLocal<>();
+
+    /** The name of the evaluation task. */
+    @Getter
+    private final String taskName;
+
+    private final List<MetricsRecord> records = new ArrayList<>();
+
+    /** The open phase spans, they record the child processes of all the threads. */
+    private final List<Span> openPhases = new ArrayList<>();
+
+    /**
+     * Instantiates new metrics.
+     *
+     * @param taskName
+     *            the name of the evaluation task
+     */
+    public EvaluationMetrics(@NonNull String taskName) {
+        this.taskName = taskName;
+    }
+
+    /**
+     * Starts to measure a phase (the counters cover the whole process).
+     *
+     * @param phase
+     *            the name of the phase
+     * @return the span which records the phase when it is closed
+     */
+    public Span startPhase(@NonNull String phase) {
+        return new Span(this, phase, null, MetricsScope.PROCESS);
+    }
+
+    /**
+     * Starts to measure the handling of a snippet in the current thread (the counters only cover
+     * the current thread).
+     *
+     * @param phase
+     *            the name of the phase
+     * @param snippetId
+     *            the ID of the snippet
+     * @return the span which records the snippet when it is closed
+     */
+    public Span startSnippet(@NonNull String phase, @NonNull String snippetId) {
+        return new Span(this, phase, snippetId, MetricsScope.THREAD);
+    }
+
+    /**
+     * Returns the records which have not been exported yet.
+     *
+     * @return the records
+     */
+    public synchronized ImmutableList<MetricsRecord> getRecords() {
+        return ImmutableList.copyOf(records);
+    }
+
+    /**
+     * Appends the records to the exports in the given directory and removes them from the memory.
+     * The CSV header is only written when the file is created.
+     *
+     * @param dir
+     *            the directory (usually the runner project)
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public synchronized void export(@NonNull Path dir) throws IOException {
+        PathUtils.createDir(dir);
+        Path csvFile = dir.resolve(CSV_FILE_NAME);
+        boolean writeHeader = !PathUtils.exists(csvFile);
+
+        try (BufferedWriter csv = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                BufferedWriter json = Files.newBufferedWriter(dir.resolve(JSON_FILE_NAME),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND)) {
+            if (writeHeader) {
+                csv.write(String.join(",", MetricsRecord.CSV_HEADER));
+                csv.newLine();
+            }
+
+            for (MetricsRecord record : records) {
+                List<Object> values = record.toCsvValues();
+                ObjectNode node = MAPPER.createObjectNode();
+
+                for (int i = 0; i < values.size(); i++) {
+                    String value = String.valueOf(values.get(i));
+                    csv.write(i == 0 ? "" : ",");
+                    csv.write(escapeCsv(value));
+
+                    if (values.get(i) instanceof Number) {
+                        node.put(MetricsRecord.CSV_HEADER.get(i), ((Number) values.get(i))
+                                .longValue());
+                    } else {
+                        node.put(MetricsRecord.CSV_HEADER.get(i), value);
+                    }
+                }
+
+                csv.newLine();
+                json.write(MAPPER.writeValueAsString(node));
+                json.newLine();
+            }
+        }
+
+        LOG.info("Exported {} metrics records to {}", records.size(), dir);
+        records.clear();
+    }
+
+    /**
+     * Adds a finished child process to the span of the current thread and to the open phases of
+     * its metrics. Child processes finished without an open span in the current thread are not
+     * recorded.
+     *
+     * @param result
+     *            the result of the child process
+     */
+    public static void addChildProcess(@NonNull ProcessExecutionResult result) {
+        Span span = CURRENT_SPAN.get();
+        if (span != null) {
+            synchronized (span.metrics) {
+                for (Span phase : span.metrics.openPhases) {
+                    phase.addChildProcess(result);
+                }
+
+                if (span.scope == MetricsScope.THREAD) {
+                    span.addChildProcess(result);
+                }
+            }
+        }
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * A measured span of the task, the record is created when the span is closed. A span must be
+     * closed by the thread which has started it.
+     */
+    public static final class Span implements AutoCloseable {
+        /** A span which does not record anything (used when the metrics are disabled). */
+        public static final Span NOOP = new Span(null, null, null, null);
+
+        private final EvaluationMetrics metrics;
+        private final String phase;
+        private final String snippetId;
+        private final MetricsScope scope;
+        private final Span parent;
+
+        private final long startTime;
+        private final long startNanos;
+        private final long startCpuTime;
+        private final long startGcTime;
+        private final long[] startIo;
+
+        // guarded by the metrics
+        private int childProcesses = 0;
+        private long childElapsedTimeInMs = 0;
+        private long childCpuTimeInMs = -1;
+        private long childPeakRssInKb = -1;
+
+        private boolean closed = false;
+
+        private Span(EvaluationMetrics metrics, String phase, String snippetId,
+                MetricsScope scope) {
+            this.metrics = metrics;
+            this.phase = phase;
+            this.snippetId = snippetId;
+            this.scope = scope;
+
+            if (metrics != null) {
+                this.parent = CURRENT_SPAN.get();
+                CURRENT_SPAN.set(this);
+
+                this.startTime = System.currentTimeMillis();
+                this.startNanos = System.nanoTime();
+                this.startCpuTime = getCpuTimeInNanos(scope);
+                // the GC time cannot be attributed to a thread
+                this.startGcTime = scope == MetricsScope.PROCESS ? getGcTimeInMs() : -1;
+                this.startIo = readIoCounters(scope);
+
+                if (scope == MetricsScope.PROCESS) {
+                    synchronized (metrics) {
+                        metrics.openPhases.add(this);
+                    }
+                }
+            } else {
+                this.parent = null;
+                this.startTime = 0;
+                this.startNanos = 0;
+                this.startCpuTime = -1;
+                this.startGcTime = -1;
+                this.startIo = null;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (metrics == null || closed) {
+                return;
+            }
+            closed = true;
+
+            long wallTimeInMs = (System.nanoTime() - startNanos) / 1_000_000;
+            long cpuTimeInNanos = difference(startCpuTime, getCpuTimeInNanos(scope));
+            long gcTimeInMs = scope == MetricsScope.PROCESS
+                    ? difference(startGcTime, getGcTimeInMs()) : -1;
+            long[] io = readIoCounters(scope);
+
+            synchronized (metrics) {
+                metrics.openPhases.remove(this);
+                metrics.records.add(new MetricsRecord(metrics.taskName, phase, snippetId, scope,
+                        Thread.currentThread().getName(), startTime, wallTimeInMs,
+                        cpuTimeInNanos < 0 ? -1 : cpuTimeInNanos / 1_000_000, gcTimeInMs,
+                        difference(startIo[0], io[0]), difference(startIo[1], io[1]),
+                        childProcesses, childElapsedTimeInMs, childCpuTimeInMs,
+                        childPeakRssInKb));
+            }
+
+            if (parent != null) {
+                CURRENT_SPAN.set(parent);
+            } else {
+                CURRENT_SPAN.remove();
+            }
+        }
+
+        private void addChildProcess(ProcessExecutionResult result) {
+            childProcesses++;
+            childElapsedTimeInMs += result.getElapsedTimeInMs();
+
+            // only known if the process tree was supervised
+            if (result.getUserTimeInMs() >= 0) {
+                childCpuTimeInMs = Math.max(childCpuTimeInMs, 0) + result.getUserTimeInMs()
+                        + result.getSystemTimeInMs();
+            }
+            childPeakRssInKb = Math.max(childPeakRssInKb, result.getPeakRssInKb());
+        }
+
+        private static long difference(long start, long end) {
+            return start < 0 || end < 0 ? -1 : end - start;
+        }
+
+        private static long getCpuTimeInNanos(MetricsScope scope) {
+            if (scope == MetricsScope.THREAD) {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                return bean.isCurrentThreadCpuTimeSupported() ? bean.getCurrentThreadCpuTime()
+                        : -1;
+            } else {
+                OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+                if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+                    return ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime();
+                } else {
+                    return -1;
+                }
+            }
+        }
+
+        private static long getGcTimeInMs() {
+            long total = 0;
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (bean.getCollectionTime() > 0) {
+                    total += bean.getCollectionTime();
+                }
+            }
+            return total;
+        }
+
+        private static long[] readIoCounters(MetricsScope scope) {
+            long[] counters = { -1, -1 };
+            Path file = scope == MetricsScope.THREAD ? THREAD_IO_FILE : PROCESS_IO_FILE;
+
+            if (!PathUtils.exists(file)) {
+                return counters;
+            }
+
+            try {
+                for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+                    if (line.startsWith("rchar:")) {
+                        counters[0] = Long.parseLong(line.substring(6).trim());
+                    } else if (line.startsWith("wchar:")) {
+                        counters[1] = Long.parseLong(line.substring(6).trim());
+                    }
+                }
+            } catch (IOException | NumberFormatException ex) {
+                LOG.debug("Cannot read the I/O counters from " + file, ex);
+            }
+
+            return counters;
+        }
+    }
+}
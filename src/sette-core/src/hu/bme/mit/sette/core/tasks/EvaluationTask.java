@@ -23,16 +23,29 @@
 // NOTE revise this file
 package hu.bme.mit.sette.core.tasks;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import hu.bme.mit.sette.core.model.runner.RunnerProjectSettings;
+import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore;
 import hu.bme.mit.sette.core.tool.Tool;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 
 /**
  * Base class for SETTE evaluation tasks, i.e. steps of the whole workflow.
@@ -51,6 +64,29 @@ public abstract class EvaluationTask<T extends Tool> {
     @Getter
     private final RunnerProjectSettings<T> runnerProjectSettings;
 
+    /**
+     * Whether the task keeps the previous outputs and skips the snippets whose outputs are up to
+     * date (see {@link SnippetFingerprint}).
+     */
+    @Getter
+    @Setter
+    private boolean incremental = false;
+
+    /**
+     * The embedded result store, if it is set the results are also written into it (and the
+     * exporters read them from it).
+     */
+    @Getter
+    @Setter
+    private ResultStore resultStore = null;
+
+    /**
+     * The metrics of the task, if they are enabled the phases and the snippets are measured and
+     * exported into the runner project (see {@link EvaluationMetrics}).
+     */
+    @Getter
+    private EvaluationMetrics metrics = null;
+
     /**
      * Instantiates a new SETTE task.
      *
@@ -84,4 +120,204 @@ public abstract class EvaluationTask<T extends Tool> {
     public final T getTool() {
         return this.runnerProjectSettings.getTool();
     }
+
+    /**
+     * Enables or disables the metrics of the task.
+     *
+     * @param enabled
+     *            whether the metrics should be collected
+     */
+    public final void setMetricsEnabled(boolean enabled) {
+        if (enabled && metrics == null) {
+            metrics = new EvaluationMetrics(getClass().getSimpleName());
+        } else if (!enabled) {
+            metrics = null;
+        }
+    }
+
+    /**
+     * Starts to measure a phase of the task.
+     *
+     * @param phase
+     *            the name of the phase
+     * @return the span to close when the phase is finished (does nothing if the metrics are
+     *         disabled)
+     */
+    protected final EvaluationMetrics.Span startPhase(@NonNull String phase) {
+        return metrics != null ? metrics.startPhase(phase) : EvaluationMetrics.Span.NOOP;
+    }
+
+    /**
+     * Starts to measure the handling of a snippet in the current thread.
+     *
+     * @param phase
+     *            the name of the phase
+     * @param snippet
+     *            the snippet
+     * @return the span to close when the snippet is finished (does nothing if the metrics are
+     *         disabled)
+     */
+    protected final EvaluationMetrics.Span startSnippet(@NonNull String phase,
+            @NonNull Snippet snippet) {
+        return metrics != null ? metrics.startSnippet(phase, snippet.getId())
+                : EvaluationMetrics.Span.NOOP;
+    }
+
+    /**
+     * Exports the collected metrics into the runner project (if the metrics are enabled). Errors
+     * are only logged, since the metrics must not break the evaluation.
+     */
+    protected final void exportMetrics() {
+        // the runner project is not created only for the metrics (e.g. after a failed generation)
+        if (metrics != null && runnerProjectSettings.getBaseDir().exists()) {
+            try {
+                metrics.export(runnerProjectSettings.getBaseDir().toPath());
+            } catch (IOException ex) {
+                log.warn("Cannot export the metrics", ex);
+            }
+        }
+    }
+
+    /**
+     * Gets the ID of the run in the result store.
+     *
+     * @return the ID of the run (the name of the runner project)
+     */
+    protected final String getResultStoreRunId() {
+        return runnerProjectSettings.getProjectName();
+    }
+
+    /**
+     * Creates a fingerprint for the given phase and snippet which already contains the sources
+     * affecting the snippet (see {@link SnippetFingerprint#putSources(SnippetProject)}) and the
+     * tool (including its version).
+     *
+     * @param phase
+     *            the phase
+     * @param snippet
+     *            the snippet
+     * @return the fingerprint
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    protected final SnippetFingerprint createFingerprint(@NonNull String phase,
+            @NonNull Snippet snippet) throws IOException {
+        return new SnippetFingerprint(phase, snippet)
+                .putSources(snippetProject)
+                .putValue("tool", getTool().getClass().getName() + " " + getTool().getName()
+                        + " " + getTool().getVersion());
+    }
+
+    /**
+     * Processes the snippets with a fixed size worker pool. The snippets are waited for in order
+     * and the first error is rethrown after cancelling the remaining snippets (like in the
+     * sequential mode).
+     *
+     * @param snippets
+     *            the snippets to process
+     * @param parallelism
+     *            the number of workers
+     * @param action
+     *            the action which processes one snippet (it is called concurrently)
+     * @throws Exception
+     *             if the processing of a snippet fails
+     */
+    protected static void processSnippetsConcurrently(@NonNull List<Snippet> snippets,
+            int parallelism, @NonNull SnippetAction action) throws Exception {
+        processSnippetsConcurrently(snippets, parallelism, null,
+                (snippet, logOut) -> action.process(snippet));
+    }
+
+    /**
+     * Processes the snippets with a fixed size worker pool (see
+     * {@link #processSnippetsConcurrently(List, int, SnippetAction)}). Each snippet writes its log
+     * entries into its own buffer, and the buffers are written to the log in snippet order (thus
+     * the log is the same as in the sequential mode). The log of the failed snippet is also
+     * written.
+     *
+     * @param snippets
+     *            the snippets to process
+     * @param parallelism
+     *            the number of workers
+     * @param logOut
+     *            the log (<code>null</code> if the log entries should be dropped)
+     * @param action
+     *            the action which processes one snippet (it is called concurrently)
+     * @throws Exception
+     *             if the processing of a snippet fails
+     */
+    protected static void processSnippetsConcurrently(@NonNull List<Snippet> snippets,
+            int parallelism, PrintStream logOut, @NonNull LoggingSnippetAction action)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Pair<ByteArrayOutputStream, Future<?>>> runs = new ArrayList<>();
+            for (Snippet snippet : snippets) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                Future<?> future = executor.submit(() -> {
+                    try (PrintStream bufferOut = new PrintStream(buffer, true)) {
+                        action.process(snippet, bufferOut);
+                    }
+                    return null;
+                });
+                runs.add(Pair.of(buffer, future));
+            }
+
+            // wait in snippet order and fail on the first error (like the sequential mode)
+            for (Pair<ByteArrayOutputStream, Future<?>> run : runs) {
+                try {
+                    run.getRight().get();
+                } catch (ExecutionException ex) {
+                    runs.forEach(r -> r.getRight().cancel(true));
+                    if (ex.getCause() instanceof Exception) {
+                        throw (Exception) ex.getCause();
+                    } else {
+                        throw new RuntimeException(ex.getCause());
+                    }
+                } finally {
+                    if (logOut != null) {
+                        logOut.write(run.getLeft().toByteArray());
+                        logOut.flush();
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Processes one snippet (see {@link EvaluationTask#processSnippetsConcurrently}).
+     */
+    @FunctionalInterface
+    protected interface SnippetAction {
+        /**
+         * Processes the snippet.
+         *
+         * @param snippet
+         *            the snippet
+         * @throws Exception
+         *             if the processing fails
+         */
+        void process(Snippet snippet) throws Exception;
+    }
+
+    /**
+     * Processes one snippet and writes its log entries (see
+     * {@link EvaluationTask#processSnippetsConcurrently}).
+     */
+    @FunctionalInterface
+    protected interface LoggingSnippetAction {
+        /**
+         * Processes the snippet.
+         *
+         * @param snippet
+         *            the snippet
+         * @param logOut
+         *            the log of the snippet
+         * @throws Exception
+         *             if the processing fails
+         */
+        void process(Snippet snippet, PrintStream logOut) throws Exception;
+    }
 }
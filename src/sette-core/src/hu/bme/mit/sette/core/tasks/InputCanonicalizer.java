@@ -0,0 +1,134 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import hu.bme.mit.sette.core.model.parserxml.AbstractParameterElement;
+import hu.bme.mit.sette.core.model.parserxml.ArrayParameterElement;
+import hu.bme.mit.sette.core.model.parserxml.InputElement;
+import hu.bme.mit.sette.core.model.parserxml.ParameterElement;
+import hu.bme.mit.sette.core.model.runner.ParameterType;
+import lombok.NonNull;
+
+/**
+ * Creates the canonical form of the generated inputs, i.e. two inputs have equal canonical forms
+ * if the test cases generated from them are semantically the same (the parameter types, the
+ * parameter values, the heap and the expected exception are the same). The canonical form is used
+ * to drop the duplicated inputs before the test generation.
+ * <p>
+ * The integer and decimal values are compared numerically (e.g. <code>+1</code>, <code>1</code>
+ * and <code>1.0</code> are equal for a double parameter), but values which are written differently
+ * into the test code (e.g. <code>010</code> is an octal literal in Java) are kept as they are. The
+ * lines of the heap are compared without the leading and trailing whitespace and the blank lines.
+ */
+public final class InputCanonicalizer {
+    /** Integer literals which are not octal in Java. */
+    private static final Pattern INTEGER_PATTERN = Pattern.compile("[-+]?(0|[1-9][0-9]*)");
+
+    /** Decimal literals without exponent and suffix. */
+    private static final Pattern DECIMAL_PATTERN = Pattern.compile("[-+]?[0-9]+(\\.[0-9]+)?");
+
+    /** Static class. */
+    private InputCanonicalizer() {
+        throw new UnsupportedOperationException("Static class");
+    }
+
+    /**
+     * Creates the canonical form of the input.
+     *
+     * @param input
+     *            the input
+     * @return the canonical form (it can be compared with {@link Object#equals(Object)})
+     */
+    public static List<String> canonicalize(@NonNull InputElement input) {
+        List<String> canonicalForm = new ArrayList<>();
+        canonicalForm.add(canonicalizeHeap(input.getHeap()));
+        canonicalForm.add(input.getExpected() == null ? null : input.getExpected().trim());
+
+        for (AbstractParameterElement parameter : input.getParameters()) {
+            if (parameter instanceof ArrayParameterElement) {
+                canonicalForm.add(parameter.getType() + "[]");
+                canonicalForm.add(
+                        String.valueOf(((ArrayParameterElement) parameter).getElements()));
+            } else {
+                ParameterElement p = (ParameterElement) parameter;
+                canonicalForm.add(String.valueOf(p.getType()));
+                canonicalForm.add(canonicalizeValue(p.getType(), p.getValue()));
+            }
+        }
+
+        return canonicalForm;
+    }
+
+    private static String canonicalizeHeap(String heap) {
+        if (heap == null) {
+            return null;
+        }
+
+        return Arrays.stream(heap.split("\\r?\\n")).map(String::trim).filter(s -> !s.isEmpty())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String canonicalizeValue(ParameterType type, String value) {
+        if (type == null || value == null) {
+            return value;
+        }
+
+        String trimmed = value.trim();
+        switch (type) {
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+                if (INTEGER_PATTERN.matcher(trimmed).matches()) {
+                    return new BigInteger(trimmed).toString();
+                } else {
+                    return value;
+                }
+
+            case FLOAT:
+                if (DECIMAL_PATTERN.matcher(trimmed).matches()) {
+                    return Float.toString(Float.parseFloat(trimmed));
+                } else {
+                    return value;
+                }
+
+            case DOUBLE:
+                if (DECIMAL_PATTERN.matcher(trimmed).matches()) {
+                    return Double.toString(Double.parseDouble(trimmed));
+                } else {
+                    return value;
+                }
+
+            default:
+                // characters, booleans and expressions are kept as they are
+                return value;
+        }
+    }
+}
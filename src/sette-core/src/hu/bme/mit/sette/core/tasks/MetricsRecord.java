@@ -0,0 +1,116 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.Data;
+
+/**
+ * A measured span of an evaluation task (see {@link EvaluationMetrics}). The values which could not
+ * be measured on the current platform are <code>-1</code>.
+ */
+@Data
+public final class MetricsRecord {
+    /** The column names of the CSV export. */
+    public static final ImmutableList<String> CSV_HEADER = ImmutableList.of("task", "phase",
+            "snippet", "scope", "thread", "startTime", "wallTimeInMs", "cpuTimeInMs",
+            "gcTimeInMs", "bytesRead", "bytesWritten", "childProcesses", "childElapsedTimeInMs",
+            "childCpuTimeInMs", "childPeakRssInKb");
+
+    /** The name of the evaluation task. */
+    private final String task;
+
+    /** The name of the phase. */
+    private final String phase;
+
+    /** The ID of the snippet or <code>null</code> if the span is not related to a snippet. */
+    private final String snippetId;
+
+    /**
+     * The scope of the CPU time and I/O counters (the process for phases, the thread for
+     * snippets).
+     */
+    private final MetricsScope scope;
+
+    /** The name of the thread which has executed the span. */
+    private final String thread;
+
+    /** The start time of the span (milliseconds since the epoch). */
+    private final long startTime;
+
+    /** The elapsed wall time. */
+    private final long wallTimeInMs;
+
+    /** The CPU time used by the process or the thread of the scope. */
+    private final long cpuTimeInMs;
+
+    /**
+     * The time spent in garbage collection by the whole JVM (only measured for the process scope,
+     * otherwise <code>-1</code>).
+     */
+    private final long gcTimeInMs;
+
+    /** The number of bytes read by the process or the thread of the scope. */
+    private final long bytesRead;
+
+    /** The number of bytes written by the process or the thread of the scope. */
+    private final long bytesWritten;
+
+    /** The number of finished child processes. */
+    private final int childProcesses;
+
+    /** The total elapsed time of the finished child processes. */
+    private final long childElapsedTimeInMs;
+
+    /** The total CPU time (user and system) of the finished child process trees. */
+    private final long childCpuTimeInMs;
+
+    /** The largest peak RSS of the finished child process trees in KB. */
+    private final long childPeakRssInKb;
+
+    /**
+     * Returns the values in the order of {@link #CSV_HEADER}.
+     *
+     * @return the values of the record
+     */
+    public List<Object> toCsvValues() {
+        return Arrays.asList(task, phase, snippetId == null ? "" : snippetId,
+                scope.name().toLowerCase(), thread, startTime, wallTimeInMs, cpuTimeInMs,
+                gcTimeInMs, bytesRead, bytesWritten, childProcesses, childElapsedTimeInMs,
+                childCpuTimeInMs, childPeakRssInKb);
+    }
+
+    /**
+     * The scope of the CPU time and I/O counters.
+     */
+    public enum MetricsScope {
+        /** The counters cover the whole SETTE process (including all its threads). */
+        PROCESS,
+        /** The counters only cover the thread which has executed the span. */
+        THREAD
+    }
+}
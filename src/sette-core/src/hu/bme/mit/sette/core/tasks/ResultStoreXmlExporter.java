@@ -0,0 +1,116 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import hu.bme.mit.sette.core.model.parserxml.SnippetInputsXml;
+import hu.bme.mit.sette.core.model.parserxml.SnippetResultXml;
+import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
+import hu.bme.mit.sette.core.model.snippet.Snippet;
+import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
+import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore.Table;
+import hu.bme.mit.sette.core.store.ResultStoreXml;
+import hu.bme.mit.sette.core.store.SnippetResultRecord;
+import hu.bme.mit.sette.core.tool.Tool;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+
+/**
+ * Exports the results of a runner project from the result store into the XML files of the runner
+ * project (inputs, result and coverage), for compatibility with the tools which read these files.
+ */
+public final class ResultStoreXmlExporter extends EvaluationTask<Tool> {
+    public ResultStoreXmlExporter(SnippetProject snippetProject, Path outputDir, Tool tool,
+            String runnerProjectTag) {
+        super(snippetProject, outputDir, tool, runnerProjectTag);
+    }
+
+    /**
+     * Exports the results of every snippet which is present in the result store.
+     *
+     * @return the number of the exported snippets
+     * @throws Exception
+     *             if the export fails
+     */
+    public int export() throws Exception {
+        checkState(getResultStore() != null, "The result store must be set");
+
+        int count = 0;
+        for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
+            for (Snippet snippet : container.getSnippets().values()) {
+                if (exportSnippet(snippet)) {
+                    count++;
+                } else {
+                    log.info("Skipping {} (not present in the result store)", snippet.getId());
+                }
+            }
+        }
+
+        log.info("Exported {} snippets of {}", count, getResultStoreRunId());
+        return count;
+    }
+
+    private boolean exportSnippet(Snippet snippet) throws Exception {
+        String inputsXmlData = getResultStore().getString(Table.INPUTS, getResultStoreRunId(),
+                snippet.getId());
+        if (inputsXmlData == null) {
+            return false;
+        }
+
+        write(RunnerProjectUtils.getSnippetInputsFile(getRunnerProjectSettings(), snippet),
+                inputsXmlData);
+
+        byte[] resultData = getResultStore().get(Table.RESULTS, getResultStoreRunId(),
+                snippet.getId());
+        if (resultData != null) {
+            SnippetInputsXml inputsXml = ResultStoreXml.fromXml(SnippetInputsXml.class,
+                    inputsXmlData);
+            SnippetResultRecord record = SnippetResultRecord.fromBytes(resultData);
+
+            SnippetResultXml resultXml = SnippetResultXml.createForWithResult(inputsXml,
+                    record.getResultType(), record.getAchievedCoverage());
+            resultXml.validate();
+            write(RunnerProjectUtils.getSnippetResultFile(getRunnerProjectSettings(), snippet),
+                    ResultStoreXml.toXml(resultXml));
+        }
+
+        String coverageXmlData = getResultStore().getString(Table.COVERAGE,
+                getResultStoreRunId(), snippet.getId());
+        if (coverageXmlData != null) {
+            write(RunnerProjectUtils.getSnippetCoverageFile(getRunnerProjectSettings(), snippet),
+                    coverageXmlData);
+        }
+
+        return true;
+    }
+
+    private static void write(File file, String data) throws IOException {
+        PathUtils.write(file.toPath(), data.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -26,16 +26,17 @@ package hu.bme.mit.sette.core.tasks;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.Validate;
-import org.simpleframework.xml.Serializer;
-import org.simpleframework.xml.convert.AnnotationStrategy;
-import org.simpleframework.xml.core.Persister;
-import org.simpleframework.xml.stream.Format;
 
+import com.google.common.base.Preconditions;
 import com.google.common.primitives.Primitives;
 
 import hu.bme.mit.sette.core.exceptions.RunResultParserException;
@@ -51,80 +52,81 @@ import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore;
+import hu.bme.mit.sette.core.store.ResultStore.Table;
+import hu.bme.mit.sette.core.store.ResultStoreXml;
 import hu.bme.mit.sette.core.tool.Tool;
 import hu.bme.mit.sette.core.tool.ToolOutputType;
 import hu.bme.mit.sette.core.util.io.PathUtils;
+import hu.bme.mit.sette.core.util.process.OutputTailBuffer;
 import hu.bme.mit.sette.core.validator.PathType;
 import hu.bme.mit.sette.core.validator.PathValidator;
+import lombok.Getter;
 
 public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T> {
+    /** The number of snippets which are parsed concurrently. */
+    @Getter
+    private int parallelism = 1;
+
     public RunResultParser(SnippetProject snippetProject, Path outputDir, T tool,
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
     }
 
+    /**
+     * Sets the number of snippets which are parsed concurrently. If it is greater than one, the
+     * {@link #parseSnippet(Snippet, SnippetOutFiles, SnippetInputsXml)} method is called from
+     * several threads at the same time (but {@link #beforeParse()} and {@link #afterParse()} are
+     * always called on the calling thread).
+     *
+     * @param parallelism
+     *            the number of snippets (must be positive)
+     */
+    public void setParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "The parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
     public final void parse() throws Exception {
         if (!RunnerProjectUtils.getRunnerLogFile(getRunnerProjectSettings()).exists()) {
             throw new RunResultParserException("Run the tool on the runner project first", this);
         }
 
+        try (EvaluationMetrics.Span span = startPhase("parse")) {
+            parseAll();
+        } finally {
+            exportMetrics();
+        }
+    }
+
+    private void parseAll() throws Exception {
         beforeParse();
 
-        // foreach containers
+        List<Snippet> snippets = new ArrayList<>();
         for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
-            // foreach snippets
-            for (Snippet snippet : container.getSnippets().values()) {
-                // skip container with higher java version than supported
-                if (container.getRequiredJavaVersion()
-                        .compareTo(getTool().getSupportedJavaVersion()) > 0) {
-                    // TODO error/warning handling
-                    System.err.println("Skipping container: " + container.getJavaClass().getName()
-                            + " (required Java version: " + container.getRequiredJavaVersion()
-                            + ")");
-                    SnippetInputsXml inputsXml = new SnippetInputsXml();
-                    if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
-                        inputsXml.setGeneratedInputs(new ArrayList<>());
-                    } else {
-                        inputsXml.setGeneratedInputCount(0);
-                    }
-                    inputsXml.setToolName(getTool().getName());
-                    inputsXml.setSnippetProjectElement(new SnippetProjectElement(
-                            getSnippetProject().getBaseDir().toFile().getCanonicalPath()));
-
-                    inputsXml.setSnippetElement(
-                            new SnippetElement(snippet.getContainer().getJavaClass().getName(),
-                                    snippet.getMethod().getName()));
-                    inputsXml.setResultType(ResultType.NA);
-                    inputsXml.validate();
-
-                    File inputsXmlFile = RunnerProjectUtils
-                            .getSnippetInputsFile(getRunnerProjectSettings(), snippet);
-
-                    PathUtils.createDir(inputsXmlFile.getParentFile().toPath());
-
-                    PathUtils.deleteIfExists(inputsXmlFile.toPath());
-
-                    Serializer serializer = new Persister(new AnnotationStrategy(),
-                            new Format("<?xml version=\"1.0\" encoding= \"UTF-8\" ?>"));
-                    serializer.write(inputsXml, inputsXmlFile);
-                    continue;
-                }
-
-                SnippetInputsXml inputsXml = parseSnippet(snippet);
-                // TODO further validation
-                inputsXml.validate();
-
-                File inputsXmlFile = RunnerProjectUtils
-                        .getSnippetInputsFile(getRunnerProjectSettings(), snippet);
-
-                PathUtils.createDir(inputsXmlFile.getParentFile().toPath());
-
-                PathUtils.deleteIfExists(inputsXmlFile.toPath());
+            snippets.addAll(container.getSnippets().values());
+        }
 
-                Serializer serializer = new Persister(new AnnotationStrategy(),
-                        new Format("<?xml version=\"1.0\" encoding= \"UTF-8\" ?>"));
-                serializer.write(inputsXml, inputsXmlFile);
+        // the result types are kept for the validation (skipped snippets are not present)
+        Map<String, ResultType> parsedResultTypes = new ConcurrentHashMap<>();
+        if (parallelism <= 1) {
+            for (Snippet snippet : snippets) {
+                parseAndWriteSnippet(snippet, parsedResultTypes);
             }
+        } else {
+            // the parsers are expected to be stateless, since the same instance is used by all of
+            // the workers
+            processSnippetsConcurrently(snippets, parallelism,
+                    snippet -> parseAndWriteSnippet(snippet, parsedResultTypes));
+        }
+
+        if (getResultStore() != null) {
+            // e.g. tool=CATG 1.0, tag=run-01
+            String properties = String.format("tool=%s %s%ntag=%s%nsnippet-project=%s%n",
+                    getTool().getName(), getTool().getVersion(),
+                    getRunnerProjectSettings().getTag(), getSnippetProject().getBaseDir());
+            getResultStore().batch().putString(Table.RUNS, getResultStoreRunId(),
+                    ResultStore.RUN_PROPERTIES_KEY, properties).commit();
         }
 
         afterParse();
@@ -141,10 +143,16 @@ public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T>
 
                 new PathValidator(inputsXmlFile.toPath()).type(PathType.REGULAR_FILE).validate();
                 if (!infoFile.exists()) {
-                    SnippetInputsXml inputsXml = new Persister(new AnnotationStrategy())
-                            .read(SnippetInputsXml.class, inputsXmlFile);
+                    ResultType resultType = parsedResultTypes.get(snippet.getId());
+                    if (resultType == null) {
+                        // up to date, it was not parsed during this call
+                        resultType = ResultStoreXml.fromXml(SnippetInputsXml.class,
+                                new String(PathUtils.readAllBytes(inputsXmlFile.toPath()),
+                                        StandardCharsets.UTF_8))
+                                .getResultType();
+                    }
 
-                    Validate.isTrue(inputsXml.getResultType() == ResultType.NA,
+                    Validate.isTrue(resultType == ResultType.NA,
                             "If there is no .info file, the result must be N/A: " + inputsXmlFile);
 
                 }
@@ -152,6 +160,68 @@ public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T>
         }
     }
 
+    private void parseAndWriteSnippet(Snippet snippet, Map<String, ResultType> parsedResultTypes)
+            throws Exception {
+        SnippetContainer container = snippet.getContainer();
+        try (EvaluationMetrics.Span span = startSnippet("parse", snippet)) {
+            File inputsXmlFile = RunnerProjectUtils
+                    .getSnippetInputsFile(getRunnerProjectSettings(), snippet);
+
+            SnippetFingerprint fingerprint = createFingerprint(snippet);
+            if (isIncremental()
+                    && fingerprint.isUpToDate(getRunnerProjectSettings(), inputsXmlFile)) {
+                log.debug("Skipping {} (up to date)", snippet.getId());
+                return;
+            }
+            fingerprint.invalidate(getRunnerProjectSettings());
+
+            SnippetInputsXml inputsXml;
+            // skip container with higher java version than supported
+            if (container.getRequiredJavaVersion()
+                    .compareTo(getTool().getSupportedJavaVersion()) > 0) {
+                // TODO error/warning handling
+                System.err.println("Skipping container: " + container.getJavaClass().getName()
+                        + " (required Java version: " + container.getRequiredJavaVersion()
+                        + ")");
+                inputsXml = new SnippetInputsXml();
+                if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
+                    inputsXml.setGeneratedInputs(new ArrayList<>());
+                } else {
+                    inputsXml.setGeneratedInputCount(0);
+                }
+                inputsXml.setToolName(getTool().getName());
+                inputsXml.setSnippetProjectElement(new SnippetProjectElement(
+                        getSnippetProject().getBaseDir().toFile().getCanonicalPath()));
+
+                inputsXml.setSnippetElement(
+                        new SnippetElement(snippet.getContainer().getJavaClass().getName(),
+                                snippet.getMethod().getName()));
+                inputsXml.setResultType(ResultType.NA);
+                inputsXml.validate();
+            } else {
+                inputsXml = parseSnippet(snippet);
+                // TODO further validation
+                inputsXml.validate();
+            }
+
+            PathUtils.createDir(inputsXmlFile.getParentFile().toPath());
+
+            PathUtils.deleteIfExists(inputsXmlFile.toPath());
+
+            String inputsXmlData = ResultStoreXml.toXml(inputsXml);
+            PathUtils.write(inputsXmlFile.toPath(),
+                    inputsXmlData.getBytes(StandardCharsets.UTF_8));
+
+            if (getResultStore() != null) {
+                getResultStore().batch().putString(Table.INPUTS, getResultStoreRunId(),
+                        snippet.getId(), inputsXmlData).commit();
+            }
+
+            fingerprint.save(getRunnerProjectSettings());
+            parsedResultTypes.put(snippet.getId(), inputsXml.getResultType());
+        }
+    }
+
     private SnippetInputsXml parseSnippet(Snippet snippet) throws Exception {
         // TODO validation?
         SnippetInputsXml inputsXml = new SnippetInputsXml();
@@ -171,8 +241,10 @@ public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T>
         if (!PathUtils.exists(outFiles.infoFile)) {
             inputsXml.setResultType(ResultType.NA);
         } else {
-            if (PathUtils.lines(outFiles.infoFile).anyMatch(s -> s.startsWith("Destroyed: yes"))) {
-                inputsXml.setResultType(ResultType.TM);
+            try (Stream<String> infoLines = outFiles.infoLines()) {
+                if (infoLines.anyMatch(s -> s.startsWith("Destroyed: yes"))) {
+                    inputsXml.setResultType(ResultType.TM);
+                }
             }
         }
 
@@ -216,6 +288,9 @@ public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T>
     }
 
     public final static class SnippetOutFiles {
+        /** The maximum number of the bytes of the error output printed for diagnostics. */
+        public static final int ERROR_OUTPUT_TAIL_SIZE_IN_BYTES = 16 * 1024;
+
         public final Path infoFile;
         public final Path outputFile;
         public final Path errorOutputFile;
@@ -240,6 +315,73 @@ public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T>
         public List<String> readErrorOutputLines() throws IOException {
             return PathUtils.readAllLinesOrEmpty(errorOutputFile);
         }
+
+        /**
+         * Returns the lines of the info file lazily (the stream must be closed by the caller).
+         *
+         * @return the lines or an empty stream if the file does not exist
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public Stream<String> infoLines() throws IOException {
+            return linesOrEmpty(infoFile);
+        }
+
+        /**
+         * Returns the lines of the output file lazily (the stream must be closed by the caller),
+         * thus large files are not loaded into the memory.
+         *
+         * @return the lines or an empty stream if the file does not exist
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public Stream<String> outputLines() throws IOException {
+            return linesOrEmpty(outputFile);
+        }
+
+        /**
+         * Returns the lines of the error output file lazily (the stream must be closed by the
+         * caller), thus large files are not loaded into the memory.
+         *
+         * @return the lines or an empty stream if the file does not exist
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public Stream<String> errorOutputLines() throws IOException {
+            return linesOrEmpty(errorOutputFile);
+        }
+
+        /**
+         * Returns the last {@value #ERROR_OUTPUT_TAIL_SIZE_IN_BYTES} bytes of the error output
+         * file for diagnostics (the file is not loaded into the memory as a whole).
+         *
+         * @return the tail of the error output (prefixed with the number of the omitted bytes if
+         *         it is truncated) or an empty string if the file does not exist
+         * @throws IOException
+         *             if an I/O error occurs
+         */
+        public String readErrorOutputTail() throws IOException {
+            if (!PathUtils.exists(errorOutputFile)) {
+                return "";
+            }
+
+            OutputTailBuffer tail = OutputTailBuffer.readTail(errorOutputFile,
+                    ERROR_OUTPUT_TAIL_SIZE_IN_BYTES);
+            if (tail.isTruncated()) {
+                return String.format("[... %d bytes omitted ...]%n%s",
+                        tail.getTotalBytes() - tail.getCapacity(), tail.getTailAsString());
+            } else {
+                return tail.getTailAsString();
+            }
+        }
+
+        private static Stream<String> linesOrEmpty(Path file) throws IOException {
+            if (PathUtils.exists(file)) {
+                return PathUtils.lines(file);
+            } else {
+                return Stream.empty();
+            }
+        }
     }
 
     // TODO visibility or refactor to other place
@@ -320,6 +462,28 @@ public abstract class RunResultParser<T extends Tool> extends EvaluationTask<T>
         }
     }
 
+    /**
+     * Creates the fingerprint of the inputs of the parsing for the snippet, i.e. the output files
+     * of the tool run and the fingerprint of the run. Parsers which read other files (which are not
+     * covered by the fingerprint of the run) should override this method and add them.
+     *
+     * @param snippet
+     *            the snippet
+     * @return the fingerprint
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    protected SnippetFingerprint createFingerprint(Snippet snippet) throws IOException {
+        SnippetOutFiles outFiles = new SnippetOutFiles(snippet, getRunnerProjectSettings());
+        return createFingerprint(SnippetFingerprint.PHASE_PARSER, snippet)
+                .putPath("runner-fingerprint", RunnerProjectUtils.getSnippetFingerprintFile(
+                        getRunnerProjectSettings(), snippet, SnippetFingerprint.PHASE_RUNNER)
+                        .toPath())
+                .putPath("info", outFiles.infoFile)
+                .putPath("output", outFiles.outputFile)
+                .putPath("error-output", outFiles.errorOutputFile);
+    }
+
     protected abstract void parseSnippet(Snippet snippet, SnippetOutFiles outFiles,
             SnippetInputsXml inputsXml) throws Exception;
 
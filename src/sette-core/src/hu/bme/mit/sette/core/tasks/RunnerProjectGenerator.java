@@ -99,22 +99,26 @@ public abstract class RunnerProjectGenerator<T extends Tool> extends EvaluationT
     public final void generate() throws RunnerProjectGeneratorException {
         String phase = null;
 
-        try {
+        try (EvaluationMetrics.Span generateSpan = startPhase("generate")) {
             // validate preconditions
             phase = "validate (do)";
             validate();
             phase = "validate (after)";
             afterValidate();
 
-            phase = "prepare runner project (do)";
-            prepareRunnerProject();
-            phase = "prepare runner project (after)";
-            afterPrepareRunnerProject(eclipseProject);
+            try (EvaluationMetrics.Span span = startPhase("prepare runner project")) {
+                phase = "prepare runner project (do)";
+                prepareRunnerProject();
+                phase = "prepare runner project (after)";
+                afterPrepareRunnerProject(eclipseProject);
+            }
 
-            phase = "write runner project (do)";
-            writeRunnerProject();
-            phase = "write runner project (after)";
-            afterWriteRunnerProject(eclipseProject);
+            try (EvaluationMetrics.Span span = startPhase("write runner project")) {
+                phase = "write runner project (do)";
+                writeRunnerProject();
+                phase = "write runner project (after)";
+                afterWriteRunnerProject(eclipseProject);
+            }
 
             phase = "complete";
         } catch (Exception ex) {
@@ -122,6 +126,8 @@ public abstract class RunnerProjectGenerator<T extends Tool> extends EvaluationT
                     "The runner project generation has failed (phase: [%s], tool: [%s])", phase,
                     getTool().getName());
             throw new RunnerProjectGeneratorException(message, this, ex);
+        } finally {
+            exportMetrics();
         }
     }
 
@@ -29,10 +29,13 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import com.google.common.base.Preconditions;
+
 import hu.bme.mit.sette.core.SetteException;
 import hu.bme.mit.sette.core.configuration.SetteConfigurationException;
 import hu.bme.mit.sette.core.exceptions.RunnerProjectRunnerException;
@@ -46,6 +49,9 @@ import hu.bme.mit.sette.core.util.io.PathUtils;
 import hu.bme.mit.sette.core.util.process.ProcessExecutionResult;
 import hu.bme.mit.sette.core.util.process.ProcessExecutor;
 import hu.bme.mit.sette.core.util.process.ProcessExecutorListener;
+import hu.bme.mit.sette.core.util.process.ProcessSlot;
+import hu.bme.mit.sette.core.util.process.ProcessSlotPool;
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -66,10 +72,32 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
     /** The timeout in ms for the called processes. */
     private int timeoutInMs;
 
+    /** The number of snippets which may be run concurrently. */
+    private int parallelism;
+
     @Getter
     @Setter
     private Pattern snippetSelector = null;
 
+    /**
+     * The CPUs (e.g. <code>0-3,8</code>) which are partitioned between the concurrently running
+     * tool processes (<code>null</code> means that the processes are not bound to CPUs).
+     */
+    @Getter
+    @Setter
+    private String cpuSet = null;
+
+    /** The memory limit in MB for each tool process (zero means no limit). */
+    @Getter
+    @Setter
+    private int memoryLimitInMb = 0;
+
+    /** The slot pool for the tool processes (only present while running if a CPU set is given). */
+    private volatile ProcessSlotPool slotPool = null;
+
+    /** The supervisor of the tool process trees (only present while running on Linux). */
+    private volatile ProcessTreeSupervisor processTreeSupervisor = null;
+
     /**
      * Instantiates a new runner project runner.
      *
@@ -84,6 +112,7 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
         this.timeoutInMs = RunnerProjectRunner.DEFAULT_TIMEOUT;
+        this.parallelism = 1;
     }
 
     /**
@@ -105,6 +134,37 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
         this.timeoutInMs = timeoutInMs;
     }
 
+    /**
+     * Gets the number of snippets which may be run concurrently.
+     *
+     * @return the number of snippets which may be run concurrently
+     */
+    public final int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of snippets which may be run concurrently. The effective value is limited by
+     * {@link #getMaxParallelism()}.
+     *
+     * @param parallelism
+     *            the number of snippets which may be run concurrently (must be positive)
+     */
+    public final void setParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "The parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the maximum number of snippets which can be safely run concurrently by this runner.
+     * Runners which are not safe for concurrency should override this method and return 1.
+     *
+     * @return the maximum number of snippets which can be run concurrently
+     */
+    public int getMaxParallelism() {
+        return Integer.MAX_VALUE;
+    }
+
     /**
      * Runs the runner project.
      *
@@ -116,8 +176,14 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
     public final void run(PrintStream loggerStream) throws RunnerProjectRunnerException {
         String phase = null;
         PrintStream runnerLogger = null;
+        EvaluationMetrics.Span runSpan = startPhase("run");
 
         try {
+            if (ProcessTreeSupervisor.isSupported()) {
+                processTreeSupervisor = new ProcessTreeSupervisor(
+                        ProcessTreeSupervisor.DEFAULT_POLL_INTERVAL_IN_MS);
+            }
+
             log.info("== Cleaning up");
             cleanUp();
 
@@ -131,34 +197,39 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
             afterValidate();
 
             // prepare
-            phase = "prepare (do)";
-            log.info("== Phase: {}", phase);
-            prepare();
-
-            phase = "prepare (after)";
-            log.info("== Phase: {}", phase);
-            afterPrepare();
+            try (EvaluationMetrics.Span span = startPhase("prepare")) {
+                phase = "prepare (do)";
+                log.info("== Phase: {}", phase);
+                prepare();
+
+                phase = "prepare (after)";
+                log.info("== Phase: {}", phase);
+                afterPrepare();
+            }
 
             // create logger
             File runnerLogFile = RunnerProjectUtils.getRunnerLogFile(getRunnerProjectSettings());
 
+            // the log of the previous runs is kept in incremental mode
+            FileOutputStream runnerLogOut = new FileOutputStream(runnerLogFile, isIncremental());
             if (loggerStream != null) {
                 loggerStream.println("Log file: " + runnerLogFile.getCanonicalPath());
                 runnerLogger = new PrintStream(
-                        new SplitterOutputStream(new FileOutputStream(runnerLogFile), loggerStream),
-                        true);
+                        new SplitterOutputStream(runnerLogOut, loggerStream), true);
             } else {
-                runnerLogger = new PrintStream(new FileOutputStream(runnerLogFile), true);
+                runnerLogger = new PrintStream(runnerLogOut, true);
             }
 
             // run all
-            phase = "run all (do)";
-            log.info("== Phase: {}", phase);
-            runAll(runnerLogger);
-
-            phase = "run all (after)";
-            log.info("== Phase: {}", phase);
-            afterRunAll();
+            try (EvaluationMetrics.Span span = startPhase("run all")) {
+                phase = "run all (do)";
+                log.info("== Phase: {}", phase);
+                runAll(runnerLogger);
+
+                phase = "run all (after)";
+                log.info("== Phase: {}", phase);
+                afterRunAll();
+            }
 
             log.info("== Cleaning up");
             cleanUp();
@@ -171,10 +242,18 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
                     getTool().getName());
             throw new RunnerProjectRunnerException(message, this, ex);
         } finally {
+            if (processTreeSupervisor != null) {
+                processTreeSupervisor.close();
+                processTreeSupervisor = null;
+            }
+
             // todo try to eliminate with a try-resources block
             if (runnerLogger != null) {
                 runnerLogger.close();
             }
+
+            runSpan.close();
+            exportMetrics();
         }
     }
 
@@ -197,8 +276,8 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
      *             Signals that an I/O exception has occurred.
      */
     private void prepare() throws IOException {
-        // delete previous outputs
-        if (getRunnerProjectSettings().getRunnerOutputDirectory().exists()) {
+        // delete previous outputs (kept in incremental mode, up-to-date snippets will be skipped)
+        if (!isIncremental() && getRunnerProjectSettings().getRunnerOutputDirectory().exists()) {
             Path dir = getRunnerProjectSettings().getRunnerOutputDirectory().toPath();
             PathUtils.delete(dir);
         }
@@ -213,15 +292,83 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
     }
 
     /**
-     * Runs the tool on all the snippets.
+     * Runs the tool on all the snippets. If the effective parallelism is greater than one, the
+     * snippets are dispatched to a fixed size worker pool and the log entries of each snippet are
+     * written to the runner log in the original snippet order.
      *
      * @param runnerLoggerOut
      *            the {@link PrintStream} of the logger
-     * @throws IOException
-     *             Signals that an I/O exception has occurred.
+     * @throws Exception
+     *             if the run of a snippet fails
      */
-    private void runAll(PrintStream runnerLoggerOut) throws IOException {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private void runAll(PrintStream runnerLoggerOut) throws Exception {
+        int effectiveParallelism = Math.min(parallelism, getMaxParallelism());
+        log.info("Parallelism: {} (requested: {}, max: {})", effectiveParallelism, parallelism,
+                getMaxParallelism());
+
+        List<Snippet> snippets = collectSnippetsToRun(runnerLoggerOut);
+
+        // the processes are only bound to CPUs if requested, the memory limit is applied by
+        // executeToolProcess() without slots
+        if (cpuSet != null) {
+            List<Integer> cpus = ProcessSlotPool.parseCpuList(cpuSet);
+            List<Integer> allowedCpus = ProcessSlotPool.getAllowedCpus();
+            if (!allowedCpus.containsAll(cpus)) {
+                log.warn("The CPU set {} contains CPUs which are not allowed for SETTE: {}",
+                        cpuSet, allowedCpus);
+            }
+
+            // at most one slot per CPU, the workers wait for a free slot if there are more
+            int slotCount = Math.min(effectiveParallelism, cpus.size());
+            if (slotCount < effectiveParallelism) {
+                log.warn("Only {} tool processes run concurrently since the CPU set has {} CPUs",
+                        slotCount, cpus.size());
+            }
+            slotPool = new ProcessSlotPool(cpus, slotCount, memoryLimitInMb);
+        }
+
+        try {
+            runSnippets(snippets, effectiveParallelism, runnerLoggerOut);
+        } finally {
+            slotPool = null;
+        }
+    }
+
+    /**
+     * Runs the tool on the given snippets either sequentially or with a worker pool (see
+     * {@link EvaluationTask#processSnippetsConcurrently}).
+     *
+     * @param snippets
+     *            the snippets to run
+     * @param effectiveParallelism
+     *            the number of workers
+     * @param runnerLoggerOut
+     *            the {@link PrintStream} of the logger
+     * @throws Exception
+     *             if the run of a snippet fails
+     */
+    private void runSnippets(List<Snippet> snippets, int effectiveParallelism,
+            PrintStream runnerLoggerOut) throws Exception {
+        if (effectiveParallelism <= 1) {
+            for (Snippet snippet : snippets) {
+                runSnippet(snippet, runnerLoggerOut, true);
+            }
+        } else {
+            // NOTE cleanUp() is not called between the snippets, since it would affect the others
+            processSnippetsConcurrently(snippets, effectiveParallelism, runnerLoggerOut,
+                    (snippet, logOut) -> runSnippet(snippet, logOut, false));
+        }
+    }
+
+    /**
+     * Collects the snippets on which the tool should be run and logs the skipped ones.
+     *
+     * @param runnerLoggerOut
+     *            the {@link PrintStream} of the logger
+     * @return the snippets to run in order
+     */
+    private List<Snippet> collectSnippetsToRun(PrintStream runnerLoggerOut) {
+        List<Snippet> snippets = new ArrayList<>();
 
         // foreach containers
         for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
@@ -247,30 +394,80 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
                     continue;
                 }
 
-                String filenameBase = getFilenameBase(snippet);
-
-                File infoFile = RunnerProjectUtils.getSnippetInfoFile(getRunnerProjectSettings(),
-                        snippet);
-                File outputFile = RunnerProjectUtils
-                        .getSnippetOutputFile(getRunnerProjectSettings(), snippet);
-                File errorFile = RunnerProjectUtils.getSnippetErrorFile(getRunnerProjectSettings(),
-                        snippet);
-
-                try {
-                    String timestamp = dateFormat.format(new Date());
-                    runnerLoggerOut
-                            .println("[" + timestamp + "] Running for snippet: " + filenameBase);
-                    this.runOne(snippet, infoFile, outputFile, errorFile);
-                    this.cleanUp();
-                } catch (Exception ex) {
-                    runnerLoggerOut.println("Exception: " + ex.getMessage());
-                    runnerLoggerOut.println("==========");
-                    ex.printStackTrace(runnerLoggerOut);
-                    runnerLoggerOut.println("==========");
-                    throw new RuntimeException(ex);
-                }
+                snippets.add(snippet);
             }
         }
+
+        return snippets;
+    }
+
+    /**
+     * Runs the tool on one snippet and writes the log entries. In incremental mode the snippet is
+     * skipped if its outputs are up to date.
+     *
+     * @param snippet
+     *            the snippet
+     * @param runnerLoggerOut
+     *            the {@link PrintStream} of the logger
+     * @param cleanUpAfter
+     *            whether {@link #cleanUp()} should be called after the run
+     * @throws Exception
+     *             if the run fails
+     */
+    private void runSnippet(Snippet snippet, PrintStream runnerLoggerOut, boolean cleanUpAfter)
+            throws Exception {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        String filenameBase = getFilenameBase(snippet);
+
+        File infoFile = RunnerProjectUtils.getSnippetInfoFile(getRunnerProjectSettings(),
+                snippet);
+        File outputFile = RunnerProjectUtils
+                .getSnippetOutputFile(getRunnerProjectSettings(), snippet);
+        File errorFile = RunnerProjectUtils.getSnippetErrorFile(getRunnerProjectSettings(),
+                snippet);
+
+        try (EvaluationMetrics.Span span = startSnippet("run", snippet)) {
+            String timestamp = dateFormat.format(new Date());
+            SnippetFingerprint fingerprint = createFingerprint(snippet);
+            if (isIncremental() && fingerprint.isUpToDate(getRunnerProjectSettings(), infoFile)) {
+                runnerLoggerOut.println("[" + timestamp + "] Skipping snippet (up to date): "
+                        + filenameBase);
+                return;
+            }
+
+            runnerLoggerOut
+                    .println("[" + timestamp + "] Running for snippet: " + filenameBase);
+            fingerprint.invalidate(getRunnerProjectSettings());
+            this.runOne(snippet, infoFile, outputFile, errorFile);
+            fingerprint.save(getRunnerProjectSettings());
+            if (cleanUpAfter) {
+                this.cleanUp();
+            }
+        } catch (Exception ex) {
+            runnerLoggerOut.println("Exception: " + ex.getMessage());
+            runnerLoggerOut.println("==========");
+            ex.printStackTrace(runnerLoggerOut);
+            runnerLoggerOut.println("==========");
+            throw ex;
+        }
+    }
+
+    /**
+     * Creates the fingerprint of the inputs of the tool run for the snippet. Subclasses may
+     * override this method to add further inputs which affect the results (e.g. tool-specific
+     * settings).
+     *
+     * @param snippet
+     *            the snippet
+     * @return the fingerprint
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    protected SnippetFingerprint createFingerprint(Snippet snippet) throws IOException {
+        return createFingerprint(SnippetFingerprint.PHASE_RUNNER, snippet)
+                .putValue("timeout", timeoutInMs)
+                .putValue("kill-after-timeout", shouldKillAfterTimeout())
+                .putValue("memory-limit", memoryLimitInMb);
     }
 
     /**
@@ -334,6 +531,17 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
      */
     public abstract void cleanUp() throws IOException, SetteException;
 
+    /**
+     * Kills the tool processes started by this runner which are still running (including their
+     * descendants). Other processes of the tool (e.g. started by another runner) are not affected.
+     */
+    protected final void terminateToolProcesses() {
+        ProcessTreeSupervisor supervisor = processTreeSupervisor;
+        if (supervisor != null) {
+            supervisor.terminateAll();
+        }
+    }
+
     protected static final String getFilenameBase(Snippet snippet) {
         return snippet.getContainer().getJavaClass().getName().replace('.', '/') + "_"
                 + snippet.getMethod().getName();
@@ -341,20 +549,55 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
 
     protected final void executeToolProcess(List<String> command, File infoFile, File outputFile,
             File errorFile) {
-        infoFile.getParentFile().mkdirs();
+        executeToolProcess(command, getRunnerProjectSettings().getBaseDir(), infoFile, outputFile,
+                errorFile);
+    }
 
-        File workingDirectory = getRunnerProjectSettings().getBaseDir();
+    /**
+     * Executes a tool process in the specified working directory. Runners which are executed in
+     * parallel should use a separate working directory for each process if the tool writes files
+     * relative to its working directory.
+     *
+     * @param command
+     *            the command
+     * @param workingDirectory
+     *            the working directory of the process
+     * @param infoFile
+     *            the info file for the snippet
+     * @param outputFile
+     *            the output file for the snippet
+     * @param errorFile
+     *            the error file for the snippet
+     */
+    protected final void executeToolProcess(List<String> command, File workingDirectory,
+            File infoFile, File outputFile, File errorFile) {
+        infoFile.getParentFile().mkdirs();
 
-        ProcessBuilder pb = new ProcessBuilder(command).directory(workingDirectory);
-        pb.redirectOutput(outputFile);
-        pb.redirectError(errorFile);
+        ProcessSlotPool pool = slotPool;
+        ProcessSlot slot = null;
 
         try {
+            List<String> processCommand;
+            if (pool != null) {
+                slot = pool.acquire();
+                processCommand = slot.wrapCommand(command);
+            } else {
+                processCommand = ProcessSlot.limitMemory(command, memoryLimitInMb);
+            }
+            ProcessSlot usedSlot = slot;
+
+            ProcessBuilder pb = new ProcessBuilder(processCommand).directory(workingDirectory);
+            pb.redirectOutput(outputFile);
+            pb.redirectError(errorFile);
+
             ProcessExecutor pe = new ProcessExecutor(pb,
-                    shouldKillAfterTimeout() ? getTimeoutInMs() : 0);
+                    shouldKillAfterTimeout() ? getTimeoutInMs() : 0, processTreeSupervisor);
             pe.execute(new ProcessExecutorListener() {
                 @Override
                 public void onComplete(ProcessExecutionResult result) {
+                    // called in the current thread, thus the snippet span is still open
+                    EvaluationMetrics.addChildProcess(result);
+
                     // save info
                     StringBuffer infoData = new StringBuffer();
 
@@ -371,6 +614,30 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
 
                     infoData.append("Elapsed time: ").append(result.getElapsedTimeInMs())
                             .append(" ms\n");
+
+                    // the resource usage is only available if the process tree was supervised
+                    if (result.getUserTimeInMs() >= 0) {
+                        infoData.append("User time: ").append(result.getUserTimeInMs())
+                                .append(" ms\n");
+                        infoData.append("System time: ").append(result.getSystemTimeInMs())
+                                .append(" ms\n");
+                    }
+                    if (result.getPeakRssInKb() >= 0) {
+                        infoData.append("Peak RSS: ").append(result.getPeakRssInKb())
+                                .append(" KB\n");
+                    }
+                    infoData.append("Signal: ").append(result.getSignal()).append('\n');
+
+                    if (usedSlot != null) {
+                        infoData.append("Slot: ").append(usedSlot.getId()).append('\n');
+                        infoData.append("CPU set: ").append(usedSlot.getCpuSetString())
+                                .append('\n');
+                    }
+                    if (memoryLimitInMb > 0) {
+                        infoData.append("Memory limit: ").append(memoryLimitInMb)
+                                .append(" MB\n");
+                    }
+
                     try {
                         PathUtils.write(infoFile.toPath(), infoData.toString().getBytes());
                     } catch (IOException ex) {
@@ -383,6 +650,10 @@ public abstract class RunnerProjectRunner<T extends Tool> extends EvaluationTask
         } catch (Exception ex) {
             // FIXME TODO fixme
             throw new RuntimeException(ex);
+        } finally {
+            if (slot != null) {
+                pool.release(slot);
+            }
         }
     }
 
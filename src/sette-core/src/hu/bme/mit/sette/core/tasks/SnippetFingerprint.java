@@ -0,0 +1,303 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import hu.bme.mit.sette.core.model.runner.RunnerProjectSettings;
+import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
+import hu.bme.mit.sette.core.model.snippet.Snippet;
+import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
+import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Fingerprint of the inputs of an evaluation phase for one snippet (e.g. the source of the
+ * snippet, the tool version, the timeout and the outputs of the previous phase). The fingerprint is
+ * saved next to the outputs of the snippet after the phase has completed for the snippet, thus an
+ * incremental run can skip the snippets whose outputs are present and were produced from the same
+ * inputs. Since the outputs of a phase are the inputs of the next one, a change is propagated to
+ * the downstream phases.
+ */
+public final class SnippetFingerprint {
+    /** The phase which runs the tool (see {@link RunnerProjectRunner}). */
+    public static final String PHASE_RUNNER = "runner";
+
+    /** The phase which parses the output of the tool (see {@link RunResultParser}). */
+    public static final String PHASE_PARSER = "parser";
+
+    /** The phase which generates the test suites (see {@link TestSuiteGenerator}). */
+    public static final String PHASE_TEST_GENERATOR = "test-generator";
+
+    /** The phase which runs the test suites and measures coverage. */
+    public static final String PHASE_TEST_RUNNER = "test-runner";
+
+    /** The hash for missing files and directories. */
+    private static final String MISSING = "missing";
+
+    /** The phase. */
+    @Getter
+    private final String phase;
+
+    /** The snippet. */
+    @Getter
+    private final Snippet snippet;
+
+    /** The inputs (name -> value or hash), the order is part of the fingerprint. */
+    private final Map<String, String> inputs = new LinkedHashMap<>();
+
+    /**
+     * Instantiates a new fingerprint.
+     *
+     * @param phase
+     *            the phase
+     * @param snippet
+     *            the snippet
+     */
+    public SnippetFingerprint(@NonNull String phase, @NonNull Snippet snippet) {
+        checkArgument(!phase.trim().isEmpty(), "The phase must not be blank");
+        this.phase = phase;
+        this.snippet = snippet;
+        putValue("snippet", snippet.getId());
+    }
+
+    /**
+     * Adds a simple value to the inputs.
+     *
+     * @param name
+     *            the name of the input
+     * @param value
+     *            the value (converted to string)
+     * @return this object
+     */
+    public SnippetFingerprint putValue(@NonNull String name, Object value) {
+        checkArgument(!inputs.containsKey(name), "Duplicate input: " + name);
+        inputs.put(name, String.valueOf(value).replaceAll("\\s+", " "));
+        return this;
+    }
+
+    /**
+     * Adds the hash of a file or a directory (including the relative path and content of every
+     * file in it) to the inputs. Missing paths are also allowed.
+     *
+     * @param name
+     *            the name of the input
+     * @param path
+     *            the file or directory
+     * @return this object
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public SnippetFingerprint putPath(@NonNull String name, @NonNull Path path)
+            throws IOException {
+        checkArgument(!inputs.containsKey(name), "Duplicate input: " + name);
+        inputs.put(name, hashPath(path));
+        return this;
+    }
+
+    /**
+     * Adds the hashes of the sources which affect the behavior of the snippet to the inputs: the
+     * source of the snippet container, the sources of the classes of the included methods and
+     * constructors, the sources of the snippet dependencies and the source of the input factory
+     * container. The classes without source in the snippet project (e.g. JDK classes) are skipped.
+     *
+     * @param snippetProject
+     *            the snippet project of the snippet
+     * @return this object
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public SnippetFingerprint putSources(@NonNull SnippetProject snippetProject)
+            throws IOException {
+        SnippetContainer container = snippet.getContainer();
+        Path sourceDir = snippetProject.getSourceDir();
+        String containerName = getTopLevelClassName(container.getJavaClass());
+        putPath("snippet-source", getSourceFile(sourceDir, containerName));
+
+        Set<String> includedClassNames = new TreeSet<>();
+        snippet.getIncludedMethods()
+                .forEach(m -> includedClassNames.add(getTopLevelClassName(m.getDeclaringClass())));
+        snippet.getIncludedConstructors()
+                .forEach(c -> includedClassNames.add(getTopLevelClassName(c.getDeclaringClass())));
+        includedClassNames.remove(containerName);
+        for (String className : includedClassNames) {
+            Path sourceFile = getSourceFile(sourceDir, className);
+            if (PathUtils.exists(sourceFile)) {
+                putPath("included-source:" + className, sourceFile);
+            }
+        }
+
+        Set<String> dependencyClassNames = new TreeSet<>();
+        snippetProject.getSnippetDependencies().forEach(
+                d -> dependencyClassNames.add(getTopLevelClassName(d.getJavaClass())));
+        for (String className : dependencyClassNames) {
+            putPath("dependency-source:" + className, getSourceFile(sourceDir, className));
+        }
+
+        if (container.getInputFactoryContainer() != null) {
+            putPath("input-factory-source", getSourceFile(snippetProject.getInputSourceDir(),
+                    getTopLevelClassName(container.getInputFactoryContainer().getJavaClass())));
+        }
+
+        return this;
+    }
+
+    private static String getTopLevelClassName(Class<?> javaClass) {
+        Class<?> topLevelClass = javaClass;
+        while (topLevelClass.getEnclosingClass() != null) {
+            topLevelClass = topLevelClass.getEnclosingClass();
+        }
+        return topLevelClass.getName();
+    }
+
+    private static Path getSourceFile(Path sourceDir, String className) {
+        return sourceDir.resolve(className.replace('.', '/') + ".java");
+    }
+
+    private static String hashPath(Path path) throws IOException {
+        File file = path.toFile();
+        if (file.isFile()) {
+            return Files.asByteSource(file).hash(Hashing.sha256()).toString();
+        } else if (file.isDirectory()) {
+            List<Path> files;
+            try (Stream<Path> stream = PathUtils.walk(path)) {
+                files = stream.filter(p -> p.toFile().isFile()).sorted()
+                        .collect(Collectors.toList());
+            }
+
+            Hasher hasher = Hashing.sha256().newHasher();
+            for (Path f : files) {
+                hasher.putString(path.relativize(f).toString(), StandardCharsets.UTF_8);
+                hasher.putString(hashPath(f), StandardCharsets.UTF_8);
+            }
+            return hasher.hash().toString();
+        } else {
+            return MISSING;
+        }
+    }
+
+    /**
+     * Computes the hash of the inputs.
+     *
+     * @return the hash of the inputs
+     */
+    public String getHash() {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(phase, StandardCharsets.UTF_8).putChar('\n');
+        inputs.forEach((name, value) -> {
+            hasher.putString(name, StandardCharsets.UTF_8).putChar('=');
+            hasher.putString(value, StandardCharsets.UTF_8).putChar('\n');
+        });
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Gets the file in which the fingerprint is stored.
+     *
+     * @param settings
+     *            the settings of the runner project
+     * @return the fingerprint file
+     */
+    public File getFile(@NonNull RunnerProjectSettings<?> settings) {
+        return RunnerProjectUtils.getSnippetFingerprintFile(settings, snippet, phase);
+    }
+
+    /**
+     * Decides whether the outputs of the snippet are up to date, i.e. all of them exist and the
+     * saved fingerprint matches this one.
+     *
+     * @param settings
+     *            the settings of the runner project
+     * @param outputs
+     *            the output files of the phase for the snippet
+     * @return <code>true</code> if the phase can be skipped for the snippet, otherwise
+     *         <code>false</code>
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public boolean isUpToDate(@NonNull RunnerProjectSettings<?> settings, @NonNull File... outputs)
+            throws IOException {
+        for (File output : outputs) {
+            if (!output.exists()) {
+                return false;
+            }
+        }
+
+        List<String> lines = PathUtils.readAllLinesOrEmpty(getFile(settings).toPath());
+        return !lines.isEmpty() && lines.get(0).equals(getHash());
+    }
+
+    /**
+     * Deletes the saved fingerprint. Should be called before the outputs are (re)created, thus the
+     * outputs of an interrupted phase are never considered up to date.
+     *
+     * @param settings
+     *            the settings of the runner project
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void invalidate(@NonNull RunnerProjectSettings<?> settings) throws IOException {
+        PathUtils.deleteIfExists(getFile(settings).toPath());
+    }
+
+    /**
+     * Saves the fingerprint. Should be called after all the outputs have been created. The first
+     * line of the file is the hash, the others list the inputs (for diagnostic purposes).
+     *
+     * @param settings
+     *            the settings of the runner project
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void save(@NonNull RunnerProjectSettings<?> settings) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(getHash());
+        inputs.forEach((name, value) -> lines.add(name + "=" + value));
+        PathUtils.write(getFile(settings).toPath(), lines);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SnippetFingerprint [phase=%s, snippet=%s, inputs=%s]", phase,
+                snippet.getId(), inputs);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import hu.bme.mit.sette.core.model.parserxml.AbstractParameterElement;
+import hu.bme.mit.sette.core.model.parserxml.InputElement;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Computes the expected return values of the snippets for the generated test cases by invoking the
+ * snippet methods with the generated inputs. Each invocation runs in its own daemon thread (and
+ * thread group) with a timeout. If the snippet does not return in time (e.g. infinite loops,
+ * deadlocks or long sleeps), its threads are interrupted and then stopped, thus a hanging snippet
+ * cannot block the test generation. The outcomes are memoized per method and input, the key is the
+ * canonical form of the input (see {@link InputCanonicalizer}), which is created before the
+ * invocation, thus a snippet modifying its arguments cannot corrupt the memoized outcomes. The
+ * class is thread-safe.
+ * <p>
+ * The isolation only covers the threads and the running time: the invocations share the classes
+ * loaded by the class loader of the snippet project, and with them the static state of the
+ * snippets. The outcomes of the snippets of a class with static state (see
+ * {@link #hasStaticState(Class)}) might depend on the order of the invocations, thus these
+ * snippets should be processed serially in a fixed order.
+ */
+public final class SnippetOracle {
+    private static final Logger LOG = LoggerFactory.getLogger(SnippetOracle.class);
+
+    /** The default timeout of one invocation in ms. */
+    public static final int DEFAULT_TIMEOUT_IN_MS = 5000;
+
+    /** The time in ms given to the interrupted threads to finish before they are stopped. */
+    private static final int STOP_GRACE_PERIOD_IN_MS = 100;
+
+    /** The timeout of one invocation in ms. */
+    @Getter
+    private final int timeoutInMs;
+
+    private final Map<Invocation, Outcome> outcomes = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Instantiates a new oracle.
+     *
+     * @param timeoutInMs
+     *            the timeout of one invocation in ms (must be positive)
+     */
+    public SnippetOracle(int timeoutInMs) {
+        checkArgument(timeoutInMs > 0, "The timeout must be positive");
+        this.timeoutInMs = timeoutInMs;
+    }
+
+    /**
+     * Invokes the static method with the parameter values of the input, or returns the memoized
+     * outcome if the method has already been invoked with an equivalent input.
+     *
+     * @param method
+     *            the static method
+     * @param input
+     *            the input (its parameter values are converted to the arguments of the method)
+     * @return the return value of the method
+     * @throws TimeoutException
+     *             if the method did not return in time
+     * @throws Exception
+     *             if the method cannot be invoked or it has thrown an exception (see
+     *             {@link Method#invoke(Object, Object...)})
+     */
+    public Object invoke(@NonNull Method method, @NonNull InputElement input) throws Exception {
+        // the key is immutable and it is created before the snippet could modify the arguments
+        Invocation invocation = new Invocation(method, InputCanonicalizer.canonicalize(input));
+        Outcome outcome = outcomes.get(invocation);
+
+        if (outcome != null) {
+            hits.incrementAndGet();
+        } else {
+            List<AbstractParameterElement> params = input.getParameters();
+            Object[] args = new Object[params.size()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = params.get(i).getValueAsObject();
+            }
+
+            // equal invocations might run concurrently, but the outcome is the same
+            outcome = execute(method, args);
+            outcomes.put(invocation, outcome);
+        }
+
+        return outcome.get();
+    }
+
+    /**
+     * Decides whether the class has static state which might be changed by its methods, i.e. it
+     * declares a static field which is not final or its type is not primitive or
+     * {@link String}.
+     *
+     * @param javaClass
+     *            the class
+     * @return <code>true</code> if the class has static state, otherwise <code>false</code>
+     */
+    public static boolean hasStaticState(@NonNull Class<?> javaClass) {
+        return Arrays.stream(javaClass.getDeclaredFields())
+                .filter(f -> Modifier.isStatic(f.getModifiers()) && !f.isSynthetic())
+                .anyMatch(SnippetOracle::isMutableStaticField);
+    }
+
+    private static boolean isMutableStaticField(Field field) {
+        return !Modifier.isFinal(field.getModifiers())
+                || !(field.getType().isPrimitive() || field.getType() == String.class);
+    }
+
+    /**
+     * Logs the statistics of the oracle.
+     */
+    public void logStatistics() {
+        LOG.info("Snippet oracle: {} invocations ({} timeouts), {} memoized", invocations.get(),
+                timeouts.get(), hits.get());
+    }
+
+    @SuppressWarnings("deprecation")
+    private Outcome execute(Method method, Object[] args) throws InterruptedException {
+        invocations.incrementAndGet();
+
+        // threads started by the snippet will inherit the thread group, thus they can be stopped
+        // together with the invocation thread
+        ThreadGroup threadGroup = new ThreadGroup("oracle_" + method.getName());
+        InvocationThread thread = new InvocationThread(threadGroup, method, args);
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(timeoutInMs);
+
+        if (thread.isAlive()) {
+            timeouts.incrementAndGet();
+            LOG.warn("Stopping {} (did not return in {} ms)", method.getName(), timeoutInMs);
+
+            threadGroup.interrupt();
+            thread.join(STOP_GRACE_PERIOD_IN_MS);
+            // the snippet might ignore the interrupt (e.g. infinite loop)
+            threadGroup.stop();
+
+            return new Outcome(null, new TimeoutException(
+                    method.getName() + " did not return in " + timeoutInMs + " ms"));
+        } else {
+            return thread.outcome;
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Invocation {
+        private final Method method;
+        private final List<String> canonicalInput;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Outcome {
+        private final Object returnValue;
+        private final Throwable exception;
+
+        private Object get() throws Exception {
+            if (exception == null) {
+                return returnValue;
+            } else if (exception instanceof Exception) {
+                throw (Exception) exception;
+            } else if (exception instanceof Error) {
+                throw (Error) exception;
+            } else {
+                throw new RuntimeException(exception);
+            }
+        }
+    }
+
+    private static final class InvocationThread extends Thread {
+        private final Method method;
+        private final Object[] args;
+        private volatile Outcome outcome;
+
+        private InvocationThread(ThreadGroup group, Method method, Object[] args) {
+            super(group, (Runnable) null, group.getName());
+            this.method = method;
+            this.args = args;
+        }
+
+        @Override
+        public void run() {
+            try {
+                outcome = new Outcome(method.invoke(null, args), null);
+            } catch (Throwable ex) {
+                // reason for Throwable: ThreadDeath
+                outcome = new Outcome(null, ex);
+            }
+        }
+    }
+}
@@ -31,7 +31,12 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -39,9 +44,11 @@ import org.simpleframework.xml.Serializer;
 import org.simpleframework.xml.convert.AnnotationStrategy;
 import org.simpleframework.xml.core.Persister;
 
+import com.google.common.base.Preconditions;
 import com.google.common.io.Resources;
 import com.google.common.primitives.Primitives;
 
+import hu.bme.mit.sette.common.snippets.JavaVersion;
 import hu.bme.mit.sette.core.exceptions.TestSuiteGeneratorException;
 import hu.bme.mit.sette.core.model.parserxml.AbstractParameterElement;
 import hu.bme.mit.sette.core.model.parserxml.InputElement;
@@ -49,13 +56,20 @@ import hu.bme.mit.sette.core.model.parserxml.ParameterElement;
 import hu.bme.mit.sette.core.model.parserxml.SnippetInputsXml;
 import hu.bme.mit.sette.core.model.runner.ParameterType;
 import hu.bme.mit.sette.core.model.runner.ResultType;
+import hu.bme.mit.sette.core.model.runner.RunnerProjectSettings;
 import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tool.Tool;
 import hu.bme.mit.sette.core.tool.ToolOutputType;
+import hu.bme.mit.sette.core.util.compiler.CompilationDiagnostic;
+import hu.bme.mit.sette.core.util.compiler.CompilationResult;
+import hu.bme.mit.sette.core.util.compiler.JavaSourceCompiler;
 import hu.bme.mit.sette.core.util.io.PathUtils;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
 
 public final class TestSuiteGenerator extends EvaluationTask<Tool> {
     public static final String ANT_BUILD_TEST_FILENAME;
@@ -93,21 +107,70 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
         ANT_BUILD_TEST_DATA = String.join("\n", lines);
     }
 
+    /** The number of snippets whose tests are generated concurrently. */
+    @Getter
+    private int parallelism = 1;
+
+    /** The timeout in ms for computing one expected return value (see {@link SnippetOracle}). */
+    @Getter
+    private int oracleTimeoutInMs = SnippetOracle.DEFAULT_TIMEOUT_IN_MS;
+
+    /**
+     * Whether the semantically duplicated inputs are dropped (see {@link InputCanonicalizer}). The
+     * inputs XML files are not modified, thus the number of generated inputs is not affected.
+     */
+    @Getter
+    @Setter
+    private boolean deduplicateInputs = true;
+
+    private SnippetOracle oracle = null;
+
     public TestSuiteGenerator(SnippetProject snippetProject, Path outputDir, Tool tool,
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
     }
 
+    /**
+     * Sets the number of snippets whose tests are generated concurrently.
+     *
+     * @param parallelism
+     *            the number of snippets (must be positive)
+     */
+    public void setParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "The parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the timeout for computing one expected return value.
+     *
+     * @param oracleTimeoutInMs
+     *            the timeout in ms (must be positive)
+     */
+    public void setOracleTimeoutInMs(int oracleTimeoutInMs) {
+        Preconditions.checkArgument(oracleTimeoutInMs > 0, "The timeout must be positive");
+        this.oracleTimeoutInMs = oracleTimeoutInMs;
+    }
+
     public void generate() throws Exception {
         if (!RunnerProjectUtils.getRunnerLogFile(getRunnerProjectSettings()).exists()) {
             throw new TestSuiteGeneratorException(
                     "Run the tool on the runner project first (and then parse)", this);
         }
 
+        try (EvaluationMetrics.Span span = startPhase("generate tests")) {
+            generateAll();
+        } finally {
+            exportMetrics();
+        }
+    }
+
+    private void generateAll() throws Exception {
         File testDir = getRunnerProjectSettings().getTestDirectory();
 
         // FIXME
-        if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
+        // NOTE in incremental mode only the tests of the changed snippets are regenerated
+        if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES && !isIncremental()) {
             if (testDir.exists()) {
                 System.out.println("Removing test dir");
                 PathUtils.delete(testDir.toPath());
@@ -116,13 +179,11 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
 
         PathUtils.createDir(testDir.toPath());
 
-        Serializer serializer = new Persister(new AnnotationStrategy());
-
         //
         // Generate test classes
         //
 
-        // foreach containers
+        List<Snippet> snippets = new ArrayList<>();
         for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
             // skip container with higher java version than supported
             if (container.getRequiredJavaVersion()
@@ -133,104 +194,36 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
                 continue;
             }
 
-            // foreach snippets
-            for (Snippet snippet : container.getSnippets().values()) {
-                File inputsXmlFile = RunnerProjectUtils
-                        .getSnippetInputsFile(getRunnerProjectSettings(), snippet);
-
-                if (!inputsXmlFile.exists()) {
-                    System.err.println("Missing: " + inputsXmlFile);
-                    continue;
-                }
-
-                // save current class loader
-                ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
-
-                // set snippet project class loader
-                Thread.currentThread().setContextClassLoader(getSnippetProject().getClassLoader());
-
-                // read data
-                SnippetInputsXml inputsXml = serializer.read(SnippetInputsXml.class, inputsXmlFile);
-
-                // set back the original class loader
-                Thread.currentThread().setContextClassLoader(originalClassLoader);
-
-                // fail if NC
-                if (inputsXml.getResultType() == ResultType.NC) {
-                    throw new RuntimeException(
-                            "Parsed result should be never NC! Snipept: " + snippet.getId());
-                }
-                // skip N/A, EX, T/M and C
-                if (inputsXml.getResultType() != ResultType.S) {
-                    System.err.println("Skipping " + inputsXml.getResultType() + " file: "
-                            + inputsXmlFile.getName());
-                    continue;
-                }
+            snippets.addAll(container.getSnippets().values());
+        }
 
-                if (inputsXml.getGeneratedInputCount() == 0
-                        && getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
-                    System.err.println("No inputs: " + inputsXmlFile.getName());
+        oracle = new SnippetOracle(oracleTimeoutInMs);
+        try {
+            if (parallelism <= 1) {
+                Serializer serializer = new Persister(new AnnotationStrategy());
+                for (Snippet snippet : snippets) {
+                    generateSnippet(serializer, testDir, snippet);
                 }
-
-                Class<?> javaClass = container.getJavaClass();
-                Package pkg = javaClass.getPackage();
-                Method method = snippet.getMethod();
-
-                // FIXME
-                if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
-                    StringBuilder java = new StringBuilder();
-
-                    String classSimpleName = javaClass.getSimpleName() + '_' + method.getName()
-                            + "_Test";
-                    String className = pkg.getName() + "." + classSimpleName;
-
-                    java.append("package ").append(pkg.getName()).append(";\n");
-                    java.append("\n");
-                    java.append("import junit.framework.TestCase;\n");
-                    java.append("import ").append(container.getJavaClass().getName()).append(";\n");
-                    java.append("\n");
-                    java.append("public final class ").append(classSimpleName)
-                            .append(" extends TestCase {\n");
-
-                    int i = 0;
-                    for (InputElement inputElement : inputsXml.getGeneratedInputs()) {
-                        i++;
-
-                        CharSequence javaMethod = generateTestCaseMethod(snippet, i, inputElement);
-                        if (javaMethod != null) {
-                            java.append(javaMethod);
-                        }
-                    }
-
-                    java.append("}\n");
-
-                    File testFile = new File(testDir, className.replace('.', '/') + ".java");
-                    PathUtils.write(testFile.toPath(), java.toString().getBytes());
-
-                    // import junit.framework.TestCase;
-                    // import
-                    // hu.bme.mit.sette.snippets._1_basic.B2_conditionals.B2a_IfElse;
-                    //
-                    // public final class B2a_IfElse_oneParamInt_Test extends
-                    // TestCase {
-                    // public void test_1() {
-                    // B2a_IfElse.oneParamInt(1);
-                    // }
-                    //
-                    // public void test_2() {
-                    // B2a_IfElse.oneParamInt(0);
-                    // }
-                    //
-                    // public void test_3() {
-                    // B2a_IfElse.oneParamInt(-1);
-                    // }
-                    //
-                    // public void test_4() {
-                    // B2a_IfElse.oneParamInt(12345);
-                    // }
-                    // }
+            } else {
+                // the outcomes of the snippets of containers with static state might depend on
+                // the order of the invocations, thus they are processed serially afterwards
+                Map<Boolean, List<Snippet>> snippetsByStaticState = snippets.stream()
+                        .collect(Collectors.partitioningBy(snippet -> SnippetOracle
+                                .hasStaticState(snippet.getContainer().getJavaClass())));
+
+                // the serializer is not shared between the threads
+                processSnippetsConcurrently(snippetsByStaticState.get(false), parallelism,
+                        snippet -> generateSnippet(new Persister(new AnnotationStrategy()),
+                                testDir, snippet));
+
+                Serializer serializer = new Persister(new AnnotationStrategy());
+                for (Snippet snippet : snippetsByStaticState.get(true)) {
+                    generateSnippet(serializer, testDir, snippet);
                 }
             }
+        } finally {
+            oracle.logStatistics();
+            oracle = null;
         }
 
         //
@@ -248,7 +241,173 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
         }
     }
 
-    private static CharSequence generateTestCaseMethod(Snippet snippet, int i,
+    private void generateSnippet(Serializer serializer, File testDir, Snippet snippet)
+            throws Exception {
+        SnippetContainer container = snippet.getContainer();
+        try (EvaluationMetrics.Span span = startSnippet("generate tests", snippet)) {
+            File inputsXmlFile = RunnerProjectUtils
+                    .getSnippetInputsFile(getRunnerProjectSettings(), snippet);
+
+            if (!inputsXmlFile.exists()) {
+                System.err.println("Missing: " + inputsXmlFile);
+                return;
+            }
+
+            SnippetFingerprint fingerprint = createFingerprint(snippet);
+            if (isIncremental() && fingerprint.isUpToDate(getRunnerProjectSettings())) {
+                log.debug("Skipping {} (up to date)", snippet.getId());
+                return;
+            }
+            fingerprint.invalidate(getRunnerProjectSettings());
+
+            File testFile = getTestFile(testDir, snippet);
+            if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
+                // remove the test of the previous (incremental) generation
+                PathUtils.deleteIfExists(testFile.toPath());
+            }
+
+            // save current class loader
+            ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+
+            // set snippet project class loader
+            Thread.currentThread().setContextClassLoader(getSnippetProject().getClassLoader());
+
+            // read data
+            SnippetInputsXml inputsXml = serializer.read(SnippetInputsXml.class, inputsXmlFile);
+
+            // set back the original class loader
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+
+            // fail if NC
+            if (inputsXml.getResultType() == ResultType.NC) {
+                throw new RuntimeException(
+                        "Parsed result should be never NC! Snipept: " + snippet.getId());
+            }
+            // skip N/A, EX, T/M and C
+            if (inputsXml.getResultType() != ResultType.S) {
+                System.err.println("Skipping " + inputsXml.getResultType() + " file: "
+                        + inputsXmlFile.getName());
+                fingerprint.save(getRunnerProjectSettings());
+                return;
+            }
+
+            if (inputsXml.getGeneratedInputCount() == 0
+                    && getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
+                System.err.println("No inputs: " + inputsXmlFile.getName());
+            }
+
+            Class<?> javaClass = container.getJavaClass();
+            Package pkg = javaClass.getPackage();
+            Method method = snippet.getMethod();
+
+            // FIXME
+            if (getTool().getOutputType() == ToolOutputType.INPUT_VALUES) {
+                StringBuilder java = new StringBuilder();
+
+                String classSimpleName = javaClass.getSimpleName() + '_' + method.getName()
+                        + "_Test";
+
+                java.append("package ").append(pkg.getName()).append(";\n");
+                java.append("\n");
+                java.append("import junit.framework.TestCase;\n");
+                java.append("import ").append(container.getJavaClass().getName()).append(";\n");
+                java.append("\n");
+                java.append("public final class ").append(classSimpleName)
+                        .append(" extends TestCase {\n");
+
+                // the test methods keep the index of the input even if duplicates are dropped
+                Set<List<String>> canonicalInputs = new HashSet<>();
+                int duplicateCount = 0;
+                int i = 0;
+                for (InputElement inputElement : inputsXml.getGeneratedInputs()) {
+                    i++;
+
+                    if (deduplicateInputs && !canonicalInputs
+                            .add(InputCanonicalizer.canonicalize(inputElement))) {
+                        duplicateCount++;
+                        continue;
+                    }
+
+                    CharSequence javaMethod = generateTestCaseMethod(snippet, i, inputElement);
+                    if (javaMethod != null) {
+                        java.append(javaMethod);
+                    }
+                }
+
+                java.append("}\n");
+
+                if (duplicateCount > 0) {
+                    log.debug("{}: dropped {} duplicated inputs", snippet.getId(),
+                            duplicateCount);
+                }
+
+                PathUtils.write(testFile.toPath(), java.toString().getBytes());
+
+                // import junit.framework.TestCase;
+                // import
+                // hu.bme.mit.sette.snippets._1_basic.B2_conditionals.B2a_IfElse;
+                //
+                // public final class B2a_IfElse_oneParamInt_Test extends
+                // TestCase {
+                // public void test_1() {
+                // B2a_IfElse.oneParamInt(1);
+                // }
+                //
+                // public void test_2() {
+                // B2a_IfElse.oneParamInt(0);
+                // }
+                //
+                // public void test_3() {
+                // B2a_IfElse.oneParamInt(-1);
+                // }
+                //
+                // public void test_4() {
+                // B2a_IfElse.oneParamInt(12345);
+                // }
+                // }
+            }
+
+            fingerprint.save(getRunnerProjectSettings());
+        }
+    }
+
+    /**
+     * Creates the fingerprint of the inputs of the test generation for the snippet, i.e. the
+     * parsed inputs and the fingerprint of the parsing.
+     *
+     * @param snippet
+     *            the snippet
+     * @return the fingerprint
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private SnippetFingerprint createFingerprint(Snippet snippet) throws IOException {
+        return createFingerprint(SnippetFingerprint.PHASE_TEST_GENERATOR, snippet)
+                .putPath("parser-fingerprint", RunnerProjectUtils.getSnippetFingerprintFile(
+                        getRunnerProjectSettings(), snippet, SnippetFingerprint.PHASE_PARSER)
+                        .toPath())
+                .putPath("inputs", RunnerProjectUtils
+                        .getSnippetInputsFile(getRunnerProjectSettings(), snippet).toPath());
+    }
+
+    /**
+     * Gets the file of the test class which is generated for the snippet (only used for tools
+     * which generate input values).
+     *
+     * @param testDir
+     *            the test directory
+     * @param snippet
+     *            the snippet
+     * @return the test file
+     */
+    private static File getTestFile(File testDir, Snippet snippet) {
+        Class<?> javaClass = snippet.getContainer().getJavaClass();
+        String className = javaClass.getPackage().getName() + "." + javaClass.getSimpleName()
+                + '_' + snippet.getMethod().getName() + "_Test";
+        return new File(testDir, className.replace('.', '/') + ".java");
+    }
+
+    private CharSequence generateTestCaseMethod(Snippet snippet, int i,
             InputElement inputElement) {
         Class<?> javaClass = snippet.getContainer().getJavaClass();
         Method method = snippet.getMethod();
@@ -320,29 +479,14 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
             methodCode.append("        }\n");
         } else {
             // append method call and assert
-            List<AbstractParameterElement> params = inputElement.getParameters();
-            Object[] methodParams = new Object[params.size()];
-
             try {
-                int ii = 0;
-                for (AbstractParameterElement ape : params) {
-                    methodParams[ii] = ape.getValueAsObject();
-                    ii++;
-                }
-
                 Object returnValue;
-                // FIXME: timeout for method call 
-                List<String> skipMethodNamePrefixes = Arrays.asList("infinite",
-                        "canInterruptSleep", "deadlock");
-
                 if (snippetReturnType == Void.class) {
                     returnValue = null;
-                } else if (skipMethodNamePrefixes.stream()
-                        .anyMatch(prefix -> snippet.getMethod().getName().startsWith(prefix))) {
-                    returnValue = RunResultParser.getDefaultParameterValue(snippetReturnType);
                 } else {
                     System.out.println(snippet.getId());
-                    returnValue = snippet.getMethod().invoke(null, methodParams);
+                    // throws TimeoutException if the snippet hangs (e.g. infinite loop)
+                    returnValue = oracle.invoke(snippet.getMethod(), inputElement);
                 }
 
                 if (snippetReturnType == Void.class || (returnValue != null
@@ -398,7 +542,7 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
                 }
             } catch (Exception ex) {
                 // the test might fail, the tool has not recorded the exception
-                // (or just heap)
+                // (or just heap), or the snippet has not returned in time
                 methodCode.append("        ")
                         .append(createMethodCallString(javaClass, method, inputElement))
                         .append(";\n");
@@ -554,6 +698,93 @@ public final class TestSuiteGenerator extends EvaluationTask<Tool> {
         return ret;
     }
 
+    /**
+     * Compiles the changed test sources of the runner project into its binary directory. The tests
+     * are compiled in-process like by the ant build file: against the binary directory and the
+     * (rewritten) snippet sources of the runner project, with the source and target level of the
+     * tool. If the system Java compiler is not available (e.g. SETTE is running on a JRE), the
+     * given ant build file is used.
+     *
+     * @param settings
+     *            the settings of the runner project
+     * @param testDir
+     *            the directory containing the test sources
+     * @param extraClasspath
+     *            the additional class path entries (e.g. the JUnit jar)
+     * @param antBuildFilename
+     *            the ant build file to use if the compiler is not available
+     * @param parallelism
+     *            the maximum number of test packages compiled in parallel
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static void compileTests(@NonNull RunnerProjectSettings<?> settings,
+            @NonNull Path testDir, @NonNull List<Path> extraClasspath,
+            @NonNull String antBuildFilename, int parallelism) throws IOException {
+        if (!JavaSourceCompiler.isAvailable()) {
+            System.out.println("The system Java compiler is not available, using ant");
+            AntExecutor.executeAnt(settings.getBaseDir(), antBuildFilename);
+            return;
+        }
+
+        // the binary directory of the runner project is added by the compiler, the snippet
+        // classes which are missing from it are compiled from the snippet sources
+        List<Path> classpath = new ArrayList<>();
+        classpath.addAll(extraClasspath);
+
+        Path libDir = settings.getSnippetLibraryDirectory().toPath();
+        if (PathUtils.exists(libDir)) {
+            try (Stream<Path> files = PathUtils.walk(libDir)) {
+                files.filter(p -> p.toString().endsWith(".jar")).sorted()
+                        .forEach(classpath::add);
+            }
+        }
+
+        String javaLevel = getJavacLevel(settings.getTool().getSupportedJavaVersion());
+        List<String> options = new ArrayList<>(JavaSourceCompiler.DEFAULT_OPTIONS);
+        options.remove("-implicit:none");
+        options.addAll(Arrays.asList("-implicit:class", "-source", javaLevel, "-target",
+                javaLevel));
+
+        JavaSourceCompiler compiler = new JavaSourceCompiler(testDir,
+                settings.getBinaryDirectory().toPath(), classpath, options);
+        compiler.setAdditionalSourcepath(
+                Arrays.asList(settings.getSnippetSourceDirectory().toPath()));
+        compiler.setParallelism(parallelism);
+        CompilationResult result = compiler.compileChanged();
+
+        System.out.println("Test compilation result: " + result);
+        for (CompilationDiagnostic diagnostic : result.getDiagnostics()) {
+            System.out.println(diagnostic);
+        }
+
+        if (!result.isSuccessful()) {
+            throw new RuntimeException(
+                    "test compilation has failed (" + result.getErrors().size() + " errors)");
+        }
+    }
+
+    /**
+     * Returns the value of the <code>-source</code> and <code>-target</code> options of javac for
+     * the specified Java version.
+     *
+     * @param javaVersion
+     *            the Java version
+     * @return the value of the options (e.g. <code>1.8</code>)
+     */
+    static String getJavacLevel(@NonNull JavaVersion javaVersion) {
+        switch (javaVersion) {
+            case JAVA_6:
+                return "1.6";
+            case JAVA_7:
+                return "1.7";
+            case JAVA_8:
+                return "1.8";
+            default:
+                throw new UnsupportedOperationException("Unknown Java version: " + javaVersion);
+        }
+    }
+
     // NOTE should move somewhere else
     public static InputStream getSetteJUnitJarInputStream() {
         URL url = Resources.getResource("junit.jar.res");
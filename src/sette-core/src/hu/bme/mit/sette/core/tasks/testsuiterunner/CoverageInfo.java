@@ -1,13 +1,17 @@
 package hu.bme.mit.sette.core.tasks.testsuiterunner;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
+import java.util.Set;
 
-import org.apache.commons.lang3.tuple.Triple;
+import org.jacoco.core.analysis.IClassCoverage;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -15,36 +19,143 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.NonNull;
 
+/**
+ * Line coverage information for a set of source files (key: source file path relative to the
+ * source directory, e.g. <code>hu/bme/mit/sette/snippets/_1_basic/B3_loops/B3c_DoWhile.java</code>
+ * ).
+ */
 public final class CoverageInfo {
-    // FIXME insane data structure
-    // key: source file
-    // value: tuple of FULLY, PARTLY and NOT covered line numbers sets (green, yellow, red)
-    public final Map<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> data;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, FileLineCoverage> data;
 
     public CoverageInfo() {
         this.data = new HashMap<>();
     }
 
-    public CoverageInfo(
-            @NonNull Map<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> data) {
-        this.data = data;
+    /**
+     * Creates the coverage information from the result of the JaCoCo analysis.
+     *
+     * @param classCoverages
+     *            the coverage of the analysed classes
+     * @return the coverage information
+     */
+    public static CoverageInfo fromJaCoCo(@NonNull Collection<IClassCoverage> classCoverages) {
+        CoverageInfo coverageInfo = new CoverageInfo();
+
+        for (IClassCoverage cc : classCoverages) {
+            String file = cc.getPackageName() + '/' + cc.getSourceFileName();
+            file = file.replace('\\', '/');
+
+            FileLineCoverage fileCoverage = coverageInfo.getOrCreate(file);
+            for (int l = cc.getFirstLine(); l <= cc.getLastLine(); l++) {
+                fileCoverage.add(l, LineStatus.fromJaCoCo(cc.getLine(l).getStatus()));
+            }
+        }
+
+        return coverageInfo;
+    }
+
+    /**
+     * Returns the source files.
+     *
+     * @return the source files
+     */
+    public Set<String> getFiles() {
+        return Collections.unmodifiableSet(data.keySet());
+    }
+
+    /**
+     * Returns the coverage of the source file.
+     *
+     * @param file
+     *            the source file
+     * @return the coverage of the source file or <code>null</code> if not present
+     */
+    public FileLineCoverage get(@NonNull String file) {
+        return data.get(file);
+    }
+
+    /**
+     * Returns the coverage of the source file (an empty coverage is added if not present).
+     *
+     * @param file
+     *            the source file
+     * @return the coverage of the source file
+     */
+    public FileLineCoverage getOrCreate(@NonNull String file) {
+        return data.computeIfAbsent(file, f -> new FileLineCoverage());
+    }
+
+    /**
+     * Merges the other coverage information into this one. Call {@link #normalize()} after merging
+     * all the results.
+     *
+     * @param other
+     *            the other coverage information
+     */
+    public void merge(@NonNull CoverageInfo other) {
+        other.data.forEach((file, fileCoverage) -> getOrCreate(file).merge(fileCoverage));
+    }
+
+    /**
+     * Makes the line statuses disjoint for each file (see {@link FileLineCoverage#normalize()}).
+     */
+    public void normalize() {
+        data.values().forEach(FileLineCoverage::normalize);
+    }
+
+    /**
+     * Writes the coverage information in a compact binary form.
+     *
+     * @param out
+     *            the output
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void writeTo(@NonNull DataOutput out) throws IOException {
+        out.writeInt(data.size());
+        for (Map.Entry<String, FileLineCoverage> entry : data.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * Reads coverage information written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in
+     *            the input
+     * @return the coverage information
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static CoverageInfo readFrom(@NonNull DataInput in) throws IOException {
+        int fileCount = in.readInt();
+        if (fileCount < 0) {
+            throw new IOException("Invalid file count: " + fileCount);
+        }
+
+        CoverageInfo coverageInfo = new CoverageInfo();
+        for (int i = 0; i < fileCount; i++) {
+            String file = in.readUTF();
+            coverageInfo.data.put(file, FileLineCoverage.readFrom(in));
+        }
+        return coverageInfo;
     }
 
     public String toJsonString() {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            Map<String, List<SortedSet<Integer>>> jsonData = new HashMap<>();
-
-            for (String filename : data.keySet()) {
-                Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>> tuple = data
-                        .get(filename);
-                List<SortedSet<Integer>> tupleList = Arrays.asList(tuple.getLeft(),
-                        tuple.getMiddle(),
-                        tuple.getRight());
-                jsonData.put(filename, tupleList);
-            }
+            // compact form: file -> [fully, partly, not covered lines]
+            Map<String, int[][]> jsonData = new HashMap<>();
 
-            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(jsonData);
+            data.forEach((file, fileCoverage) -> {
+                jsonData.put(file, new int[][] { fileCoverage.getFullyCoveredLines(),
+                        fileCoverage.getPartlyCoveredLines(),
+                        fileCoverage.getNotCoveredLines() });
+            });
+
+            return MAPPER.writeValueAsString(jsonData);
         } catch (JsonProcessingException ex) {
             throw new RuntimeException("Cannot convert to JSON: " + this, ex);
         }
@@ -52,31 +163,41 @@ public final class CoverageInfo {
 
     public static CoverageInfo fromJsonString(String jsonString) throws IOException {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-
-            Map<String, List<SortedSet<Integer>>> jsonData = mapper.readValue(jsonString,
-                    new TypeReference<Map<String, List<SortedSet<Integer>>>>() {
+            Map<String, List<int[]>> jsonData = MAPPER.readValue(jsonString,
+                    new TypeReference<Map<String, List<int[]>>>() {
                         // type reference for jackson
                     });
 
-            Map<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> data = new HashMap<>();
+            CoverageInfo coverageInfo = new CoverageInfo();
 
-            for (String filename : jsonData.keySet()) {
-                List<SortedSet<Integer>> tupleList = jsonData.get(filename);
+            for (String file : jsonData.keySet()) {
+                List<int[]> tupleList = jsonData.get(file);
 
                 if (tupleList.size() != 3) {
                     throw new RuntimeException(
                             "A tuple list was found with != 3 elements: " + jsonString);
                 }
 
-                Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>> tuple = Triple
-                        .of(tupleList.get(0), tupleList.get(1), tupleList.get(2));
-                data.put(filename, tuple);
+                coverageInfo.data.put(file, new FileLineCoverage(toBitSet(tupleList.get(0)),
+                        toBitSet(tupleList.get(1)), toBitSet(tupleList.get(2))));
             }
 
-            return new CoverageInfo(data);
+            return coverageInfo;
         } catch (JsonProcessingException ex) {
             throw new RuntimeException("Cannot parse JSON: " + jsonString);
         }
     }
+
+    private static BitSet toBitSet(int[] lines) {
+        BitSet bitSet = new BitSet();
+        for (int line : lines) {
+            bitSet.set(line);
+        }
+        return bitSet;
+    }
+
+    @Override
+    public String toString() {
+        return "CoverageInfo [data=" + data + "]";
+    }
 }
@@ -0,0 +1,224 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.stream.Collectors;
+
+import lombok.NonNull;
+
+/**
+ * Line coverage of one source file. The fully, partly and not covered lines are stored in one
+ * {@link BitSet} for each status (bit <code>n</code> means line <code>n</code>).
+ */
+public final class FileLineCoverage {
+    private final BitSet fullyCovered;
+    private final BitSet partlyCovered;
+    private final BitSet notCovered;
+
+    /**
+     * Instantiates a new empty line coverage.
+     */
+    public FileLineCoverage() {
+        this(new BitSet(), new BitSet(), new BitSet());
+    }
+
+    /**
+     * Instantiates a new line coverage (the bitsets are copied).
+     *
+     * @param fullyCovered
+     *            the fully covered lines
+     * @param partlyCovered
+     *            the partly covered lines
+     * @param notCovered
+     *            the not covered lines
+     */
+    public FileLineCoverage(@NonNull BitSet fullyCovered, @NonNull BitSet partlyCovered,
+            @NonNull BitSet notCovered) {
+        this.fullyCovered = (BitSet) fullyCovered.clone();
+        this.partlyCovered = (BitSet) partlyCovered.clone();
+        this.notCovered = (BitSet) notCovered.clone();
+    }
+
+    /**
+     * Adds a line with the given status ({@link LineStatus#EMPTY} is ignored).
+     *
+     * @param lineNumber
+     *            the line number
+     * @param status
+     *            the status of the line
+     */
+    public void add(int lineNumber, @NonNull LineStatus status) {
+        switch (status) {
+            case FULLY_COVERED:
+                fullyCovered.set(lineNumber);
+                break;
+
+            case PARTLY_COVERED:
+                partlyCovered.set(lineNumber);
+                break;
+
+            case NOT_COVERED:
+                notCovered.set(lineNumber);
+                break;
+
+            default:
+                // empty
+                break;
+        }
+    }
+
+    /**
+     * Adds all the lines of the other coverage to this one (union for each status).
+     *
+     * @param other
+     *            the other coverage
+     */
+    public void merge(@NonNull FileLineCoverage other) {
+        fullyCovered.or(other.fullyCovered);
+        partlyCovered.or(other.partlyCovered);
+        notCovered.or(other.notCovered);
+    }
+
+    /**
+     * Makes the statuses disjoint after merging: fully covered lines are removed from the partly
+     * and not covered lines, partly covered lines are removed from the not covered lines.
+     */
+    public void normalize() {
+        notCovered.andNot(fullyCovered);
+        notCovered.andNot(partlyCovered);
+        partlyCovered.andNot(fullyCovered);
+    }
+
+    public BitSet getFullyCovered() {
+        return (BitSet) fullyCovered.clone();
+    }
+
+    public BitSet getPartlyCovered() {
+        return (BitSet) partlyCovered.clone();
+    }
+
+    public BitSet getNotCovered() {
+        return (BitSet) notCovered.clone();
+    }
+
+    public int[] getFullyCoveredLines() {
+        return fullyCovered.stream().toArray();
+    }
+
+    public int[] getPartlyCoveredLines() {
+        return partlyCovered.stream().toArray();
+    }
+
+    public int[] getNotCoveredLines() {
+        return notCovered.stream().toArray();
+    }
+
+    /**
+     * Writes the line coverage in a compact binary form (the words of the bitsets).
+     *
+     * @param out
+     *            the output
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void writeTo(@NonNull DataOutput out) throws IOException {
+        writeBitSet(out, fullyCovered);
+        writeBitSet(out, partlyCovered);
+        writeBitSet(out, notCovered);
+    }
+
+    /**
+     * Reads a line coverage written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in
+     *            the input
+     * @return the line coverage
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static FileLineCoverage readFrom(@NonNull DataInput in) throws IOException {
+        return new FileLineCoverage(readBitSet(in), readBitSet(in), readBitSet(in));
+    }
+
+    private static void writeBitSet(DataOutput out, BitSet bitSet) throws IOException {
+        long[] words = bitSet.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    private static BitSet readBitSet(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid bitset length: " + length);
+        }
+
+        long[] words = new long[length];
+        for (int i = 0; i < length; i++) {
+            words[i] = in.readLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Converts the lines to the format used by the coverage XML files.
+     *
+     * @param lines
+     *            the lines
+     * @return the line numbers in increasing order separated by spaces
+     */
+    public static String toLineString(@NonNull BitSet lines) {
+        return lines.stream().mapToObj(String::valueOf).collect(Collectors.joining(" "));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof FileLineCoverage)) {
+            return false;
+        }
+
+        FileLineCoverage other = (FileLineCoverage) obj;
+        return fullyCovered.equals(other.fullyCovered)
+                && partlyCovered.equals(other.partlyCovered)
+                && notCovered.equals(other.notCovered);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * fullyCovered.hashCode() + partlyCovered.hashCode())
+                + notCovered.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FileLineCoverage [fullyCovered=" + fullyCovered + ", partlyCovered="
+                + partlyCovered + ", notCovered=" + notCovered + "]";
+    }
+}
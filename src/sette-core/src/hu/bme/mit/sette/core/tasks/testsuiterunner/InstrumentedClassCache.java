@@ -0,0 +1,185 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jacoco.core.JaCoCo;
+import org.jacoco.core.instr.Instrumenter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hashing;
+
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Content-addressed cache for instrumented bytecode. The key of an entry is computed from the
+ * class name, the hash of the original bytecode, the JaCoCo version and the version of the probe
+ * access code, thus a changed class file is never served from a stale entry. The classes are
+ * instrumented with {@link JaCoCoProbeRegistry#ACCESSOR_GENERATOR}, so the cached bytecode is
+ * independent from the JaCoCo runtime data. The entries are kept in memory (with LRU eviction) and
+ * optionally in a cache directory to be reused by later runs and other processes. The cache is
+ * thread-safe.
+ */
+public final class InstrumentedClassCache {
+    private static final Logger LOG = LoggerFactory.getLogger(InstrumentedClassCache.class);
+
+    /** The default name of the cache directory. */
+    public static final String DEFAULT_DIRECTORY_NAME = ".instrumented-class-cache";
+
+    /** The default maximum number of entries kept in the memory. */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /** The cache directory or <code>null</code> if the entries are only kept in the memory. */
+    @Getter
+    private final Path cacheDir;
+
+    /** The maximum number of entries kept in the memory. */
+    @Getter
+    private final int maxEntries;
+
+    private final Instrumenter instrumenter;
+    private final Map<String, byte[]> entries;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Instantiates a new cache.
+     *
+     * @param cacheDir
+     *            the cache directory or <code>null</code> if the entries should only be kept in
+     *            the memory
+     * @param maxEntries
+     *            the maximum number of entries kept in the memory (must be positive)
+     */
+    public InstrumentedClassCache(Path cacheDir, int maxEntries) {
+        checkArgument(maxEntries > 0, "The maximum number of entries must be positive");
+
+        this.cacheDir = cacheDir;
+        this.maxEntries = maxEntries;
+        this.instrumenter = new Instrumenter(JaCoCoProbeRegistry.ACCESSOR_GENERATOR);
+        this.entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > InstrumentedClassCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the instrumented bytecode of the class, the class is only instrumented if it is not
+     * present in the cache.
+     *
+     * @param className
+     *            the name of the class
+     * @param originalBytes
+     *            the original bytecode of the class
+     * @return the instrumented bytecode
+     * @throws IOException
+     *             if the instrumentation fails
+     */
+    public byte[] getInstrumentedBytes(@NonNull String className, @NonNull byte[] originalBytes)
+            throws IOException {
+        String key = computeKey(className, originalBytes);
+
+        synchronized (entries) {
+            byte[] cached = entries.get(key);
+            if (cached != null) {
+                memoryHits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        byte[] instrumentedBytes = null;
+        Path cacheFile = cacheDir != null ? cacheDir.resolve(key + ".class") : null;
+
+        if (cacheFile != null && PathUtils.exists(cacheFile)) {
+            try {
+                instrumentedBytes = PathUtils.readAllBytes(cacheFile);
+                diskHits.incrementAndGet();
+            } catch (IOException ex) {
+                LOG.warn("Cannot read cache file, instrumenting again: " + cacheFile, ex);
+            }
+        }
+
+        if (instrumentedBytes == null) {
+            misses.incrementAndGet();
+            instrumentedBytes = instrumenter.instrument(originalBytes, className);
+
+            if (cacheFile != null) {
+                writeCacheFile(cacheFile, instrumentedBytes);
+            }
+        }
+
+        synchronized (entries) {
+            entries.put(key, instrumentedBytes);
+        }
+
+        return instrumentedBytes;
+    }
+
+    /**
+     * Logs the hit/miss statistics of the cache.
+     */
+    public void logStatistics() {
+        LOG.info("Instrumented class cache: {} memory hits, {} disk hits, {} misses",
+                memoryHits.get(), diskHits.get(), misses.get());
+    }
+
+    private static String computeKey(String className, byte[] originalBytes) {
+        String originalHash = Hashing.sha256().hashBytes(originalBytes).toString();
+        String keyData = String.join("|", JaCoCo.VERSION,
+                String.valueOf(JaCoCoProbeRegistry.ACCESSOR_VERSION), className, originalHash);
+        return Hashing.sha256().hashString(keyData, StandardCharsets.UTF_8).toString();
+    }
+
+    private static void writeCacheFile(Path cacheFile, byte[] bytes) {
+        // write to a temporary file and move it, since other processes may use the same directory
+        try {
+            PathUtils.createDir(cacheFile.getParent());
+            Path tmpFile = Files.createTempFile(cacheFile.getParent(), "tmp-", ".class");
+            Files.write(tmpFile, bytes);
+            Files.move(tmpFile, cacheFile, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            // the cache file is only an optimization
+            LOG.warn("Cannot write cache file: " + cacheFile, ex);
+        }
+    }
+}
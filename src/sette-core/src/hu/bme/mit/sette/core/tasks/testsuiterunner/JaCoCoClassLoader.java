@@ -29,6 +29,7 @@ import java.util.Arrays;
 
 import org.apache.commons.lang3.Validate;
 import org.jacoco.core.instr.Instrumenter;
+import org.jacoco.core.runtime.RuntimeData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +44,7 @@ public final class JaCoCoClassLoader extends ClassLoader {
 
     private final File[] binaryDirectories;
     private final Instrumenter instrumenter;
+    private final InstrumentedClassCache instrumentedClassCache;
 
     public JaCoCoClassLoader(@NonNull File[] binaryDirectories, @NonNull Instrumenter instrumenter,
             @NonNull ClassLoader parent) {
@@ -56,6 +58,39 @@ public final class JaCoCoClassLoader extends ClassLoader {
 
         this.binaryDirectories = Arrays.copyOf(binaryDirectories, binaryDirectories.length);
         this.instrumenter = instrumenter;
+        this.instrumentedClassCache = null;
+
+        log.debug("JaCoCoClassLoader has been created");
+    }
+
+    /**
+     * Instantiates a new class loader which takes the instrumented bytecode from the given cache.
+     * The probes of the classes defined by this class loader are collected by the given runtime
+     * data (see {@link JaCoCoProbeRegistry}).
+     *
+     * @param binaryDirectories
+     *            the binary directories
+     * @param instrumentedClassCache
+     *            the cache for the instrumented bytecode
+     * @param data
+     *            the runtime data which collects the probes
+     * @param parent
+     *            the parent class loader
+     */
+    public JaCoCoClassLoader(@NonNull File[] binaryDirectories,
+            @NonNull InstrumentedClassCache instrumentedClassCache, @NonNull RuntimeData data,
+            @NonNull ClassLoader parent) {
+        super(parent);
+
+        Validate.notEmpty(binaryDirectories,
+                "The array of binary directories must not be empty or null");
+        Validate.noNullElements(binaryDirectories,
+                "The array of binary directories must not contain null elements");
+
+        this.binaryDirectories = Arrays.copyOf(binaryDirectories, binaryDirectories.length);
+        this.instrumenter = null;
+        this.instrumentedClassCache = instrumentedClassCache;
+        JaCoCoProbeRegistry.register(this, data);
 
         log.debug("JaCoCoClassLoader has been created");
     }
@@ -80,7 +115,13 @@ public final class JaCoCoClassLoader extends ClassLoader {
                 log.debug("{}: instrumenting and defining class", className);
 
                 // instrument
-                byte[] instrumentedBytes = instrumenter.instrument(bytes, className);
+                byte[] instrumentedBytes;
+                if (instrumentedClassCache != null) {
+                    instrumentedBytes = instrumentedClassCache.getInstrumentedBytes(className,
+                            bytes);
+                } else {
+                    instrumentedBytes = instrumenter.instrument(bytes, className);
+                }
                 log.debug("{}: instrumented class", className);
 
                 // define class
@@ -0,0 +1,120 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.jacoco.core.runtime.IExecutionDataAccessorGenerator;
+import org.jacoco.core.runtime.RuntimeData;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import lombok.NonNull;
+
+/**
+ * Registry which connects the instrumented classes with the {@link RuntimeData} of their defining
+ * class loader. The instrumented code generated by {@link #ACCESSOR_GENERATOR} does not contain
+ * anything specific to a JaCoCo runtime, thus the same instrumented bytecode can be used with any
+ * number of class loaders (and it can be cached, see {@link InstrumentedClassCache}). The
+ * instrumented classes must be defined by a class loader which can see this class and they must
+ * have at least Java 5 class file version (class literals are used).
+ */
+public final class JaCoCoProbeRegistry {
+    /**
+     * The generator which creates the probe array access code for the
+     * {@link org.jacoco.core.instr.Instrumenter}.
+     */
+    public static final IExecutionDataAccessorGenerator ACCESSOR_GENERATOR =
+            new AccessorGenerator();
+
+    /** Version of the generated access code (part of the cache keys). */
+    public static final int ACCESSOR_VERSION = 1;
+
+    private static final Map<ClassLoader, RuntimeData> RUNTIME_DATA = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    private JaCoCoProbeRegistry() {
+        throw new UnsupportedOperationException("Static class");
+    }
+
+    /**
+     * Registers the runtime data which collects the probes of the classes defined by the class
+     * loader.
+     *
+     * @param classLoader
+     *            the class loader
+     * @param data
+     *            the runtime data
+     */
+    public static void register(@NonNull ClassLoader classLoader, @NonNull RuntimeData data) {
+        RUNTIME_DATA.put(classLoader, data);
+    }
+
+    /**
+     * Returns the probe array for an instrumented class. This method is called by the instrumented
+     * code, it should not be called directly.
+     *
+     * @param cls
+     *            the instrumented class
+     * @param classId
+     *            the JaCoCo class id
+     * @param className
+     *            the VM name of the class
+     * @param probeCount
+     *            the number of probes
+     * @return the probe array (if no runtime data is registered for the class loader of the class,
+     *         then the returned array is not recorded)
+     */
+    public static boolean[] getProbes(Class<?> cls, long classId, String className,
+            int probeCount) {
+        RuntimeData data = RUNTIME_DATA.get(cls.getClassLoader());
+
+        if (data == null) {
+            return new boolean[probeCount];
+        } else {
+            return data.getExecutionData(classId, className, probeCount).getProbes();
+        }
+    }
+
+    private static final class AccessorGenerator implements IExecutionDataAccessorGenerator {
+        private static final String OWNER = Type.getInternalName(JaCoCoProbeRegistry.class);
+        private static final String DESC = "(Ljava/lang/Class;JLjava/lang/String;I)[Z";
+
+        @Override
+        public int generateDataAccessor(long classid, String classname, int probecount,
+                MethodVisitor mv) {
+            // JaCoCoProbeRegistry.getProbes(<class>.class, classid, classname, probecount)
+            mv.visitLdcInsn(Type.getObjectType(classname));
+            mv.visitLdcInsn(Long.valueOf(classid));
+            mv.visitLdcInsn(classname);
+            mv.visitLdcInsn(Integer.valueOf(probecount));
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, OWNER, "getProbes", DESC, false);
+
+            // max stack: class (1) + long (2) + string (1) + int (1)
+            return 5;
+        }
+    }
+}
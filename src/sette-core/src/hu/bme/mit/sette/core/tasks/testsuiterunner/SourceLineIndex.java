@@ -0,0 +1,166 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Index of the line ranges of the methods and constructors declared by the (first) type of a Java
+ * source file. The file is parsed only once with JavaParser, the index is cached and it is only
+ * rebuilt if the size or the modification time of the file changes. The cache is thread-safe.
+ */
+public final class SourceLineIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(SourceLineIndex.class);
+
+    /** The indices mapped by the absolute path of the source file. */
+    private static final Map<Path, SourceLineIndex> INDICES = new ConcurrentHashMap<>();
+
+    /** A method or constructor declaration with its line range. */
+    @Value
+    public static class Declaration {
+        private final String name;
+        private final int beginLine;
+        private final int endLine;
+    }
+
+    /** The first line of the compilation unit. */
+    @Getter
+    private final int beginLine;
+
+    /** The last line of the compilation unit. */
+    @Getter
+    private final int endLine;
+
+    /** The simple name of the first type declared in the file. */
+    @Getter
+    private final String typeName;
+
+    /** The constructors of the type in declaration order. */
+    @Getter
+    private final ImmutableList<Declaration> constructors;
+
+    /** The first declared method for each method name. */
+    private final ImmutableMap<String, Declaration> methods;
+
+    /** The size and modification time of the indexed file. */
+    private final String fileStamp;
+
+    private SourceLineIndex(CompilationUnit compilationUnit, String fileStamp) {
+        Preconditions.checkState(!compilationUnit.getTypes().isEmpty(),
+                "The source file does not declare any type");
+        TypeDeclaration type = compilationUnit.getTypes().get(0);
+
+        ImmutableList.Builder<Declaration> constructors = ImmutableList.builder();
+        Map<String, Declaration> methods = new HashMap<>();
+
+        for (BodyDeclaration member : type.getMembers()) {
+            if (member instanceof MethodDeclaration) {
+                String name = ((MethodDeclaration) member).getName();
+                methods.putIfAbsent(name,
+                        new Declaration(name, member.getBeginLine(), member.getEndLine()));
+            } else if (member instanceof ConstructorDeclaration) {
+                String name = ((ConstructorDeclaration) member).getName();
+                constructors.add(new Declaration(name, member.getBeginLine(), member.getEndLine()));
+            }
+        }
+
+        this.beginLine = compilationUnit.getBeginLine();
+        this.endLine = compilationUnit.getEndLine();
+        this.typeName = type.getName();
+        this.constructors = constructors.build();
+        this.methods = ImmutableMap.copyOf(methods);
+        this.fileStamp = fileStamp;
+    }
+
+    /**
+     * Returns the index of the source file from the cache or parses the file if it is not cached
+     * or it has been changed since it was cached.
+     *
+     * @param javaFile
+     *            the Java source file
+     * @return the index of the source file
+     * @throws IOException
+     *             if an I/O exception occurs
+     * @throws ParseException
+     *             if the file cannot be parsed
+     */
+    public static SourceLineIndex of(@NonNull Path javaFile) throws IOException, ParseException {
+        Path path = javaFile.toAbsolutePath().normalize();
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        String fileStamp = attrs.size() + ":" + attrs.lastModifiedTime().toMillis();
+
+        SourceLineIndex index = INDICES.get(path);
+        if (index == null || !index.fileStamp.equals(fileStamp)) {
+            // parsing the same file twice concurrently is harmless
+            LOG.debug("Parsing with JavaParser: {}", path);
+            index = new SourceLineIndex(JavaParser.parse(path.toFile()), fileStamp);
+            LOG.debug("Parsed with JavaParser: {}", path);
+            INDICES.put(path, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Removes all the indices from the cache.
+     */
+    public static void clear() {
+        INDICES.clear();
+    }
+
+    /**
+     * Returns the first declared method with the given name.
+     *
+     * @param name
+     *            the name of the method
+     * @return the declaration or <code>null</code> if the type does not declare such method (e.g.
+     *         it is declared by the superclass)
+     */
+    public Declaration getMethod(@NonNull String name) {
+        return methods.get(name);
+    }
+}
@@ -28,6 +28,7 @@ import static hu.bme.mit.sette.core.tasks.testsuiterunner.TestSuiteRunnerHelper.
 import static hu.bme.mit.sette.core.tasks.testsuiterunner.TestSuiteRunnerHelper.loadTestClasses;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -39,29 +40,22 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
-import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
-import org.jacoco.core.instr.Instrumenter;
-import org.jacoco.core.runtime.IRuntime;
-import org.jacoco.core.runtime.LoggerRuntime;
 import org.jacoco.core.runtime.RuntimeData;
 import org.junit.Before;
 import org.simpleframework.xml.Serializer;
@@ -69,6 +63,7 @@ import org.simpleframework.xml.convert.AnnotationStrategy;
 import org.simpleframework.xml.core.Persister;
 import org.simpleframework.xml.stream.Format;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
 import hu.bme.mit.sette.core.exceptions.TestSuiteRunnerException;
@@ -83,31 +78,92 @@ import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
-import hu.bme.mit.sette.core.tasks.AntExecutor;
+import hu.bme.mit.sette.core.store.ResultStore;
+import hu.bme.mit.sette.core.store.ResultStore.Table;
+import hu.bme.mit.sette.core.store.ResultStoreXml;
+import hu.bme.mit.sette.core.store.SnippetResultRecord;
+import hu.bme.mit.sette.core.tasks.EvaluationMetrics;
 import hu.bme.mit.sette.core.tasks.EvaluationTask;
+import hu.bme.mit.sette.core.tasks.SnippetFingerprint;
 import hu.bme.mit.sette.core.tasks.TestSuiteGenerator;
 import hu.bme.mit.sette.core.tool.Tool;
 import hu.bme.mit.sette.core.util.io.PathUtils;
-import hu.bme.mit.sette.core.util.process.ProcessExecutionResult;
-import hu.bme.mit.sette.core.util.process.ProcessExecutor;
-import hu.bme.mit.sette.core.util.process.SimpleProcessExecutorListener;
 import hu.bme.mit.sette.core.validator.PathType;
 import hu.bme.mit.sette.core.validator.PathValidator;
 import hu.bme.mit.sette.core.validator.ValidationException;
 import junit.framework.AssertionFailedError;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.Setter;
 
 public final class TestSuiteRunner extends EvaluationTask<Tool> {
     public static final int TEST_CASE_TIMEOUT_IN_MS = 30000;
 
+    /** The directory (inside the runner project) for the output of the agents. */
+    public static final String AGENT_LOG_DIRECTORY_NAME = "test-runner-agents";
+
     @Getter
     @Setter
     private Pattern snippetSelector = null;
 
+    /** The number of warm agent JVMs which are used for forked test cases. */
+    @Getter
+    private int agentPoolSize = 1;
+
+    /** The number of snippets which are analysed concurrently. */
+    @Getter
+    private int parallelism = 1;
+
+    /**
+     * The directory of the persistent instrumented class cache (<code>null</code> means that the
+     * instrumented classes are only cached in the memory).
+     */
+    @Getter
+    @Setter
+    private Path instrumentedClassCacheDir;
+
+    private InstrumentedClassCache instrumentedClassCache = null;
+    private TestSuiteRunnerAgentPool agentPool = null;
+    private ExecutorService agentExecutor = null;
+
     public TestSuiteRunner(SnippetProject snippetProject, Path outputDir, Tool tool,
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
+        this.instrumentedClassCacheDir = getDefaultInstrumentedClassCacheDir(outputDir);
+    }
+
+    /**
+     * Returns the default directory of the instrumented class cache (it is shared between the
+     * runner projects in the output directory).
+     *
+     * @param outputDir
+     *            the output directory
+     * @return the default directory of the instrumented class cache
+     */
+    public static Path getDefaultInstrumentedClassCacheDir(@NonNull Path outputDir) {
+        return outputDir.resolve(InstrumentedClassCache.DEFAULT_DIRECTORY_NAME);
+    }
+
+    /**
+     * Sets the number of warm agent JVMs which are used for forked test cases.
+     *
+     * @param agentPoolSize
+     *            the number of agents (must be positive)
+     */
+    public void setAgentPoolSize(int agentPoolSize) {
+        Preconditions.checkArgument(agentPoolSize > 0, "The agent pool size must be positive");
+        this.agentPoolSize = agentPoolSize;
+    }
+
+    /**
+     * Sets the number of snippets which are analysed concurrently.
+     *
+     * @param parallelism
+     *            the number of snippets (must be positive)
+     */
+    public void setParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "The parallelism must be positive");
+        this.parallelism = parallelism;
     }
 
     public final void analyze() throws Exception {
@@ -117,12 +173,22 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
                     this);
         }
 
-        // ant build
-        AntExecutor.executeAnt(getRunnerProjectSettings().getBaseDir(),
-                TestSuiteGenerator.ANT_BUILD_TEST_FILENAME);
+        try (EvaluationMetrics.Span span = startPhase("analyze")) {
+            analyzeAll();
+        } finally {
+            exportMetrics();
+        }
+    }
 
-        //
-        Serializer serializer = new Persister(new AnnotationStrategy());
+    private void analyzeAll() throws Exception {
+        // compile the changed tests
+        try (EvaluationMetrics.Span span = startPhase("compile tests")) {
+            TestSuiteGenerator.compileTests(getRunnerProjectSettings(),
+                    getRunnerProjectSettings().getTestDirectory().toPath(),
+                    Lists.newArrayList(
+                            getRunnerProjectSettings().getBaseDir().toPath().resolve("junit.jar")),
+                    TestSuiteGenerator.ANT_BUILD_TEST_FILENAME, parallelism);
+        }
 
         // binary directories for the JaCoCoClassLoader
         File[] binaryDirectories = new File[2];
@@ -130,6 +196,7 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
         binaryDirectories[1] = getRunnerProjectSettings().getBinaryDirectory();
         log.debug("Binary directories: {}", (Object) binaryDirectories);
 
+        List<Snippet> snippets = new ArrayList<>();
         // foreach containers
         for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
             // foreach snippets
@@ -142,10 +209,45 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
                     continue;
                 }
 
-                handleSnippet(snippet, serializer, binaryDirectories);
+                snippets.add(snippet);
             }
         }
 
+        // test case timeout + (10% but at least 5 sec)
+        int agentTimeout = TEST_CASE_TIMEOUT_IN_MS
+                + (int) Math.max(5000, TEST_CASE_TIMEOUT_IN_MS * 0.1);
+        File agentLogDir = new File(getRunnerProjectSettings().getBaseDir(),
+                AGENT_LOG_DIRECTORY_NAME);
+        agentPool = new TestSuiteRunnerAgentPool(createAgentCommand(),
+                getRunnerProjectSettings().getBaseDir(), agentLogDir, agentPoolSize,
+                agentTimeout);
+        agentExecutor = Executors.newFixedThreadPool(agentPoolSize);
+        instrumentedClassCache = new InstrumentedClassCache(instrumentedClassCacheDir,
+                InstrumentedClassCache.DEFAULT_MAX_ENTRIES);
+
+        try {
+            if (parallelism <= 1) {
+                Serializer serializer = new Persister(new AnnotationStrategy());
+                for (Snippet snippet : snippets) {
+                    handleSnippet(snippet, serializer, binaryDirectories);
+                }
+            } else {
+                // each snippet is analysed with its own JaCoCo runtime data and class loader (like
+                // in the sequential mode), thus the coverage of the different snippets cannot mix
+                // (and the serializer is not shared between the threads)
+                processSnippetsConcurrently(snippets, parallelism,
+                        snippet -> handleSnippet(snippet,
+                                new Persister(new AnnotationStrategy()), binaryDirectories));
+            }
+        } finally {
+            agentExecutor.shutdownNow();
+            agentPool.close();
+            instrumentedClassCache.logStatistics();
+            agentExecutor = null;
+            agentPool = null;
+            instrumentedClassCache = null;
+        }
+
         // NOTE check whether all inputs and info files are created
         // foreach containers
         for (SnippetContainer container : getSnippetProject().getSnippetContainers()) {
@@ -173,6 +275,52 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
 
     private void handleSnippet(Snippet snippet, Serializer serializer, File[] binaryDirectories)
             throws Exception {
+        try (EvaluationMetrics.Span span = startSnippet("analyze", snippet)) {
+            File resultFile = RunnerProjectUtils.getSnippetResultFile(getRunnerProjectSettings(),
+                    snippet);
+
+            SnippetFingerprint fingerprint = createFingerprint(snippet);
+            if (isIncremental()
+                    && fingerprint.isUpToDate(getRunnerProjectSettings(), resultFile)) {
+                log.info("Skipping {} (up to date)", snippet.getId());
+                return;
+            }
+
+            fingerprint.invalidate(getRunnerProjectSettings());
+            analyzeSnippet(snippet, serializer, binaryDirectories);
+            fingerprint.save(getRunnerProjectSettings());
+        }
+    }
+
+    /**
+     * Creates the fingerprint of the inputs of the test run for the snippet, i.e. the parsed
+     * inputs, the fingerprint of the test generation and the sources of the test classes.
+     *
+     * @param snippet
+     *            the snippet
+     * @return the fingerprint
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private SnippetFingerprint createFingerprint(Snippet snippet) throws IOException {
+        // one test class or one package of test classes (see loadTestClasses())
+        Path testBasePath = getRunnerProjectSettings().getTestDirectory().toPath()
+                .resolve(RunnerProjectUtils.getSnippetBaseFilename(snippet) + "_Test");
+
+        return createFingerprint(SnippetFingerprint.PHASE_TEST_RUNNER, snippet)
+                .putPath("test-generator-fingerprint", RunnerProjectUtils
+                        .getSnippetFingerprintFile(getRunnerProjectSettings(), snippet,
+                                SnippetFingerprint.PHASE_TEST_GENERATOR)
+                        .toPath())
+                .putPath("inputs", RunnerProjectUtils
+                        .getSnippetInputsFile(getRunnerProjectSettings(), snippet).toPath())
+                .putPath("test-class", testBasePath.resolveSibling(
+                        testBasePath.getFileName() + ".java"))
+                .putPath("test-package", testBasePath);
+    }
+
+    private void analyzeSnippet(Snippet snippet, Serializer serializer,
+            File[] binaryDirectories) throws Exception {
         File inputsXmlFile = RunnerProjectUtils
                 .getSnippetInputsFile(getRunnerProjectSettings(), snippet);
 
@@ -215,15 +363,7 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
             SnippetResultXml resultXml = SnippetResultXml.createForWithResult(inputsXml,
                     inputsXml.getResultType(), reqCov);
             resultXml.validate();
-
-            // TODO needs more documentation
-            File resultFile = RunnerProjectUtils
-                    .getSnippetResultFile(getRunnerProjectSettings(), snippet);
-
-            Serializer serializerWrite = new Persister(new AnnotationStrategy(),
-                    new Format("<?xml version=\"1.0\" encoding= \"UTF-8\" ?>"));
-
-            serializerWrite.write(resultXml, resultFile);
+            writeResult(snippet, inputsXml, resultXml, null);
 
             return;
         }
@@ -241,15 +381,7 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
             SnippetResultXml resultXml = SnippetResultXml.createForWithResult(inputsXml,
                     coverageXml.getResultType(), coverageXml.getAchievedCoverage());
             resultXml.validate();
-
-            // TODO needs more documentation
-            File resultFile = RunnerProjectUtils
-                    .getSnippetResultFile(getRunnerProjectSettings(), snippet);
-
-            Serializer serializerWrite = new Persister(new AnnotationStrategy(),
-                    new Format("<?xml version=\"1.0\" encoding= \"UTF-8\" ?>"));
-
-            serializerWrite.write(resultXml, resultFile);
+            writeResult(snippet, inputsXml, resultXml, coverageXml);
         } catch (ValidationException ex) {
             System.err.println(ex.getMessage());
             throw new RuntimeException("Validation failed");
@@ -293,17 +425,12 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
         log.debug("Snippet: {}#{}()", snippetClassName, snippetMethodName);
         log.debug("Test: {}", testClassName);
 
-        // create JaCoCo runtime and instrumenter
-        IRuntime runtime = new LoggerRuntime();
-        Instrumenter instrumenter = new Instrumenter(runtime);
-
-        // start runtime
+        // create JaCoCo runtime data (collects the probes of the classes of the class loader)
         RuntimeData data = new RuntimeData();
-        runtime.startup(data);
 
         // create class loader
         JaCoCoClassLoader testClassLoader = new JaCoCoClassLoader(binaryDirectories,
-                instrumenter, getSnippetProject().getClassLoader());
+                instrumentedClassCache, data, getSnippetProject().getClassLoader());
         // load test class
         // snippet class and other dependencies will be loaded and instrumented
         // on the fly
@@ -379,7 +506,6 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
         ExecutionDataStore executionData = new ExecutionDataStore();
         SessionInfoStore sessionInfos = new SessionInfoStore();
         data.collect(executionData, sessionInfos, false);
-        runtime.shutdown();
 
         // get classes to analyse
         // store string to avoid the mess up between the different class loaders
@@ -429,49 +555,10 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
         // PrintStream out = new PrintStream("D:/SETTE/!DUMP/"
         // + getTool().getName() + "/" + testClassName + ".out");
 
-        Map<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> coverageInfo = new HashMap<>();
-
-        for (IClassCoverage cc : coverageBuilder.getClasses()) {
-            String file = cc.getPackageName() + '/' + cc.getSourceFileName();
-            file = file.replace('\\', '/');
-
-            if (!coverageInfo.containsKey(file)) {
-                coverageInfo.put(file, Triple.of(new TreeSet<Integer>(), new TreeSet<Integer>(),
-                        new TreeSet<Integer>()));
-            }
-
-            // out.printf("Coverage of class %s%n", cc.getName());
-            //
-            // printCounter(out, "instructions",
-            // cc.getInstructionCounter());
-            // printCounter(out, "branches", cc.getBranchCounter());
-            // printCounter(out, "lines", cc.getLineCounter());
-            // printCounter(out, "methods", cc.getMethodCounter());
-            // printCounter(out, "complexity", cc.getComplexityCounter());
-
-            for (int l = cc.getFirstLine(); l <= cc.getLastLine(); l++) {
-                switch (LineStatus.fromJaCoCo(cc.getLine(l).getStatus())) {
-                    case FULLY_COVERED:
-                        coverageInfo.get(file).getLeft().add(l);
-                        break;
-
-                    case PARTLY_COVERED:
-                        coverageInfo.get(file).getMiddle().add(l);
-                        break;
-
-                    case NOT_COVERED:
-                        coverageInfo.get(file).getRight().add(l);
-                        break;
-
-                    default:
-                        // empty
-                        break;
-                }
-            }
-        }
+        CoverageInfo coverageInfo = CoverageInfo.fromJaCoCo(coverageBuilder.getClasses());
 
         SnippetCoverageXml coverageXml = createAndWriteCoverageXmlAndHtml(snippet,
-                new CoverageInfo(coverageInfo));
+                coverageInfo);
 
         return coverageXml;
     }
@@ -489,17 +576,12 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
         log.debug("Snippet: {}#{}()", snippetClassName, snippetMethodName);
         log.debug("Test: {}", testClassName);
 
-        // create JaCoCo runtime and instrumenter
-        IRuntime runtime = new LoggerRuntime();
-        Instrumenter instrumenter = new Instrumenter(runtime);
-
-        // start runtime
+        // create JaCoCo runtime data (collects the probes of the classes of the class loader)
         RuntimeData data = new RuntimeData();
-        runtime.startup(data);
 
         // create class loader
         JaCoCoClassLoader testClassLoader = new JaCoCoClassLoader(binaryDirectories,
-                instrumenter, getSnippetProject().getClassLoader());
+                instrumentedClassCache, data, getSnippetProject().getClassLoader());
         // load test class
         // snippet class and other dependencies will be loaded and instrumented
         // on the fly
@@ -543,42 +625,85 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
             }
         });
 
-        // Invoke test methods in each test class
-        CoverageInfo mergedCoverageInfo = new CoverageInfo();
+        // Invoke test methods in each test class (concurrently if there are more agents)
+        List<Future<CoverageInfo>> futures = new ArrayList<>();
         for (Method method : testMethods) {
-            CoverageInfo coverageInfo = executeOneTestCaseWithAgent(snippet, method);
-            coverageInfo.data.forEach((filename, tuple) -> {
-                if (!mergedCoverageInfo.data.containsKey(filename)) {
-                    mergedCoverageInfo.data.put(filename, tuple);
-                } else {
-                    Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>> mergedTuple;
-                    mergedTuple = mergedCoverageInfo.data.get(filename);
+            futures.add(agentExecutor.submit(() -> executeOneTestCaseWithAgent(snippet, method)));
+        }
 
-                    mergedTuple.getLeft().addAll(tuple.getLeft());
-                    mergedTuple.getMiddle().addAll(tuple.getMiddle());
-                    mergedTuple.getRight().addAll(tuple.getRight());
-                }
-            });
+        CoverageInfo mergedCoverageInfo = new CoverageInfo();
+        for (Future<CoverageInfo> future : futures) {
+            CoverageInfo coverageInfo;
+            try {
+                coverageInfo = future.get();
+            } catch (ExecutionException ex) {
+                futures.forEach(f -> f.cancel(true));
+                throw ex.getCause();
+            }
 
+            mergedCoverageInfo.merge(coverageInfo);
         }
 
-        // clean merged coverage info
-        mergedCoverageInfo.data.forEach((filename, tuple) -> {
-            // remove green and yellow from red
-            tuple.getRight().removeAll(tuple.getLeft());
-            tuple.getRight().removeAll(tuple.getMiddle());
+        // clean merged coverage info (remove green and yellow from red, remove green from yellow)
+        // condition "no intersections" will be checked during xml creation
+        mergedCoverageInfo.normalize();
 
-            // remove green from yellow
-            tuple.getMiddle().removeAll(tuple.getLeft());
+        return createAndWriteCoverageXmlAndHtml(snippet, mergedCoverageInfo);
+    }
 
-            // condition "no intersections" will be checked during xml creation
-        });
+    /**
+     * Writes the result XML file of the snippet and, if the result store is used, the result and
+     * the coverage of the snippet into the store.
+     *
+     * @param snippet
+     *            the snippet
+     * @param inputsXml
+     *            the inputs of the snippet
+     * @param resultXml
+     *            the result of the snippet
+     * @param coverageXml
+     *            the coverage of the snippet (<code>null</code> if it was not analysed)
+     * @throws Exception
+     *             if writing fails
+     */
+    private void writeResult(Snippet snippet, SnippetInputsXml inputsXml,
+            SnippetResultXml resultXml, SnippetCoverageXml coverageXml) throws Exception {
+        // TODO needs more documentation
+        File resultFile = RunnerProjectUtils.getSnippetResultFile(getRunnerProjectSettings(),
+                snippet);
 
-        return createAndWriteCoverageXmlAndHtml(snippet, mergedCoverageInfo);
+        Serializer serializerWrite = new Persister(new AnnotationStrategy(),
+                new Format("<?xml version=\"1.0\" encoding= \"UTF-8\" ?>"));
+
+        serializerWrite.write(resultXml, resultFile);
+
+        if (getResultStore() != null) {
+            File infoFile = RunnerProjectUtils.getSnippetInfoFile(getRunnerProjectSettings(),
+                    snippet);
+            SnippetResultRecord record = SnippetResultRecord.create(resultXml.getResultType(),
+                    resultXml.getAchievedCoverage(), inputsXml.getGeneratedInputCount(),
+                    RunnerProjectUtils.readSnippetRunInfo(infoFile));
+
+            ResultStore.Batch batch = getResultStore().batch().put(Table.RESULTS,
+                    getResultStoreRunId(), snippet.getId(), record.toBytes());
+            if (coverageXml != null) {
+                batch.putString(Table.COVERAGE, getResultStoreRunId(), snippet.getId(),
+                        ResultStoreXml.toXml(coverageXml));
+            }
+            batch.commit();
+        }
     }
 
     private CoverageInfo executeOneTestCaseWithAgent(Snippet snippet, Method testMethod)
             throws Exception {
+        log.info("Agent for {} {} {}", snippet.getName(), testMethod.getDeclaringClass().getName(),
+                testMethod.getName());
+
+        return agentPool.execute(snippet.getId(), testMethod.getDeclaringClass().getName(),
+                testMethod.getName());
+    }
+
+    private List<String> createAgentCommand() throws IOException {
         // NOTE absolute/real paths because workdir will be the runner project dir for the agent
 
         List<String> command = Lists.newArrayList("java", "-cp");
@@ -597,6 +722,7 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
 
         command.add(classpath);
         command.add(TestSuiteRunnerForkAgent.class.getName());
+        command.add(TestSuiteRunnerForkAgent.SERVER_MODE_ARG);
 
         // parameters for the agent
         command.add(getSnippetProject().getBaseDir().toString());
@@ -606,55 +732,10 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
                 getTool().getName(), getTool().getToolDir());
         command.add(toolArg);
         command.add(getRunnerProjectSettings().getTag());
-        command.add(snippet.getId());
-        command.add(testMethod.getDeclaringClass().getName());
-        command.add(testMethod.getName());
+        // NOTE the pool appends the port and the token of the result channel
 
-        // create process
-        log.info("Agent for {} {} {}", snippet.getName(), testMethod.getDeclaringClass().getName(),
-                testMethod.getName());
         log.trace("Agent command: " + command);
-
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(getRunnerProjectSettings().getBaseDir());
-
-        // test case timeout + (10% but at least 5 sec)
-        int processTimeout = TEST_CASE_TIMEOUT_IN_MS
-                + (int) Math.max(5000, TEST_CASE_TIMEOUT_IN_MS * 0.1);
-        ProcessExecutor exec = new ProcessExecutor(pb, processTimeout);
-
-        SimpleProcessExecutorListener listener = new SimpleProcessExecutorListener();
-        ProcessExecutionResult execResult = exec.execute(listener);
-
-        if (execResult.isDestroyed()) {
-            System.err.println("TIMEOUT for agent: " + String.join(" ", command));
-            System.err.println("Exit code: " + execResult);
-            System.err.println("== STDOUT ==============================");
-            System.err.println(listener.getStdoutData());
-
-            System.err.println("== STDERR ==============================");
-            System.err.println(listener.getStderrData());
-            System.err.println("========================================");
-
-            throw new RuntimeException("TIMEOUT for agent: " + String.join(" ", command));
-        } else if (execResult.getExitValue() != 0) {
-            System.err.println("FAILURE for agent: " + String.join(" ", command));
-            System.err.println("Result: " + execResult);
-            System.err.println("== STDOUT ==============================");
-            System.err.println(listener.getStdoutData());
-
-            System.err.println("== STDERR ==============================");
-            System.err.println(listener.getStderrData());
-            System.err.println("========================================");
-
-            throw new RuntimeException("FAILURE for agent: " + String.join(" ", command));
-        }
-
-        String output = listener.getStdoutData().toString();
-        int jsonIdx = output.lastIndexOf(TestSuiteRunnerForkAgent.AGENT_JSON_INDICATOR);
-        String jsonString = output
-                .substring(jsonIdx + TestSuiteRunnerForkAgent.AGENT_JSON_INDICATOR.length());
-        return CoverageInfo.fromJsonString(jsonString);
+        return command;
     }
 
     private SnippetCoverageXml createAndWriteCoverageXmlAndHtml(Snippet snippet,
@@ -684,17 +765,16 @@ public final class TestSuiteRunner extends EvaluationTask<Tool> {
         coverageXml.setResultType(resultType);
         coverageXml.setAchievedCoverage(coverage);
 
-        for (Entry<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> entry : coverageInfo.data
-                .entrySet()) {
-            SortedSet<Integer> full = entry.getValue().getLeft();
-            SortedSet<Integer> partial = entry.getValue().getMiddle();
-            SortedSet<Integer> not = entry.getValue().getRight();
+        for (String file : coverageInfo.getFiles()) {
+            FileLineCoverage fileCoverage = coverageInfo.get(file);
 
             FileCoverageElement fce = new FileCoverageElement();
-            fce.setName(entry.getKey());
-            fce.setFullyCoveredLines(StringUtils.join(full, ' '));
-            fce.setPartiallyCoveredLines(StringUtils.join(partial, ' '));
-            fce.setNotCoveredLines(StringUtils.join(not, ' '));
+            fce.setName(file);
+            fce.setFullyCoveredLines(
+                    FileLineCoverage.toLineString(fileCoverage.getFullyCovered()));
+            fce.setPartiallyCoveredLines(
+                    FileLineCoverage.toLineString(fileCoverage.getPartlyCovered()));
+            fce.setNotCoveredLines(FileLineCoverage.toLineString(fileCoverage.getNotCovered()));
 
             coverageXml.getCoverage().add(fce);
         }
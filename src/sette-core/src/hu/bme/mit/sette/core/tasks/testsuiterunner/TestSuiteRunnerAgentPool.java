@@ -0,0 +1,367 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A pool of long-lived {@link TestSuiteRunnerForkAgent} processes running in server mode. The
+ * agents are started lazily and they are reused for subsequent test cases, thus the snippet
+ * project parsing and the class instrumentation is done only once per agent. An agent is only
+ * replaced if it has terminated or a test case has hung (and the agent was killed). The pool is
+ * thread-safe.
+ * <p>
+ * Requests and results are exchanged through a loopback socket in a compact binary form (see
+ * {@link CoverageInfo#writeTo(java.io.DataOutput)}), while the output of the agent (including the
+ * output of the test cases) is streamed to a size-limited log file. Thus the memory used by the
+ * pool does not depend on how much the test cases write to stdout or stderr.
+ */
+public final class TestSuiteRunnerAgentPool implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(TestSuiteRunnerAgentPool.class);
+
+    /** The maximum size of the log file of an agent. */
+    public static final long MAX_LOG_SIZE_IN_BYTES = 10L * 1024 * 1024;
+
+    /** The response status sent by the agent if the test case was executed. */
+    static final int RESPONSE_OK = 0;
+
+    /** The response status sent by the agent if the test case could not be executed. */
+    static final int RESPONSE_ERROR = 1;
+
+    /** The time in ms for an agent to start and connect to the pool. */
+    private static final int CONNECT_TIMEOUT_IN_MS = 60000;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** The command which starts an agent in server mode. */
+    @Getter
+    private final ImmutableList<String> command;
+
+    /** The working directory for the agents. */
+    @Getter
+    private final File workingDirectory;
+
+    /** The directory for the log files of the agents. */
+    @Getter
+    private final File logDirectory;
+
+    /** The maximum number of agents. */
+    @Getter
+    private final int size;
+
+    /** The timeout in ms for one test case. */
+    @Getter
+    private final int timeoutInMs;
+
+    private final Semaphore permits;
+    private final Queue<Agent> idleAgents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger agentCounter = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    /**
+     * Instantiates a new agent pool.
+     *
+     * @param command
+     *            the command which starts an agent in server mode (the port and the token for the
+     *            connection are appended to it)
+     * @param workingDirectory
+     *            the working directory for the agents
+     * @param logDirectory
+     *            the directory for the log files of the agents (created if needed)
+     * @param size
+     *            the maximum number of agents (must be positive)
+     * @param timeoutInMs
+     *            the timeout in ms for one test case (must be positive)
+     */
+    public TestSuiteRunnerAgentPool(@NonNull List<String> command, @NonNull File workingDirectory,
+            @NonNull File logDirectory, int size, int timeoutInMs) {
+        checkArgument(!command.isEmpty(), "The command must not be empty");
+        checkArgument(size > 0, "The pool size must be positive");
+        checkArgument(timeoutInMs > 0, "The timeout must be positive");
+
+        this.command = ImmutableList.copyOf(command);
+        this.workingDirectory = workingDirectory;
+        this.logDirectory = logDirectory;
+        this.size = size;
+        this.timeoutInMs = timeoutInMs;
+        this.permits = new Semaphore(size, true);
+    }
+
+    /**
+     * Executes a test case with one of the agents. The method blocks until an agent becomes free.
+     *
+     * @param snippetId
+     *            the ID of the snippet
+     * @param testClassName
+     *            the name of the test class
+     * @param testMethodName
+     *            the name of the test method
+     * @return the coverage information for the test case
+     * @throws IOException
+     *             if the communication with the agent fails
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public CoverageInfo execute(@NonNull String snippetId, @NonNull String testClassName,
+            @NonNull String testMethodName) throws IOException, InterruptedException {
+        checkArgument(!closed, "The pool is closed");
+
+        permits.acquire();
+        Agent agent = null;
+        try {
+            agent = idleAgents.poll();
+            if (agent == null || !agent.isAlive()) {
+                if (agent != null) {
+                    LOG.warn("Agent has terminated, starting a new one (log: {})",
+                            agent.logFile);
+                    agent.destroy();
+                }
+                agent = new Agent(agentCounter.incrementAndGet());
+            }
+
+            return agent.execute(snippetId, testClassName, testMethodName);
+        } finally {
+            if (agent != null) {
+                if (agent.isAlive() && !closed) {
+                    idleAgents.add(agent);
+                } else {
+                    agent.destroy();
+                }
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Terminates all the idle agents. The agents which are executing a test case are terminated
+     * when the test case completes.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        Agent agent;
+        while ((agent = idleAgents.poll()) != null) {
+            agent.close();
+        }
+    }
+
+    /**
+     * Represents one agent process.
+     */
+    private final class Agent {
+        private final Process process;
+        private final File logFile;
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private volatile boolean destroyed = false;
+
+        public Agent(int id) throws IOException {
+            logDirectory.mkdirs();
+            logFile = new File(logDirectory, "agent-" + id + ".log");
+            byte[] tokenBytes = new byte[16];
+            RANDOM.nextBytes(tokenBytes);
+            String token = BaseEncoding.base16().encode(tokenBytes);
+
+            try (ServerSocket serverSocket = new ServerSocket(0, 1,
+                    InetAddress.getLoopbackAddress())) {
+                serverSocket.setSoTimeout(CONNECT_TIMEOUT_IN_MS);
+
+                List<String> agentCommand = new ArrayList<>(command);
+                agentCommand.add(String.valueOf(serverSocket.getLocalPort()));
+                agentCommand.add(token);
+                LOG.debug("Starting agent: {}", agentCommand);
+
+                ProcessBuilder pb = new ProcessBuilder(agentCommand).directory(workingDirectory)
+                        .redirectErrorStream(true);
+                process = pb.start();
+                process.getOutputStream().close();
+                startLogWriter();
+
+                try {
+                    socket = accept(serverSocket, token);
+                } catch (IOException ex) {
+                    destroy();
+                    throw new IOException("The agent has not connected (log: " + logFile + ")",
+                            ex);
+                }
+            }
+
+            socket.setTcpNoDelay(true);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        }
+
+        private Socket accept(ServerSocket serverSocket, String token) throws IOException {
+            // only the started agent knows the token, other connections are dropped
+            while (true) {
+                Socket candidate = serverSocket.accept();
+                try {
+                    candidate.setSoTimeout(CONNECT_TIMEOUT_IN_MS);
+                    String receivedToken = new DataInputStream(candidate.getInputStream())
+                            .readUTF();
+                    if (token.equals(receivedToken)) {
+                        return candidate;
+                    }
+                    LOG.warn("Rejected connection with invalid token from {}",
+                            candidate.getRemoteSocketAddress());
+                } catch (IOException ex) {
+                    LOG.warn("Rejected connection from {}", candidate.getRemoteSocketAddress());
+                }
+                candidate.close();
+            }
+        }
+
+        /** Streams the output of the agent to the log file and discards it above the limit. */
+        private void startLogWriter() {
+            Thread logWriter = new Thread(() -> {
+                try (InputStream stream = process.getInputStream();
+                        OutputStream log = new FileOutputStream(logFile)) {
+                    byte[] buffer = new byte[8192];
+                    long written = 0;
+                    boolean truncated = false;
+                    int n;
+                    while ((n = stream.read(buffer)) >= 0) {
+                        if (written < MAX_LOG_SIZE_IN_BYTES) {
+                            int len = (int) Math.min(n, MAX_LOG_SIZE_IN_BYTES - written);
+                            log.write(buffer, 0, len);
+                            written += len;
+                        } else if (!truncated) {
+                            truncated = true;
+                            log.write(String.format("%n== LOG TRUNCATED AT %d BYTES ==%n",
+                                    MAX_LOG_SIZE_IN_BYTES).getBytes(StandardCharsets.UTF_8));
+                            log.flush();
+                        }
+                    }
+                } catch (IOException ex) {
+                    // the process has terminated
+                }
+            }, "AGENT-POOL-LOG");
+            logWriter.setDaemon(true);
+            logWriter.start();
+        }
+
+        public boolean isAlive() {
+            return !destroyed && process.isAlive();
+        }
+
+        public CoverageInfo execute(String snippetId, String testClassName,
+                String testMethodName) throws IOException {
+            String request = snippetId + " " + testClassName + "#" + testMethodName;
+
+            try {
+                out.writeUTF(snippetId);
+                out.writeUTF(testClassName);
+                out.writeUTF(testMethodName);
+                out.flush();
+
+                socket.setSoTimeout(timeoutInMs);
+                int status = in.readUnsignedByte();
+
+                if (status == RESPONSE_OK) {
+                    return CoverageInfo.readFrom(in);
+                } else if (status == RESPONSE_ERROR) {
+                    String message = in.readUTF();
+                    LOG.error("FAILURE for agent: {} (log: {})", request, logFile);
+                    throw new RuntimeException("FAILURE for agent: " + request + ": " + message);
+                } else {
+                    throw new IOException("Invalid response status: " + status);
+                }
+            } catch (SocketTimeoutException ex) {
+                // the test case hangs, recycle the agent
+                destroy();
+                LOG.error("TIMEOUT for agent: {} (log: {})", request, logFile);
+                throw new RuntimeException("TIMEOUT for agent: " + request);
+            } catch (EOFException ex) {
+                destroy();
+                LOG.error("FAILURE for agent: {} (log: {})", request, logFile);
+                throw new IOException("The agent has terminated unexpectedly: " + request, ex);
+            } catch (IOException ex) {
+                destroy();
+                LOG.error("FAILURE for agent: {} (log: {})", request, logFile);
+                throw ex;
+            }
+        }
+
+        /** Asks the agent to exit by closing the connection (kills it if it does not exit). */
+        public void close() {
+            try {
+                socket.close();
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    destroy();
+                }
+            } catch (IOException ex) {
+                destroy();
+            } catch (InterruptedException ex) {
+                destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public void destroy() {
+            destroyed = true;
+            process.destroyForcibly();
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+        }
+    }
+}
@@ -23,36 +23,36 @@
 // NOTE revise this file
 package hu.bme.mit.sette.core.tasks.testsuiterunner;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.stream.Stream;
 
-import org.apache.commons.lang3.tuple.Triple;
+import org.apache.commons.lang3.StringUtils;
 import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
-import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
-import org.jacoco.core.instr.Instrumenter;
-import org.jacoco.core.runtime.IRuntime;
-import org.jacoco.core.runtime.LoggerRuntime;
 import org.jacoco.core.runtime.RuntimeData;
 import org.junit.Before;
 
@@ -67,15 +67,24 @@ import hu.bme.mit.sette.core.tool.Tool;
 import junit.framework.AssertionFailedError;
 
 /**
- * Agent to run one test case (as a separate JVM process). Output:
+ * Agent to run test cases in a separate JVM process. The agent has two modes:
  * <ul>
- * <li>log on syserr (and possible output on syserr and sysout from the test case
- * <li>{@link #AGENT_JSON_INDICATOR} on sysout
- * <li>coverage result as a JSON on sysout
+ * <li>single mode: the agent runs the test case specified by the arguments, writes
+ * {@link #AGENT_JSON_INDICATOR} and the coverage result as a JSON to sysout and exits (mainly for
+ * debugging)
+ * <li>server mode (if the first argument is {@link #SERVER_MODE_ARG}): the agent keeps the snippet
+ * project, the tool and the instrumented classes, connects to the loopback port given by the
+ * {@link TestSuiteRunnerAgentPool} and executes the requested test cases one after the other until
+ * the connection is closed. A request consists of the snippet ID, the test class name and the test
+ * method name; the response is a status byte followed by the coverage result in binary form (see
+ * {@link CoverageInfo#writeTo(java.io.DataOutput)}) or by an error message.
  * </ul>
+ * The log and the output of the test cases go to syserr and sysout, in server mode they are not
+ * part of the protocol and may be arbitrarily long.
  */
 public final class TestSuiteRunnerForkAgent {
     public static final String AGENT_JSON_INDICATOR = "== TEST RESULT JSON ==";
+    public static final String SERVER_MODE_ARG = "--server";
     private static final AgentLogger log = new AgentLogger(System.err);
 
     public static void main(String[] args) {
@@ -83,20 +92,36 @@ public final class TestSuiteRunnerForkAgent {
             Thread.currentThread().setName("AGENT-MAIN");
 
             List<String> argsList = Arrays.asList(args);
-
             log.info("Args: " + argsList);
-            TestSuiteRunnerForkAgent agent = new TestSuiteRunnerForkAgent(
-                    Queues.newArrayDeque(argsList));
 
-            log.info(String.format("Agent created for %s: %s_%s (project: %s)",
-                    agent.snippet.getId(), agent.testClassName, agent.testMethodName,
-                    agent.runnerProjectSettings.getProjectName()));
+            Queue<String> argsQueue = Queues.newArrayDeque(argsList);
+            if (SERVER_MODE_ARG.equals(argsQueue.peek())) {
+                argsQueue.remove();
+                TestSuiteRunnerForkAgent agent = new TestSuiteRunnerForkAgent(argsQueue);
+                int port = Integer.parseInt(argsQueue.remove());
+                String token = argsQueue.remove();
 
-            CoverageInfo result = agent.analyze();
-            String json = result.toJsonString();
+                if (!argsQueue.isEmpty()) {
+                    throw new RuntimeException("Too many arguments: " + argsQueue);
+                }
 
-            System.out.println(AGENT_JSON_INDICATOR);
-            System.out.println(json);
+                serve(agent, port, token);
+            } else {
+                TestSuiteRunnerForkAgent agent = new TestSuiteRunnerForkAgent(argsQueue);
+                String snippetId = argsQueue.remove();
+                String testClassName = argsQueue.remove();
+                String testMethodName = argsQueue.remove();
+
+                if (!argsQueue.isEmpty()) {
+                    throw new RuntimeException("Too many arguments: " + argsQueue);
+                }
+
+                CoverageInfo result = agent.analyze(snippetId, testClassName, testMethodName);
+                String json = result.toJsonString();
+
+                System.out.println(AGENT_JSON_INDICATOR);
+                System.out.println(json);
+            }
 
             // make sure that no thread will keep the JVM running
             System.exit(0);
@@ -106,12 +131,54 @@ public final class TestSuiteRunnerForkAgent {
         }
     }
 
+    private static void serve(TestSuiteRunnerForkAgent agent, int port, String token)
+            throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(socket.getInputStream()));
+
+            out.writeUTF(token);
+            out.flush();
+            log.info("Connected to port " + port);
+
+            while (true) {
+                String snippetId;
+                try {
+                    snippetId = in.readUTF();
+                } catch (EOFException ex) {
+                    break;
+                }
+                String testClassName = in.readUTF();
+                String testMethodName = in.readUTF();
+
+                try {
+                    CoverageInfo result = agent.analyze(snippetId, testClassName,
+                            testMethodName);
+                    out.writeByte(TestSuiteRunnerAgentPool.RESPONSE_OK);
+                    result.writeTo(out);
+                } catch (Throwable ex) {
+                    ex.printStackTrace();
+                    out.writeByte(TestSuiteRunnerAgentPool.RESPONSE_ERROR);
+                    out.writeUTF(StringUtils.abbreviate(
+                            ex.getClass().getName() + ": " + ex.getMessage(), 1000));
+                }
+                out.flush();
+            }
+        }
+
+        log.info("Connection was closed, exiting");
+    }
+
     private final SnippetProject snippetProject;
-    private final Tool tool;
     private final RunnerProjectSettings<Tool> runnerProjectSettings;
-    private final Snippet snippet;
-    private final String testClassName;
-    private final String testMethodName;
+    private final File[] binaryDirectories;
+
+    // the cache is kept during the whole lifetime of the agent, thus the instrumented classes
+    // can be reused between test cases
+    private final InstrumentedClassCache instrumentedClassCache;
 
     public TestSuiteRunnerForkAgent(Queue<String> args) throws Exception {
         // parse args
@@ -119,54 +186,49 @@ public final class TestSuiteRunnerForkAgent {
         Path outputDir = Paths.get(args.remove());
         List<String> toolConfig = Splitter.on('|').limit(3).splitToList(args.remove());
         String runnerProjectTag = args.remove();
-        String snippetId = args.remove();
-        testClassName = args.remove();
-        testMethodName = args.remove();
-
-        if (!args.isEmpty()) {
-            throw new RuntimeException("Too many arguments: " + args);
-        }
 
         // create context
         snippetProject = SnippetProject.parse(snippetProjectDir);
-        tool = Tool.create(new SetteToolConfiguration(toolConfig.get(0), toolConfig.get(1),
-                Paths.get(toolConfig.get(2))));
+        Tool tool = Tool.create(new SetteToolConfiguration(toolConfig.get(0),
+                toolConfig.get(1), Paths.get(toolConfig.get(2))));
         runnerProjectSettings = new RunnerProjectSettings<>(snippetProject, outputDir, tool,
                 runnerProjectTag);
 
-        snippet = snippetProject.getSnippetContainers().stream()
-                .flatMap(sc -> sc.getSnippets().values().stream())
-                .filter(s -> s.getId().equals(snippetId)).findAny().get();
+        // binary directories for the JaCoCoClassLoader
+        binaryDirectories = new File[2];
+        binaryDirectories[0] = snippetProject.getBuildDir().toFile();
+        binaryDirectories[1] = runnerProjectSettings.getBinaryDirectory();
+        log.debug("Binary directories: " + Arrays.asList(binaryDirectories));
+
+        // use the same persistent cache as the test suite runner
+        instrumentedClassCache = new InstrumentedClassCache(
+                TestSuiteRunner.getDefaultInstrumentedClassCacheDir(outputDir),
+                InstrumentedClassCache.DEFAULT_MAX_ENTRIES);
+
+        log.info("Agent created for project " + runnerProjectSettings.getProjectName());
     }
 
-    private CoverageInfo analyze()
+    private CoverageInfo analyze(String snippetId, String testClassName, String testMethodName)
             throws Throwable {
         //
         // Initialize
         //
+        Snippet snippet = snippetProject.getSnippetContainers().stream()
+                .flatMap(sc -> sc.getSnippets().values().stream())
+                .filter(s -> s.getId().equals(snippetId)).findAny().get();
+
         String snippetClassName = snippet.getContainer().getJavaClass().getName();
         String snippetMethodName = snippet.getMethod().getName();
 
         log.info("Snippet: " + snippetClassName + "#" + snippetMethodName + "()");
-        log.info("Test: " + testClassName);
-
-        // create JaCoCo runtime and instrumenter
-        IRuntime runtime = new LoggerRuntime();
-        Instrumenter instrumenter = new Instrumenter(runtime);
+        log.info("Test: " + testClassName + "#" + testMethodName + "()");
 
-        // start runtime
+        // create JaCoCo runtime data (collects the probes of the classes of the class loader)
         RuntimeData data = new RuntimeData();
-        runtime.startup(data);
 
-        // binary directories for the JaCoCoClassLoader
-        File[] binaryDirectories = new File[2];
-        binaryDirectories[0] = snippetProject.getBuildDir().toFile();
-        binaryDirectories[1] = runnerProjectSettings.getBinaryDirectory();
-        log.debug("Binary directories: " + Arrays.asList(binaryDirectories));
-
-        // create class loader
+        // create class loader (a new one for every test case to start with a clean static state)
         JaCoCoClassLoader testClassLoader = new JaCoCoClassLoader(binaryDirectories,
-                instrumenter, snippetProject.getClassLoader());
+                instrumentedClassCache, data, snippetProject.getClassLoader());
 
         // load test class
         // snippet class and other dependencies will be loaded and instrumented on the fly
@@ -227,7 +289,6 @@ public final class TestSuiteRunnerForkAgent {
         ExecutionDataStore executionData = new ExecutionDataStore();
         SessionInfoStore sessionInfos = new SessionInfoStore();
         data.collect(executionData, sessionInfos, false);
-        runtime.shutdown();
 
         // get classes to analyse
         // store string to avoid the mess up between the different class loaders
@@ -272,51 +333,7 @@ public final class TestSuiteRunnerForkAgent {
             analyzer.analyzeClass(testClassLoader.readBytes(javaClassName), javaClassName);
         }
 
-        // FIXME insane data structure
-        // key: source file
-        // value: tuple of FULLY, PARTLY and NOT covered line numbers sets (green, yellow, red)
-        Map<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> coverageInfo = new HashMap<>();
-
-        for (IClassCoverage cc : coverageBuilder.getClasses()) {
-            String file = cc.getPackageName() + '/' + cc.getSourceFileName();
-            file = file.replace('\\', '/');
-
-            if (!coverageInfo.containsKey(file)) {
-                coverageInfo.put(file, Triple.of(new TreeSet<Integer>(), new TreeSet<Integer>(),
-                        new TreeSet<Integer>()));
-            }
-
-            // out.printf("Coverage of class %s%n", cc.getName());
-            //
-            // printCounter(out, "instructions",
-            // cc.getInstructionCounter());
-            // printCounter(out, "branches", cc.getBranchCounter());
-            // printCounter(out, "lines", cc.getLineCounter());
-            // printCounter(out, "methods", cc.getMethodCounter());
-            // printCounter(out, "complexity", cc.getComplexityCounter());
-
-            for (int l = cc.getFirstLine(); l <= cc.getLastLine(); l++) {
-                switch (LineStatus.fromJaCoCo(cc.getLine(l).getStatus())) {
-                    case FULLY_COVERED:
-                        coverageInfo.get(file).getLeft().add(l);
-                        break;
-
-                    case PARTLY_COVERED:
-                        coverageInfo.get(file).getMiddle().add(l);
-                        break;
-
-                    case NOT_COVERED:
-                        coverageInfo.get(file).getRight().add(l);
-                        break;
-
-                    default:
-                        // empty
-                        break;
-                }
-            }
-        }
-
-        return new CoverageInfo(coverageInfo);
+        return CoverageInfo.fromJaCoCo(coverageBuilder.getClasses());
     }
 
     // simple logger for the agent
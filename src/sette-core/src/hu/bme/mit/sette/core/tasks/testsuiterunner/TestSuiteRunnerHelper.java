@@ -11,10 +11,11 @@ import java.net.SocketImpl;
 import java.net.SocketImplFactory;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
@@ -22,33 +23,29 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.BodyDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.google.common.base.Preconditions;
 
 import hu.bme.mit.sette.core.model.runner.ResultType;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.SourceLineIndex.Declaration;
 
 final class TestSuiteRunnerHelper {
     private static Logger log = LoggerFactory.getLogger(TestSuiteRunnerHelper.class);
-    private static Set<SocketImpl> jvmSockets;
+    /** The server sockets of the JVM mapped to the thread group of the creating thread. */
+    private static Map<SocketImpl, ThreadGroup> jvmSockets;
 
     private TestSuiteRunnerHelper() {
         throw new UnsupportedOperationException("Static class");
     }
 
     static {
-        jvmSockets = Collections
-                .synchronizedSet(new HashSet<SocketImpl>());
+        jvmSockets = Collections.synchronizedMap(new WeakHashMap<>());
         try {
             ServerSocket.setSocketFactory(new SocketImplFactory() {
                 @Override
                 public SocketImpl createSocketImpl() {
                     SocketImpl socket = newSocketImpl();
-                    jvmSockets.add(socket);
+                    jvmSockets.put(socket, Thread.currentThread().getThreadGroup());
                     return socket;
                 }
             });
@@ -90,6 +87,19 @@ final class TestSuiteRunnerHelper {
         }
     }
 
+    /**
+     * Returns the sockets which were created by the threads of the given thread group (or its
+     * subgroups), i.e. the sockets of a test case. The sockets of the test cases running
+     * concurrently and the sockets of SETTE itself are not included.
+     */
+    private static Set<SocketImpl> getSocketsCreatedBy(ThreadGroup threadGroup) {
+        synchronized (jvmSockets) {
+            return jvmSockets.entrySet().stream()
+                    .filter(e -> e.getValue() != null && threadGroup.parentOf(e.getValue()))
+                    .map(Map.Entry::getKey).collect(Collectors.toSet());
+        }
+    }
+
     private static void closeSockets(Set<SocketImpl> socks) {
         System.out.println(socks);
         // close sockets
@@ -128,9 +138,13 @@ final class TestSuiteRunnerHelper {
     static void invokeMethod(Object testClassInstance, Method method, boolean checkThreads)
             throws Throwable {
         Set<Thread> threadsBeforeTest = Thread.getAllStackTraces().keySet();
-        Set<SocketImpl> socketsBeforeTest = new HashSet<>(jvmSockets);
 
-        InvokeMethodThread testCaseThread = new InvokeMethodThread(testClassInstance, method);
+        // threads started by the test case will inherit the thread group, thus only these threads
+        // will be stopped if the test case hangs (other test cases may run concurrently)
+        ThreadGroup testCaseThreadGroup = new ThreadGroup(
+                testClassInstance.getClass().getSimpleName() + "_" + method.getName());
+        InvokeMethodThread testCaseThread = new InvokeMethodThread(testCaseThreadGroup,
+                testClassInstance, method);
         testCaseThread.start();
         // FIXME no more than XX sec per test case
         testCaseThread.join(TestSuiteRunner.TEST_CASE_TIMEOUT_IN_MS);
@@ -142,20 +156,20 @@ final class TestSuiteRunnerHelper {
             try {
                 testCaseThread.stop();
 
-                // close sockets
-                Set<SocketImpl> socketsAfterTest = new HashSet<>(jvmSockets);
-                socketsAfterTest.removeAll(socketsBeforeTest);
+                // close the sockets created by the test case
+                Set<SocketImpl> socketsOfTest = getSocketsCreatedBy(testCaseThreadGroup);
 
-                while (!socketsAfterTest.isEmpty()) {
-                    log.warn("Have to close {} sockets", socketsAfterTest.size());
-                    closeSockets(socketsAfterTest);
+                while (!socketsOfTest.isEmpty()) {
+                    log.warn("Have to close {} sockets", socketsOfTest.size());
+                    closeSockets(socketsOfTest);
 
-                    socketsAfterTest = new HashSet<>(jvmSockets);
-                    socketsAfterTest.removeAll(socketsBeforeTest);
+                    socketsOfTest = getSocketsCreatedBy(testCaseThreadGroup);
                 }
 
                 Set<Thread> threadsAfterTest = Thread.getAllStackTraces().keySet();
                 threadsAfterTest.removeAll(threadsBeforeTest);
+                threadsAfterTest.removeIf(t -> t.getThreadGroup() == null
+                        || !testCaseThreadGroup.parentOf(t.getThreadGroup()));
 
                 if (!threadsAfterTest.isEmpty() && checkThreads) {
                     int cnt = 0;
@@ -204,7 +218,8 @@ final class TestSuiteRunnerHelper {
         private final Method method;
         private volatile Throwable invokeException;
 
-        public InvokeMethodThread(Object testClassInstance, Method method) {
+        public InvokeMethodThread(ThreadGroup group, Object testClassInstance, Method method) {
+            super(group, (Runnable) null);
             this.testClassInstance = testClassInstance;
             this.method = method;
         }
@@ -228,26 +243,22 @@ final class TestSuiteRunnerHelper {
         int linesCovered = 0;
 
         // iterate through files
-        for (String relJavaFile : coverageInfo.data.keySet()) {
+        for (String relJavaFile : coverageInfo.getFiles()) {
             // relJavaFile: hu/bme/mit/sette/snippets/_1_basic/B3_loops/B3c_DoWhile.java
             File javaFile = new File(
                     snippet.getContainer().getSnippetProject().getSourceDir().toFile(),
                     relJavaFile);
 
-            // parse file
-            log.debug("Parsing with JavaParser: {}", javaFile);
-            CompilationUnit compilationUnit = JavaParser.parse(javaFile);
-            log.debug("Parsed with JavaParser: {}", javaFile);
-            int beginLine = compilationUnit.getBeginLine();
-            int endLine = compilationUnit.getEndLine();
+            // get the line ranges of the declarations (the file is only parsed once)
+            SourceLineIndex index = SourceLineIndex.of(javaFile.toPath());
+            int beginLine = index.getBeginLine();
+            int endLine = index.getEndLine();
 
             // get "line colours" to variables
-            int[] full = coverageInfo.data.get(relJavaFile).getLeft().stream().sorted()
-                    .mapToInt(i -> (int) i).sorted().toArray();
-            int[] partial = coverageInfo.data.get(relJavaFile).getMiddle().stream().sorted()
-                    .mapToInt(i -> (int) i).sorted().toArray();
-            int[] not = coverageInfo.data.get(relJavaFile).getRight().stream().sorted()
-                    .mapToInt(i -> (int) i).sorted().toArray();
+            FileLineCoverage fileCoverage = coverageInfo.get(relJavaFile);
+            int[] full = fileCoverage.getFullyCoveredLines();
+            int[] partial = fileCoverage.getPartlyCoveredLines();
+            int[] not = fileCoverage.getNotCoveredLines();
 
             // validations
             Preconditions.checkState(beginLine >= 1, relJavaFile + " begin line: " + beginLine);
@@ -260,14 +271,10 @@ final class TestSuiteRunnerHelper {
             lines.setStatus(full, LineStatus.FULLY_COVERED);
 
             // extract method
-            try {
-                // if does not fail, it is the source file corresponding to the snippet
-                MethodDeclaration methodDecl = getCuMethodDecl(compilationUnit,
-                        snippet.getMethod().getName());
-                if (methodDecl == null) {
-                    throw new NoSuchElementException();
-                }
-
+            // if found, it is the source file corresponding to the snippet, otherwise the snippet
+            // method was not found in the file => included method in dependency
+            Declaration methodDecl = index.getMethod(snippet.getMethod().getName());
+            if (methodDecl != null) {
                 for (int lineNumber = methodDecl.getBeginLine(); lineNumber <= methodDecl
                         .getEndLine(); lineNumber++) {
                     LineStatus s = lines.getStatus(lineNumber);
@@ -279,8 +286,6 @@ final class TestSuiteRunnerHelper {
                         }
                     }
                 }
-            } catch (NoSuchElementException ex) {
-                // snippet method was not found in the file => included method in dependency
             }
 
             if (snippet.getIncludedConstructors().isEmpty()
@@ -290,17 +295,15 @@ final class TestSuiteRunnerHelper {
                 // handle included coverage if:
                 // a) method was not found in the file (dependency file)
                 // b) there is included method in the same file as the snippet
-                List<BodyDeclaration> inclDecls = new ArrayList<>();
+                List<Declaration> inclDecls = new ArrayList<>();
 
                 // NOTE this might be not working (ctor)
                 for (Constructor<?> ctor : snippet.getIncludedConstructors()) {
-                    if (!ctor.getDeclaringClass().getSimpleName()
-                            .equals(compilationUnit.getTypes().get(0).getName())) {
+                    if (!ctor.getDeclaringClass().getSimpleName().equals(index.getTypeName())) {
                         continue;
                     }
 
-                    BodyDeclaration decl = getCuConstructorDecl(compilationUnit,
-                            ctor.getName());
+                    Declaration decl = getConstructorDecl(index, ctor.getName());
                     // maybe default ctor not present in source
                     if (decl != null) {
                         inclDecls.add(decl);
@@ -308,20 +311,19 @@ final class TestSuiteRunnerHelper {
                 }
 
                 for (Method method : snippet.getIncludedMethods()) {
-                    if (!method.getDeclaringClass().getSimpleName()
-                            .equals(compilationUnit.getTypes().get(0).getName())) {
+                    if (!method.getDeclaringClass().getSimpleName().equals(index.getTypeName())) {
                         continue;
                     }
 
-                    BodyDeclaration decl = getCuMethodDecl(compilationUnit, method.getName());
+                    Declaration decl = index.getMethod(method.getName());
                     // maybe in superclass
                     if (decl != null) {
                         inclDecls.add(decl);
                     }
                 }
 
-                for (BodyDeclaration methodDecl : inclDecls) {
-                    for (int lineNumber = methodDecl.getBeginLine(); lineNumber <= methodDecl
+                for (Declaration inclDecl : inclDecls) {
+                    for (int lineNumber = inclDecl.getBeginLine(); lineNumber <= inclDecl
                             .getEndLine(); lineNumber++) {
                         LineStatus s = lines.getStatus(lineNumber);
 
@@ -360,28 +362,14 @@ final class TestSuiteRunnerHelper {
         }
     }
 
-    private static MethodDeclaration getCuMethodDecl(CompilationUnit compilationUnit, String name) {
-        try {
-            return compilationUnit.getTypes().get(0).getMembers().stream()
-                    .filter(bd -> bd instanceof MethodDeclaration).map(bd -> (MethodDeclaration) bd)
-                    .filter(md -> md.getName().equals(name)).findAny().get();
-        } catch (NoSuchElementException ex) {
-            // NOTE maybe super class, skip now
-            return null;
-        }
-    }
-
-    private static ConstructorDeclaration getCuConstructorDecl(CompilationUnit compilationUnit,
-            String name) {
+    private static Declaration getConstructorDecl(SourceLineIndex index, String name) {
         // maybe default ctor not present in source
-        ConstructorDeclaration[] ctorDecls = compilationUnit.getTypes().get(0).getMembers().stream()
-                .filter(bd -> bd instanceof ConstructorDeclaration)
-                .map(bd -> (ConstructorDeclaration) bd).toArray(ConstructorDeclaration[]::new);
+        List<Declaration> ctorDecls = index.getConstructors();
 
-        if (ctorDecls.length == 0) {
+        if (ctorDecls.isEmpty()) {
             return null;
         } else {
-            for (ConstructorDeclaration ctorDecl : ctorDecls) {
+            for (Declaration ctorDecl : ctorDecls) {
                 // FIXME test this part
                 if (ctorDecl.getName().equals(name)) {
                     return ctorDecl;
@@ -34,22 +34,15 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.regex.Pattern;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.jacoco.core.analysis.Analyzer;
 import org.jacoco.core.analysis.CoverageBuilder;
-import org.jacoco.core.analysis.IClassCoverage;
 import org.jacoco.core.data.ExecutionDataStore;
 import org.jacoco.core.data.SessionInfoStore;
 import org.jacoco.core.instr.Instrumenter;
@@ -78,9 +71,9 @@ import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetContainer;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
-import hu.bme.mit.sette.core.tasks.AntExecutor;
 import hu.bme.mit.sette.core.tasks.EvaluationTask;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.CoverageInfo;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.FileLineCoverage;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.HtmlGenerator;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.JaCoCoClassLoader;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.LineStatus;
@@ -181,9 +174,17 @@ public final class TestSuiteRunner2 extends EvaluationTask<Tool> {
             }
         }
 
-        // ant build
-        AntExecutor.executeAnt(getRunnerProjectSettings().getBaseDir(),
-                ANT_BUILD_TEST2_FILENAME);
+        // compile the changed tests
+        Path baseDir = getRunnerProjectSettings().getBaseDir().toPath();
+        if (evosuiteJar != null) {
+            TestSuiteGenerator.compileTests(getRunnerProjectSettings(),
+                    baseDir.resolve("test-original"), Arrays.asList(evosuiteJar),
+                    ANT_BUILD_TEST2_FILENAME, 1);
+        } else {
+            TestSuiteGenerator.compileTests(getRunnerProjectSettings(),
+                    getRunnerProjectSettings().getTestDirectory().toPath(),
+                    Arrays.asList(baseDir.resolve("junit.jar")), ANT_BUILD_TEST2_FILENAME, 1);
+        }
 
         //
         Serializer serializer = new Persister(new AnnotationStrategy());
@@ -491,49 +492,10 @@ public final class TestSuiteRunner2 extends EvaluationTask<Tool> {
         // PrintStream out = new PrintStream("D:/SETTE/!DUMP/"
         // + getTool().getName() + "/" + testClassName + ".out");
 
-        Map<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> coverageInfo = new HashMap<>();
-
-        for (IClassCoverage cc : coverageBuilder.getClasses()) {
-            String file = cc.getPackageName() + '/' + cc.getSourceFileName();
-            file = file.replace('\\', '/');
-
-            if (!coverageInfo.containsKey(file)) {
-                coverageInfo.put(file, Triple.of(new TreeSet<Integer>(), new TreeSet<Integer>(),
-                        new TreeSet<Integer>()));
-            }
-
-            // out.printf("Coverage of class %s%n", cc.getName());
-            //
-            // printCounter(out, "instructions",
-            // cc.getInstructionCounter());
-            // printCounter(out, "branches", cc.getBranchCounter());
-            // printCounter(out, "lines", cc.getLineCounter());
-            // printCounter(out, "methods", cc.getMethodCounter());
-            // printCounter(out, "complexity", cc.getComplexityCounter());
-
-            for (int l = cc.getFirstLine(); l <= cc.getLastLine(); l++) {
-                switch (LineStatus.fromJaCoCo(cc.getLine(l).getStatus())) {
-                    case FULLY_COVERED:
-                        coverageInfo.get(file).getLeft().add(l);
-                        break;
-
-                    case PARTLY_COVERED:
-                        coverageInfo.get(file).getMiddle().add(l);
-                        break;
-
-                    case NOT_COVERED:
-                        coverageInfo.get(file).getRight().add(l);
-                        break;
-
-                    default:
-                        // empty
-                        break;
-                }
-            }
-        }
+        CoverageInfo coverageInfo = CoverageInfo.fromJaCoCo(coverageBuilder.getClasses());
 
         SnippetCoverageXml coverageXml = createAndWriteCoverageXmlAndHtml(snippet,
-                new CoverageInfo(coverageInfo));
+                coverageInfo);
 
         return coverageXml;
     }
@@ -565,17 +527,16 @@ public final class TestSuiteRunner2 extends EvaluationTask<Tool> {
         coverageXml.setResultType(resultType);
         coverageXml.setAchievedCoverage(coverage);
 
-        for (Entry<String, Triple<SortedSet<Integer>, SortedSet<Integer>, SortedSet<Integer>>> entry : coverageInfo.data
-                .entrySet()) {
-            SortedSet<Integer> full = entry.getValue().getLeft();
-            SortedSet<Integer> partial = entry.getValue().getMiddle();
-            SortedSet<Integer> not = entry.getValue().getRight();
+        for (String file : coverageInfo.getFiles()) {
+            FileLineCoverage fileCoverage = coverageInfo.get(file);
 
             FileCoverageElement fce = new FileCoverageElement();
-            fce.setName(entry.getKey());
-            fce.setFullyCoveredLines(StringUtils.join(full, ' '));
-            fce.setPartiallyCoveredLines(StringUtils.join(partial, ' '));
-            fce.setNotCoveredLines(StringUtils.join(not, ' '));
+            fce.setName(file);
+            fce.setFullyCoveredLines(
+                    FileLineCoverage.toLineString(fileCoverage.getFullyCovered()));
+            fce.setPartiallyCoveredLines(
+                    FileLineCoverage.toLineString(fileCoverage.getPartlyCovered()));
+            fce.setNotCoveredLines(FileLineCoverage.toLineString(fileCoverage.getNotCovered()));
 
             coverageXml.getCoverage().add(fce);
         }
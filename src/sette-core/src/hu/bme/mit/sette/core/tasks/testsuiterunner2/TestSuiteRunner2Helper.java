@@ -5,25 +5,22 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.BodyDeclaration;
-import com.github.javaparser.ast.body.ConstructorDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
 import com.google.common.base.Preconditions;
 
 import hu.bme.mit.sette.core.model.runner.ResultType;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.CoverageInfo;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.FileLineCoverage;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.JaCoCoClassLoader;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.LineStatus;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.LineStatuses;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.SourceLineIndex;
+import hu.bme.mit.sette.core.tasks.testsuiterunner.SourceLineIndex.Declaration;
 
 public final class TestSuiteRunner2Helper {
     private static Logger log = LoggerFactory.getLogger(TestSuiteRunner2Helper.class);
@@ -38,26 +35,22 @@ public final class TestSuiteRunner2Helper {
         int linesCovered = 0;
 
         // iterate through files
-        for (String relJavaFile : coverageInfo.data.keySet()) {
+        for (String relJavaFile : coverageInfo.getFiles()) {
             // relJavaFile: hu/bme/mit/sette/snippets/_1_basic/B3_loops/B3c_DoWhile.java
             File javaFile = new File(
                     snippet.getContainer().getSnippetProject().getSourceDir().toFile(),
                     relJavaFile);
 
-            // parse file
-            log.debug("Parsing with JavaParser: {}", javaFile);
-            CompilationUnit compilationUnit = JavaParser.parse(javaFile);
-            log.debug("Parsed with JavaParser: {}", javaFile);
-            int beginLine = compilationUnit.getBeginLine();
-            int endLine = compilationUnit.getEndLine();
+            // get the line ranges of the declarations (the file is only parsed once)
+            SourceLineIndex index = SourceLineIndex.of(javaFile.toPath());
+            int beginLine = index.getBeginLine();
+            int endLine = index.getEndLine();
 
             // get "line colours" to variables
-            int[] full = coverageInfo.data.get(relJavaFile).getLeft().stream().sorted()
-                    .mapToInt(i -> (int) i).sorted().toArray();
-            int[] partial = coverageInfo.data.get(relJavaFile).getMiddle().stream().sorted()
-                    .mapToInt(i -> (int) i).sorted().toArray();
-            int[] not = coverageInfo.data.get(relJavaFile).getRight().stream().sorted()
-                    .mapToInt(i -> (int) i).sorted().toArray();
+            FileLineCoverage fileCoverage = coverageInfo.get(relJavaFile);
+            int[] full = fileCoverage.getFullyCoveredLines();
+            int[] partial = fileCoverage.getPartlyCoveredLines();
+            int[] not = fileCoverage.getNotCoveredLines();
 
             // validations
             Preconditions.checkState(beginLine >= 1, relJavaFile + " begin line: " + beginLine);
@@ -70,14 +63,10 @@ public final class TestSuiteRunner2Helper {
             lines.setStatus(full, LineStatus.FULLY_COVERED);
 
             // extract method
-            try {
-                // if does not fail, it is the source file corresponding to the snippet
-                MethodDeclaration methodDecl = getCuMethodDecl(compilationUnit,
-                        snippet.getMethod().getName());
-                if (methodDecl == null) {
-                    throw new NoSuchElementException();
-                }
-
+            // if found, it is the source file corresponding to the snippet, otherwise the snippet
+            // method was not found in the file => included method in dependency
+            Declaration methodDecl = index.getMethod(snippet.getMethod().getName());
+            if (methodDecl != null) {
                 for (int lineNumber = methodDecl.getBeginLine(); lineNumber <= methodDecl
                         .getEndLine(); lineNumber++) {
                     LineStatus s = lines.getStatus(lineNumber);
@@ -89,8 +78,6 @@ public final class TestSuiteRunner2Helper {
                         }
                     }
                 }
-            } catch (NoSuchElementException ex) {
-                // snippet method was not found in the file => included method in dependency
             }
 
             if (snippet.getIncludedConstructors().isEmpty()
@@ -100,17 +87,15 @@ public final class TestSuiteRunner2Helper {
                 // handle included coverage if:
                 // a) method was not found in the file (dependency file)
                 // b) there is included method in the same file as the snippet
-                List<BodyDeclaration> inclDecls = new ArrayList<>();
+                List<Declaration> inclDecls = new ArrayList<>();
 
                 // NOTE this might be not working (ctor)
                 for (Constructor<?> ctor : snippet.getIncludedConstructors()) {
-                    if (!ctor.getDeclaringClass().getSimpleName()
-                            .equals(compilationUnit.getTypes().get(0).getName())) {
+                    if (!ctor.getDeclaringClass().getSimpleName().equals(index.getTypeName())) {
                         continue;
                     }
 
-                    BodyDeclaration decl = getCuConstructorDecl(compilationUnit,
-                            ctor.getName());
+                    Declaration decl = getConstructorDecl(index, ctor.getName());
                     // maybe default ctor not present in source
                     if (decl != null) {
                         inclDecls.add(decl);
@@ -118,20 +103,19 @@ public final class TestSuiteRunner2Helper {
                 }
 
                 for (Method method : snippet.getIncludedMethods()) {
-                    if (!method.getDeclaringClass().getSimpleName()
-                            .equals(compilationUnit.getTypes().get(0).getName())) {
+                    if (!method.getDeclaringClass().getSimpleName().equals(index.getTypeName())) {
                         continue;
                     }
 
-                    BodyDeclaration decl = getCuMethodDecl(compilationUnit, method.getName());
+                    Declaration decl = index.getMethod(method.getName());
                     // maybe in superclass
                     if (decl != null) {
                         inclDecls.add(decl);
                     }
                 }
 
-                for (BodyDeclaration methodDecl : inclDecls) {
-                    for (int lineNumber = methodDecl.getBeginLine(); lineNumber <= methodDecl
+                for (Declaration inclDecl : inclDecls) {
+                    for (int lineNumber = inclDecl.getBeginLine(); lineNumber <= inclDecl
                             .getEndLine(); lineNumber++) {
                         LineStatus s = lines.getStatus(lineNumber);
 
@@ -170,28 +154,14 @@ public final class TestSuiteRunner2Helper {
         }
     }
 
-    private static MethodDeclaration getCuMethodDecl(CompilationUnit compilationUnit, String name) {
-        try {
-            return compilationUnit.getTypes().get(0).getMembers().stream()
-                    .filter(bd -> bd instanceof MethodDeclaration).map(bd -> (MethodDeclaration) bd)
-                    .filter(md -> md.getName().equals(name)).findAny().get();
-        } catch (NoSuchElementException ex) {
-            // NOTE maybe super class, skip now
-            return null;
-        }
-    }
-
-    private static ConstructorDeclaration getCuConstructorDecl(CompilationUnit compilationUnit,
-            String name) {
+    private static Declaration getConstructorDecl(SourceLineIndex index, String name) {
         // maybe default ctor not present in source
-        ConstructorDeclaration[] ctorDecls = compilationUnit.getTypes().get(0).getMembers().stream()
-                .filter(bd -> bd instanceof ConstructorDeclaration)
-                .map(bd -> (ConstructorDeclaration) bd).toArray(ConstructorDeclaration[]::new);
+        List<Declaration> ctorDecls = index.getConstructors();
 
-        if (ctorDecls.length == 0) {
+        if (ctorDecls.isEmpty()) {
             return null;
         } else {
-            for (ConstructorDeclaration ctorDecl : ctorDecls) {
+            for (Declaration ctorDecl : ctorDecls) {
                 // FIXME test this part
                 if (ctorDecl.getName().equals(name)) {
                     return ctorDecl;
@@ -0,0 +1,79 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.compiler;
+
+import javax.tools.Diagnostic;
+
+import lombok.Data;
+import lombok.Getter;
+
+/**
+ * A diagnostic message (error, warning or note) reported by the compiler.
+ */
+@Data
+public final class CompilationDiagnostic {
+    /** The kind of the diagnostic. */
+    @Getter
+    private final Diagnostic.Kind kind;
+
+    /** The source file (<code>null</code> if the diagnostic is not related to a file). */
+    @Getter
+    private final String sourceFile;
+
+    /** The line number (or {@link Diagnostic#NOPOS} if unknown). */
+    @Getter
+    private final long lineNumber;
+
+    /** The column number (or {@link Diagnostic#NOPOS} if unknown). */
+    @Getter
+    private final long columnNumber;
+
+    /** The message. */
+    @Getter
+    private final String message;
+
+    /**
+     * Returns whether the diagnostic is an error.
+     *
+     * @return <code>true</code> if the diagnostic is an error, otherwise <code>false</code>
+     */
+    public boolean isError() {
+        return kind == Diagnostic.Kind.ERROR;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (sourceFile != null) {
+            sb.append(sourceFile);
+            if (lineNumber != Diagnostic.NOPOS) {
+                sb.append(':').append(lineNumber);
+                if (columnNumber != Diagnostic.NOPOS) {
+                    sb.append(':').append(columnNumber);
+                }
+            }
+            sb.append(": ");
+        }
+        return sb.append(kind.toString().toLowerCase()).append(": ").append(message).toString();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.compiler;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.Data;
+import lombok.Getter;
+
+/**
+ * The instances of this class store the result of a compilation.
+ */
+@Data
+public final class CompilationResult {
+    /** The number of the compiled source files. */
+    @Getter
+    private final int sourceFileCount;
+
+    /** The number of the written class files. */
+    @Getter
+    private final int classFileCount;
+
+    /** The diagnostics reported by the compiler. */
+    @Getter
+    private final ImmutableList<CompilationDiagnostic> diagnostics;
+
+    /** The elapsed time in milliseconds. */
+    @Getter
+    private final long elapsedTimeInMs;
+
+    /**
+     * Returns whether the compilation was successful, i.e. there was no error.
+     *
+     * @return <code>true</code> if there was no error, otherwise <code>false</code>
+     */
+    public boolean isSuccessful() {
+        return diagnostics.stream().noneMatch(CompilationDiagnostic::isError);
+    }
+
+    /**
+     * Returns the errors reported by the compiler.
+     *
+     * @return the errors
+     */
+    public ImmutableList<CompilationDiagnostic> getErrors() {
+        return ImmutableList.copyOf(diagnostics.stream().filter(CompilationDiagnostic::isError)
+                .iterator());
+    }
+
+    @Override
+    public String toString() {
+        return "CompilationResult [sourceFileCount=" + sourceFileCount + ", classFileCount="
+                + classFileCount + ", errors=" + getErrors().size() + ", elapsedTimeInMs="
+                + elapsedTimeInMs + "]";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+/**
+ * File manager which keeps the generated class files in the memory (the sources and the class
+ * path are handled by the underlying standard file manager).
+ */
+final class InMemoryClassFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+    /** The generated class files (binary class name -> bytecode). */
+    private final Map<String, ByteArrayOutputStream> classFiles = new LinkedHashMap<>();
+
+    public InMemoryClassFileManager(StandardJavaFileManager fileManager) {
+        super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+            FileObject sibling) {
+        if (location != StandardLocation.CLASS_OUTPUT || kind != Kind.CLASS) {
+            throw new UnsupportedOperationException(
+                    "Unsupported output: " + location + ", " + className + ", " + kind);
+        }
+
+        URI uri = URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+        return new SimpleJavaFileObject(uri, kind) {
+            @Override
+            public OutputStream openOutputStream() {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                classFiles.put(className, out);
+                return out;
+            }
+        };
+    }
+
+    /**
+     * Returns the generated class files.
+     *
+     * @return the generated class files (binary class name -> bytecode)
+     */
+    public Map<String, byte[]> getClassFiles() {
+        Map<String, byte[]> ret = new LinkedHashMap<>();
+        classFiles.forEach((className, out) -> ret.put(className, out.toByteArray()));
+        return ret;
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.compiler;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Compiles Java sources in-process with the system Java compiler (see {@link ToolProvider}). Only
+ * the changed sources (the class file is missing or older than the source) are compiled against
+ * the given class path, the generated class files are kept in the memory and written to the
+ * output directory only if their batch was compiled without errors. The sources can be compiled in
+ * parallel batches, the sources in the same directory (package) are always in the same batch.
+ */
+public final class JavaSourceCompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(JavaSourceCompiler.class);
+
+    /** The default compiler options. */
+    public static final ImmutableList<String> DEFAULT_OPTIONS = ImmutableList.of("-g",
+            "-nowarn", "-Xlint:none", "-implicit:none");
+
+    /** The directory containing the sources. */
+    @Getter
+    private final Path sourceDirectory;
+
+    /** The directory for the class files. */
+    @Getter
+    private final Path outputDirectory;
+
+    /** The class path (the output directory is also added). */
+    @Getter
+    private final ImmutableList<Path> classpath;
+
+    /** The compiler options. */
+    @Getter
+    private final ImmutableList<String> options;
+
+    /** The maximum number of batches which are compiled in parallel. */
+    @Getter
+    private int parallelism = 1;
+
+    /** The additional source directories (after the source directory) for the referenced types. */
+    @Getter
+    private ImmutableList<Path> additionalSourcepath = ImmutableList.of();
+
+    /**
+     * Instantiates a new compiler with the default options.
+     *
+     * @param sourceDirectory
+     *            the directory containing the sources
+     * @param outputDirectory
+     *            the directory for the class files
+     * @param classpath
+     *            the class path
+     */
+    public JavaSourceCompiler(@NonNull Path sourceDirectory, @NonNull Path outputDirectory,
+            @NonNull List<Path> classpath) {
+        this(sourceDirectory, outputDirectory, classpath, DEFAULT_OPTIONS);
+    }
+
+    /**
+     * Instantiates a new compiler.
+     *
+     * @param sourceDirectory
+     *            the directory containing the sources
+     * @param outputDirectory
+     *            the directory for the class files
+     * @param classpath
+     *            the class path
+     * @param options
+     *            the compiler options (the class path, the source path and the encoding are set by
+     *            this class)
+     */
+    public JavaSourceCompiler(@NonNull Path sourceDirectory, @NonNull Path outputDirectory,
+            @NonNull List<Path> classpath, @NonNull List<String> options) {
+        this.sourceDirectory = sourceDirectory;
+        this.outputDirectory = outputDirectory;
+        this.classpath = ImmutableList.copyOf(classpath);
+        this.options = ImmutableList.copyOf(options);
+    }
+
+    /**
+     * Returns whether the system Java compiler is available (e.g. it is not available if SETTE is
+     * running on a JRE).
+     *
+     * @return <code>true</code> if the compiler is available, otherwise <code>false</code>
+     */
+    public static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    /**
+     * Sets the maximum number of batches which are compiled in parallel.
+     *
+     * @param parallelism
+     *            the maximum number of batches (must be positive)
+     */
+    public void setParallelism(int parallelism) {
+        checkArgument(parallelism > 0, "The parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the additional source directories which are searched for the types referenced by the
+     * compiled sources (the sources in these directories are only compiled if they are needed).
+     *
+     * @param additionalSourcepath
+     *            the additional source directories
+     */
+    public void setAdditionalSourcepath(@NonNull List<Path> additionalSourcepath) {
+        this.additionalSourcepath = ImmutableList.copyOf(additionalSourcepath);
+    }
+
+    /**
+     * Finds the sources which have to be compiled, i.e. their class file is missing or older than
+     * the source.
+     *
+     * @return the changed sources in order
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public List<Path> findChangedSources() throws IOException {
+        if (!PathUtils.exists(sourceDirectory)) {
+            return Collections.emptyList();
+        }
+
+        try (Stream<Path> files = PathUtils.walk(sourceDirectory)) {
+            return files.filter(p -> p.toString().endsWith(".java"))
+                    .filter(p -> p.toFile().isFile())
+                    .filter(this::isChanged)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private boolean isChanged(Path source) {
+        String relativePath = sourceDirectory.relativize(source).toString();
+        File classFile = outputDirectory
+                .resolve(relativePath.substring(0, relativePath.length() - ".java".length())
+                        + ".class")
+                .toFile();
+        return !classFile.isFile() || classFile.lastModified() < source.toFile().lastModified();
+    }
+
+    /**
+     * Compiles the changed sources (see {@link #findChangedSources()}).
+     *
+     * @return the result of the compilation
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public CompilationResult compileChanged() throws IOException {
+        return compile(findChangedSources());
+    }
+
+    /**
+     * Compiles the given sources.
+     *
+     * @param sources
+     *            the sources (must be under the source directory)
+     * @return the result of the compilation
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public CompilationResult compile(@NonNull List<Path> sources) throws IOException {
+        checkArgument(isAvailable(), "The system Java compiler is not available");
+        long startTime = System.currentTimeMillis();
+
+        List<List<Path>> batches = createBatches(sources);
+        LOG.debug("Compiling {} sources in {} batches", sources.size(), batches.size());
+
+        List<BatchResult> results = new ArrayList<>();
+        if (batches.size() <= 1) {
+            for (List<Path> batch : batches) {
+                results.add(compileBatch(batch));
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(batches.size());
+            try {
+                List<Future<BatchResult>> futures = new ArrayList<>();
+                for (List<Path> batch : batches) {
+                    futures.add(executor.submit(() -> compileBatch(batch)));
+                }
+                for (Future<BatchResult> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException) {
+                    throw (IOException) ex.getCause();
+                } else {
+                    throw new RuntimeException(ex.getCause());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("The compilation was interrupted", ex);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        ImmutableList.Builder<CompilationDiagnostic> diagnostics = ImmutableList.builder();
+        int classFileCount = 0;
+        for (BatchResult result : results) {
+            diagnostics.addAll(result.diagnostics);
+            classFileCount += result.classFileCount;
+        }
+
+        return new CompilationResult(sources.size(), classFileCount, diagnostics.build(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Partitions the sources into at most {@link #parallelism} batches. The sources in the same
+     * directory are put into the same batch, the directories are distributed so that the sizes of
+     * the batches are balanced.
+     */
+    private List<List<Path>> createBatches(List<Path> sources) {
+        if (sources.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Path, List<Path>> sourcesByDir = new TreeMap<>(sources.stream()
+                .collect(Collectors.groupingBy(p -> p.toAbsolutePath().getParent())));
+
+        List<List<Path>> groups = new ArrayList<>(sourcesByDir.values());
+        groups.sort(Comparator.comparing((List<Path> g) -> g.size()).reversed());
+
+        int batchCount = Math.min(parallelism, groups.size());
+        List<List<Path>> batches = new ArrayList<>();
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>());
+        }
+
+        // largest group first to the smallest batch
+        for (List<Path> group : groups) {
+            batches.stream().min(Comparator.comparing(List::size)).get().addAll(group);
+        }
+        return batches;
+    }
+
+    private BatchResult compileBatch(List<Path> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(
+                collector, null, StandardCharsets.UTF_8)) {
+            List<File> classpathFiles = new ArrayList<>();
+            classpathFiles.add(outputDirectory.toFile());
+            classpath.forEach(p -> classpathFiles.add(p.toFile()));
+
+            standardFileManager.setLocation(StandardLocation.CLASS_PATH, classpathFiles);
+            List<File> sourcepathFiles = new ArrayList<>();
+            sourcepathFiles.add(sourceDirectory.toFile());
+            additionalSourcepath.forEach(p -> sourcepathFiles.add(p.toFile()));
+            standardFileManager.setLocation(StandardLocation.SOURCE_PATH, sourcepathFiles);
+
+            Iterable<? extends JavaFileObject> compilationUnits = standardFileManager
+                    .getJavaFileObjectsFromFiles(
+                            sources.stream().map(Path::toFile).collect(Collectors.toList()));
+
+            InMemoryClassFileManager fileManager = new InMemoryClassFileManager(
+                    standardFileManager);
+            boolean success = compiler.getTask(null, fileManager, collector, options, null,
+                    compilationUnits).call();
+
+            ImmutableList<CompilationDiagnostic> diagnostics = ImmutableList
+                    .copyOf(collector.getDiagnostics().stream()
+                            .map(JavaSourceCompiler::toCompilationDiagnostic).iterator());
+
+            int classFileCount = 0;
+            if (success) {
+                for (Map.Entry<String, byte[]> classFile : fileManager.getClassFiles()
+                        .entrySet()) {
+                    writeClassFile(outputDirectory
+                            .resolve(classFile.getKey().replace('.', '/') + ".class"),
+                            classFile.getValue());
+                    classFileCount++;
+                }
+            }
+
+            return new BatchResult(diagnostics, classFileCount);
+        }
+    }
+
+    private static void writeClassFile(Path classFile, byte[] bytes) throws IOException {
+        // write to a temporary file and move it, since the other batches may read the directory
+        PathUtils.createDir(classFile.getParent());
+        Path tmpFile = Files.createTempFile(classFile.getParent(), "tmp-", ".tmp");
+        Files.write(tmpFile, bytes);
+        Files.move(tmpFile, classFile, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static CompilationDiagnostic toCompilationDiagnostic(
+            Diagnostic<? extends JavaFileObject> diagnostic) {
+        String sourceFile = diagnostic.getSource() != null
+                ? diagnostic.getSource().toUri().getPath() : null;
+        return new CompilationDiagnostic(diagnostic.getKind(), sourceFile,
+                diagnostic.getLineNumber(), diagnostic.getColumnNumber(),
+                diagnostic.getMessage(null));
+    }
+
+    private static final class BatchResult {
+        private final ImmutableList<CompilationDiagnostic> diagnostics;
+        private final int classFileCount;
+
+        public BatchResult(ImmutableList<CompilationDiagnostic> diagnostics, int classFileCount) {
+            this.diagnostics = diagnostics;
+            this.classFileCount = classFileCount;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides utility and helper classes for compiling Java sources in-process.
+ */
+package hu.bme.mit.sette.core.util.compiler;
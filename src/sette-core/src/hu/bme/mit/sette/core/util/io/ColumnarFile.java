@@ -0,0 +1,231 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Definitions of the columnar file format used to export tabular data (e.g. evaluation results)
+ * in a compact and typed form. The file is a data frame in the serialization format of R (version
+ * 2, XDR, GZIP compressed), thus it can be loaded directly by <code>readRDS()</code> of base R
+ * without any package. The file contains the following data (big-endian numbers):
+ *
+ * <pre>
+ * "X\n", int 2 (format version), int writer R version, int minimal reader R version
+ * VECSXP   (with attributes) number of columns
+ *          for each column: the vector of the column (see {@link ColumnType})
+ * LISTSXP  names: STRSXP of the column names
+ * LISTSXP  class: STRSXP "data.frame"
+ * LISTSXP  row.names: compact form (INTSXP NA, -number of rows)
+ * NILVALUE
+ * </pre>
+ *
+ * Each column is stored contiguously, thus the writer only keeps the open column files in memory
+ * (see {@link ColumnarFileWriter}). Missing values are stored as <code>NA</code>.
+ */
+public final class ColumnarFile {
+    /** The recommended file extension. */
+    public static final String FILE_EXTENSION = ".rds";
+
+    /** The version of the serialization format. */
+    static final int FORMAT_VERSION = 2;
+
+    /** The R version written into the header (3.0.0). */
+    static final int WRITER_R_VERSION = 0x030000;
+
+    /** The minimal R version which can read the format (2.3.0). */
+    static final int MIN_READER_R_VERSION = 0x020300;
+
+    // SEXP types and flags, see serialize.c of R
+    static final int SYMSXP = 1;
+    static final int LISTSXP = 2;
+    static final int CHARSXP = 9;
+    static final int INTSXP = 13;
+    static final int REALSXP = 14;
+    static final int STRSXP = 16;
+    static final int VECSXP = 19;
+    static final int NILVALUE_SXP = 254;
+    static final int IS_OBJECT_FLAG = 1 << 8;
+    static final int HAS_ATTR_FLAG = 1 << 9;
+    static final int HAS_TAG_FLAG = 1 << 10;
+    static final int UTF8_CHARSXP_FLAGS = CHARSXP | (8 << 12);
+    static final int ASCII_CHARSXP_FLAGS = CHARSXP | (64 << 12);
+
+    /** <code>NA_integer_</code> of R. */
+    static final int NA_INTEGER = Integer.MIN_VALUE;
+
+    /** The bits of <code>NA_real_</code> of R (a NaN with the payload 1954). */
+    static final long NA_REAL_BITS = 0x7FF00000000007A2L;
+
+    private ColumnarFile() {
+        throw new UnsupportedOperationException("Static class");
+    }
+
+    /**
+     * The types of the columns. R has no 64-bit integers, thus the {@link #LONG} columns are
+     * stored as double vectors (exact up to 2^53) and they are read back as {@link #DOUBLE}.
+     */
+    public enum ColumnType {
+        /** Character vector (UTF-8). */
+        STRING(String.class, STRSXP) {
+            @Override
+            void write(DataOutput out, Object value) throws IOException {
+                if (value == null) {
+                    out.writeInt(CHARSXP);
+                    out.writeInt(-1);
+                } else {
+                    writeCharsxp(out, (String) value, UTF8_CHARSXP_FLAGS);
+                }
+            }
+
+            @Override
+            Object read(DataInput in) throws IOException {
+                int flags = in.readInt();
+                if ((flags & 0xFF) != CHARSXP) {
+                    throw new IOException("CHARSXP was expected: " + flags);
+                }
+
+                int length = in.readInt();
+                if (length == -1) {
+                    return null;
+                } else if (length < 0) {
+                    throw new IOException("Invalid string length: " + length);
+                }
+
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        },
+        /** Integer vector. */
+        INT(Integer.class, INTSXP) {
+            @Override
+            void write(DataOutput out, Object value) throws IOException {
+                out.writeInt(value == null ? NA_INTEGER : (Integer) value);
+            }
+
+            @Override
+            Object read(DataInput in) throws IOException {
+                int value = in.readInt();
+                return value == NA_INTEGER ? null : value;
+            }
+        },
+        /** Double vector (the values are converted from long). */
+        LONG(Long.class, REALSXP) {
+            @Override
+            void write(DataOutput out, Object value) throws IOException {
+                DOUBLE.write(out, value == null ? null : ((Long) value).doubleValue());
+            }
+
+            @Override
+            Object read(DataInput in) throws IOException {
+                return DOUBLE.read(in);
+            }
+        },
+        /** Double vector. */
+        DOUBLE(Double.class, REALSXP) {
+            @Override
+            void write(DataOutput out, Object value) throws IOException {
+                // the payload of NA must be kept, thus the raw bits are written
+                out.writeLong(value == null ? NA_REAL_BITS
+                        : Double.doubleToRawLongBits((Double) value));
+            }
+
+            @Override
+            Object read(DataInput in) throws IOException {
+                long bits = in.readLong();
+                double value = Double.longBitsToDouble(bits);
+                if (Double.isNaN(value) && (bits & 0xFFFFFFFFL) == (NA_REAL_BITS & 0xFFFFFFFFL)) {
+                    return null;
+                } else {
+                    return value;
+                }
+            }
+        };
+
+        /** The Java type of the values in the column. */
+        private final Class<?> javaType;
+
+        /** The type of the R vector storing the column. */
+        private final int sexpType;
+
+        private ColumnType(Class<?> javaType, int sexpType) {
+            this.javaType = javaType;
+            this.sexpType = sexpType;
+        }
+
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+
+        int getSexpType() {
+            return sexpType;
+        }
+
+        /** Writes an element of the vector (<code>null</code> is written as NA). */
+        abstract void write(DataOutput out, Object value) throws IOException;
+
+        /** Reads an element of the vector (NA is read as <code>null</code>). */
+        abstract Object read(DataInput in) throws IOException;
+
+        static ColumnType forSexpType(int sexpType) throws IOException {
+            switch (sexpType) {
+                case STRSXP:
+                    return STRING;
+                case INTSXP:
+                    return INT;
+                case REALSXP:
+                    return DOUBLE;
+                default:
+                    throw new IOException("Unsupported vector type: " + sexpType);
+            }
+        }
+    }
+
+    /**
+     * A column of a columnar file.
+     */
+    @Value
+    public static final class Column {
+        /** The name of the column. */
+        @NonNull
+        private final String name;
+
+        /** The type of the column. */
+        @NonNull
+        private final ColumnType type;
+    }
+
+    static void writeCharsxp(DataOutput out, String value, int flags) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(flags);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
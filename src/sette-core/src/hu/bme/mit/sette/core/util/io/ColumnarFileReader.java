@@ -0,0 +1,156 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.core.util.io.ColumnarFile.Column;
+import hu.bme.mit.sette.core.util.io.ColumnarFile.ColumnType;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Reads a columnar file written by {@link ColumnarFileWriter} (see {@link ColumnarFile}). Only the
+ * subset of the R serialization format used by the writer is supported. The {@link ColumnType#LONG}
+ * columns are read as {@link ColumnType#DOUBLE}. The whole file is read by the constructor. The
+ * class is not thread-safe.
+ */
+public final class ColumnarFileReader {
+    /** The columns of the file. */
+    @Getter
+    private final ImmutableList<Column> columns;
+
+    /** The number of rows in the file. */
+    @Getter
+    private final int rowCount;
+
+    private final List<Object[]> columnValues = new ArrayList<>();
+
+    /**
+     * Reads the file.
+     *
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if an I/O error occurs or the file is not a valid columnar file
+     */
+    public ColumnarFileReader(@NonNull Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            byte[] magic = new byte[2];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, "X\n".getBytes(StandardCharsets.US_ASCII))
+                    || in.readInt() != ColumnarFile.FORMAT_VERSION) {
+                throw new IOException("Not a columnar file or unsupported version: " + file);
+            }
+            in.readInt(); // writer R version
+            in.readInt(); // minimal reader R version
+
+            int flags = in.readInt();
+            if ((flags & 0xFF) != ColumnarFile.VECSXP
+                    || (flags & ColumnarFile.HAS_ATTR_FLAG) == 0) {
+                throw new IOException("Not a data frame: " + file);
+            }
+
+            int columnCount = in.readInt();
+            List<ColumnType> types = new ArrayList<>();
+            for (int i = 0; i < columnCount; i++) {
+                ColumnType type = ColumnType.forSexpType(in.readInt() & 0xFF);
+                types.add(type);
+                columnValues.add(readVector(in, type));
+            }
+
+            Object[] names = null;
+            while ((flags = in.readInt()) != ColumnarFile.NILVALUE_SXP) {
+                if (flags != (ColumnarFile.LISTSXP | ColumnarFile.HAS_TAG_FLAG)
+                        || in.readInt() != ColumnarFile.SYMSXP) {
+                    throw new IOException("Unsupported attribute: " + flags);
+                }
+
+                String name = (String) ColumnType.STRING.read(in);
+                Object[] value = readVector(in, ColumnType.forSexpType(in.readInt() & 0xFF));
+                if ("names".equals(name)) {
+                    names = value;
+                }
+            }
+
+            if (names == null || names.length != columnCount) {
+                throw new IOException("Invalid column names: " + file);
+            }
+
+            ImmutableList.Builder<Column> builder = ImmutableList.builder();
+            for (int i = 0; i < columnCount; i++) {
+                builder.add(new Column((String) names[i], types.get(i)));
+            }
+            this.columns = builder.build();
+            this.rowCount = columnCount == 0 ? 0 : columnValues.get(0).length;
+
+            for (Object[] values : columnValues) {
+                if (values.length != rowCount) {
+                    throw new IOException("The columns have different lengths: " + file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns all the rows.
+     *
+     * @return the rows (each row contains the values in the order of the columns)
+     */
+    public List<Object[]> readAll() {
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            Object[] values = new Object[columns.size()];
+            for (int col = 0; col < values.length; col++) {
+                values[col] = columnValues.get(col)[row];
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    private static Object[] readVector(DataInputStream in, ColumnType type) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Unsupported vector length: " + length);
+        }
+
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = type.read(in);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.core.util.io.ColumnarFile.Column;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Writes a columnar file (see {@link ColumnarFile}) row by row. The length of the vectors must
+ * precede their elements, thus the values of each column are written into a temporary file next to
+ * the target file and the data frame is assembled when the writer is closed. Only the buffers of
+ * the temporary files are kept in memory. The class is not thread-safe.
+ */
+public final class ColumnarFileWriter implements AutoCloseable {
+    /** The columns of the file. */
+    @Getter
+    private final ImmutableList<Column> columns;
+
+    /** The number of rows written so far. */
+    @Getter
+    private long rowCount = 0;
+
+    private final Path file;
+    private final List<Path> columnFiles = new ArrayList<>();
+    private final List<DataOutputStream> columnOutputs = new ArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * Creates the temporary files of the columns.
+     *
+     * @param file
+     *            the file (overwritten if exists)
+     * @param columns
+     *            the columns of the file
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public ColumnarFileWriter(@NonNull Path file, @NonNull List<Column> columns)
+            throws IOException {
+        checkArgument(!columns.isEmpty(), "The columns must not be empty");
+
+        this.columns = ImmutableList.copyOf(columns);
+        this.file = file.toAbsolutePath();
+
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                Path columnFile = Files.createTempFile(this.file.getParent(),
+                        this.file.getFileName() + ".", ".col" + i);
+                columnFiles.add(columnFile);
+                columnOutputs.add(new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(columnFile))));
+            }
+        } catch (IOException ex) {
+            deleteColumnFiles();
+            throw ex;
+        }
+    }
+
+    /**
+     * Appends a row.
+     *
+     * @param values
+     *            the values of the row in the order of the columns (<code>null</code> is allowed
+     *            for every column)
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void writeRow(@NonNull Object... values) throws IOException {
+        checkState(!closed, "The writer has been already closed");
+        checkArgument(values.length == columns.size(), "The row must have %s values instead of %s",
+                columns.size(), values.length);
+        checkState(rowCount < Integer.MAX_VALUE, "Too many rows");
+
+        for (int i = 0; i < values.length; i++) {
+            Column column = columns.get(i);
+            checkArgument(values[i] == null || column.getType().getJavaType().isInstance(values[i]),
+                    "The value of column %s must be %s: %s", column.getName(), column.getType(),
+                    values[i]);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            columns.get(i).getType().write(columnOutputs.get(i), values[i]);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Assembles the file from the temporary files of the columns and deletes them.
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            for (DataOutputStream columnOutput : columnOutputs) {
+                columnOutput.close();
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(file))))) {
+                writeDataFrame(out);
+            }
+        } finally {
+            deleteColumnFiles();
+        }
+    }
+
+    private void writeDataFrame(DataOutputStream out) throws IOException {
+        // header
+        out.write("X\n".getBytes(StandardCharsets.US_ASCII));
+        out.writeInt(ColumnarFile.FORMAT_VERSION);
+        out.writeInt(ColumnarFile.WRITER_R_VERSION);
+        out.writeInt(ColumnarFile.MIN_READER_R_VERSION);
+
+        // list of the columns (an object, since it has a class attribute)
+        out.writeInt(ColumnarFile.VECSXP | ColumnarFile.IS_OBJECT_FLAG
+                | ColumnarFile.HAS_ATTR_FLAG);
+        out.writeInt(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            out.writeInt(columns.get(i).getType().getSexpType());
+            out.writeInt((int) rowCount);
+            Files.copy(columnFiles.get(i), out);
+        }
+
+        // attributes
+        writeAttributeTag(out, "names");
+        out.writeInt(ColumnarFile.STRSXP);
+        out.writeInt(columns.size());
+        for (Column column : columns) {
+            ColumnarFile.writeCharsxp(out, column.getName(), ColumnarFile.UTF8_CHARSXP_FLAGS);
+        }
+
+        writeAttributeTag(out, "class");
+        out.writeInt(ColumnarFile.STRSXP);
+        out.writeInt(1);
+        ColumnarFile.writeCharsxp(out, "data.frame", ColumnarFile.ASCII_CHARSXP_FLAGS);
+
+        // compact row names: c(NA, -n), or integer(0) if there are no rows
+        writeAttributeTag(out, "row.names");
+        out.writeInt(ColumnarFile.INTSXP);
+        if (rowCount == 0) {
+            out.writeInt(0);
+        } else {
+            out.writeInt(2);
+            out.writeInt(ColumnarFile.NA_INTEGER);
+            out.writeInt((int) -rowCount);
+        }
+
+        out.writeInt(ColumnarFile.NILVALUE_SXP);
+    }
+
+    private static void writeAttributeTag(DataOutputStream out, String name) throws IOException {
+        out.writeInt(ColumnarFile.LISTSXP | ColumnarFile.HAS_TAG_FLAG);
+        out.writeInt(ColumnarFile.SYMSXP);
+        ColumnarFile.writeCharsxp(out, name, ColumnarFile.ASCII_CHARSXP_FLAGS);
+    }
+
+    private void deleteColumnFiles() {
+        for (DataOutputStream columnOutput : columnOutputs) {
+            try {
+                columnOutput.close();
+            } catch (IOException ex) {
+                // the file is deleted anyway
+            }
+        }
+
+        for (Path columnFile : columnFiles) {
+            try {
+                Files.deleteIfExists(columnFile);
+            } catch (IOException ex) {
+                // only a temporary file
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.io;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Scans the lines of a text file (e.g. the output of a tool) with a declarative set of rules
+ * without loading the whole file into the memory. The file is read with a buffered reader line by
+ * line and the scanning is terminated as soon as the result of the scanning is decided.
+ * <p>
+ * The rules are evaluated in the order of their declaration and a line is only handled by the
+ * first matching rule (like an if-else chain). The lines which are not matched by any rule are
+ * passed to the {@link #otherwise(LineHandler)} handler. The lines between the markers of the
+ * section (if it was declared with {@link #section(Predicate, Predicate, LineHandler)}) are only
+ * passed to the section handler, except the repeated begin markers, which are skipped.
+ * <p>
+ * The scanning stops:
+ * <ul>
+ * <li>at the end of the file,</li>
+ * <li>at the end marker of the section,</li>
+ * <li>after the number of lines specified by {@link #maxLines(int)} or</li>
+ * <li>before handling a line if the condition specified by {@link #stopWhen(BooleanSupplier)} is
+ * satisfied.</li>
+ * </ul>
+ * A missing file is handled as an empty file. The class is not thread-safe.
+ */
+public final class LineScanner {
+    private final List<Rule> rules = new ArrayList<>();
+    private LineHandler otherwiseHandler = line -> {
+        // ignore by default
+    };
+    private Predicate<String> sectionBegin = null;
+    private Predicate<String> sectionEnd = null;
+    private LineHandler sectionHandler = null;
+    private int maxLines = Integer.MAX_VALUE;
+    private BooleanSupplier stopCondition = () -> false;
+
+    /**
+     * Adds a rule which handles the lines satisfying the condition.
+     *
+     * @param condition
+     *            the condition
+     * @param handler
+     *            the handler of the matching lines
+     * @return this object
+     */
+    public LineScanner onLine(@NonNull Predicate<String> condition, @NonNull LineHandler handler) {
+        rules.add(new Rule(condition, handler));
+        return this;
+    }
+
+    /**
+     * Adds a rule which handles the lines starting with the prefix.
+     *
+     * @param prefix
+     *            the prefix
+     * @param handler
+     *            the handler of the matching lines
+     * @return this object
+     */
+    public LineScanner onPrefix(@NonNull String prefix, @NonNull LineHandler handler) {
+        return onLine(line -> line.startsWith(prefix), handler);
+    }
+
+    /**
+     * Adds a rule which handles the lines containing the text.
+     *
+     * @param text
+     *            the text
+     * @param handler
+     *            the handler of the matching lines
+     * @return this object
+     */
+    public LineScanner onContains(@NonNull String text, @NonNull LineHandler handler) {
+        return onLine(line -> line.contains(text), handler);
+    }
+
+    /**
+     * Sets the handler of the lines which are not matched by any rule (by default they are
+     * ignored).
+     *
+     * @param handler
+     *            the handler
+     * @return this object
+     */
+    public LineScanner otherwise(@NonNull LineHandler handler) {
+        this.otherwiseHandler = handler;
+        return this;
+    }
+
+    /**
+     * Declares the section of the file. The lines between the begin and end marker (exclusive) are
+     * passed to the handler and the scanning stops at the end marker. If the end marker is missing,
+     * the section lasts until the end of the file. The begin marker is checked first, thus it is
+     * skipped every time it appears in the section (even if it also matches the end marker).
+     *
+     * @param begin
+     *            the condition of the begin marker
+     * @param end
+     *            the condition of the end marker
+     * @param handler
+     *            the handler of the lines of the section
+     * @return this object
+     */
+    public LineScanner section(@NonNull Predicate<String> begin, @NonNull Predicate<String> end,
+            @NonNull LineHandler handler) {
+        checkState(sectionBegin == null, "The section has been already declared");
+        this.sectionBegin = begin;
+        this.sectionEnd = end;
+        this.sectionHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of lines to scan.
+     *
+     * @param maxLines
+     *            the maximum number of lines (must be positive)
+     * @return this object
+     */
+    public LineScanner maxLines(int maxLines) {
+        checkArgument(maxLines > 0, "The maximum number of lines must be positive");
+        this.maxLines = maxLines;
+        return this;
+    }
+
+    /**
+     * Sets the condition which terminates the scanning. It is evaluated before each line is
+     * handled, e.g. it can check whether the handlers have already decided the classification.
+     *
+     * @param stopCondition
+     *            the condition
+     * @return this object
+     */
+    public LineScanner stopWhen(@NonNull BooleanSupplier stopCondition) {
+        this.stopCondition = stopCondition;
+        return this;
+    }
+
+    /**
+     * Scans the file.
+     *
+     * @param file
+     *            the file (a missing file is handled as an empty file)
+     * @return the result of the scanning
+     * @throws Exception
+     *             if an I/O error occurs or a handler throws an exception
+     */
+    public ScanResult scan(@NonNull Path file) throws Exception {
+        ScanResult result = new ScanResult();
+        if (!PathUtils.exists(file)) {
+            return result;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            boolean inSection = false;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (result.lineCount == 0) {
+                    result.firstLine = line;
+                }
+                result.lineCount++;
+
+                if (stopCondition.getAsBoolean()) {
+                    break;
+                }
+
+                if (inSection) {
+                    if (sectionBegin.test(line)) {
+                        // repeated begin marker
+                    } else if (sectionEnd.test(line)) {
+                        break;
+                    } else {
+                        sectionHandler.handle(line);
+                    }
+                } else if (sectionBegin != null && sectionBegin.test(line)) {
+                    inSection = true;
+                } else {
+                    handle(line);
+                }
+
+                if (result.lineCount >= maxLines) {
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void handle(String line) throws Exception {
+        for (Rule rule : rules) {
+            if (rule.condition.test(line)) {
+                rule.handler.handle(line);
+                return;
+            }
+        }
+        otherwiseHandler.handle(line);
+    }
+
+    /**
+     * Handles a line of the scanned file.
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        /**
+         * Handles the line.
+         *
+         * @param line
+         *            the line
+         * @throws Exception
+         *             if the line cannot be handled (the scanning is aborted)
+         */
+        void handle(String line) throws Exception;
+    }
+
+    /**
+     * The result of a scanning.
+     */
+    public static final class ScanResult {
+        /** The number of lines which were read. */
+        @Getter
+        private int lineCount = 0;
+
+        /** The first line of the file or <code>null</code> if the file is empty. */
+        @Getter
+        private String firstLine = null;
+
+        private ScanResult() {
+        }
+
+        /**
+         * Returns whether the file is empty (or missing).
+         *
+         * @return <code>true</code> if the file is empty, otherwise <code>false</code>
+         */
+        public boolean isEmpty() {
+            return lineCount == 0;
+        }
+    }
+
+    private static final class Rule {
+        private final Predicate<String> condition;
+        private final LineHandler handler;
+
+        private Rule(Predicate<String> condition, LineHandler handler) {
+            this.condition = condition;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A fixed-size ring buffer which keeps the last bytes written to it. It is used to keep the tail of
+ * the output of a process for diagnostics without holding the whole output in the memory. The
+ * class is thread-safe.
+ */
+public final class OutputTailBuffer {
+    /** The capacity of the buffer in bytes. */
+    @Getter
+    private final int capacity;
+
+    private final byte[] buffer;
+
+    /** The position of the next write in the buffer. */
+    private int position = 0;
+
+    /** The total number of bytes written to the buffer (including the overwritten ones). */
+    private long totalBytes = 0;
+
+    /**
+     * Instantiates a new buffer.
+     *
+     * @param capacity
+     *            the capacity of the buffer in bytes (must be positive)
+     */
+    public OutputTailBuffer(int capacity) {
+        checkArgument(capacity > 0, "The capacity must be positive");
+
+        this.capacity = capacity;
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Reads the last bytes of a file. The file is streamed through the buffer, thus it is never
+     * loaded into the memory as a whole.
+     *
+     * @param file
+     *            the file to read
+     * @param capacity
+     *            the maximum number of the bytes to keep (must be positive)
+     * @return the buffer containing the tail of the file
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public static OutputTailBuffer readTail(@NonNull Path file, int capacity) throws IOException {
+        OutputTailBuffer tail = new OutputTailBuffer(capacity);
+        byte[] bytes = new byte[8192];
+
+        try (InputStream in = Files.newInputStream(file)) {
+            int length;
+            while ((length = in.read(bytes)) >= 0) {
+                tail.write(bytes, 0, length);
+            }
+        }
+
+        return tail;
+    }
+
+    /**
+     * Writes the specified bytes to the buffer. If the buffer is full, the oldest bytes are
+     * overwritten.
+     *
+     * @param bytes
+     *            the array containing the data
+     * @param offset
+     *            the start offset of the data
+     * @param length
+     *            the number of bytes to write
+     */
+    public synchronized void write(@NonNull byte[] bytes, int offset, int length) {
+        checkPositionIndexes(offset, offset + length, bytes.length);
+
+        totalBytes += length;
+
+        if (length >= capacity) {
+            // only the last bytes are kept
+            System.arraycopy(bytes, offset + length - capacity, buffer, 0, capacity);
+            position = 0;
+        } else {
+            int firstPart = Math.min(length, capacity - position);
+            System.arraycopy(bytes, offset, buffer, position, firstPart);
+            System.arraycopy(bytes, offset + firstPart, buffer, 0, length - firstPart);
+            position = (position + length) % capacity;
+        }
+    }
+
+    /**
+     * @return the total number of bytes written to the buffer (including the ones which were
+     *         overwritten)
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return <code>true</code> if bytes were overwritten, i.e. the tail does not contain the whole
+     *         written data, otherwise <code>false</code>
+     */
+    public synchronized boolean isTruncated() {
+        return totalBytes > capacity;
+    }
+
+    /**
+     * @return a copy of the last bytes written to the buffer (at most {@link #getCapacity()} bytes)
+     */
+    public synchronized byte[] getTail() {
+        if (totalBytes < capacity) {
+            byte[] tail = new byte[position];
+            System.arraycopy(buffer, 0, tail, 0, position);
+            return tail;
+        } else {
+            byte[] tail = new byte[capacity];
+            System.arraycopy(buffer, position, tail, 0, capacity - position);
+            System.arraycopy(buffer, 0, tail, capacity - position, position);
+            return tail;
+        }
+    }
+
+    /**
+     * @return the last bytes written to the buffer as a string (decoded with the default charset)
+     */
+    public String getTailAsString() {
+        return new String(getTail());
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "OutputTailBuffer [capacity=" + capacity + ", totalBytes=" + totalBytes + "]";
+    }
+}
@@ -26,7 +26,9 @@ import lombok.Data;
 import lombok.Getter;
 
 /**
- * The instances of this class store the result of a process execution.
+ * The instances of this class store the result of a process execution. The resource usage covers
+ * the whole process tree, it is only available if the tree was supervised (see
+ * {@link ProcessTreeUsage}), otherwise the values are -1.
  */
 @Data
 public final class ProcessExecutionResult {
@@ -45,9 +47,93 @@ public final class ProcessExecutionResult {
     @Getter
     private final long elapsedTimeInMs;
 
+    /** The user CPU time of the process tree in milliseconds (-1 if not available). */
+    @Getter
+    private final long userTimeInMs;
+
+    /** The system CPU time of the process tree in milliseconds (-1 if not available). */
+    @Getter
+    private final long systemTimeInMs;
+
+    /** The peak RSS of the process tree in KB (-1 if not available). */
+    @Getter
+    private final long peakRssInKb;
+
+    /** The signal which has terminated the process (0 if it has exited normally). */
+    @Getter
+    private final int signal;
+
+    /**
+     * Instantiates a new result without resource usage.
+     *
+     * @param exitValue
+     *            the exit value
+     * @param destroyed
+     *            whether the process was destroyed because of timeout
+     * @param elapsedTimeInMs
+     *            the elapsed time in milliseconds
+     */
+    public ProcessExecutionResult(int exitValue, boolean destroyed, long elapsedTimeInMs) {
+        this(exitValue, destroyed, elapsedTimeInMs, -1, -1, -1, 0);
+    }
+
+    /**
+     * Instantiates a new result.
+     *
+     * @param exitValue
+     *            the exit value
+     * @param destroyed
+     *            whether the process was destroyed because of timeout
+     * @param elapsedTimeInMs
+     *            the elapsed time in milliseconds
+     * @param userTimeInMs
+     *            the user CPU time in milliseconds (-1 if not available)
+     * @param systemTimeInMs
+     *            the system CPU time in milliseconds (-1 if not available)
+     * @param peakRssInKb
+     *            the peak RSS in KB (-1 if not available)
+     * @param signal
+     *            the signal which has terminated the process (0 if none)
+     */
+    public ProcessExecutionResult(int exitValue, boolean destroyed, long elapsedTimeInMs,
+            long userTimeInMs, long systemTimeInMs, long peakRssInKb, int signal) {
+        this.exitValue = exitValue;
+        this.destroyed = destroyed;
+        this.elapsedTimeInMs = elapsedTimeInMs;
+        this.userTimeInMs = userTimeInMs;
+        this.systemTimeInMs = systemTimeInMs;
+        this.peakRssInKb = peakRssInKb;
+        this.signal = signal;
+    }
+
+    /**
+     * @return <code>true</code> if the process was terminated by a signal, otherwise
+     *         <code>false</code>
+     */
+    public boolean isSignaled() {
+        return signal > 0;
+    }
+
     @Override
     public String toString() {
-        return "ProcessExecutionResult [exitValue=" + exitValue + ", destroyed=" + destroyed
-                + ", elapsedTimeInMs=" + elapsedTimeInMs + "]";
+        StringBuilder sb = new StringBuilder();
+        sb.append("ProcessExecutionResult [exitValue=").append(exitValue).append(", destroyed=")
+                .append(destroyed).append(", elapsedTimeInMs=").append(elapsedTimeInMs);
+
+        // the resource usage is only shown if available
+        if (userTimeInMs >= 0) {
+            sb.append(", userTimeInMs=").append(userTimeInMs);
+        }
+        if (systemTimeInMs >= 0) {
+            sb.append(", systemTimeInMs=").append(systemTimeInMs);
+        }
+        if (peakRssInKb >= 0) {
+            sb.append(", peakRssInKb=").append(peakRssInKb);
+        }
+        if (signal > 0) {
+            sb.append(", signal=").append(signal);
+        }
+
+        return sb.append(']').toString();
     }
 }
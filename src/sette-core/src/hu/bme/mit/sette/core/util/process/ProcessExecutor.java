@@ -28,9 +28,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ProcessBuilder.Redirect;
-import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.lang3.SystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,6 +53,9 @@ public final class ProcessExecutor {
     /** The timeout in ms (zero means no timeout). */
     private final int timeoutInMs;
 
+    /** The supervisor of the process tree (<code>null</code> if the tree is not supervised). */
+    private final ProcessTreeSupervisor supervisor;
+
     /**
      * Creates a new {@link Process} using the specified {@link ProcessBuilder} and timeout.
      * 
@@ -63,10 +66,30 @@ public final class ProcessExecutor {
      *            be negative.
      */
     public ProcessExecutor(@NonNull ProcessBuilder processBuilder, int timeoutInMs) {
+        this(processBuilder, timeoutInMs, null);
+    }
+
+    /**
+     * Creates a new {@link Process} using the specified {@link ProcessBuilder} and timeout. The
+     * tree of the process is tracked by the given supervisor: on timeout the whole tree is killed,
+     * and the descendants left behind are killed after the process has exited.
+     * 
+     * @param processBuilder
+     *            The builder to use to create the process.
+     * @param timeoutInMs
+     *            The timeout for the process in milliseconds. 0 means unlimited timeout. Must not
+     *            be negative.
+     * @param supervisor
+     *            The supervisor of the process tree, <code>null</code> means that only the process
+     *            itself is destroyed on timeout.
+     */
+    public ProcessExecutor(@NonNull ProcessBuilder processBuilder, int timeoutInMs,
+            ProcessTreeSupervisor supervisor) {
         checkArgument(timeoutInMs >= 0);
 
         this.processBuilder = processBuilder;
         this.timeoutInMs = timeoutInMs;
+        this.supervisor = supervisor;
 
         LOG.debug("Created for {} with command {} with {}ms timeout", processBuilder,
                 processBuilder.command(), timeoutInMs);
@@ -79,8 +102,9 @@ public final class ProcessExecutor {
      * @param listener
      *            A listener to notify on the following events: start, stdoutRead, stderrRead,
      *            complete.
-     * @return The result of the execution (exit code, whether the process was destroyed and the
-     *         elapsed time).
+     * @return The result of the execution (exit code, whether the process was destroyed, the
+     *         elapsed time, the terminating signal and the resource usage of the tree if it is
+     *         supervised).
      * @throws IOException
      *             If an I/O error occurs.
      */
@@ -98,6 +122,9 @@ public final class ProcessExecutor {
             // start process
             long start = System.currentTimeMillis();
             Process process = processBuilder.start();
+            if (supervisor != null) {
+                supervisor.track(process);
+            }
 
             LOG.debug("notifying listener start()");
             listener.onStart();
@@ -113,14 +140,14 @@ public final class ProcessExecutor {
                 @Override
                 protected void dataRead(byte[] buffer, int bytesRead) {
                     LOG.trace("Read {} bytes from stdout", bytesRead);
-                    listener.onStdoutRead(Arrays.copyOf(buffer, bytesRead));
+                    listener.onStdoutRead(buffer, 0, bytesRead);
                 }
             };
             InputStreamGobbler stderrGobbler = new InputStreamGobbler(stderr) {
                 @Override
                 protected void dataRead(byte[] buffer, int bytesRead) {
                     LOG.trace("Read {} bytes from stderr", bytesRead);
-                    listener.onStderrRead(Arrays.copyOf(buffer, bytesRead));
+                    listener.onStderrRead(buffer, 0, bytesRead);
                 }
             };
 
@@ -141,7 +168,13 @@ public final class ProcessExecutor {
 
             // terminate process if needed, stop threads
             int exitValue;
+            ProcessTreeUsage usage = null;
             if (finishedInTime) {
+                // kill the leftover descendants (they may also keep the output streams open)
+                if (supervisor != null) {
+                    usage = supervisor.terminate(process);
+                }
+
                 // shutdown readers
                 LOG.debug("Waiting for gobbler threads to finish");
                 stdoutGobbler.join();
@@ -149,6 +182,12 @@ public final class ProcessExecutor {
 
                 exitValue = process.exitValue();
             } else {
+                // the descendants are collected while the root process is still alive, since the
+                // orphans cannot be found after it has been destroyed
+                if (supervisor != null) {
+                    supervisor.snapshot(process);
+                }
+
                 // timeout, try to stop threads
                 LOG.debug("Interrupting gobbler threads");
                 stdoutGobbler.interrupt();
@@ -157,15 +196,26 @@ public final class ProcessExecutor {
                 // give a short time for the threads to stop before destroying the process
                 Thread.sleep(200);
 
-                // destroy the process
+                // destroy the process (and its tree if supervised)
+                if (supervisor != null) {
+                    LOG.debug("Terminating process tree");
+                    usage = supervisor.terminate(process);
+                }
                 LOG.debug("Destroying process forcibly");
                 exitValue = process.destroyForcibly().waitFor();
             }
 
             // notify listener and return
             long elapsedTime = System.currentTimeMillis() - start;
-            ProcessExecutionResult result = new ProcessExecutionResult(exitValue, !finishedInTime,
-                    elapsedTime);
+            ProcessExecutionResult result;
+            if (usage != null) {
+                result = new ProcessExecutionResult(exitValue, !finishedInTime, elapsedTime,
+                        usage.getUserTimeInMs(), usage.getSystemTimeInMs(),
+                        usage.getPeakRssInKb(), getTerminationSignal(exitValue));
+            } else {
+                result = new ProcessExecutionResult(exitValue, !finishedInTime, elapsedTime, -1,
+                        -1, -1, getTerminationSignal(exitValue));
+            }
             listener.onComplete(result);
 
             LOG.debug("execute() result: {}", result);
@@ -175,6 +225,23 @@ public final class ProcessExecutor {
         }
     }
 
+    /**
+     * Determines the signal which has terminated the process. On Unix-like systems the exit value
+     * of a process killed by a signal is 128 + the number of the signal (both for the JVM and the
+     * shells), thus a process which exits normally with such a value cannot be distinguished.
+     *
+     * @param exitValue
+     *            the exit value of the process
+     * @return the number of the signal or 0 if the process was not terminated by a signal
+     */
+    static int getTerminationSignal(int exitValue) {
+        if (!SystemUtils.IS_OS_WINDOWS && exitValue > 128 && exitValue <= 128 + 64) {
+            return exitValue - 128;
+        } else {
+            return 0;
+        }
+    }
+
     /**
      * This thread reads data from the given {@link InputStream} on calls the
      * {@link #dataRead(byte[], int)} method (implemented by a subclass) when any data is read.
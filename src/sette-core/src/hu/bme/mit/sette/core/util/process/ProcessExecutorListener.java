@@ -22,6 +22,8 @@
  */
 package hu.bme.mit.sette.core.util.process;
 
+import java.util.Arrays;
+
 /**
  * The listener interface for receiving {@link ProcessExecutor} events.
  *
@@ -59,6 +61,40 @@ public interface ProcessExecutorListener {
         // do nothing by default
     }
 
+    /**
+     * Called when data was read from the standard output of the process. The buffer is reused by
+     * the executor, thus the implementation must not keep a reference to it. The default
+     * implementation copies the data and calls {@link #onStdoutRead(byte[])}, listeners handling
+     * large outputs should override this method to avoid the copy.
+     *
+     * @param buffer
+     *            The buffer containing the read bytes (must not be modified).
+     * @param offset
+     *            The offset of the read bytes in the buffer.
+     * @param length
+     *            The number of the read bytes.
+     */
+    default void onStdoutRead(byte[] buffer, int offset, int length) {
+        onStdoutRead(Arrays.copyOfRange(buffer, offset, offset + length));
+    }
+
+    /**
+     * Called when data was read from the standard error output of the process. The buffer is
+     * reused by the executor, thus the implementation must not keep a reference to it. The default
+     * implementation copies the data and calls {@link #onStderrRead(byte[])}, listeners handling
+     * large outputs should override this method to avoid the copy.
+     *
+     * @param buffer
+     *            The buffer containing the read bytes (must not be modified).
+     * @param offset
+     *            The offset of the read bytes in the buffer.
+     * @param length
+     *            The number of the read bytes.
+     */
+    default void onStderrRead(byte[] buffer, int offset, int length) {
+        onStderrRead(Arrays.copyOfRange(buffer, offset, offset + length));
+    }
+
     /**
      * Called when the process has finished.
      *
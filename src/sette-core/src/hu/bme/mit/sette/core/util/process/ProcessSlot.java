@@ -0,0 +1,140 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Represents a worker slot for tool processes: a dedicated CPU set and an optional memory cap. The
+ * slot is able to wrap a command so that the started process is bound to the CPU set (with
+ * <code>taskset</code>) and its memory is limited (with a transient cgroup v2 scope created by
+ * <code>systemd-run</code>). Both commands execute the wrapped command in-place, thus the PID of
+ * the started process remains the PID of the tool. Only Linux is supported.
+ */
+public final class ProcessSlot {
+    /** The identifier of the slot (starts from zero). */
+    @Getter
+    private final int id;
+
+    /** The CPUs of the slot (sorted). */
+    @Getter
+    private final ImmutableList<Integer> cpus;
+
+    /** The memory limit in MB for the processes of the slot (zero means no limit). */
+    @Getter
+    private final int memoryLimitInMb;
+
+    /**
+     * Instantiates a new process slot.
+     *
+     * @param id
+     *            the identifier of the slot (must not be negative)
+     * @param cpus
+     *            the CPUs of the slot (must not be empty)
+     * @param memoryLimitInMb
+     *            the memory limit in MB for the processes of the slot (zero means no limit, must
+     *            not be negative)
+     */
+    public ProcessSlot(int id, @NonNull List<Integer> cpus, int memoryLimitInMb) {
+        checkArgument(id >= 0, "The id must not be negative");
+        checkArgument(!cpus.isEmpty(), "The CPU set must not be empty");
+        checkArgument(memoryLimitInMb >= 0, "The memory limit must not be negative");
+
+        this.id = id;
+        this.cpus = ImmutableList.copyOf(cpus.stream().sorted().distinct().iterator());
+        this.memoryLimitInMb = memoryLimitInMb;
+    }
+
+    /**
+     * Returns the CPU set in the format accepted by <code>taskset -c</code>.
+     *
+     * @return the CPU set as a string (e.g. <code>0,1,2,3</code>)
+     */
+    public String getCpuSetString() {
+        return cpus.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Creates the command which executes the specified command inside this slot.
+     *
+     * @param command
+     *            the command to wrap
+     * @return the wrapped command
+     */
+    public List<String> wrapCommand(@NonNull List<String> command) {
+        // e.g. taskset -c 4,5,6,7 java -jar ...
+        List<String> wrapped = new ArrayList<>();
+        wrapped.add("taskset");
+        wrapped.add("-c");
+        wrapped.add(getCpuSetString());
+        wrapped.addAll(command);
+
+        return limitMemory(wrapped, memoryLimitInMb);
+    }
+
+    /**
+     * Creates the command which executes the specified command with a memory limit (without
+     * binding it to CPUs).
+     *
+     * @param command
+     *            the command to wrap
+     * @param memoryLimitInMb
+     *            the memory limit in MB (zero means no limit, must not be negative)
+     * @return the wrapped command (or the command itself if there is no limit)
+     */
+    public static List<String> limitMemory(@NonNull List<String> command, int memoryLimitInMb) {
+        checkArgument(memoryLimitInMb >= 0, "The memory limit must not be negative");
+        if (memoryLimitInMb == 0) {
+            return command;
+        }
+
+        // e.g. systemd-run --user --scope --quiet -p MemoryMax=2048M -p MemorySwapMax=0 ...
+        List<String> wrapped = new ArrayList<>();
+        wrapped.add("systemd-run");
+        wrapped.add("--user");
+        wrapped.add("--scope");
+        wrapped.add("--quiet");
+        wrapped.add("-p");
+        wrapped.add("MemoryMax=" + memoryLimitInMb + "M");
+        wrapped.add("-p");
+        wrapped.add("MemorySwapMax=0");
+        wrapped.addAll(command);
+
+        return wrapped;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessSlot [id=" + id + ", cpus=" + getCpuSetString() + ", memoryLimitInMb="
+                + memoryLimitInMb + "]";
+    }
+}
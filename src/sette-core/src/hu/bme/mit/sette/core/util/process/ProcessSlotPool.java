@@ -0,0 +1,189 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * A fixed size pool of {@link ProcessSlot} objects. The CPUs given to the pool are partitioned into
+ * disjoint, equally sized CPU sets, one for each slot, so concurrently running tool processes do
+ * not compete for the same cores. The remaining CPUs (if the number of CPUs is not divisible by the
+ * number of slots) are not used. The pool is thread-safe.
+ */
+public final class ProcessSlotPool {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessSlotPool.class);
+
+    private static final Path PROC_SELF_STATUS = Paths.get("/proc/self/status");
+    private static final String CPUS_ALLOWED_LIST_KEY = "Cpus_allowed_list:";
+
+    /** All the slots of the pool. */
+    @Getter
+    private final ImmutableList<ProcessSlot> slots;
+
+    /** The slots which are currently not in use. */
+    private final BlockingQueue<ProcessSlot> freeSlots;
+
+    /**
+     * Instantiates a new process slot pool.
+     *
+     * @param cpus
+     *            the CPUs which can be used by the pool
+     * @param slotCount
+     *            the number of slots (must be positive and must not be greater than the number of
+     *            CPUs)
+     * @param memoryLimitInMb
+     *            the memory limit in MB for each slot (zero means no limit, must not be negative)
+     */
+    public ProcessSlotPool(@NonNull List<Integer> cpus, int slotCount, int memoryLimitInMb) {
+        checkArgument(SystemUtils.IS_OS_LINUX, "Process slots are only supported on Linux");
+        checkArgument(slotCount > 0, "The slot count must be positive");
+        List<Integer> sortedCpus = ImmutableList
+                .copyOf(cpus.stream().sorted().distinct().iterator());
+        checkArgument(slotCount <= sortedCpus.size(), "Not enough CPUs (%s) for %s slots",
+                sortedCpus.size(), slotCount);
+
+        int cpusPerSlot = sortedCpus.size() / slotCount;
+        List<ProcessSlot> slotList = new ArrayList<>();
+        for (int i = 0; i < slotCount; i++) {
+            List<Integer> slotCpus = sortedCpus.subList(i * cpusPerSlot, (i + 1) * cpusPerSlot);
+            slotList.add(new ProcessSlot(i, slotCpus, memoryLimitInMb));
+        }
+
+        this.slots = ImmutableList.copyOf(slotList);
+        this.freeSlots = new ArrayBlockingQueue<>(slotCount, true, slotList);
+
+        LOG.info("Created process slots: {}", slots);
+        if (sortedCpus.size() % slotCount != 0) {
+            LOG.warn("{} CPUs are not used by the process slots", sortedCpus.size() % slotCount);
+        }
+    }
+
+    /**
+     * Acquires a slot. This method blocks the caller thread until a slot becomes free.
+     *
+     * @return the acquired slot
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public ProcessSlot acquire() throws InterruptedException {
+        ProcessSlot slot = freeSlots.take();
+        LOG.debug("Acquired slot: {}", slot);
+        return slot;
+    }
+
+    /**
+     * Releases a slot which was acquired by {@link #acquire()}.
+     *
+     * @param slot
+     *            the slot to release
+     */
+    public void release(@NonNull ProcessSlot slot) {
+        checkArgument(slots.contains(slot), "The slot does not belong to this pool: %s", slot);
+        checkArgument(!freeSlots.contains(slot), "The slot is not acquired: %s", slot);
+
+        freeSlots.add(slot);
+        LOG.debug("Released slot: {}", slot);
+    }
+
+    /**
+     * Returns the CPUs on which the current process is allowed to run (i.e. its affinity, which
+     * also reflects the cpuset of the container or cgroup), read from the
+     * <code>Cpus_allowed_list</code> field of <code>/proc/self/status</code>. If it is not
+     * available, the CPUs <code>0..n-1</code> are returned, where <code>n</code> is the number of
+     * the available processors.
+     *
+     * @return the sorted list of the allowed CPUs
+     */
+    public static List<Integer> getAllowedCpus() {
+        try {
+            for (String line : PathUtils.readAllLinesOrEmpty(PROC_SELF_STATUS)) {
+                if (line.startsWith(CPUS_ALLOWED_LIST_KEY)) {
+                    return parseCpuList(line.substring(CPUS_ALLOWED_LIST_KEY.length()).trim());
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            LOG.warn("Cannot read the CPU affinity of the process", ex);
+        }
+
+        return IntStream.range(0, Runtime.getRuntime().availableProcessors()).boxed()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses a CPU list in the format used by <code>taskset -c</code> and the Linux kernel, e.g.
+     * <code>0-3,8,10-11</code>.
+     *
+     * @param cpuList
+     *            the CPU list
+     * @return the sorted list of the CPUs
+     * @throws IllegalArgumentException
+     *             if the CPU list is invalid
+     */
+    public static List<Integer> parseCpuList(@NonNull String cpuList) {
+        List<Integer> cpus = new ArrayList<>();
+
+        try {
+            for (String part : Splitter.on(',').trimResults().split(cpuList)) {
+                int idx = part.indexOf('-');
+                if (idx < 0) {
+                    cpus.add(Integer.parseInt(part));
+                } else {
+                    int from = Integer.parseInt(part.substring(0, idx));
+                    int to = Integer.parseInt(part.substring(idx + 1));
+                    checkArgument(from <= to, "Invalid CPU range: %s", part);
+
+                    for (int cpu = from; cpu <= to; cpu++) {
+                        cpus.add(cpu);
+                    }
+                }
+            }
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid CPU list: " + cpuList, ex);
+        }
+
+        checkArgument(cpus.stream().allMatch(cpu -> cpu >= 0), "Invalid CPU list: %s", cpuList);
+        cpus.sort(null);
+        return cpus;
+    }
+}
@@ -0,0 +1,517 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import lombok.Data;
+import lombok.NonNull;
+
+/**
+ * Supervises the process trees of the started processes, so that exactly the processes started by
+ * SETTE (and their descendants) are killed on timeout or clean up, without scanning the process
+ * table for command patterns. The descendants of the tracked processes are collected periodically
+ * from the <code>/proc/[pid]/task/[tid]/children</code> files of the known members (only the
+ * whole process table is read if the kernel does not provide these files), thus the children
+ * remain known even if they are reparented after their parent has exited. The processes are
+ * identified by their PID and start time, so a reused PID is never killed. The CPU time and the
+ * memory usage of the trees are sampled at the same time (see {@link ProcessTreeUsage}). Only
+ * Linux is supported (see {@link #isSupported()}). The class is thread-safe.
+ * <p>
+ * Limitation: a descendant which is started and reparented (i.e. its parent exits) between two
+ * polls is not known, thus it is not killed. Therefore {@link #snapshot(Process)} should be called
+ * right before a tracked process is destroyed.
+ */
+public final class ProcessTreeSupervisor implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessTreeSupervisor.class);
+
+    /** The default interval of collecting the descendants in milliseconds. */
+    public static final int DEFAULT_POLL_INTERVAL_IN_MS = 200;
+
+    /** The maximum number of rounds for stopping the processes of a tree before killing them. */
+    private static final int MAX_STOP_ROUNDS = 5;
+
+    private static final Path PROC_DIR = Paths.get("/proc");
+
+    /** Whether the kernel provides the children of the threads in <code>/proc</code>. */
+    private static final boolean CHILDREN_SUPPORTED = isChildrenSupported();
+
+    /** The known members of the tracked trees (including the root process). */
+    private final Map<Process, Set<ProcessId>> trees = new IdentityHashMap<>();
+
+    /** The resource usage of the tracked trees (guarded by {@link #trees}). */
+    private final Map<Process, ProcessTreeUsage> usages = new IdentityHashMap<>();
+
+    private final ScheduledExecutorService poller;
+
+    /**
+     * Instantiates a new supervisor.
+     *
+     * @param pollIntervalInMs
+     *            the interval of collecting the descendants in milliseconds (must be positive)
+     */
+    public ProcessTreeSupervisor(int pollIntervalInMs) {
+        checkArgument(pollIntervalInMs > 0, "The poll interval must be positive");
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "PROCESS-TREE-SUPERVISOR");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.poller.scheduleWithFixedDelay(this::poll, pollIntervalInMs, pollIntervalInMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return <code>true</code> if the process trees can be supervised on this system (i.e.
+     *         <code>/proc</code> is available), otherwise <code>false</code>
+     */
+    public static boolean isSupported() {
+        return Files.isRegularFile(PROC_DIR.resolve("self").resolve("stat"));
+    }
+
+    /**
+     * Starts tracking the tree of the specified process. The process should be tracked right after
+     * it has been started.
+     *
+     * @param process
+     *            the process
+     */
+    public void track(@NonNull Process process) {
+        long pid = getPid(process);
+        ProcessStat stat = readStat(pid);
+
+        Set<ProcessId> members = new LinkedHashSet<>();
+        if (stat != null) {
+            members.add(stat.getId());
+        }
+
+        synchronized (trees) {
+            trees.put(process, members);
+            usages.put(process, new ProcessTreeUsage());
+        }
+        LOG.debug("Tracking process tree of {}", pid);
+    }
+
+    /**
+     * Collects the descendants of the tree of the specified process immediately (without waiting
+     * for the next poll). Does nothing if the process is not tracked.
+     *
+     * @param process
+     *            the process
+     */
+    public void snapshot(@NonNull Process process) {
+        synchronized (trees) {
+            Set<ProcessId> members = trees.get(process);
+            if (members != null) {
+                Map<Long, ProcessStat> table = collectTree(members);
+                usages.get(process).update(members, table);
+            }
+        }
+    }
+
+    /**
+     * Kills every process in the tree of the specified process (including the process itself if it
+     * is still running) and stops tracking the tree. Does nothing if the process is not tracked.
+     *
+     * @param process
+     *            the process
+     * @return the resource usage of the tree or <code>null</code> if the process is not tracked
+     */
+    public ProcessTreeUsage terminate(@NonNull Process process) {
+        Set<ProcessId> members;
+        ProcessTreeUsage usage;
+        synchronized (trees) {
+            members = trees.remove(process);
+            usage = usages.remove(process);
+        }
+
+        if (members != null) {
+            // last sample before the leftover descendants are killed
+            Map<Long, ProcessStat> table = collectTree(members);
+            usage.update(members, table);
+
+            terminateMembers(members);
+        }
+
+        return usage;
+    }
+
+    /**
+     * Kills every process in all the tracked trees and stops tracking them.
+     */
+    public void terminateAll() {
+        List<Set<ProcessId>> allMembers;
+        synchronized (trees) {
+            allMembers = new ArrayList<>(trees.values());
+            trees.clear();
+            usages.clear();
+        }
+
+        for (Set<ProcessId> members : allMembers) {
+            terminateMembers(members);
+        }
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+        terminateAll();
+    }
+
+    /** Collects the new descendants and samples the resource usage of the tracked trees. */
+    private void poll() {
+        try {
+            synchronized (trees) {
+                for (Map.Entry<Process, Set<ProcessId>> tree : trees.entrySet()) {
+                    Map<Long, ProcessStat> table = collectTree(tree.getValue());
+                    usages.get(tree.getKey()).update(tree.getValue(), table);
+                }
+            }
+        } catch (RuntimeException ex) {
+            // must not stop the scheduled polling
+            LOG.warn("Cannot collect the process trees", ex);
+        }
+    }
+
+    private static void terminateMembers(Set<ProcessId> members) {
+        // stop the tree first, so that no new children can be forked while it is being killed
+        Set<ProcessId> alive = new LinkedHashSet<>();
+        for (int round = 0; round < MAX_STOP_ROUNDS; round++) {
+            Map<Long, ProcessStat> table = collectTree(members);
+
+            List<ProcessId> newlyAlive = members.stream()
+                    .filter(id -> isAlive(id, table) && !alive.contains(id))
+                    .collect(Collectors.toList());
+            if (newlyAlive.isEmpty()) {
+                break;
+            }
+
+            alive.addAll(newlyAlive);
+            sendSignal("STOP", newlyAlive);
+        }
+
+        if (!alive.isEmpty()) {
+            LOG.info("Killing process tree: {}", alive);
+            // the start time is checked again right before killing
+            sendSignal("KILL", alive.stream().filter(id -> {
+                ProcessStat stat = readStat(id.getPid());
+                return stat != null && stat.getId().equals(id) && !stat.isZombie();
+            }).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Adds the descendants of the alive members to the set of members and reads the stats of the
+     * members. Only the <code>/proc</code> entries of the members are read, except if the kernel
+     * does not provide the children of the threads (then the whole process table is read).
+     *
+     * @param members
+     *            the known members of the tree
+     * @return the stats of the alive members by PID (may also contain other processes)
+     */
+    static Map<Long, ProcessStat> collectTree(Set<ProcessId> members) {
+        if (!CHILDREN_SUPPORTED) {
+            Map<Long, ProcessStat> table = readProcessTable();
+            collectDescendants(members, table);
+            return table;
+        }
+
+        Map<Long, ProcessStat> table = new HashMap<>();
+        for (ProcessId id : members) {
+            ProcessStat stat = readStat(id.getPid());
+            if (stat != null) {
+                table.put(id.getPid(), stat);
+            }
+        }
+
+        List<ProcessId> queue = members.stream().filter(id -> isAlive(id, table))
+                .collect(Collectors.toList());
+        while (!queue.isEmpty()) {
+            ProcessId id = queue.remove(queue.size() - 1);
+            for (long childPid : readChildren(id.getPid())) {
+                ProcessStat child = readStat(childPid);
+                // the child may have exited or its PID may have been reused meanwhile
+                if (child != null && child.getParentPid() == id.getPid()) {
+                    table.put(childPid, child);
+                    if (members.add(child.getId())) {
+                        queue.add(child.getId());
+                    }
+                }
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Reads the PIDs of the children of the threads of a process.
+     *
+     * @param pid
+     *            the PID of the process
+     * @return the PIDs of the children (empty if the process has exited)
+     */
+    private static List<Long> readChildren(long pid) {
+        List<Long> children = new ArrayList<>();
+
+        try (DirectoryStream<Path> taskDirs = Files
+                .newDirectoryStream(PROC_DIR.resolve(String.valueOf(pid)).resolve("task"))) {
+            for (Path taskDir : taskDirs) {
+                byte[] bytes = Files.readAllBytes(taskDir.resolve("children"));
+                for (String child : new String(bytes, StandardCharsets.UTF_8).trim()
+                        .split("\\s+")) {
+                    if (!child.isEmpty()) {
+                        children.add(Long.parseLong(child));
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            // the process (or one of its threads) has exited meanwhile
+        }
+
+        return children;
+    }
+
+    private static boolean isChildrenSupported() {
+        try (DirectoryStream<Path> taskDirs = Files
+                .newDirectoryStream(PROC_DIR.resolve("self").resolve("task"))) {
+            for (Path taskDir : taskDirs) {
+                return Files.isRegularFile(taskDir.resolve("children"));
+            }
+        } catch (IOException ex) {
+            // no /proc
+        }
+        return false;
+    }
+
+    /**
+     * Adds the descendants of the alive members to the set of members.
+     *
+     * @param members
+     *            the known members of the tree
+     * @param table
+     *            the process table
+     */
+    static void collectDescendants(Set<ProcessId> members, Map<Long, ProcessStat> table) {
+        Map<Long, List<ProcessStat>> children = new HashMap<>();
+        for (ProcessStat stat : table.values()) {
+            children.computeIfAbsent(stat.getParentPid(), key -> new ArrayList<>()).add(stat);
+        }
+
+        List<ProcessId> queue = members.stream().filter(id -> isAlive(id, table))
+                .collect(Collectors.toList());
+        while (!queue.isEmpty()) {
+            ProcessId id = queue.remove(queue.size() - 1);
+            for (ProcessStat child : children.getOrDefault(id.getPid(),
+                    Collections.emptyList())) {
+                if (members.add(child.getId())) {
+                    queue.add(child.getId());
+                }
+            }
+        }
+    }
+
+    private static boolean isAlive(ProcessId id, Map<Long, ProcessStat> table) {
+        ProcessStat stat = table.get(id.getPid());
+        return stat != null && stat.getStartTime() == id.getStartTime() && !stat.isZombie();
+    }
+
+    private static void sendSignal(String signal, List<ProcessId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add("kill");
+        command.add("-" + signal);
+        ids.forEach(id -> command.add(String.valueOf(id.getPid())));
+
+        try {
+            // some of the processes may have exited meanwhile, so the exit value is ignored
+            new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(new File("/dev/null")).start().waitFor();
+        } catch (IOException ex) {
+            LOG.warn("Cannot send " + signal + " to " + ids, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sending the signal was interrupted", ex);
+        }
+    }
+
+    /**
+     * Reads the process table from <code>/proc</code> (only used if the kernel does not provide
+     * the children of the threads).
+     *
+     * @return the stats of the running processes by PID
+     */
+    static Map<Long, ProcessStat> readProcessTable() {
+        Map<Long, ProcessStat> table = new HashMap<>();
+
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(PROC_DIR, "[0-9]*")) {
+            for (Path dir : dirs) {
+                ProcessStat stat = readStat(Long.parseLong(dir.getFileName().toString()));
+                if (stat != null) {
+                    table.put(stat.getId().getPid(), stat);
+                }
+            }
+        } catch (IOException ex) {
+            LOG.warn("Cannot read the process table", ex);
+        }
+
+        return table;
+    }
+
+    private static ProcessStat readStat(long pid) {
+        try {
+            Path statFile = PROC_DIR.resolve(String.valueOf(pid)).resolve("stat");
+            byte[] bytes = Files.readAllBytes(statFile);
+            return ProcessStat.parse(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IOException | IllegalArgumentException ex) {
+            // the process has exited meanwhile
+            return null;
+        }
+    }
+
+    /**
+     * Returns the PID of the process (<code>Process.pid()</code> is only available from Java 9,
+     * thus the internal field of the process implementation is used if needed).
+     *
+     * @param process
+     *            the process
+     * @return the PID of the process
+     */
+    static long getPid(@NonNull Process process) {
+        try {
+            Method pidMethod = Process.class.getMethod("pid");
+            return (long) pidMethod.invoke(process);
+        } catch (ReflectiveOperationException ex) {
+            // Java 8
+        }
+
+        try {
+            Field pidField = process.getClass().getDeclaredField("pid");
+            pidField.setAccessible(true);
+            return pidField.getInt(process);
+        } catch (ReflectiveOperationException ex) {
+            throw new UnsupportedOperationException(
+                    "Cannot determine the PID of the process: " + process, ex);
+        }
+    }
+
+    /**
+     * Identifies a process by its PID and start time (which prevents mixing up reused PIDs).
+     */
+    @Data
+    static final class ProcessId {
+        private final long pid;
+        private final long startTime;
+
+        @Override
+        public String toString() {
+            return String.valueOf(pid);
+        }
+    }
+
+    /**
+     * The relevant fields of <code>/proc/[pid]/stat</code> (the CPU times are in clock ticks).
+     */
+    @Data
+    static final class ProcessStat {
+        private final ProcessId id;
+        private final long parentPid;
+        private final boolean zombie;
+        private final long userTicks;
+        private final long systemTicks;
+        private final long childUserTicks;
+        private final long childSystemTicks;
+
+        /**
+         * @return the user CPU time of the process and its children which it has waited for
+         */
+        long getTotalUserTicks() {
+            return userTicks + childUserTicks;
+        }
+
+        /**
+         * @return the system CPU time of the process and its children which it has waited for
+         */
+        long getTotalSystemTicks() {
+            return systemTicks + childSystemTicks;
+        }
+
+        /**
+         * Parses the contents of a <code>/proc/[pid]/stat</code> file.
+         *
+         * @param line
+         *            the contents of the file
+         * @return the parsed stat
+         * @throws IllegalArgumentException
+         *             if the line cannot be parsed
+         */
+        static ProcessStat parse(@NonNull String line) {
+            // e.g. 1234 (java) S 1200 ... (the command may contain spaces and parentheses)
+            int commandStart = line.indexOf('(');
+            int commandEnd = line.lastIndexOf(')');
+            checkArgument(commandStart > 0 && commandEnd > commandStart,
+                    "Invalid stat line: %s", line);
+
+            long pid = Long.parseLong(line.substring(0, commandStart).trim());
+            String[] fields = line.substring(commandEnd + 1).trim().split("\\s+");
+            checkArgument(fields.length >= 20, "Invalid stat line: %s", line);
+
+            // fields[0] is the 3rd field (state), the CPU times are the 14-17th fields (utime,
+            // stime, cutime, cstime) and the start time is the 22nd field
+            boolean zombie = fields[0].equals("Z") || fields[0].equals("X");
+            long parentPid = Long.parseLong(fields[1]);
+            long startTime = Long.parseLong(fields[19]);
+            return new ProcessStat(new ProcessId(pid, startTime), parentPid, zombie,
+                    Long.parseLong(fields[11]), Long.parseLong(fields[12]),
+                    Long.parseLong(fields[13]), Long.parseLong(fields[14]));
+        }
+    }
+}
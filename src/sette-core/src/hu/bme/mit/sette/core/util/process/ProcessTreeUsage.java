@@ -0,0 +1,174 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor.ProcessId;
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor.ProcessStat;
+import lombok.NonNull;
+
+/**
+ * The resource usage of a process tree, which is sampled from <code>/proc</code> by the
+ * {@link ProcessTreeSupervisor}. The CPU time of a member includes the CPU time of its children
+ * which it has already waited for, thus a reaped member is only counted separately if it was not
+ * reaped by another member (e.g. an orphan reaped by init or the root process reaped by the JVM).
+ * Since the values are sampled, the usage of the last poll interval (and of processes shorter than
+ * the interval) may be missing. The peak RSS is the maximum of the summed RSS of the sampled
+ * members and the peak RSS of the largest member. The class is not thread-safe.
+ */
+public final class ProcessTreeUsage {
+    /** The number of clock ticks per second used by <code>/proc/[pid]/stat</code> (USER_HZ). */
+    static final int CLOCK_TICKS_PER_SECOND = 100;
+
+    private static final Path PROC_DIR = Paths.get("/proc");
+
+    /** The last seen stats of the members which were present in the process table. */
+    private final Map<ProcessId, ProcessStat> lastSeen = new HashMap<>();
+
+    private long detachedUserTicks = 0;
+    private long detachedSystemTicks = 0;
+    private long maxUserTicks = 0;
+    private long maxSystemTicks = 0;
+    private long peakRssInKb = -1;
+    private int samples = 0;
+
+    /**
+     * Updates the usage from the process table.
+     *
+     * @param members
+     *            the known members of the tree
+     * @param table
+     *            the process table
+     */
+    void update(@NonNull Set<ProcessId> members, @NonNull Map<Long, ProcessStat> table) {
+        // the members which disappeared since the last update
+        for (Iterator<ProcessStat> it = lastSeen.values().iterator(); it.hasNext();) {
+            ProcessStat stat = it.next();
+            if (!isPresent(stat.getId(), table)) {
+                it.remove();
+
+                // if the parent is a present member, the usage is already in its child times
+                ProcessStat parent = table.get(stat.getParentPid());
+                if (parent == null || !members.contains(parent.getId())) {
+                    detachedUserTicks += stat.getTotalUserTicks();
+                    detachedSystemTicks += stat.getTotalSystemTicks();
+                }
+            }
+        }
+
+        long userTicks = detachedUserTicks;
+        long systemTicks = detachedSystemTicks;
+        long rssInKb = 0;
+        long maxMemberPeakRssInKb = -1;
+        boolean sampled = false;
+
+        for (ProcessId id : members) {
+            if (isPresent(id, table)) {
+                ProcessStat stat = table.get(id.getPid());
+                lastSeen.put(id, stat);
+                userTicks += stat.getTotalUserTicks();
+                systemTicks += stat.getTotalSystemTicks();
+                sampled = true;
+
+                long[] memory = readMemoryInKb(id.getPid());
+                if (memory != null) {
+                    rssInKb += memory[0];
+                    maxMemberPeakRssInKb = Math.max(maxMemberPeakRssInKb, memory[1]);
+                }
+            }
+        }
+
+        if (sampled) {
+            samples++;
+            maxUserTicks = Math.max(maxUserTicks, userTicks);
+            maxSystemTicks = Math.max(maxSystemTicks, systemTicks);
+            peakRssInKb = Math.max(peakRssInKb, Math.max(rssInKb, maxMemberPeakRssInKb));
+        }
+    }
+
+    /**
+     * @return the user CPU time of the tree in milliseconds or -1 if the tree was never sampled
+     */
+    public long getUserTimeInMs() {
+        return samples > 0 ? maxUserTicks * 1000 / CLOCK_TICKS_PER_SECOND : -1;
+    }
+
+    /**
+     * @return the system CPU time of the tree in milliseconds or -1 if the tree was never sampled
+     */
+    public long getSystemTimeInMs() {
+        return samples > 0 ? maxSystemTicks * 1000 / CLOCK_TICKS_PER_SECOND : -1;
+    }
+
+    /**
+     * @return the peak RSS of the tree in KB or -1 if the memory usage was never sampled
+     */
+    public long getPeakRssInKb() {
+        return peakRssInKb > 0 ? peakRssInKb : -1;
+    }
+
+    private static boolean isPresent(ProcessId id, Map<Long, ProcessStat> table) {
+        // zombies are also present, since their usage has not been moved to the parent yet
+        ProcessStat stat = table.get(id.getPid());
+        return stat != null && stat.getId().equals(id);
+    }
+
+    /**
+     * Reads the current and the peak RSS of the process from <code>/proc/[pid]/status</code>.
+     *
+     * @param pid
+     *            the PID of the process
+     * @return the current and the peak RSS in KB or <code>null</code> if they are not available
+     */
+    private static long[] readMemoryInKb(long pid) {
+        try {
+            long[] memory = { 0, 0 };
+            Path statusFile = PROC_DIR.resolve(String.valueOf(pid)).resolve("status");
+            for (String line : Files.readAllLines(statusFile, StandardCharsets.UTF_8)) {
+                // e.g. VmHWM:    123456 kB
+                if (line.startsWith("VmRSS:")) {
+                    memory[0] = parseKb(line);
+                } else if (line.startsWith("VmHWM:")) {
+                    memory[1] = parseKb(line);
+                }
+            }
+            return memory;
+        } catch (IOException | NumberFormatException ex) {
+            // the process has exited meanwhile
+            return null;
+        }
+    }
+
+    private static long parseKb(String line) {
+        return Long.parseLong(line.substring(6).replace("kB", "").trim());
+    }
+}
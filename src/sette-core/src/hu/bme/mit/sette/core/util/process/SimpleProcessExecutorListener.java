@@ -26,6 +26,8 @@ import lombok.Getter;
 
 /**
  * This listener class collects the output from stdout and stderr into {@link StringBuffer} objects.
+ * Since the whole output is kept in memory, it should only be used for processes with small
+ * output, otherwise see {@link StreamingProcessExecutorListener}.
  */
 public class SimpleProcessExecutorListener implements ProcessExecutorListener {
     /** The data read from stdout. */
@@ -0,0 +1,203 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import lombok.Getter;
+
+/**
+ * This listener streams the output from stdout and stderr directly to files (optional) and keeps
+ * only the last bytes of the outputs in memory (see {@link OutputTailBuffer}), thus the memory
+ * usage does not depend on the amount of the output. The size of the files can be capped: after
+ * the cap is reached, the rest of the output is discarded and a note is appended to the file. The
+ * files are closed when the process completes or when {@link #close()} is called.
+ */
+public class StreamingProcessExecutorListener implements ProcessExecutorListener, AutoCloseable {
+    /** The default size of the tails kept in memory in bytes. */
+    public static final int DEFAULT_TAIL_SIZE_IN_BYTES = 64 * 1024;
+
+    /** The stdout of the process. */
+    @Getter
+    private final OutputSink stdout;
+
+    /** The stderr of the process. */
+    @Getter
+    private final OutputSink stderr;
+
+    /**
+     * Instantiates a new listener which only keeps the tails of the outputs.
+     *
+     * @param tailSizeInBytes
+     *            the size of the tails kept in memory in bytes (must be positive)
+     */
+    public StreamingProcessExecutorListener(int tailSizeInBytes) {
+        this(null, null, 0, tailSizeInBytes);
+    }
+
+    /**
+     * Instantiates a new listener which writes the outputs to files and keeps their tails.
+     *
+     * @param stdoutFile
+     *            the file for the stdout (<code>null</code> if it should not be saved)
+     * @param stderrFile
+     *            the file for the stderr (<code>null</code> if it should not be saved)
+     * @param maxFileSizeInBytes
+     *            the maximum number of bytes written to each file (zero means no limit, must not
+     *            be negative)
+     * @param tailSizeInBytes
+     *            the size of the tails kept in memory in bytes (must be positive)
+     * @throws UncheckedIOException
+     *             if a file cannot be opened
+     */
+    public StreamingProcessExecutorListener(Path stdoutFile, Path stderrFile,
+            long maxFileSizeInBytes, int tailSizeInBytes) {
+        checkArgument(maxFileSizeInBytes >= 0, "The maximum file size must not be negative");
+
+        this.stdout = new OutputSink(stdoutFile, maxFileSizeInBytes, tailSizeInBytes);
+        this.stderr = new OutputSink(stderrFile, maxFileSizeInBytes, tailSizeInBytes);
+    }
+
+    @Override
+    public void onStdoutRead(byte[] buffer, int offset, int length) {
+        stdout.write(buffer, offset, length);
+    }
+
+    @Override
+    public void onStderrRead(byte[] buffer, int offset, int length) {
+        stderr.write(buffer, offset, length);
+    }
+
+    @Override
+    public void onComplete(ProcessExecutionResult result) {
+        close();
+    }
+
+    @Override
+    public void close() {
+        stdout.close();
+        stderr.close();
+    }
+
+    /**
+     * Handles one output stream of the process: writes the data to the file (if any) until the cap
+     * is reached and keeps the tail in memory.
+     */
+    public static final class OutputSink {
+        /** The file for the output or <code>null</code> if the output is not saved. */
+        @Getter
+        private final Path file;
+
+        /** The maximum number of bytes written to the file (zero means no limit). */
+        @Getter
+        private final long maxFileSizeInBytes;
+
+        /** The tail of the output. */
+        @Getter
+        private final OutputTailBuffer tail;
+
+        private OutputStream out;
+        private long bytesWritten = 0;
+
+        /** <code>true</code> if the file was capped, otherwise <code>false</code>. */
+        @Getter
+        private boolean fileTruncated = false;
+
+        private OutputSink(Path file, long maxFileSizeInBytes, int tailSizeInBytes) {
+            this.file = file;
+            this.maxFileSizeInBytes = maxFileSizeInBytes;
+            this.tail = new OutputTailBuffer(tailSizeInBytes);
+
+            if (file != null) {
+                try {
+                    this.out = new BufferedOutputStream(Files.newOutputStream(file));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Cannot open output file: " + file, ex);
+                }
+            }
+        }
+
+        /**
+         * @return the total number of bytes read from the output
+         */
+        public long getTotalBytes() {
+            return tail.getTotalBytes();
+        }
+
+        /**
+         * @return the tail of the output as a string
+         */
+        public String getTailAsString() {
+            return tail.getTailAsString();
+        }
+
+        private synchronized void write(byte[] buffer, int offset, int length) {
+            tail.write(buffer, offset, length);
+
+            if (out == null || fileTruncated) {
+                return;
+            }
+
+            try {
+                long remaining = maxFileSizeInBytes > 0 ? maxFileSizeInBytes - bytesWritten
+                        : Long.MAX_VALUE;
+
+                if (length <= remaining) {
+                    out.write(buffer, offset, length);
+                    bytesWritten += length;
+                } else {
+                    out.write(buffer, offset, (int) remaining);
+                    bytesWritten += remaining;
+                    fileTruncated = true;
+
+                    String note = String.format("%n[SETTE: output truncated after %d bytes]%n",
+                            bytesWritten);
+                    out.write(note.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot write output file: " + file, ex);
+            }
+        }
+
+        private synchronized void close() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Cannot close output file: " + file, ex);
+                } finally {
+                    out = null;
+                }
+            }
+        }
+    }
+}
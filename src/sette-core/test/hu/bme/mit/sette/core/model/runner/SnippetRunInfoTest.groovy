@@ -0,0 +1,61 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.model.runner
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link SnippetRunInfo}.
+ */
+@TypeChecked
+class SnippetRunInfoTest {
+    @Test
+    void testParse() {
+        SnippetRunInfo info = SnippetRunInfo.parse('''Command: [java, -jar, tool.jar]
+Exit value: 137
+Destroyed: yes
+Elapsed time: 30012 ms
+User time: 28140 ms
+System time: 950 ms
+Peak RSS: 524288 KB
+Signal: 9
+Slot: 0'''.readLines())
+
+        assert info.elapsedTimeInMs == 30012L
+        assert info.userTimeInMs == 28140L
+        assert info.systemTimeInMs == 950L
+        assert info.peakRssInKb == 524288L
+        assert info.signal == 9
+    }
+
+    @Test
+    void testParseWithoutUsage() {
+        // info file of an earlier version
+        SnippetRunInfo info = SnippetRunInfo.parse(['Exit value: 0', 'Destroyed: no',
+            'Elapsed time: 2002 ms'])
+
+        assert info == new SnippetRunInfo(2002L, null, null, null, null)
+    }
+}
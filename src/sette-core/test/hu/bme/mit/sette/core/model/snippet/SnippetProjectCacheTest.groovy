@@ -0,0 +1,106 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.model.snippet
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link SnippetProjectCache}.
+ */
+@TypeChecked
+class SnippetProjectCacheTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    Path baseDir
+
+    @Before
+    void setUp() {
+        baseDir = tmpDir.root.toPath()
+        Files.createDirectories(baseDir.resolve('snippet-src/pkg'))
+        Files.createDirectories(baseDir.resolve('build/pkg'))
+        Files.write(baseDir.resolve('snippet-src/pkg/A.java'), 'class A {}'.bytes)
+        Files.write(baseDir.resolve('build/pkg/A.class'), [1, 2, 3] as byte[])
+    }
+
+    @Test
+    void testFingerprintIsStable() {
+        assert SnippetProjectCache.computeFingerprint(baseDir) ==
+                SnippetProjectCache.computeFingerprint(baseDir)
+    }
+
+    @Test
+    void testFingerprintChangesWhenFileIsAdded() {
+        String fingerprint = SnippetProjectCache.computeFingerprint(baseDir)
+        Files.write(baseDir.resolve('build/pkg/B.class'), [1] as byte[])
+
+        assert SnippetProjectCache.computeFingerprint(baseDir) != fingerprint
+    }
+
+    @Test
+    void testFingerprintChangesWhenFileIsModified() {
+        String fingerprint = SnippetProjectCache.computeFingerprint(baseDir)
+        Path file = baseDir.resolve('build/pkg/A.class')
+        Files.setLastModifiedTime(file,
+                FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000))
+
+        assert SnippetProjectCache.computeFingerprint(baseDir) != fingerprint
+    }
+
+    @Test
+    void testDescriptorFileIsInTheDescriptorDir() {
+        Path descriptorDir = tmpDir.newFolder('cache').toPath()
+        Path oldDescriptorDir = SnippetProjectCache.descriptorDir
+        try {
+            SnippetProjectCache.descriptorDir = descriptorDir
+            Path file = SnippetProjectCache.getDescriptorFile(baseDir)
+
+            assert file.parent == descriptorDir
+            assert file.fileName.toString().startsWith(baseDir.fileName.toString() + '-')
+            assert file != SnippetProjectCache.getDescriptorFile(baseDir.resolve('other'))
+        } finally {
+            SnippetProjectCache.descriptorDir = oldDescriptorDir
+        }
+    }
+
+    @Test
+    void testDescriptorFileIsNullIfDescriptorsAreDisabled() {
+        Path oldDescriptorDir = SnippetProjectCache.descriptorDir
+        try {
+            SnippetProjectCache.descriptorDir = null
+
+            assert SnippetProjectCache.getDescriptorFile(baseDir) == null
+        } finally {
+            SnippetProjectCache.descriptorDir = oldDescriptorDir
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.store
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.model.runner.ResultType
+import hu.bme.mit.sette.core.model.runner.SnippetRunInfo
+import hu.bme.mit.sette.core.store.ResultStore.Table
+
+/**
+ * Tests for {@link ResultStore}.
+ */
+@TypeChecked
+class ResultStoreTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    @Test
+    void testPutAndGet() {
+        Path file = tmpDir.root.toPath().resolve(ResultStore.DEFAULT_FILE_NAME)
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            store.batch()
+                    .putString(Table.INPUTS, 'run', 'a.B_c', '<inputs/>')
+                    .put(Table.RESULTS, 'run', 'a.B_c', [1, 2, 3] as byte[])
+                    .commit()
+
+            assert store.getString(Table.INPUTS, 'run', 'a.B_c') == '<inputs/>'
+            assert store.get(Table.RESULTS, 'run', 'a.B_c') == [1, 2, 3] as byte[]
+            assert store.get(Table.RESULTS, 'other', 'a.B_c') == null
+            assert store.get(Table.COVERAGE, 'run', 'a.B_c') == null
+            assert store.getKeys(Table.INPUTS, 'run') as List == ['a.B_c']
+            assert store.getRunIds(Table.RESULTS) as List == ['run']
+        }
+    }
+
+    @Test
+    void testLaterValueOverridesEarlier() {
+        Path file = tmpDir.root.toPath().resolve(ResultStore.DEFAULT_FILE_NAME)
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            store.batch().putString(Table.INPUTS, 'run', 'key', 'first').commit()
+            store.batch().putString(Table.INPUTS, 'run', 'key', 'second').commit()
+
+            assert store.getString(Table.INPUTS, 'run', 'key') == 'second'
+            assert store.getKeys(Table.INPUTS, 'run').size() == 1
+        }
+    }
+
+    @Test
+    void testReopen() {
+        Path file = tmpDir.root.toPath().resolve(ResultStore.DEFAULT_FILE_NAME)
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            store.batch().putString(Table.RUNS, 'run', ResultStore.RUN_PROPERTIES_KEY, 'x=y')
+                    .commit()
+        }
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            assert store.getString(Table.RUNS, 'run', ResultStore.RUN_PROPERTIES_KEY) == 'x=y'
+        }
+    }
+
+    @Test
+    void testTornTailIsDiscarded() {
+        Path file = tmpDir.root.toPath().resolve(ResultStore.DEFAULT_FILE_NAME)
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            store.batch().putString(Table.INPUTS, 'run', 'complete', 'value').commit()
+        }
+        long validSize = Files.size(file)
+
+        // simulate a crash during writing a batch
+        Files.write(file, [0, 0, 0, 1, 2] as byte[], StandardOpenOption.APPEND)
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            assert store.getString(Table.INPUTS, 'run', 'complete') == 'value'
+
+            store.batch().putString(Table.INPUTS, 'run', 'next', 'value2').commit()
+        }
+
+        assert Files.size(file) > validSize
+
+        new ResultStore(file).withCloseable { ResultStore store ->
+            assert store.getKeys(Table.INPUTS, 'run') as List == ['complete', 'next']
+        }
+    }
+
+    @Test(expected = IOException)
+    void testInvalidFile() {
+        Path file = tmpDir.root.toPath().resolve('invalid.store')
+        Files.write(file, 'not a store file'.bytes)
+
+        new ResultStore(file)
+    }
+
+    @Test
+    void testSnippetResultRecord() {
+        def record = new SnippetResultRecord(ResultType.C, '50.00%', 3, 1234L)
+        assert SnippetResultRecord.fromBytes(record.toBytes()) == record
+
+        def emptyRecord = new SnippetResultRecord(ResultType.NA, null, 0, null)
+        assert SnippetResultRecord.fromBytes(emptyRecord.toBytes()) == emptyRecord
+
+        def usageRecord = new SnippetResultRecord(ResultType.EX, null, 0, 2000L, 1500L, 120L,
+                65536L, 9)
+        assert SnippetResultRecord.fromBytes(usageRecord.toBytes()) == usageRecord
+    }
+
+    @Test
+    void testSnippetResultRecordWithoutUsage() {
+        // the records of earlier versions end after the elapsed time
+        def record = new SnippetResultRecord(ResultType.C, '50.00%', 3, 1234L)
+        byte[] bytes = record.toBytes()
+        byte[] oldBytes = Arrays.copyOf(bytes, bytes.length - 3 * 8 - 4)
+
+        assert SnippetResultRecord.fromBytes(oldBytes) == record
+    }
+
+    @Test
+    void testCreateSnippetResultRecordFromRunInfo() {
+        def runInfo = new SnippetRunInfo(2000L, 1500L, 120L, 65536L, 0)
+        def record = SnippetResultRecord.create(ResultType.S, null, 2, runInfo)
+
+        record.with {
+            assert elapsedTimeInMs == 2000L
+            assert userTimeInMs == 1500L
+            assert systemTimeInMs == 120L
+            assert peakRssInKb == 65536L
+            assert signal == 0
+        }
+        assert SnippetResultRecord.create(ResultType.NA, null, 0, null) ==
+                new SnippetResultRecord(ResultType.NA, null, 0, null)
+    }
+}
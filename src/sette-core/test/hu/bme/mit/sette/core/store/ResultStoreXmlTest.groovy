@@ -0,0 +1,80 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.store
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.model.parserxml.SnippetElement
+import hu.bme.mit.sette.core.model.parserxml.SnippetInputsXml
+import hu.bme.mit.sette.core.model.parserxml.SnippetProjectElement
+import hu.bme.mit.sette.core.model.runner.ResultType
+
+/**
+ * Tests for {@link ResultStoreXml}.
+ */
+@TypeChecked
+class ResultStoreXmlTest {
+    @Test
+    void testRoundTrip() {
+        SnippetInputsXml inputsXml = ResultStoreXml.fromXml(SnippetInputsXml,
+                ResultStoreXml.toXml(createInputsXml(5)))
+
+        assert inputsXml.toolName == 'tool'
+        assert inputsXml.snippetElement.name == 'method'
+        assert inputsXml.resultType == ResultType.S
+        assert inputsXml.generatedInputCount == 5
+    }
+
+    @Test
+    void testConcurrentRoundTrips() {
+        ExecutorService executor = Executors.newFixedThreadPool(4)
+        try {
+            List<Future<Integer>> futures = (0..<100).collect { int i ->
+                executor.submit({
+                    String xml = ResultStoreXml.toXml(createInputsXml(i))
+                    return ResultStoreXml.fromXml(SnippetInputsXml, xml).generatedInputCount
+                } as Callable<Integer>)
+            }
+
+            assert futures*.get() == (0..<100).toList()
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    private static SnippetInputsXml createInputsXml(int generatedInputCount) {
+        SnippetInputsXml inputsXml = new SnippetInputsXml()
+        inputsXml.toolName = 'tool'
+        inputsXml.snippetProjectElement = new SnippetProjectElement('/snippet-project')
+        inputsXml.snippetElement = new SnippetElement('a.B', 'method')
+        inputsXml.resultType = ResultType.S
+        inputsXml.generatedInputCount = generatedInputCount
+        return inputsXml
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.synthetic
+
+import static org.junit.Assume.assumeTrue
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.model.snippet.SnippetProject
+import hu.bme.mit.sette.core.model.snippet.SnippetProjectCache
+import hu.bme.mit.sette.core.util.compiler.JavaSourceCompiler
+
+/**
+ * Tests for {@link SyntheticSnippetProjectGenerator}.
+ */
+@TypeChecked
+class SyntheticSnippetProjectGeneratorTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    Path oldDescriptorDir
+
+    @Before
+    void setUp() {
+        oldDescriptorDir = SnippetProjectCache.descriptorDir
+        SnippetProjectCache.descriptorDir = tmpDir.newFolder('cache').toPath()
+    }
+
+    @After
+    void tearDown() {
+        SnippetProjectCache.clear()
+        SnippetProjectCache.scope = ''
+        SnippetProjectCache.descriptorDir = oldDescriptorDir
+    }
+
+    @Test
+    void testParseCategoryMix() {
+        Map<SyntheticSnippetCategory, Integer> mix = SyntheticSnippetProjectGenerator
+                .parseCategoryMix('branches=3, Objects=1')
+
+        assert mix == [(SyntheticSnippetCategory.BRANCHES): 3,
+            (SyntheticSnippetCategory.OBJECTS): 1]
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testParseCategoryMixThrowsExceptionIfWeightIsMissing() {
+        SyntheticSnippetProjectGenerator.parseCategoryMix('branches')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testParseCategoryMixThrowsExceptionIfCategoryIsUnknown() {
+        SyntheticSnippetProjectGenerator.parseCategoryMix('unknown=1')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testSetCategoryMixThrowsExceptionIfAllWeightsAreZero() {
+        new SyntheticSnippetProjectGenerator(1).categoryMix =
+                [(SyntheticSnippetCategory.BRANCHES): 0]
+    }
+
+    @Test
+    void testGenerateWritesContainersInProportionToTheWeights() {
+        Path baseDir = tmpDir.root.toPath().resolve('project')
+        SyntheticSnippetProjectGenerator generator = new SyntheticSnippetProjectGenerator(25)
+        generator.snippetsPerContainer = 5
+        generator.categoryMix = [(SyntheticSnippetCategory.BRANCHES): 4,
+            (SyntheticSnippetCategory.OBJECTS): 1]
+
+        generator.generate(baseDir)
+
+        List<String> containers = listJavaFiles(baseDir.resolve('snippet-src'))
+        assert containers.count { String f -> f.startsWith('SB') } == 4
+        assert containers.count { String f -> f.startsWith('SO') } == 1
+        assert containers.count { String f -> f.startsWith('SyntheticPoint') } == 1
+        assert listJavaFiles(baseDir.resolve('snippet-input-src')).size() == 5
+        assert Files.isDirectory(baseDir.resolve('build'))
+    }
+
+    @Test
+    void testGenerateWithoutInputFactories() {
+        Path baseDir = tmpDir.root.toPath().resolve('project')
+        SyntheticSnippetProjectGenerator generator = new SyntheticSnippetProjectGenerator(3)
+        generator.inputFactories = false
+
+        generator.generate(baseDir)
+
+        assert listJavaFiles(baseDir.resolve('snippet-src')).size() == 1
+        assert !Files.exists(baseDir.resolve('snippet-input-src'))
+    }
+
+    @Test
+    void testGeneratedProjectIsValid() {
+        assumeTrue(JavaSourceCompiler.isAvailable())
+
+        Path baseDir = tmpDir.root.toPath().resolve('project')
+        SyntheticSnippetProjectGenerator generator = new SyntheticSnippetProjectGenerator(23)
+        generator.snippetsPerContainer = 2
+        generator.containersPerPackage = 3
+
+        generator.generate(baseDir)
+        SyntheticSnippetProjectGenerator.compile(baseDir)
+        SnippetProject snippetProject = SnippetProject.parse(baseDir)
+
+        assert snippetProject.snippets().count() == 23
+        assert snippetProject.snippetContainers.size() == 12
+        assert snippetProject.snippetContainers.every { it.inputFactoryContainer != null }
+        assert snippetProject.snippetContainers*.category.toSet() ==
+                SyntheticSnippetCategory.values()*.code.toSet()
+        assert snippetProject.snippetDependencies.size() == 2
+    }
+
+    @Test
+    void testParsedProjectIsCachedPerScopeOutsideTheProject() {
+        assumeTrue(JavaSourceCompiler.isAvailable())
+
+        Path baseDir = tmpDir.root.toPath().resolve('project')
+        new SyntheticSnippetProjectGenerator(3).generate(baseDir)
+        SyntheticSnippetProjectGenerator.compile(baseDir)
+        List<Path> projectFiles = Files.walk(baseDir).iterator().toList()
+
+        SnippetProjectCache.scope = 'run1'
+        SnippetProject first = SnippetProject.parse(baseDir)
+        assert SnippetProject.parse(baseDir).is(first)
+
+        SnippetProjectCache.scope = 'run2'
+        SnippetProject second = SnippetProject.parse(baseDir)
+        assert !second.is(first)
+        assert second.classLoader != first.classLoader
+
+        assert Files.walk(baseDir).iterator().toList() == projectFiles
+        assert Files.exists(SnippetProjectCache.getDescriptorFile(baseDir.toRealPath()))
+    }
+
+        private static List<String> listJavaFiles(Path dir) {
+        return Files.walk(dir).iterator().toList()
+                .findAll { Path p -> p.toString().endsWith('.java') }
+                .collect { Path p -> p.fileName.toString() }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.tasks.MetricsRecord.MetricsScope
+import hu.bme.mit.sette.core.util.process.ProcessExecutionResult
+
+/**
+ * Tests for {@link EvaluationMetrics}.
+ */
+@TypeChecked
+class EvaluationMetricsTest {
+    Path tmpDir
+    EvaluationMetrics metrics
+
+    @Before
+    void setUp() {
+        tmpDir = Files.createTempDirectory(getClass().simpleName)
+        metrics = new EvaluationMetrics('TestTask')
+    }
+
+    @After
+    void tearDown() {
+        if (Files.exists(tmpDir)) {
+            Files.walk(tmpDir).sorted(Comparator.reverseOrder()).forEach { Path p ->
+                Files.delete(p)
+            }
+        }
+    }
+
+    @Test
+    void testSpansAreRecordedWhenClosed() {
+        EvaluationMetrics.Span phase = metrics.startPhase('run')
+        EvaluationMetrics.Span snippet = metrics.startSnippet('run', 'B1_a')
+        assert metrics.records.empty
+
+        snippet.close()
+        phase.close()
+        // closing twice has no effect
+        phase.close()
+
+        assert metrics.records*.phase == ['run', 'run']
+        assert metrics.records*.snippetId == ['B1_a', null]
+        assert metrics.records*.scope == [MetricsScope.THREAD, MetricsScope.PROCESS]
+        metrics.records.each { MetricsRecord r ->
+            assert r.task == 'TestTask'
+            assert r.thread == Thread.currentThread().name
+            assert r.wallTimeInMs >= 0
+        }
+        // the GC time is only measured for the whole process
+        assert metrics.records[0].gcTimeInMs == -1
+        assert metrics.records[1].gcTimeInMs >= 0
+    }
+
+    @Test
+    void testChildProcesses() {
+        // without an open span the child process is ignored
+        EvaluationMetrics.addChildProcess(new ProcessExecutionResult(0, false, 100))
+
+        EvaluationMetrics.Span phase = metrics.startPhase('run')
+        EvaluationMetrics.Span snippet = metrics.startSnippet('run', 'B1_a')
+        EvaluationMetrics.addChildProcess(new ProcessExecutionResult(0, false, 200))
+        snippet.close()
+        EvaluationMetrics.addChildProcess(
+                new ProcessExecutionResult(137, true, 300, 250, 20, 65536, 9))
+        phase.close()
+
+        MetricsRecord snippetRecord = metrics.records[0]
+        assert snippetRecord.childProcesses == 1
+        assert snippetRecord.childElapsedTimeInMs == 200
+        assert snippetRecord.childCpuTimeInMs == -1
+        assert snippetRecord.childPeakRssInKb == -1
+
+        MetricsRecord phaseRecord = metrics.records[1]
+        assert phaseRecord.childProcesses == 2
+        assert phaseRecord.childElapsedTimeInMs == 500
+        assert phaseRecord.childCpuTimeInMs == 270
+        assert phaseRecord.childPeakRssInKb == 65536
+    }
+
+    @Test
+    void testNoopSpan() {
+        EvaluationMetrics.Span.NOOP.close()
+        EvaluationMetrics.addChildProcess(new ProcessExecutionResult(0, false, 100))
+        assert metrics.records.empty
+    }
+
+    @Test
+    void testExport() {
+        metrics.startPhase('parse, all').close()
+        metrics.export(tmpDir)
+        assert metrics.records.empty
+
+        metrics.startSnippet('parse', 'B1_a').close()
+        metrics.export(tmpDir)
+
+        List<String> csvLines = tmpDir.resolve(EvaluationMetrics.CSV_FILE_NAME).readLines()
+        assert csvLines.size() == 3
+        assert csvLines[0] == MetricsRecord.CSV_HEADER.join(',')
+        assert csvLines[1].startsWith('TestTask,"parse, all",,process,')
+        assert csvLines[2].startsWith('TestTask,parse,B1_a,thread,')
+
+        List<String> jsonLines = tmpDir.resolve(EvaluationMetrics.JSON_FILE_NAME).readLines()
+        assert jsonLines.size() == 2
+        JsonNode json = new ObjectMapper().readTree(jsonLines[1])
+        assert json.get('snippet').asText() == 'B1_a'
+        assert json.get('wallTimeInMs').isNumber()
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks
+
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertNotEquals
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.model.parserxml.AbstractParameterElement
+import hu.bme.mit.sette.core.model.parserxml.ArrayParameterElement
+import hu.bme.mit.sette.core.model.parserxml.InputElement
+import hu.bme.mit.sette.core.model.parserxml.ParameterElement
+import hu.bme.mit.sette.core.model.runner.ParameterType
+
+/**
+ * Tests for {@link InputCanonicalizer}.
+ */
+@TypeChecked
+class InputCanonicalizerTest {
+    static InputElement input(String heap, String expected, AbstractParameterElement... params) {
+        InputElement input = new InputElement()
+        input.heap = heap
+        input.expected = expected
+        input.parameters.addAll(params)
+        return input
+    }
+
+    static List<String> canonicalize(ParameterType type, String value) {
+        return InputCanonicalizer.canonicalize(input(null, null, new ParameterElement(type, value)))
+    }
+
+    @Test
+    void testIntegersAreComparedNumerically() {
+        assertEquals(canonicalize(ParameterType.INT, '1'), canonicalize(ParameterType.INT, '+1'))
+        assertEquals(canonicalize(ParameterType.LONG, '0'), canonicalize(ParameterType.LONG, '-0'))
+        assertEquals(canonicalize(ParameterType.BYTE, '5'), canonicalize(ParameterType.BYTE, ' 5'))
+        assertNotEquals(canonicalize(ParameterType.INT, '1'), canonicalize(ParameterType.INT, '2'))
+    }
+
+    @Test
+    void testOctalLiteralsAreKept() {
+        assertNotEquals(canonicalize(ParameterType.INT, '10'),
+                canonicalize(ParameterType.INT, '010'))
+    }
+
+    @Test
+    void testDecimalsAreComparedNumerically() {
+        assertEquals(canonicalize(ParameterType.DOUBLE, '1'),
+                canonicalize(ParameterType.DOUBLE, '1.00'))
+        assertEquals(canonicalize(ParameterType.FLOAT, '0.1'),
+                canonicalize(ParameterType.FLOAT, '0.10000000001'))
+        assertNotEquals(canonicalize(ParameterType.DOUBLE, '0.0'),
+                canonicalize(ParameterType.DOUBLE, '-0.0'))
+        assertNotEquals(canonicalize(ParameterType.DOUBLE, '1e3'),
+                canonicalize(ParameterType.DOUBLE, '1000'))
+    }
+
+    @Test
+    void testCharactersAreKept() {
+        assertNotEquals(canonicalize(ParameterType.CHAR, ' '), canonicalize(ParameterType.CHAR, ''))
+    }
+
+    @Test
+    void testTypesAreCompared() {
+        assertNotEquals(canonicalize(ParameterType.INT, '1'), canonicalize(ParameterType.LONG, '1'))
+
+        ArrayParameterElement array = new ArrayParameterElement(ParameterType.INT)
+        array.elements = ['1']
+        assertNotEquals(canonicalize(ParameterType.INT, '1'),
+                InputCanonicalizer.canonicalize(input(null, null, array)))
+    }
+
+    @Test
+    void testHeapAndExpected() {
+        ParameterElement param = new ParameterElement(ParameterType.EXPRESSION, 'x')
+
+        assertEquals(InputCanonicalizer.canonicalize(input('  int x = 1;\n\n', null, param)),
+                InputCanonicalizer.canonicalize(input('int x = 1;\r\n', null, param)))
+        assertNotEquals(InputCanonicalizer.canonicalize(input('int x = 1;', null, param)),
+                InputCanonicalizer.canonicalize(input('int x = 2;', null, param)))
+        assertEquals(InputCanonicalizer.canonicalize(input(null, 'java.lang.Exception', param)),
+                InputCanonicalizer.canonicalize(input(null, ' java.lang.Exception', param)))
+        assertNotEquals(InputCanonicalizer.canonicalize(input(null, 'java.lang.Exception', param)),
+                InputCanonicalizer.canonicalize(input(null, null, param)))
+    }
+}
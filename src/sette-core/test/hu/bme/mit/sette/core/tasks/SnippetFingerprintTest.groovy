@@ -0,0 +1,202 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks
+
+import static org.junit.Assume.assumeTrue
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.common.snippets.JavaVersion
+import hu.bme.mit.sette.core.model.runner.RunnerProjectSettings
+import hu.bme.mit.sette.core.model.snippet.Snippet
+import hu.bme.mit.sette.core.model.snippet.SnippetProject
+import hu.bme.mit.sette.core.model.snippet.SnippetProjectCache
+import hu.bme.mit.sette.core.synthetic.SyntheticSnippetProjectGenerator
+import hu.bme.mit.sette.core.tool.Tool
+import hu.bme.mit.sette.core.tool.ToolOutputType
+import hu.bme.mit.sette.core.util.compiler.JavaSourceCompiler
+
+/**
+ * Tests for {@link SnippetFingerprint}.
+ */
+@TypeChecked
+class SnippetFingerprintTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    Path oldDescriptorDir
+    SnippetProject snippetProject
+    Snippet snippet
+    RunnerProjectSettings<TestTool> settings
+
+    @Before
+    void setUp() {
+        oldDescriptorDir = SnippetProjectCache.descriptorDir
+        SnippetProjectCache.descriptorDir = tmpDir.newFolder('cache').toPath()
+
+        assumeTrue(JavaSourceCompiler.isAvailable())
+
+        Path baseDir = tmpDir.root.toPath().resolve('project')
+        new SyntheticSnippetProjectGenerator(23).generate(baseDir)
+        SyntheticSnippetProjectGenerator.compile(baseDir)
+        snippetProject = SnippetProject.parse(baseDir)
+        snippet = snippetProject.snippets().findFirst().get()
+
+        Path toolDir = tmpDir.newFolder('tool').toPath()
+        settings = new RunnerProjectSettings<>(snippetProject,
+                tmpDir.newFolder('output').toPath(), new TestTool(toolDir), 'test')
+    }
+
+    @After
+    void tearDown() {
+        SnippetProjectCache.clear()
+        SnippetProjectCache.descriptorDir = oldDescriptorDir
+    }
+
+    @Test
+    void testIsUpToDateWithMissingOutput() {
+        File output = new File(settings.runnerOutputDirectory, 'out.txt')
+        SnippetFingerprint fingerprint = new SnippetFingerprint('phase', snippet).putValue('a', 1)
+        fingerprint.save(settings)
+
+        assert !fingerprint.isUpToDate(settings, output)
+
+        output.parentFile.mkdirs()
+        output.text = 'x'
+        assert fingerprint.isUpToDate(settings, output)
+    }
+
+    @Test
+    void testIsUpToDateWithChangedHash() {
+        new SnippetFingerprint('phase', snippet).putValue('a', 1).save(settings)
+
+        assert new SnippetFingerprint('phase', snippet).putValue('a', 1).isUpToDate(settings)
+        assert !new SnippetFingerprint('phase', snippet).putValue('a', 2).isUpToDate(settings)
+        assert !new SnippetFingerprint('other', snippet).putValue('a', 1).isUpToDate(settings)
+    }
+
+    @Test
+    void testInvalidateAndSave() {
+        SnippetFingerprint fingerprint = new SnippetFingerprint('phase', snippet).putValue('a', 1)
+        assert !fingerprint.isUpToDate(settings)
+
+        fingerprint.save(settings)
+        assert fingerprint.isUpToDate(settings)
+        assert fingerprint.getFile(settings).readLines()[0] == fingerprint.hash
+
+        fingerprint.invalidate(settings)
+        assert !fingerprint.getFile(settings).exists()
+        assert !fingerprint.isUpToDate(settings)
+
+        fingerprint.save(settings)
+        assert fingerprint.isUpToDate(settings)
+    }
+
+    @Test
+    void testPutPathHashesDirectories() {
+        Path dir = tmpDir.newFolder('dir').toPath()
+        Files.createDirectories(dir.resolve('sub'))
+        Files.write(dir.resolve('a.txt'), 'a'.bytes)
+        Files.write(dir.resolve('sub/b.txt'), 'b'.bytes)
+        String hash = hashOf(dir)
+
+        assert hashOf(dir) == hash
+
+        Files.write(dir.resolve('sub/b.txt'), 'c'.bytes)
+        String changedContentHash = hashOf(dir)
+        assert changedContentHash != hash
+
+        Files.move(dir.resolve('sub/b.txt'), dir.resolve('sub/c.txt'))
+        assert hashOf(dir) != changedContentHash
+
+        assert hashOf(dir.resolve('missing')) == hashOf(dir.resolve('other-missing'))
+        assert hashOf(dir.resolve('missing')) != hash
+    }
+
+    @Test
+    void testPutSourcesIncludesDependenciesAndInputFactories() {
+        assert !snippetProject.snippetDependencies.isEmpty()
+        String hash = new SnippetFingerprint('phase', snippet).putSources(snippetProject).hash
+
+        // the dependency and the input factory container are not in the snippet container
+        Path dependencySource = snippetProject.sourceDir.resolve(
+                snippetProject.snippetDependencies[0].javaClass.name.replace('.', '/') + '.java')
+        dependencySource.toFile() << '\n// changed\n'
+        String dependencyChangedHash = new SnippetFingerprint('phase', snippet)
+                .putSources(snippetProject).hash
+        assert dependencyChangedHash != hash
+
+        Path inputFactorySource = snippetProject.inputSourceDir.resolve(
+                snippet.container.inputFactoryContainer.javaClass.name.replace('.', '/')
+                + '.java')
+        inputFactorySource.toFile() << '\n// changed\n'
+        assert new SnippetFingerprint('phase', snippet).putSources(snippetProject).hash !=
+                dependencyChangedHash
+    }
+
+    private String hashOf(Path path) {
+        return new SnippetFingerprint('phase', snippet).putPath('path', path).hash
+    }
+
+    static class TestTool extends Tool {
+        TestTool(Path toolDir) {
+            super('fingerprint-test-tool', toolDir)
+        }
+
+        @Override
+        ToolOutputType getOutputType() {
+            return ToolOutputType.INPUT_VALUES
+        }
+
+        @Override
+        JavaVersion getSupportedJavaVersion() {
+            return JavaVersion.JAVA_8
+        }
+
+        @Override
+        RunnerProjectGenerator<?> createRunnerProjectGenerator(SnippetProject snippetProject,
+                Path outputDir, String runnerProjectTag) {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        RunnerProjectRunner<?> createRunnerProjectRunner(SnippetProject snippetProject,
+                Path outputDir, String runnerProjectTag) {
+            throw new UnsupportedOperationException()
+        }
+
+        @Override
+        RunResultParser<?> createRunResultParser(SnippetProject snippetProject,
+                Path outputDir, String runnerProjectTag) {
+            throw new UnsupportedOperationException()
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks
+
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.model.parserxml.InputElement
+import hu.bme.mit.sette.core.model.parserxml.ParameterElement
+import hu.bme.mit.sette.core.model.runner.ParameterType
+
+/**
+ * Tests for {@link SnippetOracle}.
+ */
+@TypeChecked
+class SnippetOracleTest {
+    static final AtomicInteger INVOCATIONS = new AtomicInteger()
+    static volatile boolean stopped
+
+    SnippetOracle oracle
+
+    @Before
+    void setUp() {
+        INVOCATIONS.set(0)
+        oracle = new SnippetOracle(500)
+    }
+
+    static int square(int x) {
+        INVOCATIONS.incrementAndGet()
+        return x * x
+    }
+
+    static int fail(int x) {
+        throw new IllegalArgumentException("x = $x")
+    }
+
+    static int sleepForever() {
+        Thread.sleep(Long.MAX_VALUE)
+        return 0
+    }
+
+    static int loopForever() {
+        try {
+            while (true) {
+                // ignores interrupts
+            }
+        } catch (ThreadDeath ex) {
+            stopped = true
+            throw ex
+        }
+    }
+
+    @Test
+    void testReturnValue() {
+        assert oracle.invoke(method('square'), input(3)) == 9
+    }
+
+    @Test
+    void testOutcomesAreMemoized() {
+        assert oracle.invoke(method('square'), input(3)) == 9
+        assert oracle.invoke(method('square'), input(3)) == 9
+        assert oracle.invoke(method('square'), input(4)) == 16
+
+        assert INVOCATIONS.get() == 2
+    }
+
+    @Test
+    void testException() {
+        2.times {
+            try {
+                oracle.invoke(method('fail'), input(1))
+                assert false
+            } catch (InvocationTargetException ex) {
+                assert ex.cause instanceof IllegalArgumentException
+                assert ex.cause.message == 'x = 1'
+            }
+        }
+    }
+
+    @Test(expected = TimeoutException)
+    void testTimeoutIfInterruptible() {
+        oracle.invoke(method('sleepForever'), input())
+    }
+
+    @Test
+    void testTimeoutIfNotInterruptible() {
+        stopped = false
+        long start = System.currentTimeMillis()
+
+        try {
+            oracle.invoke(method('loopForever'), input())
+            assert false
+        } catch (TimeoutException ex) {
+            // expected
+        }
+
+        assert System.currentTimeMillis() - start < 5000
+
+        // the thread is stopped asynchronously
+        for (int i = 0; i < 50 && !stopped; i++) {
+            Thread.sleep(100)
+        }
+        assert stopped
+    }
+
+    @Test
+    void testEquivalentInputsAreMemoized() {
+        assert oracle.invoke(method('square'), input(3)) == 9
+        assert oracle.invoke(method('square'),
+                inputOf(new ParameterElement(ParameterType.INT, '+3'))) == 9
+
+        assert INVOCATIONS.get() == 1
+    }
+
+    @Test
+    void testKeyIsSnapshotOfInput() {
+        // the outcome stays memoized under the original input even if the input is modified
+        InputElement input = input(5)
+        assert oracle.invoke(method('square'), input) == 25
+        ((ParameterElement) input.parameters[0]).value = 6
+
+        assert oracle.invoke(method('square'), input(6)) == 36
+        assert oracle.invoke(method('square'), input(5)) == 25
+        assert INVOCATIONS.get() == 2
+    }
+
+    @Test
+    void testHasStaticState() {
+        assert SnippetOracle.hasStaticState(SnippetOracleTest)
+        assert SnippetOracle.hasStaticState(System)
+        assert !SnippetOracle.hasStaticState(Object)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testTimeoutMustBePositive() {
+        new SnippetOracle(0)
+    }
+
+    private static InputElement input(int... values) {
+        return inputOf(values.collect { int v ->
+            new ParameterElement(ParameterType.INT, String.valueOf(v))
+        } as ParameterElement[])
+    }
+
+    private static InputElement inputOf(ParameterElement... params) {
+        InputElement input = new InputElement()
+        input.parameters.addAll(params)
+        return input
+    }
+
+    private static Method method(String name) {
+        return SnippetOracleTest.declaredMethods.find { Method m -> m.name == name }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link CoverageInfo} and {@link FileLineCoverage}.
+ */
+@TypeChecked
+class CoverageInfoTest {
+    static final String FILE = 'hu/bme/mit/sette/snippets/Sample.java'
+
+    @Test
+    void testAddAndLineString() {
+        def coverage = new FileLineCoverage()
+        coverage.add(3, LineStatus.FULLY_COVERED)
+        coverage.add(1, LineStatus.FULLY_COVERED)
+        coverage.add(2, LineStatus.PARTLY_COVERED)
+        coverage.add(5, LineStatus.NOT_COVERED)
+        coverage.add(4, LineStatus.EMPTY)
+
+        assert coverage.fullyCoveredLines == [1, 3] as int[]
+        assert coverage.partlyCoveredLines == [2] as int[]
+        assert coverage.notCoveredLines == [5] as int[]
+        assert FileLineCoverage.toLineString(coverage.fullyCovered) == '1 3'
+        assert FileLineCoverage.toLineString(new BitSet()) == ''
+    }
+
+    @Test
+    void testMergeAndNormalize() {
+        def info1 = new CoverageInfo()
+        info1.getOrCreate(FILE).add(1, LineStatus.FULLY_COVERED)
+        info1.getOrCreate(FILE).add(2, LineStatus.NOT_COVERED)
+        info1.getOrCreate(FILE).add(3, LineStatus.NOT_COVERED)
+
+        def info2 = new CoverageInfo()
+        info2.getOrCreate(FILE).add(1, LineStatus.PARTLY_COVERED)
+        info2.getOrCreate(FILE).add(2, LineStatus.PARTLY_COVERED)
+        info2.getOrCreate(FILE).add(3, LineStatus.NOT_COVERED)
+        info2.getOrCreate('Other.java').add(7, LineStatus.FULLY_COVERED)
+
+        def merged = new CoverageInfo()
+        merged.merge(info1)
+        merged.merge(info2)
+        merged.normalize()
+
+        assert merged.files == [FILE, 'Other.java'] as Set
+        merged.get(FILE).with {
+            assert fullyCoveredLines == [1] as int[]
+            assert partlyCoveredLines == [2] as int[]
+            assert notCoveredLines == [3] as int[]
+        }
+
+        // sources are not modified
+        assert info1.get(FILE).notCoveredLines == [2, 3] as int[]
+    }
+
+    @Test
+    void testJsonRoundTrip() {
+        def info = new CoverageInfo()
+        info.getOrCreate(FILE).add(10, LineStatus.FULLY_COVERED)
+        info.getOrCreate(FILE).add(11, LineStatus.PARTLY_COVERED)
+        info.getOrCreate(FILE).add(12, LineStatus.NOT_COVERED)
+
+        def parsed = CoverageInfo.fromJsonString(info.toJsonString())
+
+        assert parsed.files == [FILE] as Set
+        assert parsed.get(FILE) == info.get(FILE)
+    }
+
+    @Test
+    void testBinaryRoundTrip() {
+        def info = new CoverageInfo()
+        info.getOrCreate(FILE).add(10, LineStatus.FULLY_COVERED)
+        info.getOrCreate(FILE).add(200, LineStatus.PARTLY_COVERED)
+        info.getOrCreate(FILE).add(12, LineStatus.NOT_COVERED)
+        info.getOrCreate('Other.java')
+
+        def bytes = new ByteArrayOutputStream()
+        info.writeTo(new DataOutputStream(bytes))
+        def parsed = CoverageInfo.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+
+        assert parsed.files == [FILE, 'Other.java'] as Set
+        assert parsed.get(FILE) == info.get(FILE)
+        assert parsed.get('Other.java') == new FileLineCoverage()
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.jacoco.core.data.ExecutionData
+import org.jacoco.core.data.ExecutionDataStore
+import org.jacoco.core.data.SessionInfoStore
+import org.jacoco.core.runtime.RuntimeData
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link InstrumentedClassCache} and {@link JaCoCoProbeRegistry}.
+ */
+@TypeChecked
+class InstrumentedClassCacheTest {
+    static final String CLASS_NAME = LineStatus.name
+
+    Path tmpDir
+    byte[] originalBytes
+
+    @Before
+    void setUp() {
+        tmpDir = Files.createTempDirectory(getClass().simpleName)
+
+        String resource = '/' + CLASS_NAME.replace('.', '/') + '.class'
+        originalBytes = getClass().getResourceAsStream(resource).bytes
+    }
+
+    @After
+    void tearDown() {
+        if (Files.exists(tmpDir)) {
+            Files.walk(tmpDir).sorted(Comparator.reverseOrder()).forEach { Path p ->
+                Files.delete(p)
+            }
+        }
+    }
+
+    @Test
+    void testMemoryCache() {
+        def cache = new InstrumentedClassCache(null, 10)
+
+        byte[] bytes1 = cache.getInstrumentedBytes(CLASS_NAME, originalBytes)
+        byte[] bytes2 = cache.getInstrumentedBytes(CLASS_NAME, originalBytes)
+
+        assert bytes1.is(bytes2)
+        assert bytes1 != originalBytes
+    }
+
+    @Test
+    void testDiskCache() {
+        Path cacheDir = tmpDir.resolve('cache')
+        byte[] bytes1 = new InstrumentedClassCache(cacheDir, 10)
+                .getInstrumentedBytes(CLASS_NAME, originalBytes)
+
+        assert Files.list(cacheDir).count() == 1
+
+        byte[] bytes2 = new InstrumentedClassCache(cacheDir, 10)
+                .getInstrumentedBytes(CLASS_NAME, originalBytes)
+
+        assert bytes1 == bytes2
+        assert Files.list(cacheDir).count() == 1
+    }
+
+    @Test
+    void testChangedClassIsNotServedFromCache() {
+        def cache = new InstrumentedClassCache(tmpDir, 10)
+        byte[] bytes1 = cache.getInstrumentedBytes(CLASS_NAME, originalBytes)
+
+        // the same class with a changed source file attribute (the class remains valid)
+        byte[] changedBytes = replaceUtf8Constant(originalBytes, 'LineStatus.java',
+                'LineStatuX.java')
+        byte[] bytes2 = cache.getInstrumentedBytes(CLASS_NAME, changedBytes)
+
+        assert !bytes2.is(bytes1)
+        assert bytes2 != bytes1
+        assert Files.list(tmpDir).count() == 2
+
+        // both versions are cached
+        assert cache.getInstrumentedBytes(CLASS_NAME, originalBytes).is(bytes1)
+        assert cache.getInstrumentedBytes(CLASS_NAME, changedBytes).is(bytes2)
+    }
+
+    @Test
+    void testProbesAreCollectedPerClassLoader() {
+        // copy the class file into a binary directory
+        Path binDir = tmpDir.resolve('bin')
+        Path classFile = binDir.resolve(CLASS_NAME.replace('.', '/') + '.class')
+        Files.createDirectories(classFile.parent)
+        Files.write(classFile, originalBytes)
+
+        def cache = new InstrumentedClassCache(null, 10)
+        def data1 = new RuntimeData()
+        def data2 = new RuntimeData()
+        def loader1 = new JaCoCoClassLoader([binDir.toFile()] as File[], cache, data1,
+                getClass().classLoader)
+        def loader2 = new JaCoCoClassLoader([binDir.toFile()] as File[], cache, data2,
+                getClass().classLoader)
+
+        // only execute the class in the first class loader
+        Class<?> cls1 = loader1.loadClass(CLASS_NAME)
+        loader2.loadClass(CLASS_NAME)
+        cls1.getMethod('values').invoke(null)
+
+        def store1 = new ExecutionDataStore()
+        data1.collect(store1, new SessionInfoStore(), false)
+        def store2 = new ExecutionDataStore()
+        data2.collect(store2, new SessionInfoStore(), false)
+
+        assert store1.contents.any { ExecutionData ed -> (ed.probes as List).contains(true) }
+        assert !store2.contents.any { ExecutionData ed -> (ed.probes as List).contains(true) }
+    }
+
+    private static byte[] replaceUtf8Constant(byte[] bytes, String from, String to) {
+        assert from.length() == to.length()
+        byte[] pattern = from.getBytes('UTF-8')
+
+        List<Integer> indices = (0..bytes.length - pattern.length).findAll { int i ->
+            Arrays.equals(Arrays.copyOfRange(bytes, i, i + pattern.length), pattern)
+        }
+        assert indices.size() == 1
+
+        byte[] result = bytes.clone()
+        System.arraycopy(to.getBytes('UTF-8'), 0, result, indices[0], pattern.length)
+        return result
+    }
+}
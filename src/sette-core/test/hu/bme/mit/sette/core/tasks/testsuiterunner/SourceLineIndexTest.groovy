@@ -0,0 +1,108 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.tasks.testsuiterunner
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link SourceLineIndex}.
+ */
+@TypeChecked
+class SourceLineIndexTest {
+    static final String SOURCE = '''package pkg;
+
+public class Sample {
+    public Sample() {
+    }
+
+    public static int first(int x) {
+        return x;
+    }
+
+    public static int first(int x, int y) {
+        return x + y;
+    }
+
+    public static void second() {
+    }
+}
+'''
+
+    Path tmpDir
+    Path javaFile
+
+    @Before
+    void setUp() {
+        tmpDir = Files.createTempDirectory(getClass().simpleName)
+        javaFile = tmpDir.resolve('Sample.java')
+        javaFile.text = SOURCE
+        SourceLineIndex.clear()
+    }
+
+    @After
+    void tearDown() {
+        SourceLineIndex.clear()
+        if (Files.exists(tmpDir)) {
+            Files.walk(tmpDir).sorted(Comparator.reverseOrder()).forEach { Path p ->
+                Files.delete(p)
+            }
+        }
+    }
+
+    @Test
+    void testLineRanges() {
+        SourceLineIndex index = SourceLineIndex.of(javaFile)
+
+        assert index.beginLine == 1
+        assert index.endLine == 17
+        assert index.typeName == 'Sample'
+        assert index.constructors == [new SourceLineIndex.Declaration('Sample', 4, 5)]
+        // the first declared overload is used
+        assert index.getMethod('first') == new SourceLineIndex.Declaration('first', 7, 9)
+        assert index.getMethod('second') == new SourceLineIndex.Declaration('second', 15, 16)
+        assert index.getMethod('third') == null
+    }
+
+    @Test
+    void testCache() {
+        SourceLineIndex index = SourceLineIndex.of(javaFile)
+        assert SourceLineIndex.of(javaFile).is(index)
+        assert SourceLineIndex.of(tmpDir.resolve('.').resolve('Sample.java')).is(index)
+
+        javaFile.text = SOURCE.replace('public Sample() {', 'public Sample() {\n')
+        Files.setLastModifiedTime(javaFile, FileTime.fromMillis(0))
+
+        SourceLineIndex changed = SourceLineIndex.of(javaFile)
+        assert !changed.is(index)
+        assert changed.constructors == [new SourceLineIndex.Declaration('Sample', 4, 6)]
+        assert changed.getMethod('first') == new SourceLineIndex.Declaration('first', 8, 10)
+    }
+}
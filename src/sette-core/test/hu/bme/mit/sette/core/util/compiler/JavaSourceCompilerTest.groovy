@@ -0,0 +1,124 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.compiler
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.After
+import org.junit.Assume
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link JavaSourceCompiler}.
+ */
+@TypeChecked
+class JavaSourceCompilerTest {
+    Path tmpDir
+    Path srcDir
+    Path outDir
+
+    @Before
+    void setUp() {
+        Assume.assumeTrue(JavaSourceCompiler.isAvailable())
+
+        tmpDir = Files.createTempDirectory(getClass().simpleName)
+        srcDir = tmpDir.resolve('src')
+        outDir = tmpDir.resolve('build')
+        Files.createDirectories(outDir)
+    }
+
+    @After
+    void tearDown() {
+        if (tmpDir != null && Files.exists(tmpDir)) {
+            Files.walk(tmpDir).sorted(Comparator.reverseOrder()).forEach { Path p ->
+                Files.delete(p)
+            }
+        }
+    }
+
+    private void writeSource(String path, String code) {
+        Path file = srcDir.resolve(path)
+        Files.createDirectories(file.parent)
+        Files.write(file, code.bytes)
+    }
+
+    @Test
+    void testCompileChangedOnly() {
+        writeSource('a/A.java', 'package a; public class A { public static int f() { return 1; } }')
+        writeSource('b/B.java', 'package b; public class B { int g() { return a.A.f(); } }')
+
+        def compiler = new JavaSourceCompiler(srcDir, outDir, [])
+        compiler.parallelism = 2
+
+        assert compiler.findChangedSources().size() == 2
+
+        def result = compiler.compileChanged()
+        assert result.successful : result.diagnostics
+        assert result.sourceFileCount == 2
+        assert result.classFileCount == 2
+        assert Files.isRegularFile(outDir.resolve('a/A.class'))
+        assert Files.isRegularFile(outDir.resolve('b/B.class'))
+
+        // nothing changed
+        assert compiler.findChangedSources().isEmpty()
+        assert compiler.compileChanged().sourceFileCount == 0
+    }
+
+    @Test
+    void testAdditionalSourcepath() {
+        Path libSrcDir = tmpDir.resolve('lib-src')
+        Files.createDirectories(libSrcDir.resolve('c'))
+        Files.write(libSrcDir.resolve('c/C.java'),
+                'package c; public class C { public static int h() { return 3; } }'.bytes)
+        writeSource('b/B.java', 'package b; public class B { int g() { return c.C.h(); } }')
+
+        def compiler = new JavaSourceCompiler(srcDir, outDir, [],
+                ['-implicit:class', '-source', '1.8', '-target', '1.8'])
+        compiler.additionalSourcepath = [libSrcDir]
+
+        def result = compiler.compileChanged()
+        assert result.successful : result.diagnostics
+        assert result.sourceFileCount == 1
+        assert Files.isRegularFile(outDir.resolve('b/B.class'))
+        assert Files.isRegularFile(outDir.resolve('c/C.class'))
+    }
+
+    @Test
+    void testErrorsAreReported() {
+        writeSource('a/A.java', 'package a; public class A {\n int f() { return "x"; } }')
+
+        def result = new JavaSourceCompiler(srcDir, outDir, []).compileChanged()
+
+        assert !result.successful
+        assert result.errors.size() == 1
+        result.errors[0].with {
+            assert sourceFile.endsWith('a/A.java')
+            assert lineNumber == 2
+        }
+        assert !Files.exists(outDir.resolve('a/A.class'))
+    }
+}
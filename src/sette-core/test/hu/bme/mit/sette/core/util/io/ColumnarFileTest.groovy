@@ -0,0 +1,150 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.io
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.GZIPInputStream
+
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.util.io.ColumnarFile.Column
+import hu.bme.mit.sette.core.util.io.ColumnarFile.ColumnType
+
+/**
+ * Tests for {@link ColumnarFileWriter} and {@link ColumnarFileReader}.
+ */
+@TypeChecked
+class ColumnarFileTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    private static final List<Column> COLUMNS = [
+        new Column('name', ColumnType.STRING),
+        new Column('count', ColumnType.INT),
+        new Column('time', ColumnType.LONG),
+        new Column('coverage', ColumnType.DOUBLE)
+    ]
+
+    @Test
+    void testRoundTrip() {
+        Path file = tmpDir.root.toPath().resolve('test' + ColumnarFile.FILE_EXTENSION)
+
+        new ColumnarFileWriter(file, COLUMNS).withCloseable { ColumnarFileWriter writer ->
+            writer.writeRow('a', 1, 10L, 50.5d)
+            writer.writeRow('b\u00e1', null, 20L, null)
+            writer.writeRow(null, 3, null, 100d)
+            assert writer.rowCount == 3
+        }
+
+        // the temporary files of the columns are deleted
+        assert tmpDir.root.list() as List == ['test' + ColumnarFile.FILE_EXTENSION]
+
+        def reader = new ColumnarFileReader(file)
+        // R has no 64-bit integers
+        assert reader.columns == COLUMNS.collect { Column c ->
+            c.type == ColumnType.LONG ? new Column(c.name, ColumnType.DOUBLE) : c
+        }
+        assert reader.rowCount == 3
+        assert reader.readAll().collect { it as List } == [
+            ['a', 1, 10d, 50.5d],
+            ['b\u00e1', null, 20d, null],
+            [null, 3, null, 100d]
+        ]
+    }
+
+    @Test
+    void testRdsStructure() {
+        Path file = tmpDir.root.toPath().resolve('test' + ColumnarFile.FILE_EXTENSION)
+
+        List<Column> columns = [new Column('x', ColumnType.INT)]
+        new ColumnarFileWriter(file, columns).withCloseable { ColumnarFileWriter writer ->
+            writer.writeRow(7)
+            writer.writeRow([null] as Object[])
+        }
+
+        def out = new ByteArrayOutputStream()
+        def data = new DataOutputStream(out)
+        data.write('X\n'.bytes)
+        [2, 0x030000, 0x020300].each { int i -> data.writeInt(i) }
+        // data frame with one integer column
+        [0x313, 1, 13, 2, 7, Integer.MIN_VALUE].each { int i -> data.writeInt(i) }
+        // names
+        [0x402, 1, 0x40009, 5].each { int i -> data.writeInt(i) }
+        data.write('names'.bytes)
+        [16, 1, 0x8009, 1].each { int i -> data.writeInt(i) }
+        data.write('x'.bytes)
+        // class
+        [0x402, 1, 0x40009, 5].each { int i -> data.writeInt(i) }
+        data.write('class'.bytes)
+        [16, 1, 0x40009, 10].each { int i -> data.writeInt(i) }
+        data.write('data.frame'.bytes)
+        // row.names
+        [0x402, 1, 0x40009, 9].each { int i -> data.writeInt(i) }
+        data.write('row.names'.bytes)
+        [13, 2, Integer.MIN_VALUE, -2, 254].each { int i -> data.writeInt(i) }
+
+        byte[] uncompressed = new GZIPInputStream(Files.newInputStream(file)).bytes
+        assert uncompressed == out.toByteArray()
+    }
+
+    @Test
+    void testEmpty() {
+        Path file = tmpDir.root.toPath().resolve('test' + ColumnarFile.FILE_EXTENSION)
+
+        new ColumnarFileWriter(file, COLUMNS).close()
+
+        def reader = new ColumnarFileReader(file)
+        assert reader.columns*.name == COLUMNS*.name
+        assert reader.readAll().isEmpty()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testWriteRowWithWrongType() {
+        Path file = tmpDir.root.toPath().resolve('test' + ColumnarFile.FILE_EXTENSION)
+
+        new ColumnarFileWriter(file, COLUMNS).withCloseable { ColumnarFileWriter writer ->
+            writer.writeRow('a', 1L, 10L, 50.5d)
+        }
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testWriteRowWithWrongLength() {
+        Path file = tmpDir.root.toPath().resolve('test' + ColumnarFile.FILE_EXTENSION)
+
+        new ColumnarFileWriter(file, COLUMNS).withCloseable { ColumnarFileWriter writer ->
+            writer.writeRow('a', 1)
+        }
+    }
+
+    @Test(expected = IOException)
+    void testReadInvalidFile() {
+        Path file = tmpDir.root.toPath().resolve('test' + ColumnarFile.FILE_EXTENSION)
+        Files.write(file, 'not a columnar file'.bytes)
+
+        new ColumnarFileReader(file)
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.io
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link LineScanner}.
+ */
+@TypeChecked
+class LineScannerTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    @Test
+    void testMissingFileIsEmpty() {
+        LineScanner.ScanResult result = new LineScanner()
+                .otherwise { String line -> throw new AssertionError(line) }
+                .scan(tmpDir.root.toPath().resolve('missing.txt'))
+
+        assert result.empty
+        assert result.lineCount == 0
+        assert result.firstLine == null
+    }
+
+    @Test
+    void testFirstMatchingRuleHandlesLine() {
+        Path file = createFile('Exception: a', 'Warning: b', 'Exception in warning', 'other')
+        List<String> handled = []
+
+        LineScanner.ScanResult result = new LineScanner()
+                .onPrefix('Exception') { String line -> handled << 'exception: ' + line }
+                .onContains('Warning') { String line -> handled << 'warning: ' + line }
+                .otherwise { String line -> handled << 'other: ' + line }
+                .scan(file)
+
+        assert handled == ['exception: Exception: a', 'warning: Warning: b',
+            'exception: Exception in warning', 'other: other']
+        assert result.lineCount == 4
+        assert result.firstLine == 'Exception: a'
+    }
+
+    @Test
+    void testMaxLines() {
+        Path file = createFile('first', 'second', 'third')
+        List<String> handled = []
+
+        LineScanner.ScanResult result = new LineScanner()
+                .otherwise { String line -> handled << line }
+                .maxLines(1)
+                .scan(file)
+
+        assert handled == ['first']
+        assert result.lineCount == 1
+        assert !result.empty
+    }
+
+    @Test
+    void testStopWhen() {
+        Path file = createFile('a', 'DONE', 'b', 'c')
+        List<String> handled = []
+
+        new LineScanner()
+                .otherwise { String line -> handled << line }
+                .stopWhen { handled.contains('DONE') }
+                .scan(file)
+
+        assert handled == ['a', 'DONE']
+    }
+
+    @Test
+    void testSection() {
+        Path file = createFile('x', '== begin', 'a', 'b', '== end', 'c')
+        List<String> sectionLines = []
+        List<String> otherLines = []
+
+        new LineScanner()
+                .section({ String line -> line == '== begin' },
+                { String line -> line.startsWith('==') },
+                { String line -> sectionLines << line })
+                .otherwise { String line -> otherLines << line }
+                .scan(file)
+
+        assert sectionLines == ['a', 'b']
+        assert otherLines == ['x']
+    }
+
+    @Test
+    void testSectionWithoutEndMarker() {
+        Path file = createFile('== begin', 'a', 'b')
+        List<String> sectionLines = []
+
+        new LineScanner()
+                .section({ String line -> line == '== begin' },
+                { String line -> line == '== end' },
+                { String line -> sectionLines << line })
+                .scan(file)
+
+        assert sectionLines == ['a', 'b']
+    }
+
+    @Test
+    void testSectionSkipsRepeatedBeginMarker() {
+        Path file = createFile('== begin', 'a', '== begin', 'b', '== end', 'c')
+        List<String> sectionLines = []
+
+        new LineScanner()
+                .section({ String line -> line == '== begin' },
+                { String line -> line.startsWith('==') },
+                { String line -> sectionLines << line })
+                .scan(file)
+
+        assert sectionLines == ['a', 'b']
+    }
+
+    @Test(expected = IllegalStateException)
+    void testHandlerExceptionAbortsScanning() {
+        Path file = createFile('a', 'b')
+
+        new LineScanner()
+                .otherwise { String line -> throw new IllegalStateException(line) }
+                .scan(file)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testMaxLinesMustBePositive() {
+        new LineScanner().maxLines(0)
+    }
+
+    private Path createFile(String... lines) {
+        Path file = tmpDir.newFile().toPath()
+        Files.write(file, lines.toList())
+        return file
+    }
+}
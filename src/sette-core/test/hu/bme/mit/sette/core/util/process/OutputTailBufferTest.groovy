@@ -0,0 +1,117 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link OutputTailBuffer}.
+ */
+@TypeChecked
+class OutputTailBufferTest {
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidCapacity() {
+        new OutputTailBuffer(0)
+    }
+
+    @Test
+    void testKeepsEverythingBelowCapacity() {
+        def buffer = new OutputTailBuffer(8)
+        write(buffer, 'abc')
+        write(buffer, 'de')
+
+        assert buffer.tailAsString == 'abcde'
+        assert buffer.totalBytes == 5
+        assert !buffer.truncated
+    }
+
+    @Test
+    void testKeepsLastBytesWhenWrapping() {
+        def buffer = new OutputTailBuffer(4)
+        write(buffer, 'abc')
+        write(buffer, 'def')
+
+        assert buffer.tailAsString == 'cdef'
+        assert buffer.totalBytes == 6
+        assert buffer.truncated
+
+        write(buffer, 'g')
+        assert buffer.tailAsString == 'defg'
+    }
+
+    @Test
+    void testWriteLargerThanCapacity() {
+        def buffer = new OutputTailBuffer(4)
+        write(buffer, 'a')
+        write(buffer, 'bcdefgh')
+
+        assert buffer.tailAsString == 'efgh'
+        assert buffer.totalBytes == 8
+    }
+
+    @Test
+    void testWriteWithOffset() {
+        def buffer = new OutputTailBuffer(4)
+        buffer.write('xxabyy'.bytes, 2, 2)
+
+        assert buffer.tailAsString == 'ab'
+    }
+
+    @Test
+    void testExactlyFull() {
+        def buffer = new OutputTailBuffer(4)
+        write(buffer, 'ab')
+        write(buffer, 'cd')
+
+        assert buffer.tailAsString == 'abcd'
+        assert !buffer.truncated
+    }
+
+    @Test
+    void testReadTail() {
+        Path file = tmpDir.newFile().toPath()
+        Files.write(file, ('x' * 20000 + 'end').bytes)
+
+        def buffer = OutputTailBuffer.readTail(file, 10)
+        assert buffer.tailAsString == 'xxxxxxxend'
+        assert buffer.totalBytes == 20003
+        assert buffer.truncated
+
+        assert !OutputTailBuffer.readTail(file, 30000).truncated
+    }
+
+    private static void write(OutputTailBuffer buffer, String data) {
+        byte[] bytes = data.bytes
+        buffer.write(bytes, 0, bytes.length)
+    }
+}
@@ -56,4 +56,24 @@ class ProcessExecutionResultTest {
         
         assert per1.toString() == 'ProcessExecutionResult [exitValue=0, destroyed=false, elapsedTimeInMs=100]'
     }
+
+    @Test
+    void testResourceUsage() {
+        def per1 = new ProcessExecutionResult(137, true, 5000, 4000, 200, 65536, 9)
+        def per2 = new ProcessExecutionResult(137, true, 5000)
+
+        per1.with {
+            assert userTimeInMs == 4000 && systemTimeInMs == 200 && peakRssInKb == 65536
+            assert signaled && signal == 9
+        }
+        per2.with {
+            assert userTimeInMs == -1 && systemTimeInMs == -1 && peakRssInKb == -1
+            assert !signaled && signal == 0
+        }
+
+        assert per1 != per2
+        assert per1.toString() == 'ProcessExecutionResult [exitValue=137, destroyed=true, ' +
+                'elapsedTimeInMs=5000, userTimeInMs=4000, systemTimeInMs=200, ' +
+                'peakRssInKb=65536, signal=9]'
+    }
 }
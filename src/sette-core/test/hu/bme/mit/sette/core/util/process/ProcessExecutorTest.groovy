@@ -115,6 +115,35 @@ class ProcessExecutorTest {
         assert PathUtils.readAllLines(errFile).size() == 2
     }
 
+    @Test
+    void testExecute_streamsOutputWithCap() {
+        Path outFile = Files.createTempFile('ProcessExecutorTest', '.tmp')
+
+        Runtime.addShutdownHook {
+            Files.deleteIfExists(outFile)
+        }
+
+        // stdout: 0..9 with new lines (20 bytes), stderr: 0..3 (8 bytes)
+        ProcessExecutor executor = createProcessExecutor(10, 4, 0)
+        StreamingProcessExecutorListener listener = new StreamingProcessExecutorListener(outFile,
+                null, 6, 4)
+        ProcessExecutionResult result = executor.execute(listener)
+
+        assert result.exitValue == 14
+        assert !result.destroyed
+
+        String separator = System.lineSeparator()
+        assert listener.stdout.totalBytes == 10 * (1 + separator.length())
+        assert listener.stdout.fileTruncated
+        assert listener.stdout.tail.truncated
+        assert listener.stdout.tailAsString.endsWith('9' + separator)
+        assert !listener.stderr.fileTruncated
+
+        List<String> lines = PathUtils.readAllLines(outFile)
+        assert lines[0..1] == ['0', '1']
+        assert lines[-1].contains('truncated')
+    }
+
     @Test
     void testExecute_notifiesListenerInProperOrder() {
         List<String> events = []
@@ -0,0 +1,110 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link ProcessSlotPool} and {@link ProcessSlot}.
+ */
+@TypeChecked
+class ProcessSlotPoolTest {
+    @Test
+    void testParseCpuList() {
+        assert ProcessSlotPool.parseCpuList('0') == [0]
+        assert ProcessSlotPool.parseCpuList('0-3,8') == [0, 1, 2, 3, 8]
+        assert ProcessSlotPool.parseCpuList('10-11, 2') == [2, 10, 11]
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testParseCpuListInvalidRange() {
+        ProcessSlotPool.parseCpuList('3-1')
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testParseCpuListInvalidNumber() {
+        ProcessSlotPool.parseCpuList('0,a')
+    }
+
+    @Test
+    void testPartitioning() {
+        def pool = new ProcessSlotPool([0, 1, 2, 3, 4, 5, 6], 3, 0)
+
+        assert pool.slots.size() == 3
+        assert pool.slots*.id == [0, 1, 2]
+        assert pool.slots*.cpuSetString == ['0,1', '2,3', '4,5']
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testNotEnoughCpus() {
+        new ProcessSlotPool([0, 1], 3, 0)
+    }
+
+    @Test
+    void testAcquireRelease() {
+        def pool = new ProcessSlotPool([0, 1], 2, 0)
+
+        def slot1 = pool.acquire()
+        def slot2 = pool.acquire()
+        assert slot1.id == 0
+        assert slot2.id == 1
+
+        pool.release(slot1)
+        assert pool.acquire().is(slot1)
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testReleaseNotAcquired() {
+        def pool = new ProcessSlotPool([0, 1], 2, 0)
+        pool.release(pool.slots[0])
+    }
+
+    @Test
+    void testWrapCommand() {
+        def slot = new ProcessSlot(0, [3, 2], 0)
+        assert slot.wrapCommand(['java', '-version']) == ['taskset', '-c', '2,3', 'java',
+            '-version']
+
+        def limitedSlot = new ProcessSlot(1, [4], 512)
+        assert limitedSlot.wrapCommand(['java']) == ['systemd-run', '--user', '--scope',
+            '--quiet', '-p', 'MemoryMax=512M', '-p', 'MemorySwapMax=0', 'taskset', '-c', '4',
+            'java']
+    }
+
+    @Test
+    void testLimitMemory() {
+        assert ProcessSlot.limitMemory(['java'], 0) == ['java']
+        assert ProcessSlot.limitMemory(['java'], 256) == ['systemd-run', '--user', '--scope',
+            '--quiet', '-p', 'MemoryMax=256M', '-p', 'MemorySwapMax=0', 'java']
+    }
+
+    @Test
+    void testGetAllowedCpus() {
+        List<Integer> cpus = ProcessSlotPool.getAllowedCpus()
+
+        assert !cpus.empty
+        assert cpus == cpus.toSorted()
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process
+
+import java.util.concurrent.TimeUnit
+
+import org.junit.Assume
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.Timeout
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor.ProcessId
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor.ProcessStat
+
+/**
+ * Tests for {@link ProcessTreeSupervisor}.
+ */
+@TypeChecked
+class ProcessTreeSupervisorTest {
+    @Rule
+    public Timeout globalTimeout = new Timeout(10000)
+
+    @Test
+    void testParseStat() {
+        ProcessStat stat = ProcessStat.parse('1234 (my (strange) cmd) S 1200 ' + (5..22).join(' '))
+
+        assert stat.id.pid == 1234
+        assert stat.id.startTime == 22
+        assert stat.parentPid == 1200
+        assert !stat.zombie
+        assert stat.userTicks == 14
+        assert stat.systemTicks == 15
+        assert stat.totalUserTicks == 14 + 16
+        assert stat.totalSystemTicks == 15 + 17
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testParseInvalidStat() {
+        ProcessStat.parse('1234 java S 1200')
+    }
+
+    @Test
+    void testCollectDescendants() {
+        Map<Long, ProcessStat> table = [
+            (10L): stat(10, 1, 100),
+            (11L): stat(11, 10, 101),
+            (12L): stat(12, 11, 102),
+            // reparented orphan of an earlier member
+            (13L): stat(13, 1, 103),
+            (14L): stat(14, 13, 104),
+            // unrelated processes
+            (20L): stat(20, 1, 200),
+            (21L): stat(21, 20, 201)
+        ]
+        Set<ProcessId> members = [
+            new ProcessId(10, 100),
+            new ProcessId(13, 103)
+        ] as LinkedHashSet<ProcessId>
+
+        ProcessTreeSupervisor.collectDescendants(members, table)
+
+        assert members*.pid.sort() == [10L, 11L, 12L, 13L, 14L]
+    }
+
+    @Test
+    void testCollectDescendantsIgnoresReusedPid() {
+        // the PID of the member was reused by another process
+        Map<Long, ProcessStat> table = [
+            (10L): stat(10, 1, 999),
+            (11L): stat(11, 10, 1000)
+        ]
+        Set<ProcessId> members = [new ProcessId(10, 100)] as LinkedHashSet<ProcessId>
+
+        ProcessTreeSupervisor.collectDescendants(members, table)
+
+        assert members*.pid == [10L]
+    }
+
+    @Test
+    void testCollectTree() {
+        Assume.assumeTrue(ProcessTreeSupervisor.isSupported())
+
+        Process process = new ProcessBuilder('/bin/sh', '-c', 'sleep 60 & sleep 60').start()
+        try {
+            long pid = ProcessTreeSupervisor.getPid(process)
+
+            // wait until the children have been started
+            Thread.sleep(300)
+            Map<Long, ProcessStat> fullTable = ProcessTreeSupervisor.readProcessTable()
+            List<ProcessStat> children = fullTable.values()
+                    .findAll { ProcessStat stat -> stat.parentPid == pid }
+            assert !children.empty
+
+            Set<ProcessId> members = [fullTable[pid].id] as LinkedHashSet<ProcessId>
+            Map<Long, ProcessStat> table = ProcessTreeSupervisor.collectTree(members)
+
+            assert members.containsAll(children*.id)
+            assert table[pid].id == fullTable[pid].id
+            children.each { ProcessStat child -> assert table[child.id.pid].id == child.id }
+        } finally {
+            process.destroyForcibly().waitFor()
+        }
+    }
+
+    @Test
+    void testTerminateKillsDescendants() {
+        Assume.assumeTrue(ProcessTreeSupervisor.isSupported())
+
+        ProcessTreeSupervisor supervisor = new ProcessTreeSupervisor(50)
+        try {
+            // the shell exits immediately and leaves an orphan behind
+            Process process = new ProcessBuilder('/bin/sh', '-c', 'sleep 60 & sleep 0.5').start()
+            supervisor.track(process)
+            long pid = ProcessTreeSupervisor.getPid(process)
+
+            // wait until the child has been collected
+            Thread.sleep(300)
+            List<ProcessStat> children = ProcessTreeSupervisor.readProcessTable().values()
+                    .findAll { ProcessStat stat -> stat.parentPid == pid }
+            assert !children.empty
+
+            assert process.waitFor(5, TimeUnit.SECONDS)
+            supervisor.terminate(process)
+
+            Thread.sleep(200)
+            Map<Long, ProcessStat> table = ProcessTreeSupervisor.readProcessTable()
+            children.each { ProcessStat child ->
+                ProcessStat current = table[child.id.pid]
+                assert current == null || current.id != child.id || current.zombie
+            }
+        } finally {
+            supervisor.close()
+        }
+    }
+
+    @Test
+    void testSnapshotCollectsDescendantsBeforeTheRootIsDestroyed() {
+        Assume.assumeTrue(ProcessTreeSupervisor.isSupported())
+
+        // the descendants are only collected by the snapshot
+        ProcessTreeSupervisor supervisor = new ProcessTreeSupervisor(60000)
+        try {
+            Process process = new ProcessBuilder('/bin/sh', '-c', 'sleep 60 & sleep 60').start()
+            supervisor.track(process)
+            long pid = ProcessTreeSupervisor.getPid(process)
+
+            // wait until the children have been started
+            Thread.sleep(300)
+            List<ProcessStat> children = ProcessTreeSupervisor.readProcessTable().values()
+                    .findAll { ProcessStat stat -> stat.parentPid == pid }
+            assert !children.empty
+
+            supervisor.snapshot(process)
+            assert process.destroyForcibly().waitFor(5, TimeUnit.SECONDS)
+            supervisor.terminate(process)
+
+            Thread.sleep(200)
+            Map<Long, ProcessStat> table = ProcessTreeSupervisor.readProcessTable()
+            children.each { ProcessStat child ->
+                ProcessStat current = table[child.id.pid]
+                assert current == null || current.id != child.id || current.zombie
+            }
+        } finally {
+            supervisor.close()
+        }
+    }
+
+    @Test
+    void testTerminateReturnsUsage() {
+        Assume.assumeTrue(ProcessTreeSupervisor.isSupported())
+
+        ProcessTreeSupervisor supervisor = new ProcessTreeSupervisor(50)
+        try {
+            Process process = new ProcessBuilder('/bin/sh', '-c', 'sleep 0.5').start()
+            supervisor.track(process)
+
+            assert process.waitFor(5, TimeUnit.SECONDS)
+            ProcessTreeUsage usage = supervisor.terminate(process)
+
+            assert usage.userTimeInMs >= 0
+            assert usage.systemTimeInMs >= 0
+            assert usage.peakRssInKb > 0
+            assert supervisor.terminate(process) == null
+        } finally {
+            supervisor.close()
+        }
+    }
+
+    private static ProcessStat stat(long pid, long parentPid, long startTime) {
+        return new ProcessStat(new ProcessId(pid, startTime), parentPid, false, 0, 0, 0, 0)
+    }
+}
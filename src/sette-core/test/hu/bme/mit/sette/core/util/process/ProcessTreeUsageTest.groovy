@@ -0,0 +1,85 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.core.util.process
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor.ProcessId
+import hu.bme.mit.sette.core.util.process.ProcessTreeSupervisor.ProcessStat
+
+/**
+ * Tests for {@link ProcessTreeUsage}.
+ */
+@TypeChecked
+class ProcessTreeUsageTest {
+    // PIDs which do not exist, thus the memory usage is not available
+    static final long ROOT = 4000000001L
+    static final long CHILD = 4000000002L
+    static final long ORPHAN = 4000000003L
+
+    @Test
+    void testNeverSampled() {
+        ProcessTreeUsage usage = new ProcessTreeUsage()
+        usage.update([new ProcessId(ROOT, 1)] as Set<ProcessId>, [:])
+
+        assert usage.userTimeInMs == -1
+        assert usage.systemTimeInMs == -1
+        assert usage.peakRssInKb == -1
+    }
+
+    @Test
+    void testReapedMembersAreCountedOnce() {
+        ProcessTreeUsage usage = new ProcessTreeUsage()
+        Set<ProcessId> members = [new ProcessId(ROOT, 1), new ProcessId(CHILD, 2),
+            new ProcessId(ORPHAN, 3)] as Set<ProcessId>
+
+        // 10 ticks = 100 ms
+        usage.update(members, table(
+                stat(ROOT, 1, 1, 10, 1, 0, 0),
+                stat(CHILD, ROOT, 2, 20, 2, 0, 0),
+                stat(ORPHAN, 1, 3, 30, 3, 0, 0)))
+        assert usage.userTimeInMs == 600
+        assert usage.systemTimeInMs == 60
+
+        // the child is reaped by the root, the orphan by init
+        usage.update(members, table(stat(ROOT, 1, 1, 10, 1, 25, 3)))
+        assert usage.userTimeInMs == (10 + 25 + 30) * 10
+        assert usage.systemTimeInMs == (1 + 3 + 3) * 10
+
+        // the root is reaped by the JVM
+        usage.update(members, table())
+        assert usage.userTimeInMs == (10 + 25 + 30) * 10
+        assert usage.systemTimeInMs == (1 + 3 + 3) * 10
+    }
+
+    private static Map<Long, ProcessStat> table(ProcessStat... stats) {
+        return stats.collectEntries { ProcessStat stat -> [(stat.id.pid): stat] }
+    }
+
+    private static ProcessStat stat(long pid, long parentPid, long startTime, long userTicks,
+            long systemTicks, long childUserTicks, long childSystemTicks) {
+        return new ProcessStat(new ProcessId(pid, startTime), parentPid, false, userTicks,
+                systemTicks, childUserTicks, childSystemTicks)
+    }
+}
@@ -36,7 +36,8 @@ public enum ApplicationTask {
     EXPORT_CSV(true, true, true),
     EXPORT_CSV_BATCH(true, false, true), // tag is a comma-separated list for this task
     RUNNER_PROJECT_BROWSER(false, false, false),
-    PARSER_EVOSUITE_MUTATION(true, true, true);
+    PARSER_EVOSUITE_MUTATION(true, true, true),
+    EXPORT_XML(true, true, true); // exports the XML files from the result store
 
     private final boolean requiresSnippetProject;
     private final boolean requiresTool;
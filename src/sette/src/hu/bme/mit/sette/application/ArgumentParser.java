@@ -71,6 +71,52 @@ public class ArgumentParser {
                     + "specified in the configuration will be used")
     private int runnerTimeoutInMs;
 
+    @Getter
+    @Option(name = "--parallelism", metaVar = "[N]",
+            usage = "Number of snippets processed concurrently by the runner, parser, "
+                    + "test-generator and test-runner tasks (limited by the maximum "
+                    + "parallelism of the tool for the runner)")
+    private int runnerParallelism = 1;
+
+    @Getter
+    @Option(name = "--cpu-set", metaVar = "[CPUS]",
+            usage = "CPUs (e.g. 0-3,8) partitioned between the concurrently running tool "
+                    + "processes (Linux only)")
+    private String runnerCpuSet = null;
+
+    @Getter
+    @Option(name = "--memory-limit", metaVar = "[MB]",
+            usage = "Memory limit in MB for each tool process, 0 means no limit (Linux only, "
+                    + "requires systemd)")
+    private int runnerMemoryLimitInMb = 0;
+
+    @Getter
+    @Option(name = "--agent-pool-size", metaVar = "[N]",
+            usage = "Number of warm agent JVMs used by the test-runner for forked test cases")
+    private int agentPoolSize = 1;
+
+    @Getter
+    @Option(name = "--incremental",
+            usage = "Keep the previous outputs and skip the snippets whose inputs have not "
+                    + "changed since their outputs were created (runner, parser, test-generator "
+                    + "and test-runner tasks)")
+    private boolean incremental = false;
+
+    @Getter
+    @Option(name = "--result-store",
+            usage = "Also store the results of the parser and test-runner tasks in the embedded "
+                    + "result store of the output directory and read them from there in the "
+                    + "export-csv, export-csv-batch and export-xml tasks")
+    private boolean resultStore = false;
+
+    @Getter
+    @Option(name = "--metrics",
+            usage = "Measure the phases and snippets of the generator, runner, parser, "
+                    + "test-generator, test-runner and export-csv tasks and append the timeline "
+                    + "to the sette-metrics.csv and sette-metrics.jsonl files of the runner "
+                    + "project")
+    private boolean metrics = false;
+
     @Getter
     @Option(name = "--snippet-selector", metaVar = "[PATTERN]",
             usage = "Regular expression to filter a subset of the snippets (the pattern will be "
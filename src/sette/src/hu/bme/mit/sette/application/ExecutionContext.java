@@ -28,6 +28,7 @@ import java.nio.file.Path;
 import java.util.regex.Pattern;
 
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore;
 import hu.bme.mit.sette.core.tool.Tool;
 import lombok.Data;
 
@@ -42,6 +43,13 @@ public final class ExecutionContext {
     private final Tool tool;
     private final String runnerProjectTag;
     private final int runnerTimeoutInMs;
+    private final int runnerParallelism;
+    private final String runnerCpuSet;
+    private final int runnerMemoryLimitInMb;
+    private final int agentPoolSize;
+    private final boolean incremental;
+    private final ResultStore resultStore;
+    private final boolean metrics;
     private final Pattern snippetSelector;
     private final BackupPolicy backupPolicy;
     private final Path outputDir;
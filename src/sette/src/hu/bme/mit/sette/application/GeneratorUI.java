@@ -40,6 +40,7 @@ public final class GeneratorUI implements BaseUI {
         RunnerProjectGenerator<?> generator = context.getTool().createRunnerProjectGenerator(
                 context.getSnippetProject(), context.getOutputDir(),
                 context.getRunnerProjectTag());
+        generator.setMetricsEnabled(context.isMetrics());
 
         // directories
         File snippetProjectDir = generator.getSnippetProject().getBaseDir().toFile();
@@ -34,6 +34,10 @@ public final class ParserUI implements BaseUI {
     public void execute(ExecutionContext context) throws Exception {
         RunResultParser<?> parser = context.getTool().createRunResultParser(
                 context.getSnippetProject(), context.getOutputDir(), context.getRunnerProjectTag());
+        parser.setIncremental(context.isIncremental());
+        parser.setParallelism(context.getRunnerParallelism());
+        parser.setResultStore(context.getResultStore());
+        parser.setMetricsEnabled(context.isMetrics());
 
         // directories
         File snippetProjectDir = parser.getSnippetProject().getBaseDir().toFile();
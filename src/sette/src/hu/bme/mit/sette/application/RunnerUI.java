@@ -41,9 +41,16 @@ public final class RunnerUI implements BaseUI {
                 context.getSnippetProject(), context.getOutputDir(),
                 context.getRunnerProjectTag());
         runner.setTimeoutInMs(context.getRunnerTimeoutInMs());
+        runner.setParallelism(context.getRunnerParallelism());
+        runner.setCpuSet(context.getRunnerCpuSet());
+        runner.setMemoryLimitInMb(context.getRunnerMemoryLimitInMb());
         runner.setSnippetSelector(context.getSnippetSelector());
-        log.info("Created {} for {} @ {} ms timeout", runner.getClass().getSimpleName(),
-                runner.getRunnerProjectSettings().getProjectName(), runner.getTimeoutInMs());
+        runner.setIncremental(context.isIncremental());
+        runner.setMetricsEnabled(context.isMetrics());
+        log.info("Created {} for {} @ {} ms timeout, {} parallelism",
+                runner.getClass().getSimpleName(),
+                runner.getRunnerProjectSettings().getProjectName(), runner.getTimeoutInMs(),
+                runner.getParallelism());
 
         // directories
         File snippetProjectDir = runner.getSnippetProject().getBaseDir().toFile();
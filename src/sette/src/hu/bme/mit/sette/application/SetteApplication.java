@@ -43,8 +43,10 @@ import com.google.common.base.Function;
 import hu.bme.mit.sette.core.configuration.SetteConfiguration;
 import hu.bme.mit.sette.core.configuration.SetteToolConfiguration;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
+import hu.bme.mit.sette.core.store.ResultStore;
 import hu.bme.mit.sette.core.tasks.CsvBatchGenerator;
 import hu.bme.mit.sette.core.tasks.CsvGenerator;
+import hu.bme.mit.sette.core.tasks.ResultStoreXmlExporter;
 import hu.bme.mit.sette.core.tasks.TestSuiteGenerator;
 import hu.bme.mit.sette.core.tasks.testsuiterunner.TestSuiteRunner;
 import hu.bme.mit.sette.core.tool.Tool;
@@ -61,6 +63,7 @@ public final class SetteApplication {
     private final PrintStream output;
     private final PrintStream errorOutput;
     private final Path configurationFile;
+    private ResultStore sharedResultStore = null;
 
     public SetteApplication(BufferedReader input, PrintStream output, PrintStream errorOutput,
             Path configurationFile) {
@@ -70,7 +73,21 @@ public final class SetteApplication {
         this.configurationFile = configurationFile;
     }
 
+    /**
+     * Sets the result store shared by several executions in the JVM (e.g. the jobs of a batch),
+     * since only one instance may be opened for a store file in a JVM. If it is set, it is used
+     * instead of opening the store specified by the configuration and it is not closed by
+     * {@link #execute(String...)}.
+     *
+     * @param sharedResultStore
+     *            the shared result store or <code>null</code>
+     */
+    public void setSharedResultStore(ResultStore sharedResultStore) {
+        this.sharedResultStore = sharedResultStore;
+    }
+
     public void execute(String... args) {
+        ResultStore resultStore = null;
         try {
             //
             // Parse configuration
@@ -100,6 +117,13 @@ public final class SetteApplication {
             String runnerProjectTag = argParser.getRunnerProjectTag();
 
             int runnerTimeoutInMs = argParser.getRunnerTimeoutInMs();
+            int runnerParallelism = argParser.getRunnerParallelism();
+            String runnerCpuSet = argParser.getRunnerCpuSet();
+            int runnerMemoryLimitInMb = argParser.getRunnerMemoryLimitInMb();
+            int agentPoolSize = argParser.getAgentPoolSize();
+            boolean incremental = argParser.isIncremental();
+            boolean useResultStore = argParser.isResultStore();
+            boolean metrics = argParser.isMetrics();
             BackupPolicy backupPolicy = argParser.getBackupPolicy();
 
             // Determine the snippet project if needed
@@ -161,18 +185,37 @@ public final class SetteApplication {
             output.println("Runner project tag: " + runnerProjectTag);
             output.println("Snippet selector: " + argParser.getSnippetSelector());
             output.println(String.format("Runner timeout: %d ms", runnerTimeoutInMs));
+            output.println("Runner parallelism: " + runnerParallelism);
+            output.println("Runner CPU set: " + runnerCpuSet);
+            output.println(String.format("Runner memory limit: %d MB", runnerMemoryLimitInMb));
+            output.println("Agent pool size: " + agentPoolSize);
+            output.println("Incremental: " + incremental);
+            output.println("Result store: " + useResultStore);
+            output.println("Metrics: " + metrics);
             output.println("Backup policy: " + backupPolicy);
 
             //
             // Execute the specified task
             //
+            if (useResultStore && sharedResultStore != null) {
+                resultStore = sharedResultStore;
+            } else if (useResultStore) {
+                resultStore = new ResultStore(
+                        configuration.getOutputDir().resolve(ResultStore.DEFAULT_FILE_NAME));
+            } else if (applicationTask == ApplicationTask.EXPORT_XML) {
+                throw new IllegalArgumentException(
+                        "The " + applicationTask + " task requires --result-store");
+            }
+
             final SnippetProject snippetProject;
             final ExecutionContext context;
             if (applicationTask.requiresSnippetProject()) {
                 snippetProject = SnippetProject.parse(snippetProjectDir);
                 context = new ExecutionContext(input, output, errorOutput,
                         snippetProject, tool, runnerProjectTag, runnerTimeoutInMs,
-                        argParser.getSnippetSelector(), backupPolicy, configuration.getOutputDir());
+                        runnerParallelism, runnerCpuSet, runnerMemoryLimitInMb, agentPoolSize,
+                        incremental, resultStore, metrics, argParser.getSnippetSelector(),
+                        backupPolicy, configuration.getOutputDir());
             } else {
                 snippetProject = null;
                 context = null;
@@ -206,8 +249,12 @@ public final class SetteApplication {
                     // ant
                     // build file
                     // if (tool.getOutputType() == ToolOutputType.INPUT_VALUES) {
-                    new TestSuiteGenerator(snippetProject, configuration.getOutputDir(), tool,
-                            runnerProjectTag).generate();
+                    TestSuiteGenerator testSuiteGenerator = new TestSuiteGenerator(snippetProject,
+                            configuration.getOutputDir(), tool, runnerProjectTag);
+                    testSuiteGenerator.setParallelism(runnerParallelism);
+                    testSuiteGenerator.setIncremental(incremental);
+                    testSuiteGenerator.setMetricsEnabled(metrics);
+                    testSuiteGenerator.generate();
                     // } else {
                     // out.println("This tool has already generated a test suite");
                     // }
@@ -227,6 +274,11 @@ public final class SetteApplication {
                     // FIXME update: manually parsed results are burned into Evo Parser for now
                     TestSuiteRunner testSuiteRunner = new TestSuiteRunner(snippetProject,
                             configuration.getOutputDir(), tool, runnerProjectTag);
+                    testSuiteRunner.setParallelism(runnerParallelism);
+                    testSuiteRunner.setAgentPoolSize(agentPoolSize);
+                    testSuiteRunner.setIncremental(incremental);
+                    testSuiteRunner.setResultStore(resultStore);
+                    testSuiteRunner.setMetricsEnabled(metrics);
                     if (context != null) {
                         testSuiteRunner.setSnippetSelector(context.getSnippetSelector());
                     }
@@ -249,8 +301,11 @@ public final class SetteApplication {
                     break;
 
                 case EXPORT_CSV:
-                    new CsvGenerator(snippetProject, configuration.getOutputDir(), tool,
-                            runnerProjectTag).generate();
+                    CsvGenerator csvGenerator = new CsvGenerator(snippetProject,
+                            configuration.getOutputDir(), tool, runnerProjectTag);
+                    csvGenerator.setResultStore(resultStore);
+                    csvGenerator.setMetricsEnabled(metrics);
+                    csvGenerator.generate();
                     break;
 
                 case EXPORT_CSV_BATCH:
@@ -267,8 +322,17 @@ public final class SetteApplication {
                             })
                             .map(tc -> tc.getName()).collect(joining(","));
 
-                    new CsvBatchGenerator(snippetProject, configuration.getOutputDir(),
-                            toolNames, runnerProjectTag).generateAll();
+                    CsvBatchGenerator csvBatchGenerator = new CsvBatchGenerator(snippetProject,
+                            configuration.getOutputDir(), toolNames, runnerProjectTag);
+                    csvBatchGenerator.setResultStore(resultStore);
+                    csvBatchGenerator.generateAll();
+                    break;
+
+                case EXPORT_XML:
+                    ResultStoreXmlExporter exporter = new ResultStoreXmlExporter(snippetProject,
+                            configuration.getOutputDir(), tool, runnerProjectTag);
+                    exporter.setResultStore(resultStore);
+                    output.println("Exported snippets: " + exporter.export());
                     break;
 
                 case RUNNER_PROJECT_BROWSER:
@@ -282,6 +346,14 @@ public final class SetteApplication {
             errorOutput.println("Exception: " + ex.getMessage());
             LOG.error("Exception", ex);
             throw new RuntimeException(ex);
+        } finally {
+            if (resultStore != null && resultStore != sharedResultStore) {
+                try {
+                    resultStore.close();
+                } catch (IOException ex) {
+                    LOG.warn("Cannot close the result store", ex);
+                }
+            }
         }
     }
 
@@ -49,9 +49,25 @@ public final class SetteApplicationMain {
      *            program arguments
      */
     public static void main(String... args) {
-        Thread.currentThread().setName("MAIN");
+        initialize();
         LOG.info("main() called, arguments: {}", (Object) args);
 
+        BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
+        Path configFile = Paths.get("sette.config.json");
+
+        SetteApplication app = new SetteApplication(input, System.out, System.err, configFile);
+        app.execute(args);
+
+        LOG.info("main() has finished");
+    }
+
+    /**
+     * Initialises the JVM for the application (thread name, locale and uncaught exception
+     * handler).
+     */
+    static void initialize() {
+        Thread.currentThread().setName("MAIN");
+
         try {
             Locale.setDefault(new Locale("en", "GB"));
         } catch (Exception ex) {
@@ -61,30 +77,41 @@ public final class SetteApplicationMain {
         Thread.setDefaultUncaughtExceptionHandler(new UncaughtExceptionHandler() {
             @Override
             public void uncaughtException(Thread thread, Throwable ex) {
-                if (ex instanceof ThreadDeath) {
-                    // FIXME this solution was bound to JUnit 3, try interrupt() with JUnit 4.12
-                    // required for test runner if it stops a thread with Thread.stop()
-                    LOG.warn("Thread death: " + Thread.currentThread().getName(), ex);
-                } else {
-                    String stackTrace = ExceptionUtils.getStackTrace(ex);
-                    if (stackTrace.contains("at hu.bme.mit.sette.snippets")) {
-                        // FIXME ugly detection of snippet exceptions from separate threads
-                        LOG.error("Exception from a snippet, thread: " + thread.getName(), ex);
-                    } else {
-                        LOG.error("Uncaught exception, thread: " + thread.getName(), ex);
-                        System.exit(1);
-                    }
+                if (handleUncaughtException(thread, ex)) {
+                    System.exit(1);
                 }
             }
         });
+    }
 
-        BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
-        Path configFile = Paths.get("sette.config.json");
-
-        SetteApplication app = new SetteApplication(input, System.out, System.err, configFile);
-        app.execute(args);
-
-        LOG.info("main() has finished");
+    /**
+     * Logs an uncaught exception and decides whether it is fatal, i.e. it is neither a
+     * {@link ThreadDeath} (the test runner stops threads) nor an exception of a snippet from a
+     * separate thread.
+     *
+     * @param thread
+     *            the thread
+     * @param ex
+     *            the uncaught exception
+     * @return <code>true</code> if the exception is fatal, otherwise <code>false</code>
+     */
+    public static boolean handleUncaughtException(Thread thread, Throwable ex) {
+        if (ex instanceof ThreadDeath) {
+            // FIXME this solution was bound to JUnit 3, try interrupt() with JUnit 4.12
+            // required for test runner if it stops a thread with Thread.stop()
+            LOG.warn("Thread death: " + Thread.currentThread().getName(), ex);
+            return false;
+        } else {
+            String stackTrace = ExceptionUtils.getStackTrace(ex);
+            if (stackTrace.contains("at hu.bme.mit.sette.snippets")) {
+                // FIXME ugly detection of snippet exceptions from separate threads
+                LOG.error("Exception from a snippet, thread: " + thread.getName(), ex);
+                return false;
+            } else {
+                LOG.error("Uncaught exception, thread: " + thread.getName(), ex);
+                return true;
+            }
+        }
     }
 
     private SetteApplicationMain() {
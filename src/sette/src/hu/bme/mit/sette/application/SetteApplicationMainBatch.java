@@ -20,64 +20,55 @@
  * express or implied. See the License for the specific language governing permissions and 
  * limitations under the License.
  */
-// NOTE revise this file
 package hu.bme.mit.sette.application;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
-import com.google.common.base.Splitter;
-import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public final class SetteApplicationMainBatch {
-    public static void main(String... args) {
-        // FIXME perftime
-        // runBatch("evosuite", "parser", "sette-snippets/java/sette-snippets",
-        // new int[] { 30 }, 10);
-        // runBatch("evosuite", "parser", "sette-snippets/java/sette-snippets-performance-time",
-        // new int[] { 15, 60 }, 10);
+import hu.bme.mit.sette.application.batch.BatchDescription;
+import hu.bme.mit.sette.application.batch.BatchRunner;
 
-        // FIXME extra
-        int cnt = 10;
-        runBatch("evosuite", "parser", "sette-snippets/java/sette-snippets-extra",
-                new int[] { 30 }, cnt);
-        runBatch("evosuite", "test-generator", "sette-snippets/java/sette-snippets-extra",
-                new int[] { 30 }, cnt);
-        runBatch("evosuite", "test-runner", "sette-snippets/java/sette-snippets-extra",
-                new int[] { 30 }, cnt);
-        runBatch("evosuite", "export-csv", "sette-snippets/java/sette-snippets-extra",
-                new int[] { 30 }, cnt);
+/**
+ * Entry point for batch executions in one JVM (see {@link BatchDescription} and
+ * {@link BatchRunner}).
+ */
+public final class SetteApplicationMainBatch {
+    private static final Logger LOG = LoggerFactory.getLogger(SetteApplicationMainBatch.class);
 
-        // FIXME normal
-        // runBatch("evosuite", "parser", "sette-snippets/java/sette-snippets",
-        // new int[] { 30 }, 10);
-        // runBatch("evosuite", "test-generator", "sette-snippets/java/sette-snippets",
-        // new int[] { 30 }, 10);
-        // runBatch("evosuite", "test-runner", "sette-snippets/java/sette-snippets",
-        // new int[] { 30 }, 10);
-        // runBatch("evosuite", "export-csv", "sette-snippets/java/sette-snippets",
-        // new int[] { 30 }, 10);
+    /** The default batch file. */
+    public static final String DEFAULT_BATCH_FILE = "sette.batch.json";
 
-        // FIXME EVO MUT PARSER
-        // runBatch("evosuite", "parser-evosuite-mutation", "sette-snippets/java/sette-snippets",
-        // new int[] { 30 }, 10);
-    }
+    /**
+     * Entry point for batch executions.
+     *
+     * @param args
+     *            the path of the batch file (optional, the default is {@value #DEFAULT_BATCH_FILE})
+     */
+    public static void main(String... args) {
+        SetteApplicationMain.initialize();
+        LOG.info("main() called, arguments: {}", (Object) args);
 
-    private static void runBatch(String tool, String task, String project, int[] timeouts,
-            int runs) {
-        String argsBaseStr = "--tool " + tool + " "
-                + "--snippet-project-dir " + project + " "
-                + "--task " + task + " "
-                // + "--snippet-selector Env4_manipulatesRandom "
-                + "--runner-project-tag";
+        Path batchFile = Paths.get(args.length > 0 ? args[0] : DEFAULT_BATCH_FILE);
+        Path configFile = Paths.get("sette.config.json");
 
-        ImmutableList<String> argsBase = ImmutableList.copyOf(Splitter.on(' ').split(argsBaseStr));
+        boolean succeeded;
+        try {
+            BatchDescription description = BatchDescription.parse(batchFile);
+            LOG.info("Batch: {}", description);
+            succeeded = new BatchRunner(description, configFile, System.out, System.err)
+                    .execute();
+        } catch (Exception ex) {
+            System.err.println("Exception: " + ex.getMessage());
+            LOG.error("Exception", ex);
+            succeeded = false;
+        }
 
-        for (int t : timeouts) {
-            for (int run = 1; run <= runs; run++) {
-                ArrayList<String> args = new ArrayList<>(argsBase);
-                args.add(String.format("run-%02d-%02dsec", run, t));
-                SetteApplicationMain.main(args.toArray(new String[0]));
-            }
+        LOG.info("main() has finished");
+        if (!succeeded) {
+            System.exit(1);
         }
     }
 
@@ -0,0 +1,132 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import hu.bme.mit.sette.core.synthetic.SyntheticSnippetProjectGenerator;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+
+/**
+ * Entry point for generating synthetic snippet projects (see
+ * {@link SyntheticSnippetProjectGenerator}), e.g.:
+ *
+ * <pre>
+ * --target-dir synthetic-10k --snippets 10000 --category-mix branches=2,loops=1,objects=1
+ * </pre>
+ */
+public final class SetteApplicationMainSynthetic {
+    private static final Logger LOG = LoggerFactory.getLogger(SetteApplicationMainSynthetic.class);
+
+    @Option(name = "--target-dir", metaVar = "[DIR]", required = true,
+            usage = "The directory of the snippet project to generate (must not exist)")
+    private String targetDir;
+
+    @Option(name = "--snippets", metaVar = "[N]", required = true,
+            usage = "The number of snippets to generate")
+    private int snippets;
+
+    @Option(name = "--snippets-per-container", metaVar = "[N]",
+            usage = "The number of snippets in a container")
+    private int snippetsPerContainer = 10;
+
+    @Option(name = "--category-mix", metaVar = "[MIX]",
+            usage = "The weights of the categories (e.g. branches=2,loops=1,objects=1), the "
+                    + "dependency classes are only generated for the objects category")
+    private String categoryMix = null;
+
+    @Option(name = "--no-input-factories", usage = "Do not generate input factory containers")
+    private boolean noInputFactories = false;
+
+    @Option(name = "--no-compile", usage = "Only write the sources")
+    private boolean noCompile = false;
+
+    /**
+     * Entry point for the generation of synthetic snippet projects.
+     *
+     * @param args
+     *            program arguments
+     */
+    public static void main(String... args) {
+        SetteApplicationMain.initialize();
+        LOG.info("main() called, arguments: {}", (Object) args);
+
+        SetteApplicationMainSynthetic options = new SetteApplicationMainSynthetic();
+        CmdLineParser parser = new CmdLineParser(options);
+
+        boolean succeeded;
+        try {
+            parser.parseArgument(args);
+            succeeded = options.generate();
+        } catch (CmdLineException ex) {
+            System.err.println(ex.getMessage());
+            parser.printUsage(System.err);
+            succeeded = false;
+        } catch (Exception ex) {
+            System.err.println("Exception: " + ex.getMessage());
+            LOG.error("Exception", ex);
+            succeeded = false;
+        }
+
+        LOG.info("main() has finished");
+        if (!succeeded) {
+            System.exit(1);
+        }
+    }
+
+    private boolean generate() throws Exception {
+        Path baseDir = Paths.get(targetDir);
+        if (PathUtils.exists(baseDir)) {
+            System.err.println("The target directory already exists: " + baseDir);
+            return false;
+        }
+
+        SyntheticSnippetProjectGenerator generator = new SyntheticSnippetProjectGenerator(
+                snippets);
+        generator.setSnippetsPerContainer(snippetsPerContainer);
+        generator.setInputFactories(!noInputFactories);
+        if (categoryMix != null) {
+            generator.setCategoryMix(
+                    SyntheticSnippetProjectGenerator.parseCategoryMix(categoryMix));
+        }
+
+        generator.generate(baseDir);
+        System.out.println("Generated " + snippets + " snippets: " + baseDir);
+
+        if (!noCompile) {
+            SyntheticSnippetProjectGenerator.compile(baseDir);
+            System.out.println("Compiled: " + baseDir.resolve("build"));
+        }
+        return true;
+    }
+
+    private SetteApplicationMainSynthetic() {
+    }
+}
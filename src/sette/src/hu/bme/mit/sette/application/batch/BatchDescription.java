@@ -0,0 +1,298 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
+import hu.bme.mit.sette.application.ApplicationTask;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import hu.bme.mit.sette.core.validator.ValidationException;
+import hu.bme.mit.sette.core.validator.Validator;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Declarative description of a batch execution parsed from JSON. Every combination of the snippet
+ * projects, tools, timeouts and repetitions is a runner project, on which the tasks are executed
+ * in order. Example:
+ *
+ * <pre>
+ * {
+ *   "snippetProjects":["sette-snippets/java/sette-snippets"],
+ *   "tools":["EvoSuite", "Randoop"],
+ *   "timeoutsInSec":[15, 30],
+ *   "repetitions":10,
+ *   "tasks":["generator", "runner", "parser", "test-generator", "test-runner", "export-csv"],
+ *   "tagFormat":"run-%02d-%02dsec",
+ *   "arguments":["--backup", "SKIP", "--parallelism", "2"],
+ *   "cpuBudget":8,
+ *   "memoryBudgetInMb":16384,
+ *   "memoryPerJobInMb":2048
+ * }
+ * </pre>
+ *
+ * The <code>snippetProjects</code>, <code>tools</code> and <code>timeoutsInSec</code> fields are
+ * required, the others are optional.
+ */
+public final class BatchDescription {
+    private static final String NODE_SNIPPET_PROJECTS = "snippetProjects";
+    private static final String NODE_TOOLS = "tools";
+    private static final String NODE_TIMEOUTS_IN_SEC = "timeoutsInSec";
+    private static final String NODE_REPETITIONS = "repetitions";
+    private static final String NODE_TASKS = "tasks";
+    private static final String NODE_TAG_FORMAT = "tagFormat";
+    private static final String NODE_ARGUMENTS = "arguments";
+    private static final String NODE_CPU_BUDGET = "cpuBudget";
+    private static final String NODE_MEMORY_BUDGET_IN_MB = "memoryBudgetInMb";
+    private static final String NODE_MEMORY_PER_JOB_IN_MB = "memoryPerJobInMb";
+    private static final ImmutableSet<String> REQUIRED_FIELDS = ImmutableSet.of(
+            NODE_SNIPPET_PROJECTS, NODE_TOOLS, NODE_TIMEOUTS_IN_SEC);
+    private static final ImmutableSet<String> OPTIONAL_FIELDS = ImmutableSet.of(NODE_REPETITIONS,
+            NODE_TASKS, NODE_TAG_FORMAT, NODE_ARGUMENTS, NODE_CPU_BUDGET,
+            NODE_MEMORY_BUDGET_IN_MB, NODE_MEMORY_PER_JOB_IN_MB);
+
+    /** The default tasks (the whole evaluation of a runner project). */
+    public static final ImmutableList<ApplicationTask> DEFAULT_TASKS = ImmutableList.of(
+            ApplicationTask.GENERATOR, ApplicationTask.RUNNER, ApplicationTask.PARSER,
+            ApplicationTask.TEST_GENERATOR, ApplicationTask.TEST_RUNNER,
+            ApplicationTask.EXPORT_CSV);
+
+    /** The default format of the runner project tags (arguments: repetition, timeout in sec). */
+    public static final String DEFAULT_TAG_FORMAT = "run-%02d-%02dsec";
+
+    private transient final Validator<String> validator = Validator.of(getClass().getSimpleName());
+
+    /** The snippet project directories (relative to the base directory). */
+    @Getter
+    private final ImmutableList<String> snippetProjects;
+
+    /** The names of the tools. */
+    @Getter
+    private final ImmutableList<String> tools;
+
+    /** The timeouts of the tools in seconds. */
+    @Getter
+    private final ImmutableList<Integer> timeoutsInSec;
+
+    /** The number of repetitions for each snippet project, tool and timeout. */
+    @Getter
+    private final int repetitions;
+
+    /** The tasks to execute on each runner project in order. */
+    @Getter
+    private final ImmutableList<ApplicationTask> tasks;
+
+    /** The format of the runner project tags (arguments: repetition, timeout in sec). */
+    @Getter
+    private final String tagFormat;
+
+    /** Additional command-line arguments for every task (e.g. --backup SKIP). */
+    @Getter
+    private final ImmutableList<String> arguments;
+
+    /** The number of CPUs which can be used by the concurrently running tasks. */
+    @Getter
+    private final int cpuBudget;
+
+    /** The memory in MB which can be used by the concurrently running tasks (0: no limit). */
+    @Getter
+    private final int memoryBudgetInMb;
+
+    /** The memory in MB required by one task (per CPU for the runner and test-runner tasks). */
+    @Getter
+    private final int memoryPerJobInMb;
+
+    private BatchDescription(String json) throws IOException, ValidationException {
+        JsonNode rootNode = new ObjectMapper().readTree(json);
+
+        if (rootNode == null || !rootNode.isObject()) {
+            validator.addError("The JSON is not an object");
+            validator.validate();
+        }
+
+        Set<String> fieldNames = ImmutableSet.copyOf(rootNode.fieldNames());
+        Set<String> missingFields = Sets.difference(REQUIRED_FIELDS, fieldNames);
+        Set<String> unknownFields = Sets.difference(
+                Sets.difference(fieldNames, REQUIRED_FIELDS), OPTIONAL_FIELDS);
+        validator.addErrorIfFalse("Missing fields: " + missingFields, missingFields.isEmpty());
+        validator.addErrorIfFalse("Unknown fields: " + unknownFields, unknownFields.isEmpty());
+        validator.validate();
+
+        snippetProjects = parseStringArray(rootNode, NODE_SNIPPET_PROJECTS);
+        tools = parseStringArray(rootNode, NODE_TOOLS);
+
+        List<Integer> timeouts = new ArrayList<>();
+        JsonNode timeoutsNode = rootNode.get(NODE_TIMEOUTS_IN_SEC);
+        if (timeoutsNode.isArray()) {
+            for (JsonNode node : timeoutsNode) {
+                if (node.canConvertToInt() && node.asInt() > 0) {
+                    timeouts.add(node.asInt());
+                } else {
+                    validator.addError(NODE_TIMEOUTS_IN_SEC + ": must contain positive integers");
+                }
+            }
+        } else {
+            validator.addError(NODE_TIMEOUTS_IN_SEC + ": must be an array");
+        }
+        timeoutsInSec = ImmutableList.copyOf(timeouts);
+
+        repetitions = parseInt(rootNode, NODE_REPETITIONS, 1, 1);
+
+        if (rootNode.has(NODE_TASKS)) {
+            List<ApplicationTask> parsedTasks = new ArrayList<>();
+            for (String taskName : parseStringArray(rootNode, NODE_TASKS)) {
+                ApplicationTask task = parseTask(taskName);
+                if (task != null) {
+                    parsedTasks.add(task);
+                }
+            }
+            tasks = ImmutableList.copyOf(parsedTasks);
+        } else {
+            tasks = DEFAULT_TASKS;
+        }
+
+        if (rootNode.has(NODE_TAG_FORMAT)) {
+            JsonNode node = rootNode.get(NODE_TAG_FORMAT);
+            tagFormat = node.isTextual() ? node.asText() : "";
+            validator.addErrorIfTrue(NODE_TAG_FORMAT + ": must be a non-blank string",
+                    tagFormat.trim().isEmpty());
+        } else {
+            tagFormat = DEFAULT_TAG_FORMAT;
+        }
+
+        arguments = rootNode.has(NODE_ARGUMENTS) ? parseStringArray(rootNode, NODE_ARGUMENTS)
+                : ImmutableList.of();
+        cpuBudget = parseInt(rootNode, NODE_CPU_BUDGET, Runtime.getRuntime().availableProcessors(),
+                1);
+        memoryBudgetInMb = parseInt(rootNode, NODE_MEMORY_BUDGET_IN_MB, 0, 0);
+        memoryPerJobInMb = parseInt(rootNode, NODE_MEMORY_PER_JOB_IN_MB, 0, 0);
+
+        validator.addErrorIfTrue(NODE_SNIPPET_PROJECTS + ": must not be empty",
+                snippetProjects.isEmpty());
+        validator.addErrorIfTrue(NODE_TOOLS + ": must not be empty", tools.isEmpty());
+        validator.addErrorIfTrue(NODE_TIMEOUTS_IN_SEC + ": must not be empty",
+                timeoutsInSec.isEmpty());
+        validator.addErrorIfTrue(NODE_TASKS + ": must not be empty", tasks.isEmpty());
+        validator.validate();
+    }
+
+    private ApplicationTask parseTask(String taskName) {
+        for (ApplicationTask task : ApplicationTask.values()) {
+            if (task.toString().equals(taskName)) {
+                if (task.requiresSnippetProject() && task.requiresTool()
+                        && task.requiresRunnerProjectTag()) {
+                    return task;
+                } else {
+                    validator.addError(NODE_TASKS + ": not a runner project task: " + taskName);
+                    return null;
+                }
+            }
+        }
+
+        validator.addError(NODE_TASKS + ": unknown task: " + taskName);
+        return null;
+    }
+
+    private int parseInt(JsonNode parentNode, String fieldName, int defaultValue, int minValue) {
+        JsonNode node = parentNode.get(fieldName);
+        if (node == null) {
+            return defaultValue;
+        } else if (node.canConvertToInt() && node.asInt() >= minValue) {
+            return node.asInt();
+        } else {
+            validator.addError(fieldName + ": must be an integer (at least " + minValue + ")");
+            return defaultValue;
+        }
+    }
+
+    private ImmutableList<String> parseStringArray(JsonNode parentNode, String fieldName) {
+        JsonNode node = parentNode.get(fieldName);
+        if (node.isArray()) {
+            List<String> ret = new ArrayList<>(node.size());
+            for (JsonNode n : node) {
+                if (n.isTextual()) {
+                    ret.add(n.asText());
+                } else {
+                    validator.addError(fieldName + ": must contain only strings");
+                    return ImmutableList.of();
+                }
+            }
+            return ImmutableList.copyOf(ret);
+        } else {
+            validator.addError(fieldName + ": must be an array");
+            return ImmutableList.of();
+        }
+    }
+
+    /**
+     * Parses the batch description from a JSON string.
+     *
+     * @param json
+     *            the JSON string
+     * @return the parsed batch description
+     * @throws ValidationException
+     *             if the description is invalid
+     * @throws IOException
+     *             if the JSON has an invalid format
+     */
+    public static BatchDescription parse(@NonNull String json)
+            throws ValidationException, IOException {
+        return new BatchDescription(json);
+    }
+
+    /**
+     * Parses the batch description from a JSON file.
+     *
+     * @param jsonFile
+     *            the JSON file
+     * @return the parsed batch description
+     * @throws ValidationException
+     *             if the description is invalid
+     * @throws IOException
+     *             if an I/O error occurs or the JSON has an invalid format
+     */
+    public static BatchDescription parse(@NonNull Path jsonFile)
+            throws ValidationException, IOException {
+        return parse(new String(PathUtils.readAllBytes(jsonFile), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        return "BatchDescription [snippetProjects=" + snippetProjects + ", tools=" + tools
+                + ", timeoutsInSec=" + timeoutsInSec + ", repetitions=" + repetitions
+                + ", tasks=" + tasks + ", tagFormat=" + tagFormat + ", arguments=" + arguments
+                + ", cpuBudget=" + cpuBudget + ", memoryBudgetInMb=" + memoryBudgetInMb
+                + ", memoryPerJobInMb=" + memoryPerJobInMb + "]";
+    }
+}
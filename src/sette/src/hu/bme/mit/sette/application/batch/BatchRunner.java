@@ -0,0 +1,381 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application.batch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedReader;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import hu.bme.mit.sette.application.ApplicationTask;
+import hu.bme.mit.sette.application.ArgumentParser;
+import hu.bme.mit.sette.application.SetteApplication;
+import hu.bme.mit.sette.application.SetteApplicationMain;
+import hu.bme.mit.sette.application.batch.DagScheduler.Job;
+import hu.bme.mit.sette.application.batch.DagScheduler.JobState;
+import hu.bme.mit.sette.core.configuration.SetteConfiguration;
+import hu.bme.mit.sette.core.model.snippet.SnippetProjectCache;
+import hu.bme.mit.sette.core.store.ResultStore;
+import hu.bme.mit.sette.core.util.io.PathUtils;
+import hu.bme.mit.sette.core.util.process.ProcessSlotPool;
+import lombok.NonNull;
+
+/**
+ * Executes a batch (see {@link BatchDescription}) in the current JVM. Each task of each runner
+ * project is a job of a {@link DagScheduler}: the tasks of a runner project are executed in order,
+ * while the runner projects are processed concurrently within the CPU and memory budgets. The
+ * output of each job is written into a separate log file. An uncaught exception in a thread of a
+ * job only fails that job, the other jobs are finished. The tasks of a run (i.e. a project, tool
+ * and tag) share the parsed snippet project, while different runs do not share its classes (see
+ * {@link SnippetProjectCache#setScope(String)}). If the arguments contain a CPU set, it is
+ * partitioned between the runner jobs which may run at the same time (see
+ * {@link #partitionCpuSet()}).
+ */
+public final class BatchRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchRunner.class);
+
+    /** The name of the directory of the log files in the output directory. */
+    public static final String LOG_DIR_NAME = "sette-batch-logs";
+
+    private final BatchDescription description;
+    private final Path configurationFile;
+    private final PrintStream output;
+    private final PrintStream errorOutput;
+
+    /**
+     * Instantiates a new batch runner.
+     *
+     * @param description
+     *            the description of the batch
+     * @param configurationFile
+     *            the SETTE configuration file
+     * @param output
+     *            the stream for the progress
+     * @param errorOutput
+     *            the stream for the errors
+     */
+    public BatchRunner(@NonNull BatchDescription description, @NonNull Path configurationFile,
+            @NonNull PrintStream output, @NonNull PrintStream errorOutput) {
+        this.description = description;
+        this.configurationFile = configurationFile;
+        this.output = output;
+        this.errorOutput = errorOutput;
+    }
+
+    /**
+     * Executes the batch.
+     *
+     * @return <code>true</code> if all the tasks have succeeded, otherwise <code>false</code>
+     * @throws Exception
+     *             if the configuration cannot be parsed or the execution is interrupted
+     */
+    public boolean execute() throws Exception {
+        SetteConfiguration configuration = SetteConfiguration.parse(configurationFile);
+        Path logDir = configuration.getOutputDir().resolve(LOG_DIR_NAME);
+
+        DagScheduler scheduler = new DagScheduler(description.getCpuBudget(),
+                description.getMemoryBudgetInMb(), output);
+
+        // check all the arguments before starting the first job
+        boolean valid = true;
+        boolean useResultStore = false;
+        // opened after the check, but the jobs must be created with it
+        AtomicReference<ResultStore> resultStore = new AtomicReference<>();
+
+        // each running runner job takes a disjoint part of the CPU set and gives it back at the
+        // end (the CPU budget guarantees that there is always a free one)
+        List<String> cpuSets;
+        try {
+            cpuSets = partitionCpuSet();
+        } catch (IllegalArgumentException ex) {
+            errorOutput.println(ex.getMessage());
+            valid = false;
+            cpuSets = ImmutableList.of();
+        }
+        BlockingQueue<String> freeCpuSets = cpuSets.isEmpty() ? null
+                : new LinkedBlockingQueue<>(cpuSets);
+
+        for (String project : description.getSnippetProjects()) {
+            for (String tool : description.getTools()) {
+                for (int timeoutInSec : description.getTimeoutsInSec()) {
+                    for (int rep = 1; rep <= description.getRepetitions(); rep++) {
+                        String tag = String.format(description.getTagFormat(), rep, timeoutInSec);
+                        String runName = String.join("/",
+                                Paths.get(project).getFileName().toString(), tool, tag);
+                        Job previous = null;
+
+                        for (ApplicationTask task : description.getTasks()) {
+                            List<String> args = createArguments(project, tool, tag, timeoutInSec,
+                                    task);
+                            ArgumentParser argParser = new ArgumentParser(configuration,
+                                    errorOutput);
+                            if (!argParser.parse(args.toArray(new String[0]))) {
+                                errorOutput.println("Invalid arguments: " + args);
+                                valid = false;
+                            }
+                            useResultStore |= argParser.isResultStore();
+
+                            String name = runName + "/" + task;
+                            int cpus = getCpus(task);
+                            Path logFile = logDir
+                                    .resolve(name.replaceAll("[^A-Za-z0-9_.-]", "___") + ".log");
+
+                            BlockingQueue<String> jobCpuSets = task == ApplicationTask.RUNNER
+                                    ? freeCpuSets : null;
+
+                            Job job = scheduler.addJob(name, cpus,
+                                    description.getMemoryPerJobInMb() * cpus,
+                                    () -> executeTask(runName, args, logFile, resultStore.get(),
+                                            jobCpuSets),
+                                    previous == null ? new Job[0] : new Job[] { previous });
+                            previous = job;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!valid) {
+            return false;
+        }
+
+        PathUtils.createDir(logDir);
+        output.println(String.format("Batch: %d jobs, CPU budget: %d, memory budget: %d MB",
+                scheduler.getJobs().size(), description.getCpuBudget(),
+                description.getMemoryBudgetInMb()));
+        output.println("Log directory: " + logDir);
+        if (!cpuSets.isEmpty()) {
+            output.println("Runner CPU sets: " + String.join(" ", cpuSets));
+        }
+
+        // only one instance may be opened for the store file in the JVM, thus it is shared by
+        // the jobs
+        if (useResultStore) {
+            resultStore.set(new ResultStore(
+                    configuration.getOutputDir().resolve(ResultStore.DEFAULT_FILE_NAME)));
+        }
+
+        boolean succeeded;
+        try {
+            succeeded = scheduler.execute();
+        } finally {
+            if (resultStore.get() != null) {
+                resultStore.get().close();
+            }
+        }
+
+        for (Job job : scheduler.getJobs()) {
+            if (job.getState() != JobState.SUCCEEDED) {
+                errorOutput.println(String.format("%s: %s%s", job.getName(), job.getState(),
+                        job.getFailure() != null ? " (" + job.getFailure() + ")" : ""));
+            }
+        }
+        output.println(succeeded ? "Batch succeeded" : "Batch failed");
+        return succeeded;
+    }
+
+    /**
+     * Creates the command-line arguments of a task.
+     *
+     * @return the arguments
+     */
+    ImmutableList<String> createArguments(String project, String tool, String tag,
+            int timeoutInSec, ApplicationTask task) {
+        List<String> args = new ArrayList<>();
+        args.add("--snippet-project-dir");
+        args.add(project);
+        args.add("--tool");
+        args.add(tool);
+        args.add("--task");
+        args.add(task.toString());
+        args.add("--runner-project-tag");
+        args.add(tag);
+        args.add("--runner-timeout");
+        args.add(timeoutInSec + "s");
+        args.addAll(description.getArguments());
+        return ImmutableList.copyOf(args);
+    }
+
+    /**
+     * Gets the number of CPUs used by a task (the parallelism for the runner and test-runner
+     * tasks, otherwise 1).
+     *
+     * @return the number of CPUs
+     */
+    int getCpus(ApplicationTask task) {
+        if (task != ApplicationTask.RUNNER && task != ApplicationTask.TEST_RUNNER) {
+            return 1;
+        }
+
+        String parallelism = getArgumentValue("--parallelism");
+        if (parallelism != null) {
+            try {
+                return Math.max(1, Integer.parseInt(parallelism));
+            } catch (NumberFormatException ex) {
+                // reported by the argument parser
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Partitions the CPU set of the <code>--cpu-set</code> argument into disjoint CPU sets, one
+     * for each runner job which may run at the same time (i.e. the CPU budget divided by the CPUs
+     * of a runner job, but at most the number of the runner jobs). Otherwise the tool processes of
+     * the concurrent runner jobs would be bound to the same CPUs.
+     *
+     * @return the CPU sets in the format of <code>--cpu-set</code> (empty if there is no CPU set
+     *         or runner task)
+     * @throws IllegalArgumentException
+     *             if the CPU set is invalid or it has fewer CPUs than the number of the CPU sets
+     */
+    ImmutableList<String> partitionCpuSet() {
+        String cpuSet = getArgumentValue("--cpu-set");
+        if (cpuSet == null || !description.getTasks().contains(ApplicationTask.RUNNER)) {
+            return ImmutableList.of();
+        }
+
+        List<Integer> cpus = ProcessSlotPool.parseCpuList(cpuSet);
+        int runnerJobCount = description.getSnippetProjects().size()
+                * description.getTools().size() * description.getTimeoutsInSec().size()
+                * description.getRepetitions();
+        int count = Math.min(runnerJobCount,
+                Math.max(1, description.getCpuBudget() / getCpus(ApplicationTask.RUNNER)));
+        checkArgument(cpus.size() >= count,
+                "The CPU set %s has fewer CPUs than the number of the runner jobs which may run "
+                        + "at the same time (%s)",
+                cpuSet, count);
+
+        List<String> cpuSets = new ArrayList<>();
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            // the remaining CPUs are distributed between the first CPU sets
+            int to = from + cpus.size() / count + (i < cpus.size() % count ? 1 : 0);
+            cpuSets.add(cpus.subList(from, to).stream().map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+            from = to;
+        }
+        return ImmutableList.copyOf(cpuSets);
+    }
+
+    private String getArgumentValue(String option) {
+        List<String> args = description.getArguments();
+        int idx = args.indexOf(option);
+        return idx >= 0 && idx + 1 < args.size() ? args.get(idx + 1) : null;
+    }
+
+    private void executeTask(String runName, List<String> args, Path logFile,
+            ResultStore resultStore, BlockingQueue<String> freeCpuSets) throws Exception {
+        if (freeCpuSets == null) {
+            executeTask(runName, args, logFile, resultStore);
+            return;
+        }
+
+        String cpuSet = freeCpuSets.take();
+        try {
+            List<String> taskArgs = new ArrayList<>(args);
+            taskArgs.set(taskArgs.indexOf("--cpu-set") + 1, cpuSet);
+            executeTask(runName, taskArgs, logFile, resultStore);
+        } finally {
+            freeCpuSets.add(cpuSet);
+        }
+    }
+
+    private void executeTask(String runName, List<String> args, Path logFile,
+            ResultStore resultStore) throws Exception {
+        LOG.info("Executing {} (log: {})", args, logFile);
+
+        // the task runs in its own thread group which is inherited by the threads started by the
+        // task, thus an uncaught exception only fails this job instead of exiting the JVM
+        TaskThreadGroup threadGroup = new TaskThreadGroup(logFile.getFileName().toString());
+        MutableObject<Exception> taskException = new MutableObject<>();
+
+        Thread taskThread = new Thread(threadGroup, () -> {
+            // the tasks of a run share the parsed snippet project, but the runs do not share the
+            // loaded snippet classes (and their static state)
+            SnippetProjectCache.setScope(runName);
+            try (PrintStream log = new PrintStream(Files.newOutputStream(logFile), true,
+                    "UTF-8")) {
+                // no input: the tasks must not ask anything
+                BufferedReader input = new BufferedReader(new StringReader(""));
+                SetteApplication application = new SetteApplication(input, log, log,
+                        configurationFile);
+                application.setSharedResultStore(resultStore);
+                application.execute(args.toArray(new String[0]));
+            } catch (Exception ex) {
+                taskException.setValue(ex);
+            }
+        }, Thread.currentThread().getName() + "-task");
+
+        taskThread.start();
+        try {
+            taskThread.join();
+        } catch (InterruptedException ex) {
+            taskThread.interrupt();
+            throw ex;
+        }
+
+        if (taskException.getValue() != null) {
+            throw taskException.getValue();
+        } else if (threadGroup.failure != null) {
+            throw new RuntimeException("Uncaught exception in a thread of the task",
+                    threadGroup.failure);
+        }
+    }
+
+    /**
+     * Thread group of a task which records the first fatal uncaught exception of its threads (see
+     * {@link SetteApplicationMain#handleUncaughtException(Thread, Throwable)}) instead of passing
+     * it to the default handler (which exits the JVM).
+     */
+    private static final class TaskThreadGroup extends ThreadGroup {
+        private volatile Throwable failure = null;
+
+        private TaskThreadGroup(String name) {
+            super(name);
+        }
+
+        @Override
+        public void uncaughtException(Thread thread, Throwable ex) {
+            if (SetteApplicationMain.handleUncaughtException(thread, ex) && failure == null) {
+                failure = ex;
+            }
+        }
+    }
+}
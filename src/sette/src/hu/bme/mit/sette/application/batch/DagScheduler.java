@@ -0,0 +1,360 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application.batch;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Executes jobs with dependencies (a directed acyclic graph) concurrently. A job is started when
+ * all its dependencies have succeeded and its CPU and memory requirements fit into the remaining
+ * budgets (a job which requires more than the whole budget is started when no other job is
+ * running). The jobs depending on a failed job are skipped. The progress and the estimated
+ * remaining time are printed after each finished job.
+ */
+public final class DagScheduler {
+    private static final Logger LOG = LoggerFactory.getLogger(DagScheduler.class);
+
+    /** The number of CPUs which can be used by the running jobs. */
+    @Getter
+    private final int cpuBudget;
+
+    /** The memory in MB which can be used by the running jobs (0 means no limit). */
+    @Getter
+    private final int memoryBudgetInMb;
+
+    private final PrintStream progressOutput;
+    private final List<Job> jobs = new ArrayList<>();
+    private boolean executed = false;
+
+    /**
+     * Instantiates a new scheduler.
+     *
+     * @param cpuBudget
+     *            the number of CPUs which can be used by the running jobs (must be positive)
+     * @param memoryBudgetInMb
+     *            the memory in MB which can be used by the running jobs (0 means no limit)
+     * @param progressOutput
+     *            the stream to print the progress to
+     */
+    public DagScheduler(int cpuBudget, int memoryBudgetInMb, @NonNull PrintStream progressOutput) {
+        checkArgument(cpuBudget > 0, "The CPU budget must be positive");
+        checkArgument(memoryBudgetInMb >= 0, "The memory budget must not be negative");
+
+        this.cpuBudget = cpuBudget;
+        this.memoryBudgetInMb = memoryBudgetInMb;
+        this.progressOutput = progressOutput;
+    }
+
+    /**
+     * Adds a job. The dependencies must have been added previously, thus the graph is always
+     * acyclic.
+     *
+     * @param name
+     *            the name of the job
+     * @param cpus
+     *            the number of CPUs used by the job (must be positive)
+     * @param memoryInMb
+     *            the memory in MB used by the job (must not be negative)
+     * @param action
+     *            the action of the job, the job fails if it throws an exception
+     * @param dependencies
+     *            the jobs which must succeed before this job
+     * @return the job
+     */
+    public Job addJob(@NonNull String name, int cpus, int memoryInMb, @NonNull Action action,
+            @NonNull Job... dependencies) {
+        checkState(!executed, "The scheduler has been already executed");
+        checkArgument(cpus > 0, "The number of CPUs must be positive");
+        checkArgument(memoryInMb >= 0, "The memory must not be negative");
+        for (Job dependency : dependencies) {
+            checkArgument(dependency.scheduler == this, "Unknown dependency: %s", dependency);
+        }
+
+        Job job = new Job(this, name, cpus, memoryInMb, action, ImmutableList.copyOf(dependencies));
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Gets the jobs in the order they were added.
+     *
+     * @return the jobs
+     */
+    public ImmutableList<Job> getJobs() {
+        return ImmutableList.copyOf(jobs);
+    }
+
+    /**
+     * Executes the jobs and waits for them to finish. Can only be called once.
+     *
+     * @return <code>true</code> if all the jobs have succeeded, otherwise <code>false</code>
+     * @throws InterruptedException
+     *             if the thread is interrupted (the running jobs are interrupted too)
+     */
+    public boolean execute() throws InterruptedException {
+        checkState(!executed, "The scheduler has been already executed");
+        executed = true;
+
+        ExecutorService executor = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("dag-job-%d").build());
+        BlockingQueue<Job> finishedJobs = new LinkedBlockingQueue<>();
+
+        long startTime = System.currentTimeMillis();
+        int usedCpus = 0;
+        int usedMemoryInMb = 0;
+        int runningCount = 0;
+        int finishedCount = 0;
+        int executedCount = 0;
+        long executedDurationInMs = 0;
+        int maxRunningCount = 1;
+
+        try {
+            while (true) {
+                // start the jobs which are ready and fit into the budgets (in order)
+                for (Job job : jobs) {
+                    if (job.state != JobState.PENDING || !job.isReady()) {
+                        continue;
+                    }
+
+                    boolean fits = usedCpus + job.cpus <= cpuBudget && (memoryBudgetInMb == 0
+                            || usedMemoryInMb + job.memoryInMb <= memoryBudgetInMb);
+                    if (!fits && runningCount > 0) {
+                        continue;
+                    }
+
+                    job.state = JobState.RUNNING;
+                    usedCpus += job.cpus;
+                    usedMemoryInMb += job.memoryInMb;
+                    runningCount++;
+                    maxRunningCount = Math.max(maxRunningCount, runningCount);
+
+                    LOG.info("Starting job: {}", job.name);
+                    executor.execute(() -> {
+                        try {
+                            job.run();
+                        } finally {
+                            finishedJobs.add(job);
+                        }
+                    });
+                }
+
+                if (runningCount == 0) {
+                    break;
+                }
+
+                // wait for a job to finish
+                Job job = finishedJobs.take();
+                usedCpus -= job.cpus;
+                usedMemoryInMb -= job.memoryInMb;
+                runningCount--;
+                finishedCount++;
+                executedCount++;
+                executedDurationInMs += job.durationInMs;
+
+                int skippedCount = 0;
+                if (job.state == JobState.FAILED) {
+                    skippedCount = skipDependents(job);
+                    finishedCount += skippedCount;
+                }
+
+                long remainingCount = jobs.stream().filter(j -> j.state == JobState.PENDING)
+                        .count() + runningCount;
+                long averageDurationInMs = executedDurationInMs / executedCount;
+                long etaInMs = averageDurationInMs * remainingCount / maxRunningCount;
+
+                progressOutput.println(String.format(
+                        "[%d/%d] %s: %s in %s (skipped: %d, running: %d, elapsed: %s, ETA: %s)",
+                        finishedCount, jobs.size(), job.name, job.state,
+                        formatDuration(job.durationInMs), skippedCount, runningCount,
+                        formatDuration(System.currentTimeMillis() - startTime),
+                        formatDuration(etaInMs)));
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            throw ex;
+        } finally {
+            executor.shutdown();
+        }
+
+        return jobs.stream().allMatch(j -> j.state == JobState.SUCCEEDED);
+    }
+
+    /**
+     * Skips the pending jobs which (transitively) depend on the specified job.
+     *
+     * @return the number of the skipped jobs
+     */
+    private int skipDependents(Job failedJob) {
+        int count = 0;
+        Deque<Job> queue = new ArrayDeque<>();
+        queue.add(failedJob);
+
+        while (!queue.isEmpty()) {
+            Job job = queue.poll();
+            for (Job other : jobs) {
+                if (other.state == JobState.PENDING && other.dependencies.contains(job)) {
+                    other.state = JobState.SKIPPED;
+                    LOG.warn("Skipping job {} (dependency failed: {})", other.name, failedJob.name);
+                    queue.add(other);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    static String formatDuration(long timeInMs) {
+        long seconds = timeInMs / 1000;
+        return String.format("%d:%02d:%02d", seconds / 3600, (seconds / 60) % 60, seconds % 60);
+    }
+
+    /**
+     * The action of a job.
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * Performs the action.
+         *
+         * @throws Exception
+         *             if the action fails
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * The states of a job.
+     */
+    public enum JobState {
+        PENDING,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        SKIPPED;
+    }
+
+    /**
+     * A job of the scheduler.
+     */
+    public static final class Job {
+        private final DagScheduler scheduler;
+
+        /** The name of the job. */
+        @Getter
+        private final String name;
+
+        /** The number of CPUs used by the job. */
+        @Getter
+        private final int cpus;
+
+        /** The memory in MB used by the job. */
+        @Getter
+        private final int memoryInMb;
+
+        /** The jobs which must succeed before this job. */
+        @Getter
+        private final ImmutableList<Job> dependencies;
+
+        private final Action action;
+
+        // the fields are written by the worker thread before the job is put into the queue
+        private volatile JobState state = JobState.PENDING;
+        private volatile long durationInMs = 0;
+        private volatile Throwable failure = null;
+
+        private Job(DagScheduler scheduler, String name, int cpus, int memoryInMb, Action action,
+                ImmutableList<Job> dependencies) {
+            this.scheduler = scheduler;
+            this.name = name;
+            this.cpus = cpus;
+            this.memoryInMb = memoryInMb;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * @return the state of the job
+         */
+        public JobState getState() {
+            return state;
+        }
+
+        /**
+         * @return the execution time of the job in ms
+         */
+        public long getDurationInMs() {
+            return durationInMs;
+        }
+
+        /**
+         * @return the exception or error thrown by the action or <code>null</code>
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        private boolean isReady() {
+            return dependencies.stream().allMatch(d -> d.state == JobState.SUCCEEDED);
+        }
+
+        private void run() {
+            long start = System.currentTimeMillis();
+            try {
+                action.run();
+                state = JobState.SUCCEEDED;
+            } catch (Exception | Error ex) {
+                LOG.error("Job failed: " + name, ex);
+                failure = ex;
+                state = JobState.FAILED;
+            } finally {
+                durationInMs = System.currentTimeMillis() - start;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
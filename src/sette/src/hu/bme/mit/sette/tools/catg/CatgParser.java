@@ -25,14 +25,15 @@ package hu.bme.mit.sette.tools.catg;
 
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.mutable.MutableObject;
 
 import hu.bme.mit.sette.core.model.parserxml.InputElement;
 import hu.bme.mit.sette.core.model.parserxml.ParameterElement;
@@ -42,6 +43,7 @@ import hu.bme.mit.sette.core.model.runner.ResultType;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.RunResultParser;
+import hu.bme.mit.sette.core.util.io.LineScanner;
 
 public class CatgParser extends RunResultParser<CatgTool> {
     private static final Pattern EXCEPTION_LINE_PATTERN;
@@ -66,42 +68,29 @@ public class CatgParser extends RunResultParser<CatgTool> {
     @Override
     protected void parseSnippet(Snippet snippet, SnippetOutFiles outFiles,
             SnippetInputsXml inputsXml) throws Exception {
-        List<String> outputLines = outFiles.readOutputLines();
-        List<String> errorLines = outFiles.readErrorOutputLines();
+        // check whether there was any exception and get result possibilities according to them,
+        // the first line which is not an accepted warning is also recorded
+        Set<ResultType> resTypes = new HashSet<>();
+        MutableObject<String> unknownErrorLine = new MutableObject<>();
+        LineScanner.ScanResult errorScan = new LineScanner()
+                .onPrefix("Exception in thread \"main\"",
+                        line -> resTypes.add(getExceptionResultType(snippet, outFiles, line)))
+                .onLine(StringUtils::isBlank, line -> {
+                    // skip blank lines
+                })
+                .onLine(line -> Stream.of(ACCEPTED_ERROR_LINE_PATTERNS)
+                        .anyMatch(p -> p.matcher(line.trim()).matches()), line -> {
+                            // accepted warning
+                        })
+                .otherwise(line -> {
+                    if (unknownErrorLine.getValue() == null) {
+                        unknownErrorLine.setValue(line);
+                    }
+                })
+                .scan(outFiles.errorOutputFile);
 
-        if (!errorLines.isEmpty()) {
+        if (!errorScan.isEmpty()) {
             // error / warning from CATG
-
-            // check whether there was any exception and get result possibilities according to them
-            Set<ResultType> resTypes = errorLines.stream()
-                    .filter(line -> line.startsWith("Exception in thread \"main\"")).map(line -> {
-                        // exceptions
-                        Matcher m = EXCEPTION_LINE_PATTERN.matcher(line);
-
-                        if (!m.matches()) {
-                            System.err.println(snippet.getMethod());
-                            System.err.println("NO MATCH FOR LINE: " + line);
-                            throw new RuntimeException("SETTE parser problem");
-                        }
-
-                        String exceptionType = m.group(1);
-
-                        if (exceptionType.equals("java.lang.NoClassDefFoundError")) {
-                            return ResultType.NA;
-                        } else if (exceptionType.equals("java.lang.VerifyError")) {
-                            return ResultType.EX;
-                        } else if (exceptionType.endsWith("Exception")) {
-                            // enhance
-                            return ResultType.EX;
-                        } else {
-                            System.err.println(snippet.getMethod());
-                            System.err.println(outFiles.errorOutputFile);
-                            System.err.println("NOT HANDLED EXCEPTION TYPE: " + exceptionType);
-                            throw new RuntimeException("SETTE parser problem" + snippet.getId()
-                                    + " - " + getRunnerProjectSettings().getProjectName());
-                        }
-                    }).collect(Collectors.toSet());
-
             if (!resTypes.isEmpty()) {
                 // had exception line
                 if (resTypes.size() == 1) {
@@ -117,24 +106,17 @@ public class CatgParser extends RunResultParser<CatgTool> {
                         "java.io.OptionalDataException");
 
                 if (acceptIfFirstLineStartsWith.stream()
-                        .anyMatch(prefix -> errorLines.get(0).startsWith(prefix))) {
+                        .anyMatch(prefix -> errorScan.getFirstLine().startsWith(prefix))) {
                     // skip
-                } else {
-                    // no exception lines
-                    // check whether the other lines are accepted warnings
-                    for (String errorLine : errorLines) {
-                        if (StringUtils.isBlank(errorLine)) {
-                            // skip blank lines
-                        } else if (!Stream.of(ACCEPTED_ERROR_LINE_PATTERNS)
-                                .anyMatch(p -> p.matcher(errorLine.trim()).matches())) {
-                            System.err.println(
-                                    ACCEPTED_ERROR_LINE_PATTERNS[0].matcher(errorLine).matches());
-                            System.err.println(String.join("\n", errorLines));
-                            System.err.println("Unknown line: " + errorLine);
-                            throw new RuntimeException("SETTE parser problem: " + snippet.getId()
-                                    + " - " + getRunnerProjectSettings().getProjectName());
-                        }
-                    }
+                } else if (unknownErrorLine.getValue() != null) {
+                    // no exception lines, but not all of the other lines are accepted warnings
+                    String errorLine = unknownErrorLine.getValue();
+                    System.err.println(
+                            ACCEPTED_ERROR_LINE_PATTERNS[0].matcher(errorLine).matches());
+                    System.err.println(outFiles.readErrorOutputTail());
+                    System.err.println("Unknown line: " + errorLine);
+                    throw new RuntimeException("SETTE parser problem: " + snippet.getId() + " - "
+                            + getRunnerProjectSettings().getProjectName());
                 }
 
                 // all lines are accepted warnings
@@ -152,7 +134,8 @@ public class CatgParser extends RunResultParser<CatgTool> {
         // collect inputs if S
         if (inputsXml.getResultType() == ResultType.S
                 || inputsXml.getResultType() == ResultType.C) {
-            // collect inputs
+            // collect inputs (the whole output is needed to find the input blocks)
+            List<String> outputLines = outFiles.readOutputLines();
             if (!outputLines.get(0).startsWith("Now testing ")) {
                 throw new RuntimeException("File beginning problem: " + outFiles.outputFile);
             }
@@ -229,4 +212,33 @@ public class CatgParser extends RunResultParser<CatgTool> {
             }
         }
     }
+
+    private ResultType getExceptionResultType(Snippet snippet, SnippetOutFiles outFiles,
+            String line) {
+        // exceptions
+        Matcher m = EXCEPTION_LINE_PATTERN.matcher(line);
+
+        if (!m.matches()) {
+            System.err.println(snippet.getMethod());
+            System.err.println("NO MATCH FOR LINE: " + line);
+            throw new RuntimeException("SETTE parser problem");
+        }
+
+        String exceptionType = m.group(1);
+
+        if (exceptionType.equals("java.lang.NoClassDefFoundError")) {
+            return ResultType.NA;
+        } else if (exceptionType.equals("java.lang.VerifyError")) {
+            return ResultType.EX;
+        } else if (exceptionType.endsWith("Exception")) {
+            // enhance
+            return ResultType.EX;
+        } else {
+            System.err.println(snippet.getMethod());
+            System.err.println(outFiles.errorOutputFile);
+            System.err.println("NOT HANDLED EXCEPTION TYPE: " + exceptionType);
+            throw new RuntimeException("SETTE parser problem" + snippet.getId() + " - "
+                    + getRunnerProjectSettings().getProjectName());
+        }
+    }
 }
@@ -33,7 +33,6 @@ import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.AntExecutor;
 import hu.bme.mit.sette.core.tasks.RunnerProjectRunner;
-import hu.bme.mit.sette.core.util.process.ProcessUtils;
 import hu.bme.mit.sette.core.validator.PathType;
 import hu.bme.mit.sette.core.validator.PathValidator;
 import hu.bme.mit.sette.core.validator.ValidationException;
@@ -103,8 +102,7 @@ public final class CatgRunner extends RunnerProjectRunner<CatgTool> {
 
     @Override
     public void cleanUp() throws IOException, SetteException {
-        // TODO better search expression!
-        ProcessUtils.searchAndTerminateProcesses("Djanala.conf");
+        terminateToolProcesses();
         System.gc();
     }
 }
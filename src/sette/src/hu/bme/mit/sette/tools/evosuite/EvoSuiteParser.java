@@ -35,6 +35,7 @@ import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.mutable.MutableBoolean;
 
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ast.CompilationUnit;
@@ -54,9 +55,12 @@ import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.RunResultParser;
 import hu.bme.mit.sette.core.util.EscapeSpecialCharactersVisitor;
+import hu.bme.mit.sette.core.util.io.LineScanner;
 import hu.bme.mit.sette.core.util.io.PathUtils;
 
 public class EvoSuiteParser extends RunResultParser<EvoSuiteTool> {
+    private static final String COMPUTATION_FINISHED_LINE = "* Computation finished";
+
     public EvoSuiteParser(SnippetProject snippetProject, Path outputDir, EvoSuiteTool tool,
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
@@ -91,9 +95,13 @@ public class EvoSuiteParser extends RunResultParser<EvoSuiteTool> {
         // do not parse inputs
         inputsXml.setGeneratedInputs(null);
 
-        // out files
-        List<String> outputLines = outFiles.readOutputLines();
-        List<String> errorLines = outFiles.readErrorOutputLines();
+        // out files (the output is only scanned until the end of the computation is found)
+        MutableBoolean computationFinished = new MutableBoolean(false);
+        LineScanner.ScanResult outputScan = new LineScanner()
+                .onLine(line -> line.equals(COMPUTATION_FINISHED_LINE),
+                        line -> computationFinished.setTrue())
+                .stopWhen(computationFinished::booleanValue)
+                .scan(outFiles.outputFile);
 
         // test files
         File testDir = getRunnerProjectSettings().getTestDirectory();
@@ -111,15 +119,11 @@ public class EvoSuiteParser extends RunResultParser<EvoSuiteTool> {
         File testScaffoldingFile = new File(testDir, testFileBasePathEvo + "_scaffolding.java");
         File testCasesFile = new File(testDir, testFileBasePathNormal + ".java");
 
-        if (outputLines.isEmpty()) {
+        if (outputScan.isEmpty()) {
             throw new RuntimeException(
                     "EvoSuite did not write anything to SDTOUT for " + snippet.getId());
         } else if (PathUtils.exists(testScaffoldingFile.toPath())) {
             // generated some tests -> S (but set later)
-        } else if (errorLines.isEmpty()) {
-            throw new RuntimeException(
-                    "EvoSuite did not generate any error output nor test file for "
-                            + snippet.getId());
         } else {
             // parse error output
             List<String> skipLines = Arrays.asList(
@@ -143,40 +147,32 @@ public class EvoSuiteParser extends RunResultParser<EvoSuiteTool> {
             List<String> tmLines = Arrays.asList(
                     "java.lang.OutOfMemoryError: Java heap space");
 
-            for (String line : errorLines) {
-                if (inputsXml.getResultType() == null) {
-                    break;
-                } else if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                if (containsAny(line, failLines)) {
-                    System.out.println("==========================================");
-                    System.out.println(outFiles.errorOutputFile);
-                    System.out.println(line);
-                    System.out.println("==========================================");
-                    System.out.println(
-                            new String(PathUtils.readAllBytes(outFiles.errorOutputFile)));
-                    System.out.println("==========================================");
-                    System.out.println("==========================================");
-                    throw new RuntimeException("Problematic line: " + line);
-                } else if (containsAny(line, tmLines)) {
-                    inputsXml.setResultType(ResultType.TM);
-                } else if (containsAny(line, exLines)) {
-                    inputsXml.setResultType(ResultType.EX);
-                } else if (containsAny(line, skipLines)) {
-                    // skip
-                } else {
-                    System.out.println("==========================================");
-                    System.out.println(outFiles.errorOutputFile);
-                    System.out.println(line);
-                    System.out.println("==========================================");
-                    System.out.println(
-                            new String(PathUtils.readAllBytes(outFiles.errorOutputFile)));
-                    System.out.println("==========================================");
-                    System.out.println("==========================================");
-                    throw new RuntimeException("Problematic line: " + line);
-                }
+            // NOTE the rules are only applied while the result type is set (like in the former
+            // loop over the error lines)
+            LineScanner.ScanResult errorScan = new LineScanner()
+                    .stopWhen(() -> inputsXml.getResultType() == null)
+                    .onLine(line -> line.trim().isEmpty(), line -> {
+                        // skip
+                    })
+                    .onLine(line -> containsAny(line, failLines), line -> {
+                        throw createProblematicLineException(outFiles, line);
+                    })
+                    .onLine(line -> containsAny(line, tmLines),
+                            line -> inputsXml.setResultType(ResultType.TM))
+                    .onLine(line -> containsAny(line, exLines),
+                            line -> inputsXml.setResultType(ResultType.EX))
+                    .onLine(line -> containsAny(line, skipLines), line -> {
+                        // skip
+                    })
+                    .otherwise(line -> {
+                        throw createProblematicLineException(outFiles, line);
+                    })
+                    .scan(outFiles.errorOutputFile);
+
+            if (errorScan.isEmpty()) {
+                throw new RuntimeException(
+                        "EvoSuite did not generate any error output nor test file for "
+                                + snippet.getId());
             }
         }
 
@@ -237,9 +233,7 @@ public class EvoSuiteParser extends RunResultParser<EvoSuiteTool> {
 
         if (inputsXml.getResultType() == ResultType.S
                 || inputsXml.getResultType() == ResultType.C) {
-            boolean computationFinished = isComputationFinished(outputLines);
-
-            if (!computationFinished) {
+            if (computationFinished.isFalse()) {
                 throw new RuntimeException("Not finished: " + outFiles.outputFile.toString());
             }
 
@@ -438,12 +432,15 @@ public class EvoSuiteParser extends RunResultParser<EvoSuiteTool> {
         return search.stream().anyMatch(s -> line.contains(s));
     }
 
-    private static boolean isComputationFinished(List<String> outLines) {
-        for (int i = outLines.size() - 1; i >= 0; i--) {
-            if (outLines.contains("* Computation finished")) {
-                return true;
-            }
-        }
-        return false;
+    private static RuntimeException createProblematicLineException(SnippetOutFiles outFiles,
+            String line) throws IOException {
+        System.out.println("==========================================");
+        System.out.println(outFiles.errorOutputFile);
+        System.out.println(line);
+        System.out.println("==========================================");
+        System.out.println(outFiles.readErrorOutputTail());
+        System.out.println("==========================================");
+        System.out.println("==========================================");
+        return new RuntimeException("Problematic line: " + line);
     }
 }
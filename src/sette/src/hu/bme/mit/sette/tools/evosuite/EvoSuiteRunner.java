@@ -25,7 +25,9 @@ package hu.bme.mit.sette.tools.evosuite;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,8 +39,28 @@ import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.AntExecutor;
 import hu.bme.mit.sette.core.tasks.RunnerProjectRunner;
-
+import hu.bme.mit.sette.core.util.io.PathUtils;
+
+/**
+ * Runner for EvoSuite. Each EvoSuite process has its own working directory (see
+ * {@link #WORK_DIR_NAME}), since EvoSuite writes the tests and the report relative to it and the
+ * snippets may be run in parallel. After the process has finished, the tests are moved into the
+ * test directory of the runner project and the report rows are appended to the
+ * {@value #REPORT_DIR_NAME}/{@value #STATISTICS_FILE_NAME} file of the runner project.
+ */
 public final class EvoSuiteRunner extends RunnerProjectRunner<EvoSuiteTool> {
+    /** The name of the directory of the working directories in the runner project. */
+    public static final String WORK_DIR_NAME = "evosuite-work";
+
+    /** The name of the report directory of EvoSuite. */
+    public static final String REPORT_DIR_NAME = "evosuite-report";
+
+    /** The name of the statistics file in the report directory of EvoSuite. */
+    public static final String STATISTICS_FILE_NAME = "statistics.csv";
+
+    /** The lock of the merged report file. */
+    private final Object reportLock = new Object();
+
     public EvoSuiteRunner(SnippetProject snippetProject, Path outputDir, EvoSuiteTool tool,
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
@@ -72,8 +94,14 @@ public final class EvoSuiteRunner extends RunnerProjectRunner<EvoSuiteTool> {
 
         File evosuiteJar = getTool().getToolJar().toFile();
 
+        // each process has its own working directory, thus the paths have to be absolute
+        Path baseDir = getRunnerProjectSettings().getBaseDir().toPath().toAbsolutePath();
+        Path workDir = baseDir.resolve(WORK_DIR_NAME).resolve(getFilenameBase(snippet));
+        PathUtils.deleteIfExists(workDir);
+        PathUtils.createDir(workDir);
+
         // create command
-        String classpath = "build";
+        String classpath = baseDir.resolve("build").toString();
         for (Path lib : getSnippetProject().getJavaLibFiles()) {
             if (SystemUtils.IS_OS_WINDOWS) {
                 classpath += ";" + lib.toString();
@@ -112,7 +140,53 @@ public final class EvoSuiteRunner extends RunnerProjectRunner<EvoSuiteTool> {
         System.out.println("  command: " + StringUtils.join(cmd, ' '));
 
         // run process
-        executeToolProcess(cmd, infoFile, outputFile, errorFile);
+        executeToolProcess(cmd, workDir.toFile(), infoFile, outputFile, errorFile);
+
+        mergeResults(workDir, baseDir);
+        PathUtils.delete(workDir);
+    }
+
+    @Override
+    protected void afterRunAll() throws IOException {
+        PathUtils.deleteIfExists(
+                getRunnerProjectSettings().getBaseDir().toPath().resolve(WORK_DIR_NAME));
+    }
+
+    /**
+     * Merges the results of an EvoSuite process into the runner project: the generated tests are
+     * copied into the test directory and the rows of the report are appended to the report of the
+     * runner project (the header is only written once).
+     *
+     * @param workDir
+     *            the working directory of the process
+     * @param baseDir
+     *            the base directory of the runner project
+     * @throws IOException
+     *             if an I/O exception occurs
+     */
+    private void mergeResults(Path workDir, Path baseDir) throws IOException {
+        // the tests of the snippets have different names
+        Path testDir = workDir.resolve("test");
+        if (Files.isDirectory(testDir)) {
+            PathUtils.copy(testDir, getRunnerProjectSettings().getTestDirectory().toPath());
+        }
+
+        Path workStatisticsFile = workDir.resolve(REPORT_DIR_NAME).resolve(STATISTICS_FILE_NAME);
+        List<String> lines = PathUtils.readAllLinesOrEmpty(workStatisticsFile);
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        Path statisticsFile = baseDir.resolve(REPORT_DIR_NAME).resolve(STATISTICS_FILE_NAME);
+        synchronized (reportLock) {
+            if (Files.exists(statisticsFile)) {
+                // skip the header
+                Files.write(statisticsFile, lines.subList(1, lines.size()),
+                        StandardOpenOption.APPEND);
+            } else {
+                PathUtils.write(statisticsFile, lines);
+            }
+        }
     }
 
     @Override
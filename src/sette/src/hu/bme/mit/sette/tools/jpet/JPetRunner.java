@@ -37,7 +37,6 @@ import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.AntExecutor;
 import hu.bme.mit.sette.core.tasks.RunnerProjectRunner;
 import hu.bme.mit.sette.core.util.io.PathUtils;
-import hu.bme.mit.sette.core.util.process.ProcessUtils;
 
 public final class JPetRunner extends RunnerProjectRunner<JPetTool> {
 
@@ -143,8 +142,7 @@ public final class JPetRunner extends RunnerProjectRunner<JPetTool> {
 
     @Override
     public void cleanUp() throws IOException {
-        // TODO better search
-        ProcessUtils.searchAndTerminateProcesses("jpet/pet");
+        terminateToolProcesses();
         System.gc();
     }
 }
@@ -30,8 +30,10 @@ import java.nio.file.Path;
 import java.util.IntSummaryStatistics;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.Validate;
 
@@ -46,6 +48,7 @@ import hu.bme.mit.sette.core.model.runner.RunnerProjectUtils;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.RunResultParser;
+import hu.bme.mit.sette.core.util.io.LineScanner;
 import hu.bme.mit.sette.core.util.io.PathUtils;
 
 public class RandoopParser extends RunResultParser<RandoopTool> {
@@ -60,28 +63,38 @@ public class RandoopParser extends RunResultParser<RandoopTool> {
     @Override
     protected void parseSnippet(Snippet snippet, SnippetOutFiles outFiles,
             SnippetInputsXml inputsXml) throws Exception {
-        List<String> outputLines = outFiles.readOutputLines();
-        List<String> errorLines = outFiles.readErrorOutputLines();
+        // the output is only scanned for the number of generated tests
+        IntSummaryStatistics testCounts = new IntSummaryStatistics();
+        LineScanner.ScanResult outputScan = new LineScanner().otherwise(line -> {
+            Matcher m = TEST_COUNT_LINE_PATTERN.matcher(line.trim());
+            if (m.matches()) {
+                testCounts.accept(Integer.parseInt(m.group(1)));
+            }
+        }).scan(outFiles.outputFile);
+
+        // only the first line of the error output is used
+        LineScanner.ScanResult errorScan = new LineScanner().maxLines(1)
+                .scan(outFiles.errorOutputFile);
+
         File lookUpDir = new File(getRunnerProjectSettings().getBaseDir(),
                 "test/" + RunnerProjectUtils.getSnippetBaseFilename(snippet) + "_Test");
 
         // do not parse inputs
         inputsXml.setGeneratedInputs(null);
 
-        if (outputLines.isEmpty()) {
+        if (outputScan.isEmpty()) {
             // FIXME extremely odd
             throw new RuntimeException("output file empty: " + outFiles.outputFile);
         }
 
-        for (String infoLine : outFiles.readInfoLines()) {
-            if (infoLine.contains("Exit value: 1")) {
+        try (Stream<String> infoLines = outFiles.infoLines()) {
+            if (infoLines.anyMatch(line -> line.contains("Exit value: 1"))) {
                 inputsXml.setResultType(ResultType.EX);
-                break;
             }
         }
 
-        if (inputsXml.getResultType() == null && !lookUpDir.exists() && !errorLines.isEmpty()) {
-            String firstLine = errorLines.get(0);
+        if (inputsXml.getResultType() == null && !lookUpDir.exists() && !errorScan.isEmpty()) {
+            String firstLine = errorScan.getFirstLine();
 
             if (firstLine.startsWith("java.io.FileNotFoundException:")
                     && firstLine.endsWith("_Test/Test.java (No such file or directory)")) {
@@ -118,7 +131,7 @@ public class RandoopParser extends RunResultParser<RandoopTool> {
             }
 
             // get how many tests were generated
-            int generatedInputCount = getGeneratedInputCountFromOutputLines(outputLines);
+            int generatedInputCount = getGeneratedInputCount(testCounts, outFiles.outputFile);
 
             if (generatedInputCount >= 0) {
                 inputsXml.setGeneratedInputCount(generatedInputCount);
@@ -194,17 +207,11 @@ public class RandoopParser extends RunResultParser<RandoopTool> {
     /**
      * @return a number >= 0 if it is present in the output file, otherwise -1
      */
-    private static int getGeneratedInputCountFromOutputLines(List<String> outputLines) {
-        IntSummaryStatistics ints = outputLines.stream()
-                .map(line -> TEST_COUNT_LINE_PATTERN.matcher(line.trim()))
-                .filter(m -> m.matches())
-                .mapToInt(m -> Integer.parseInt(m.group(1)))
-                .summaryStatistics();
-
-        if (ints.getMin() < 0) {
-            throw new RuntimeException("RANDOOP: Number of tests is negative:" + outputLines);
-        } else if (ints.getCount() > 0) {
-            return (int) ints.getSum();
+    private static int getGeneratedInputCount(IntSummaryStatistics testCounts, Path outputFile) {
+        if (testCounts.getMin() < 0) {
+            throw new RuntimeException("RANDOOP: Number of tests is negative: " + outputFile);
+        } else if (testCounts.getCount() > 0) {
+            return (int) testCounts.getSum();
         } else {
             return -1;
         }
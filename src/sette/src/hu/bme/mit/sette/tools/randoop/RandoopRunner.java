@@ -47,7 +47,6 @@ import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.AntExecutor;
 import hu.bme.mit.sette.core.tasks.RunnerProjectRunner;
 import hu.bme.mit.sette.core.util.io.PathUtils;
-import hu.bme.mit.sette.core.util.process.ProcessUtils;
 
 public final class RandoopRunner extends RunnerProjectRunner<RandoopTool> {
     private final Random seedGenerator;
@@ -158,10 +157,7 @@ public final class RandoopRunner extends RunnerProjectRunner<RandoopTool> {
 
     @Override
     public void cleanUp() throws IOException {
-        if (!SystemUtils.IS_OS_WINDOWS) {
-            // TODO better search
-            ProcessUtils.searchAndTerminateProcesses("randoop.main.Main");
-        }
+        terminateToolProcesses();
         System.gc();
     }
 
@@ -25,14 +25,16 @@ package hu.bme.mit.sette.tools.spf;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.base.Strings;
 import com.google.common.primitives.Primitives;
 
 import hu.bme.mit.sette.core.model.parserxml.InputElement;
@@ -43,8 +45,12 @@ import hu.bme.mit.sette.core.model.runner.ResultType;
 import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.RunResultParser;
+import hu.bme.mit.sette.core.util.io.LineScanner;
 
 public class SpfParser extends RunResultParser<SpfTool> {
+    private static final String SECTION_SEPARATOR = Strings.repeat("=", 54);
+    private static final String METHOD_SUMMARIES_MARKER = SECTION_SEPARATOR + " Method Summaries";
+
     public SpfParser(SnippetProject snippetProject, Path outputDir, SpfTool tool,
             String runnerProjectTag) {
         super(snippetProject, outputDir, tool, runnerProjectTag);
@@ -53,52 +59,48 @@ public class SpfParser extends RunResultParser<SpfTool> {
     @Override
     protected void parseSnippet(Snippet snippet, SnippetOutFiles outFiles,
             SnippetInputsXml inputsXml) throws Exception {
-        List<String> outputLines = outFiles.readOutputLines();
-        List<String> errorLines = outFiles.readErrorOutputLines();
-
-        if (!errorLines.isEmpty()) {
-            // TODO make this section simple and clear
-            String firstLine = errorLines.get(0);
-
-            if (firstLine
-                    .startsWith("java.lang.RuntimeException: ## Error: Operation not supported!")) {
-                inputsXml.setResultType(ResultType.NA);
-            } else if (firstLine.startsWith("java.lang.NullPointerException")) {
-                inputsXml.setResultType(ResultType.EX);
-            } else if (firstLine.startsWith(
-                    "java.lang.RuntimeException: ## Error: symbolic log10 not implemented")) {
-                inputsXml.setResultType(ResultType.NA);
-            } else if (firstLine.startsWith("***********Warning: everything false")) {
-                // TODO enhance
-                // now skip
-            } else if (firstLine.startsWith(
-                    "java.lang.RuntimeException: ERROR: you need to turn debug option on")) {
-                // TODO JPF/SPF compilation differences between javac and ecj:
-                // https://groups.google.com/forum/#!topic/java-pathfinder/jhOkvLx-SKE
-                // now just accept
-
-                // constant() and always() exception snippets (void return value and no parameters
-                // -> useless methods)
-            } else if (firstLine
-                    .startsWith("java.lang.RuntimeException: Arrays: symbolic index not handled")) {
-                inputsXml.setResultType(ResultType.NA);
-            } else {
-                // TODO error handling
-
-                // this is debug (only if unhandled error)
-                System.err.println("=============================");
-                System.err.println(snippet.getMethod());
-                System.err.println("== ERROR OUTPUT =============");
-
-                for (String line : errorLines) {
-                    System.err.println(line);
-                }
-                System.err.println("=============================");
+        // TODO make this section simple and clear
+        // only the first line of the error output determines the result
+        new LineScanner()
+                .onPrefix("java.lang.RuntimeException: ## Error: Operation not supported!",
+                        line -> inputsXml.setResultType(ResultType.NA))
+                .onPrefix("java.lang.NullPointerException",
+                        line -> inputsXml.setResultType(ResultType.EX))
+                .onPrefix("java.lang.RuntimeException: ## Error: symbolic log10 not implemented",
+                        line -> inputsXml.setResultType(ResultType.NA))
+                .onPrefix("***********Warning: everything false", line -> {
+                    // TODO enhance
+                    // now skip
+                })
+                .onPrefix("java.lang.RuntimeException: ERROR: you need to turn debug option on",
+                        line -> {
+                            // TODO JPF/SPF compilation differences between javac and ecj:
+                            // https://groups.google.com/forum/#!topic/java-pathfinder/jhOkvLx-SKE
+                            // now just accept
+
+                            // constant() and always() exception snippets (void return value and
+                            // no parameters -> useless methods)
+                        })
+                .onPrefix("java.lang.RuntimeException: Arrays: symbolic index not handled",
+                        line -> inputsXml.setResultType(ResultType.NA))
+                .otherwise(line -> {
+                    // TODO error handling
+
+                    // this is debug (only if unhandled error)
+                    System.err.println("=============================");
+                    System.err.println(snippet.getMethod());
+                    System.err.println("== ERROR OUTPUT =============");
+
+                    try (Stream<String> errorLines = outFiles.errorOutputLines()) {
+                        errorLines.forEach(System.err::println);
+                    }
+                    System.err.println("=============================");
 
-                // TODO error handling
-                throw new RuntimeException("PARSER PROBLEM, UNHANDLED ERROR");
-            }
-        }
+                    // TODO error handling
+                    throw new RuntimeException("PARSER PROBLEM, UNHANDLED ERROR");
+                })
+                .maxLines(1)
+                .scan(outFiles.errorOutputFile);
 
         if (inputsXml.getResultType() == null) {
             // TODO enhance
@@ -117,32 +119,7 @@ public class SpfParser extends RunResultParser<SpfTool> {
             // // no inputs for constant tests, just call them once
             // inputsXml.getGeneratedInputs().add(new InputElement());
             // } else {
-            Iterator<String> lines = outputLines.iterator();
-
-            // find input lines
-
-            List<String> inputLines = new ArrayList<>();
-            boolean shouldCollect = false;
-            while (lines.hasNext()) {
-                String line = lines.next();
-                if (line.trim().equals(
-                        "====================================================== Method Summaries")) {
-                    shouldCollect = true;
-                } else if (shouldCollect) {
-                    if (line.startsWith("======================================================")) {
-                        // start of next section
-                        shouldCollect = false;
-                        break;
-                    } else {
-                        if (!StringUtils.isBlank(line)) {
-                            inputLines.add(line.trim());
-                        }
-                    }
-                }
-            }
-
-            // remove duplicates
-            inputLines = new ArrayList<>(new LinkedHashSet<>(inputLines));
+            List<String> inputLines = readInputLines(outFiles.outputFile);
 
             if (!inputLines.isEmpty()) {
                 String firstLine = inputLines.get(0);
@@ -336,4 +313,29 @@ public class SpfParser extends RunResultParser<SpfTool> {
             inputsXml.validate();
         }
     }
+
+    /**
+     * Reads the input lines from the "Method Summaries" section of the output of SPF (duplicates
+     * and blank lines are removed). The section ends at the start of the next section, while the
+     * repeated "Method Summaries" headers are skipped.
+     *
+     * @param outputFile
+     *            the output file
+     * @return the trimmed input lines in order
+     * @throws Exception
+     *             if an I/O error occurs
+     */
+    static List<String> readInputLines(Path outputFile) throws Exception {
+        Set<String> inputLineSet = new LinkedHashSet<>();
+        new LineScanner()
+                .section(line -> line.trim().equals(METHOD_SUMMARIES_MARKER),
+                        line -> line.startsWith(SECTION_SEPARATOR),
+                        line -> {
+                            if (!StringUtils.isBlank(line)) {
+                                inputLineSet.add(line.trim());
+                            }
+                        })
+                .scan(outputFile);
+        return new ArrayList<>(inputLineSet);
+    }
 }
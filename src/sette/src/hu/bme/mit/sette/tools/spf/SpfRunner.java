@@ -33,7 +33,6 @@ import hu.bme.mit.sette.core.model.snippet.Snippet;
 import hu.bme.mit.sette.core.model.snippet.SnippetProject;
 import hu.bme.mit.sette.core.tasks.AntExecutor;
 import hu.bme.mit.sette.core.tasks.RunnerProjectRunner;
-import hu.bme.mit.sette.core.util.process.ProcessUtils;
 
 public final class SpfRunner extends RunnerProjectRunner<SpfTool> {
     public SpfRunner(SnippetProject snippetProject, Path outputDir, SpfTool tool,
@@ -91,8 +90,7 @@ public final class SpfRunner extends RunnerProjectRunner<SpfTool> {
 
     @Override
     public void cleanUp() throws IOException {
-        // TODO better search expression!
-        ProcessUtils.searchAndTerminateProcesses("RunJPF.jar");
+        terminateToolProcesses();
         System.gc();
     }
 }
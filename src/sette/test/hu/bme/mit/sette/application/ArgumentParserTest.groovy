@@ -100,6 +100,13 @@ class ArgumentParserTest {
             assert backupPolicy == BackupPolicy.ASK
             assert runnerProjectTag == null
             assert runnerTimeoutInMs == 30000
+            assert runnerParallelism == 1
+            assert runnerCpuSet == null
+            assert runnerMemoryLimitInMb == 0
+            assert agentPoolSize == 1
+            assert !incremental
+            assert !resultStore
+            assert !metrics
             assert snippetProjectDir == null
             assert applicationTask == null
             assert toolConfiguration == null
@@ -116,10 +123,43 @@ class ArgumentParserTest {
             List<String> actualLines = errorOutput.lines*.trim()
             List<String> expectedLines = '''
 Usage:
+ --agent-pool-size [N]                  : Number of warm agent JVMs used by the
+                                          test-runner for forked test cases
+                                          (default: 1)
  --backup [ASK | CREATE | SKIP]         : Set the backup policy for runner
                                           projects (used when the runner
                                           project already exists before
                                           generation) (default: ASK)
+ --cpu-set [CPUS]                       : CPUs (e.g. 0-3,8) partitioned between
+                                          the concurrently running tool
+                                          processes (Linux only)
+ --incremental                          : Keep the previous outputs and skip
+                                          the snippets whose inputs have not
+                                          changed since their outputs were
+                                          created (runner, parser,
+                                          test-generator and test-runner tasks)
+ --memory-limit [MB]                    : Memory limit in MB for each tool
+                                          process, 0 means no limit (Linux
+                                          only, requires systemd) (default: 0)
+ --metrics                              : Measure the phases and snippets of
+                                          the generator, runner, parser,
+                                          test-generator, test-runner and
+                                          export-csv tasks and append the
+                                          timeline to the sette-metrics.csv and
+                                          sette-metrics.jsonl files of the
+                                          runner project
+ --parallelism [N]                      : Number of snippets processed
+                                          concurrently by the runner, parser,
+                                          test-generator and test-runner tasks
+                                          (limited by the maximum parallelism
+                                          of the tool for the runner) (default:
+                                          1)
+ --result-store                         : Also store the results of the parser
+                                          and test-runner tasks in the embedded
+                                          result store of the output directory
+                                          and read them from there in the
+                                          export-csv, export-csv-batch and
+                                          export-xml tasks
  --runner-project-tag [TAG]             : The tag of the desired runner project
  --runner-timeout [ 30000ms | 30s ]     : Timeout for execution of a tool on
                                           one snippet - if missing, then the
@@ -160,11 +200,21 @@ ser]
             assert parse('--backup', 'skip', '--runner-project-tag', 'my tag',
             '--runner-timeout', '5000ms', '--snippet-project-dir', '../snippet-project',
             '--task', 'test-runner', '--tool', 'spf',
-            '--snippet-selector', 'pat{2}ern') : errorOutput.lines
+            '--snippet-selector', 'pat{2}ern', '--parallelism', '8',
+            '--cpu-set', '0-3,8', '--memory-limit', '2048',
+            '--agent-pool-size', '4', '--incremental', '--result-store',
+            '--metrics') : errorOutput.lines
 
             assert backupPolicy == BackupPolicy.SKIP
             assert runnerProjectTag == 'my tag'
             assert runnerTimeoutInMs == 5000
+            assert runnerParallelism == 8
+            assert runnerCpuSet == '0-3,8'
+            assert runnerMemoryLimitInMb == 2048
+            assert agentPoolSize == 4
+            assert incremental
+            assert resultStore
+            assert metrics
             assert snippetProjectDir == '../snippet-project'
             assert applicationTask == ApplicationTask.TEST_RUNNER
             assert toolConfiguration.name == 'SPF'
@@ -0,0 +1,109 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application.batch
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.application.ApplicationTask
+import hu.bme.mit.sette.core.validator.ValidationException
+
+/**
+ * Tests for {@link BatchDescription}.
+ */
+@TypeChecked
+class BatchDescriptionTest {
+    @Test
+    void testParseMinimal() {
+        BatchDescription desc = BatchDescription.parse('''
+{
+  "snippetProjects":["sette-snippets/java/sette-snippets"],
+  "tools":["EvoSuite"],
+  "timeoutsInSec":[30]
+}
+''')
+
+        assert desc.snippetProjects == ['sette-snippets/java/sette-snippets']
+        assert desc.tools == ['EvoSuite']
+        assert desc.timeoutsInSec == [30]
+        assert desc.repetitions == 1
+        assert desc.tasks == BatchDescription.DEFAULT_TASKS
+        assert desc.tagFormat == BatchDescription.DEFAULT_TAG_FORMAT
+        assert desc.arguments.isEmpty()
+        assert desc.cpuBudget == Runtime.runtime.availableProcessors()
+        assert desc.memoryBudgetInMb == 0
+        assert desc.memoryPerJobInMb == 0
+    }
+
+    @Test
+    void testParseFull() {
+        BatchDescription desc = BatchDescription.parse('''
+{
+  "snippetProjects":["a", "b"],
+  "tools":["EvoSuite", "Randoop"],
+  "timeoutsInSec":[15, 30],
+  "repetitions":10,
+  "tasks":["generator", "runner"],
+  "tagFormat":"r%d-%d",
+  "arguments":["--backup", "SKIP"],
+  "cpuBudget":8,
+  "memoryBudgetInMb":16384,
+  "memoryPerJobInMb":2048
+}
+''')
+
+        assert desc.snippetProjects == ['a', 'b']
+        assert desc.tools == ['EvoSuite', 'Randoop']
+        assert desc.timeoutsInSec == [15, 30]
+        assert desc.repetitions == 10
+        assert desc.tasks == [ApplicationTask.GENERATOR, ApplicationTask.RUNNER]
+        assert desc.tagFormat == 'r%d-%d'
+        assert desc.arguments == ['--backup', 'SKIP']
+        assert desc.cpuBudget == 8
+        assert desc.memoryBudgetInMb == 16384
+        assert desc.memoryPerJobInMb == 2048
+    }
+
+    @Test(expected = ValidationException)
+    void testMissingField() {
+        BatchDescription.parse('{"snippetProjects":["a"], "tools":["EvoSuite"]}')
+    }
+
+    @Test(expected = ValidationException)
+    void testUnknownField() {
+        BatchDescription.parse(
+                '{"snippetProjects":["a"], "tools":["t"], "timeoutsInSec":[1], "x":1}')
+    }
+
+    @Test(expected = ValidationException)
+    void testInvalidTask() {
+        BatchDescription.parse(
+                '{"snippetProjects":["a"], "tools":["t"], "timeoutsInSec":[1], '
+                + '"tasks":["snippet-browser"]}')
+    }
+
+    @Test(expected = ValidationException)
+    void testInvalidTimeout() {
+        BatchDescription.parse('{"snippetProjects":["a"], "tools":["t"], "timeoutsInSec":[0]}')
+    }
+}
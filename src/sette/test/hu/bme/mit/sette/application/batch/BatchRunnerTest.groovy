@@ -0,0 +1,80 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application.batch
+
+import java.nio.file.Paths
+
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link BatchRunner}.
+ */
+@TypeChecked
+class BatchRunnerTest {
+    @Test
+    void testPartitionCpuSet() {
+        // 8 / 4 = 2 runner jobs at the same time
+        assert createRunner(8, '["--parallelism", "4", "--cpu-set", "0-4"]')
+                .partitionCpuSet() == ['0,1,2', '3,4']
+    }
+
+    @Test
+    void testPartitionCpuSetLimitedByRunnerJobs() {
+        // only 2 runner jobs (2 tools)
+        assert createRunner(16, '["--cpu-set", "0-3,8-11"]')
+                .partitionCpuSet() == ['0,1,2,3', '8,9,10,11']
+    }
+
+    @Test
+    void testPartitionCpuSetSingleRunnerJob() {
+        // a runner job requires more than the whole budget
+        assert createRunner(2, '["--parallelism", "4", "--cpu-set", "4-7"]')
+                .partitionCpuSet() == ['4,5,6,7']
+    }
+
+    @Test
+    void testPartitionCpuSetWithoutCpuSet() {
+        assert createRunner(8, '["--parallelism", "2"]').partitionCpuSet().isEmpty()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testPartitionCpuSetTooFewCpus() {
+        createRunner(8, '["--cpu-set", "0"]').partitionCpuSet()
+    }
+
+    private static BatchRunner createRunner(int cpuBudget, String arguments) {
+        BatchDescription desc = BatchDescription.parse("""
+{
+  "snippetProjects":["a"],
+  "tools":["EvoSuite", "Randoop"],
+  "timeoutsInSec":[30],
+  "tasks":["runner"],
+  "arguments":${arguments},
+  "cpuBudget":${cpuBudget}
+}
+""")
+        return new BatchRunner(desc, Paths.get('sette.config.json'), System.out, System.err)
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.application.batch
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.Before
+import org.junit.Test
+
+import groovy.transform.TypeChecked
+import hu.bme.mit.sette.TestPrintStream
+import hu.bme.mit.sette.application.batch.DagScheduler.Job
+import hu.bme.mit.sette.application.batch.DagScheduler.JobState
+
+/**
+ * Tests for {@link DagScheduler}.
+ */
+@TypeChecked
+class DagSchedulerTest {
+    TestPrintStream output
+
+    @Before
+    void setUp() {
+        output = new TestPrintStream()
+    }
+
+    @Test(expected = IllegalArgumentException)
+    void testInvalidCpuBudget() {
+        new DagScheduler(0, 0, output)
+    }
+
+    @Test
+    void testDependenciesAreRespected() {
+        DagScheduler scheduler = new DagScheduler(4, 0, output)
+        List<String> executed = Collections.synchronizedList([])
+
+        Job a = scheduler.addJob('a', 1, 0, { executed.add('a') } as DagScheduler.Action)
+        Job b = scheduler.addJob('b', 1, 0, { executed.add('b') } as DagScheduler.Action, a)
+        scheduler.addJob('c', 1, 0, { executed.add('c') } as DagScheduler.Action, b)
+
+        assert scheduler.execute()
+        assert executed == ['a', 'b', 'c']
+        assert scheduler.jobs.every { Job job -> job.state == JobState.SUCCEEDED }
+        assert output.lines.size() == 3
+    }
+
+    @Test
+    void testDependentsOfFailedJobAreSkipped() {
+        DagScheduler scheduler = new DagScheduler(2, 0, output)
+
+        Job a = scheduler.addJob('a', 1, 0,
+                { throw new IOException('test') } as DagScheduler.Action)
+        Job b = scheduler.addJob('b', 1, 0, {} as DagScheduler.Action, a)
+        Job c = scheduler.addJob('c', 1, 0, {} as DagScheduler.Action, b)
+        Job d = scheduler.addJob('d', 1, 0, {} as DagScheduler.Action)
+
+        assert !scheduler.execute()
+        assert a.state == JobState.FAILED
+        assert a.failure instanceof IOException
+        assert b.state == JobState.SKIPPED
+        assert c.state == JobState.SKIPPED
+        assert d.state == JobState.SUCCEEDED
+    }
+
+    @Test
+    void testCpuBudgetIsRespected() {
+        DagScheduler scheduler = new DagScheduler(2, 0, output)
+        AtomicInteger running = new AtomicInteger()
+        AtomicInteger maxRunning = new AtomicInteger()
+
+        DagScheduler.Action action = {
+            int current = running.incrementAndGet()
+            maxRunning.accumulateAndGet(current, { int x, int y -> Math.max(x, y) })
+            Thread.sleep(50)
+            running.decrementAndGet()
+        } as DagScheduler.Action
+
+        6.times { int i -> scheduler.addJob("job-$i".toString(), 1, 0, action) }
+
+        assert scheduler.execute()
+        assert maxRunning.get() == 2
+    }
+
+    @Test
+    void testJobLargerThanBudgetRunsAlone() {
+        DagScheduler scheduler = new DagScheduler(2, 1000, output)
+        scheduler.addJob('large', 4, 2000, {} as DagScheduler.Action)
+
+        assert scheduler.execute()
+    }
+
+    @Test
+    void testFormatDuration() {
+        assert DagScheduler.formatDuration(3723000) == '1:02:03'
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * SETTE - Symbolic Execution based Test Tool Evaluator
+ *
+ * SETTE is a tool to help the evaluation and comparison of symbolic execution based test input 
+ * generator tools.
+ *
+ * Budapest University of Technology and Economics (BME)
+ *
+ * Authors: Lajos Cseppentő <lajos.cseppento@inf.mit.bme.hu>, Zoltán Micskei <micskeiz@mit.bme.hu>
+ *
+ * Copyright 2014-2016
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except 
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the 
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the License for the specific language governing permissions and 
+ * limitations under the License.
+ */
+package hu.bme.mit.sette.tools.spf
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import groovy.transform.TypeChecked
+
+/**
+ * Tests for {@link SpfParser}.
+ */
+@TypeChecked
+class SpfParserTest {
+    static final String SEPARATOR = '=' * 54
+
+    @Rule
+    public TemporaryFolder tmpDir = new TemporaryFolder()
+
+    @Test
+    void testReadInputLines() {
+        Path file = createFile('JavaPathfinder v7.0',
+                SEPARATOR + ' Method Summaries',
+                'Inputs: x_1_SYMINT',
+                '',
+                'pkg.C.m(1)  --> Return Value: 1',
+                'pkg.C.m(1)  --> Return Value: 1',
+                SEPARATOR + ' Method Summaries (HTML)',
+                'pkg.C.m(2)  --> Return Value: 2')
+
+        assert SpfParser.readInputLines(file) ==
+                ['Inputs: x_1_SYMINT', 'pkg.C.m(1)  --> Return Value: 1']
+    }
+
+    @Test
+    void testReadInputLinesSkipsRepeatedSummaryHeader() {
+        Path file = createFile(SEPARATOR + ' Method Summaries',
+                'Inputs: x_1_SYMINT',
+                'pkg.C.m(1)  --> Return Value: 1',
+                SEPARATOR + ' Method Summaries',
+                'Inputs: x_1_SYMINT',
+                'pkg.C.m(2)  --> Return Value: 2',
+                '  ' + SEPARATOR + ' Method Summaries  ',
+                'pkg.C.m(3)  --> Return Value: 3',
+                SEPARATOR + ' Method Summaries (HTML)')
+
+        assert SpfParser.readInputLines(file) == ['Inputs: x_1_SYMINT',
+            'pkg.C.m(1)  --> Return Value: 1',
+            'pkg.C.m(2)  --> Return Value: 2',
+            'pkg.C.m(3)  --> Return Value: 3']
+    }
+
+    @Test
+    void testReadInputLinesWithoutSummary() {
+        Path file = createFile('JavaPathfinder v7.0', 'no errors detected')
+
+        assert SpfParser.readInputLines(file).empty
+    }
+
+    private Path createFile(String... lines) {
+        Path file = tmpDir.newFile().toPath()
+        Files.write(file, lines.toList())
+        return file
+    }
+}